@@ -86,6 +86,9 @@ public class TestJkookPlugin extends BasePlugin {
                         "/kbctest run - 运行所有测试\n" +
                         "/kbctest run <模块名> - 运行指定模块测试\n" +
                         "/kbctest list - 列出所有测试模块\n" +
+                        "/kbctest record <start|stop> - 录制网关事件轨迹\n" +
+                        "/kbctest handlers [reset] - 查看或清零事件处理器耗时统计\n" +
+                        "/kbctest mock <start|stop> - 启动或停止本地 KOOK 模拟服务器\n" +
                         "/kbctest help - 显示帮助信息"
                 )
                 .setExecutor((sender, args, message) -> {
@@ -117,11 +120,46 @@ public class TestJkookPlugin extends BasePlugin {
                             testManager.listModules();
                             break;
 
+                        case "record":
+                            if (args.length < 2) {
+                                getLogger().info("用法: /kbctest record <start|stop>");
+                            } else if ("start".equalsIgnoreCase((String) args[1])) {
+                                testManager.startRecording();
+                            } else if ("stop".equalsIgnoreCase((String) args[1])) {
+                                testManager.stopRecording();
+                            } else {
+                                getLogger().warn("未知的录制操作: {}", args[1]);
+                            }
+                            break;
+
+                        case "handlers":
+                            if (args.length >= 2 && "reset".equalsIgnoreCase((String) args[1])) {
+                                testManager.resetHandlerStats();
+                            } else {
+                                testManager.printHandlerReport();
+                            }
+                            break;
+
+                        case "mock":
+                            if (args.length < 2) {
+                                getLogger().info("用法: /kbctest mock <start|stop>");
+                            } else if ("start".equalsIgnoreCase((String) args[1])) {
+                                testManager.startMockServer();
+                            } else if ("stop".equalsIgnoreCase((String) args[1])) {
+                                testManager.stopMockServer();
+                            } else {
+                                getLogger().warn("未知的模拟服务器操作: {}", args[1]);
+                            }
+                            break;
+
                         case "help":
                             getLogger().info("=== KookBC 测试插件帮助 ===");
                             getLogger().info("/kbctest run - 运行所有测试");
                             getLogger().info("/kbctest run <模块> - 运行指定测试");
                             getLogger().info("/kbctest list - 列出测试模块");
+                            getLogger().info("/kbctest record <start|stop> - 录制事件轨迹");
+                            getLogger().info("/kbctest handlers [reset] - 处理器耗时统计");
+                            getLogger().info("/kbctest mock <start|stop> - 本地模拟服务器");
                             getLogger().info("/kbctest help - 显示此帮助");
                             break;
 
@@ -0,0 +1,274 @@
+package me.realseek.card;
+
+import java.util.*;
+
+/**
+ * 预编译的卡片消息模板
+ * <p>
+ * 模板源是 KOOK 卡片消息的 JSON，其中可以出现 {@code {{名称}}} 或 {@code {{名称:类型}}} 形式的占位符。
+ * 编译时把 JSON 切分为不可变的静态片段和占位符槽位，渲染时只需按顺序拼接片段并写入转义后的值，
+ * 不再构建 CardBuilder 对象树，也不再序列化。
+ * <p>
+ * 占位符类型：
+ * <ul>
+ *     <li>{@code text}（默认）- 字符串，写入时按 JSON 规则转义；位于 JSON 字符串外时自动加引号</li>
+ *     <li>{@code int} - 整数（Integer/Long/Short/Byte）</li>
+ *     <li>{@code number} - 任意数字</li>
+ *     <li>{@code bool} - 布尔值</li>
+ * </ul>
+ * 实例不可变，可在多线程间共享。
+ */
+public final class CardTemplate {
+    private final String source;
+    private final String[] segments;
+    private final int[] slotNames;
+    private final PlaceholderType[] slotTypes;
+    private final boolean[] slotQuoted;
+    private final List<String> placeholderNames;
+    private final int staticLength;
+
+    private CardTemplate(String source, String[] segments, int[] slotNames, PlaceholderType[] slotTypes,
+                         boolean[] slotQuoted, List<String> placeholderNames) {
+        this.source = source;
+        this.segments = segments;
+        this.slotNames = slotNames;
+        this.slotTypes = slotTypes;
+        this.slotQuoted = slotQuoted;
+        this.placeholderNames = Collections.unmodifiableList(placeholderNames);
+        int length = 0;
+        for (String segment : segments) {
+            length += segment.length();
+        }
+        this.staticLength = length;
+    }
+
+    /**
+     * 编译模板
+     *
+     * @param source 带占位符的卡片 JSON
+     * @throws IllegalArgumentException 占位符未闭合、名称为空、类型未知，或同名占位符类型不一致
+     */
+    public static CardTemplate compile(String source) {
+        List<String> segments = new ArrayList<>();
+        List<Integer> slotNames = new ArrayList<>();
+        List<PlaceholderType> slotTypes = new ArrayList<>();
+        List<Boolean> slotQuoted = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        Map<String, PlaceholderType> declaredTypes = new HashMap<>();
+
+        StringBuilder segment = new StringBuilder();
+        boolean inString = false;
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '{' && i + 1 < source.length() && source.charAt(i + 1) == '{') {
+                int end = source.indexOf("}}", i + 2);
+                if (end < 0) {
+                    throw new IllegalArgumentException("占位符未闭合，位置 " + i);
+                }
+                String declaration = source.substring(i + 2, end).trim();
+                int colon = declaration.indexOf(':');
+                String name = (colon < 0 ? declaration : declaration.substring(0, colon)).trim();
+                PlaceholderType type = colon < 0 ? PlaceholderType.TEXT : PlaceholderType.parse(declaration.substring(colon + 1).trim());
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException("占位符名称不能为空，位置 " + i);
+                }
+                PlaceholderType previous = declaredTypes.putIfAbsent(name, type);
+                if (previous != null && previous != type) {
+                    throw new IllegalArgumentException("占位符 " + name + " 的类型不一致: " + previous + " / " + type);
+                }
+
+                int nameIndex = names.indexOf(name);
+                if (nameIndex < 0) {
+                    nameIndex = names.size();
+                    names.add(name);
+                }
+                segments.add(segment.toString());
+                segment.setLength(0);
+                slotNames.add(nameIndex);
+                slotTypes.add(type);
+                slotQuoted.add(!inString && type == PlaceholderType.TEXT);
+                i = end + 2;
+                continue;
+            }
+
+            if (inString && c == '\\' && i + 1 < source.length()) {
+                segment.append(c).append(source.charAt(i + 1));
+                i += 2;
+                continue;
+            }
+            if (c == '"') {
+                inString = !inString;
+            }
+            segment.append(c);
+            i++;
+        }
+        segments.add(segment.toString());
+
+        boolean[] quoted = new boolean[slotQuoted.size()];
+        for (int s = 0; s < quoted.length; s++) {
+            quoted[s] = slotQuoted.get(s);
+        }
+        return new CardTemplate(source,
+                segments.toArray(new String[0]),
+                slotNames.stream().mapToInt(Integer::intValue).toArray(),
+                slotTypes.toArray(new PlaceholderType[0]),
+                quoted,
+                names);
+    }
+
+    /**
+     * 按名称渲染模板
+     *
+     * @throws IllegalArgumentException 缺少占位符的值或值类型不匹配
+     */
+    public String render(Map<String, ?> values) {
+        Object[] ordered = new Object[placeholderNames.size()];
+        for (int n = 0; n < ordered.length; n++) {
+            String name = placeholderNames.get(n);
+            ordered[n] = values.get(name);
+            if (ordered[n] == null && !values.containsKey(name)) {
+                throw new IllegalArgumentException("缺少占位符的值: " + name);
+            }
+        }
+        return render(ordered);
+    }
+
+    /**
+     * 按 {@link #getPlaceholderNames()} 的顺序渲染模板，省去按名称查找的开销
+     *
+     * @throws IllegalArgumentException 值的数量或类型不匹配
+     */
+    public String render(Object... values) {
+        if (values.length != placeholderNames.size()) {
+            throw new IllegalArgumentException("需要 " + placeholderNames.size() + " 个值，实际为 " + values.length);
+        }
+        StringBuilder out = new StringBuilder(staticLength + slotNames.length * 16);
+        out.append(segments[0]);
+        for (int s = 0; s < slotNames.length; s++) {
+            int nameIndex = slotNames[s];
+            appendValue(out, placeholderNames.get(nameIndex), slotTypes[s], slotQuoted[s], values[nameIndex]);
+            out.append(segments[s + 1]);
+        }
+        return out.toString();
+    }
+
+    private static void appendValue(StringBuilder out, String name, PlaceholderType type, boolean quoted, Object value) {
+        switch (type) {
+            case INT:
+                if (!(value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)) {
+                    throw mismatch(name, type, value);
+                }
+                out.append(((Number) value).longValue());
+                break;
+            case NUMBER:
+                // NaN 与无穷大不是合法的 JSON 数字
+                if (!(value instanceof Number) || !Double.isFinite(((Number) value).doubleValue())) {
+                    throw mismatch(name, type, value);
+                }
+                out.append(value);
+                break;
+            case BOOL:
+                if (!(value instanceof Boolean)) {
+                    throw mismatch(name, type, value);
+                }
+                out.append(((Boolean) value).booleanValue());
+                break;
+            default:
+                if (value == null) {
+                    throw mismatch(name, type, null);
+                }
+                if (quoted) {
+                    out.append('"');
+                }
+                escape(out, value.toString());
+                if (quoted) {
+                    out.append('"');
+                }
+                break;
+        }
+    }
+
+    private static IllegalArgumentException mismatch(String name, PlaceholderType type, Object value) {
+        return new IllegalArgumentException("占位符 " + name + " 需要 " + type + " 类型的值，实际为 "
+                + (value == null ? "null" : value instanceof Number ? value.getClass().getSimpleName() + " " + value
+                : value.getClass().getSimpleName()));
+    }
+
+    /**
+     * 按 JSON 字符串规则转义
+     */
+    static void escape(StringBuilder out, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * 模板源 JSON
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * 去重后的占位符名称，按首次出现的顺序排列
+     */
+    public List<String> getPlaceholderNames() {
+        return placeholderNames;
+    }
+
+    /**
+     * 占位符槽位数量（同名占位符出现多次时重复计数）
+     */
+    public int getSlotCount() {
+        return slotNames.length;
+    }
+
+    /**
+     * 占位符类型
+     */
+    public enum PlaceholderType {
+        TEXT, INT, NUMBER, BOOL;
+
+        static PlaceholderType parse(String name) {
+            switch (name.toLowerCase(Locale.ROOT)) {
+                case "":
+                case "text":
+                    return TEXT;
+                case "int":
+                    return INT;
+                case "number":
+                    return NUMBER;
+                case "bool":
+                    return BOOL;
+                default:
+                    throw new IllegalArgumentException("未知的占位符类型: " + name);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package me.realseek.card;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 有界 LRU 卡片模板缓存
+ * 以模板键（通常是模板名称或模板源本身）缓存编译结果，超出容量时淘汰最久未使用的模板
+ */
+public class CardTemplateCache {
+    private final int maxSize;
+    private final LinkedHashMap<String, CardTemplate> templates;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public CardTemplateCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("缓存容量必须大于 0");
+        }
+        this.maxSize = maxSize;
+        this.templates = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CardTemplate> eldest) {
+                if (size() > CardTemplateCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 获取以模板源为键的编译结果，未命中时编译并缓存
+     */
+    public CardTemplate get(String source) {
+        return get(source, key -> source);
+    }
+
+    /**
+     * 获取指定键的编译结果，未命中时通过 sourceLoader 加载模板源并编译
+     * 编译在锁外进行，并发未命中同一个键时可能重复编译，但只会缓存一份
+     */
+    public CardTemplate get(String key, Function<String, String> sourceLoader) {
+        synchronized (this) {
+            CardTemplate cached = templates.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        CardTemplate compiled = CardTemplate.compile(sourceLoader.apply(key));
+        synchronized (this) {
+            CardTemplate existing = templates.putIfAbsent(key, compiled);
+            return existing != null ? existing : compiled;
+        }
+    }
+
+    /**
+     * 移除指定键的模板（模板源更新后调用）
+     */
+    public synchronized void invalidate(String key) {
+        templates.remove(key);
+    }
+
+    public synchronized void clear() {
+        templates.clear();
+    }
+
+    public synchronized int size() {
+        return templates.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        long total = hits + misses;
+        return String.format("size=%d/%d, 命中 %d, 未命中 %d (命中率 %.1f%%), 淘汰 %d",
+                templates.size(), maxSize, hits, misses, total > 0 ? hits * 100.0 / total : 0, evictions);
+    }
+}
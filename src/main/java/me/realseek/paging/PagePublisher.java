@@ -0,0 +1,149 @@
+package me.realseek.paging;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 把分页数据按元素发布的 {@link Flow.Publisher}，遵循订阅者的背压
+ * <p>
+ * 只有订阅者还有未满足的需求且当前页已发完时才请求下一页，因此内存中最多只有一页数据，
+ * 订阅者处理得慢时分页请求也随之放慢。每次订阅都会通过 pages 创建新的分页迭代器，从第一页开始。
+ * 元素在 executor 上按顺序投递，同一订阅的 onNext 不会并发调用。
+ * 没有需求时不会调用分页迭代器的 hasNext，因此最后一页恰好被请求完时，onComplete 在下一次 request 时发出。
+ */
+public class PagePublisher<T> implements Flow.Publisher<T> {
+    private final Supplier<? extends Iterator<? extends Collection<? extends T>>> pages;
+    private final Executor executor;
+
+    /**
+     * @param pages    每次订阅时创建分页迭代器，如 {@code guild::getUsers}
+     * @param executor 拉取分页与投递元素的线程
+     */
+    public PagePublisher(Supplier<? extends Iterator<? extends Collection<? extends T>>> pages, Executor executor) {
+        this.pages = pages;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        PageSubscription<T> subscription = new PageSubscription<>(subscriber, pages, executor);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private static final class PageSubscription<T> implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Supplier<? extends Iterator<? extends Collection<? extends T>>> pageSupplier;
+        private final Executor executor;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        // 以下字段只在投递循环中访问，wip 保证同一时刻只有一个线程执行投递循环
+        private Iterator<? extends Collection<? extends T>> pages;
+        private Iterator<? extends T> current;
+        private boolean done;
+
+        PageSubscription(Flow.Subscriber<? super T> subscriber,
+                         Supplier<? extends Iterator<? extends Collection<? extends T>>> pageSupplier,
+                         Executor executor) {
+            this.subscriber = subscriber;
+            this.pageSupplier = pageSupplier;
+            this.executor = executor;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // 规范 3.9：非正数请求以 onError 结束订阅
+                invalidRequest = new IllegalArgumentException("request 必须为正数: " + n);
+            } else {
+                requested.getAndUpdate(r -> r + n < 0 ? Long.MAX_VALUE : r + n);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            while (true) {
+                if (done || cancelled) {
+                    return;
+                }
+                if (invalidRequest != null) {
+                    finish(invalidRequest);
+                    return;
+                }
+                long limit = requested.get();
+                long emitted = 0;
+                try {
+                    while (emitted != limit && !cancelled) {
+                        if (pages == null) {
+                            pages = pageSupplier.get();
+                        }
+                        if (current == null || !current.hasNext()) {
+                            current = null;
+                            if (!pages.hasNext()) {
+                                finish(null);
+                                return;
+                            }
+                            current = pages.next().iterator();
+                            continue;
+                        }
+                        subscriber.onNext(current.next());
+                        emitted++;
+                    }
+                    // 当前页发完且没有后续页时立即结束，不必等下一次 request；
+                    // JKook 的分页迭代器在 hasNext 中就会请求下一页，所以只在仍有需求时检查
+                    if (!cancelled && requested.get() - emitted > 0
+                            && (current == null || !current.hasNext()) && pages != null && !pages.hasNext()) {
+                        finish(null);
+                        return;
+                    }
+                } catch (RuntimeException e) {
+                    finish(e);
+                    return;
+                }
+                if (emitted != 0 && limit != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void finish(Throwable error) {
+            done = true;
+            current = null;
+            pages = null;
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            if (error == null) {
+                subscriber.onComplete();
+            } else {
+                subscriber.onError(error);
+            }
+        }
+    }
+}
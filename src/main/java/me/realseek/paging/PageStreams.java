@@ -0,0 +1,63 @@
+package me.realseek.paging;
+
+import snw.jkook.entity.Guild;
+import snw.jkook.entity.User;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 分页数据的流式访问
+ * <p>
+ * 按元素逐个交给调用方，只在当前页用完时才请求下一页，处理过的页可以被回收，
+ * 扫描十万级成员的服务器时内存占用与服务器规模无关。
+ */
+public final class PageStreams {
+    private PageStreams() {
+    }
+
+    /**
+     * 把分页迭代器展开为顺序流。流是惰性的：limit/findFirst 等短路操作只会请求需要的页
+     */
+    public static <T> Stream<T> stream(Iterator<? extends Collection<? extends T>> pages) {
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private Iterator<? extends T> current;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                while (current == null || !current.hasNext()) {
+                    if (!pages.hasNext()) {
+                        current = null;
+                        return false;
+                    }
+                    current = pages.next().iterator();
+                }
+                action.accept(current.next());
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * 服务器成员的顺序流，基于 {@link Guild#getUsers()}
+     */
+    public static Stream<User> members(Guild guild) {
+        return stream(guild.getUsers());
+    }
+
+    /**
+     * 服务器成员的发布者，按订阅者的 request 拉取分页
+     */
+    public static Flow.Publisher<User> memberPublisher(Guild guild, Executor executor) {
+        return new PagePublisher<>(guild::getUsers, executor);
+    }
+}
@@ -0,0 +1,148 @@
+package me.realseek.paging;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * 预取下一页的分页迭代器
+ * <p>
+ * 包装 JKook 的 PageIterator（或任意按页返回的迭代器）：调用方拿到第 n 页后，
+ * 后台立即请求第 n+1 页，处理当前页和网络请求同时进行。同一时刻最多只有一个请求在途，
+ * 底层迭代器始终只被一个线程顺序调用，内存中最多同时持有两页。
+ * 底层迭代器抛出的异常会在对应页的 {@link #next()} 中原样抛出，之后迭代结束。
+ * <p>
+ * 不是线程安全的，和普通迭代器一样只应由一个线程使用；提前放弃遍历时调用 {@link #close()}。
+ */
+public class PrefetchingPageIterator<E> implements Iterator<E>, AutoCloseable {
+    private static final Executor VIRTUAL_THREADS = task -> Thread.ofVirtual().name("page-prefetch").start(task);
+
+    private final Iterator<E> source;
+    private final Executor executor;
+    private CompletableFuture<Page<E>> pending;
+    private boolean finished;
+    private int pagesFetched;
+
+    /**
+     * 使用虚拟线程预取
+     */
+    public PrefetchingPageIterator(Iterator<E> source) {
+        this(source, VIRTUAL_THREADS);
+    }
+
+    /**
+     * @param source   底层分页迭代器
+     * @param executor 执行预取请求的线程
+     */
+    public PrefetchingPageIterator(Iterator<E> source, Executor executor) {
+        this.source = source;
+        this.executor = executor;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (finished) {
+            return false;
+        }
+        if (pending == null) {
+            pending = fetch();
+        }
+        Page<E> page = await(pending);
+        if (page.end) {
+            finished = true;
+            pending = null;
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public E next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Page<E> page = await(pending);
+        if (page.error != null) {
+            finished = true;
+            pending = null;
+            throw page.error;
+        }
+        pagesFetched++;
+        // 交出当前页之前先发起下一页的请求
+        pending = fetch();
+        return page.value;
+    }
+
+    /**
+     * 已交给调用方的页数
+     */
+    public int getPagesFetched() {
+        return pagesFetched;
+    }
+
+    /**
+     * 放弃后续页。已发出的请求无法撤回，但结果会被丢弃
+     */
+    @Override
+    public void close() {
+        finished = true;
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    private CompletableFuture<Page<E>> fetch() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return source.hasNext() ? Page.of(source.next()) : Page.end();
+            } catch (RuntimeException e) {
+                return Page.failed(e);
+            }
+        }, executor);
+    }
+
+    private static <E> Page<E> await(CompletableFuture<Page<E>> future) {
+        try {
+            return future.join();
+        } catch (CancellationException e) {
+            return Page.end();
+        } catch (CompletionException e) {
+            // fetch 已捕获运行时异常，这里只会是 Error
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 一次预取的结果：一页数据、结束标记或异常
+     */
+    private static final class Page<E> {
+        final E value;
+        final boolean end;
+        final RuntimeException error;
+
+        private Page(E value, boolean end, RuntimeException error) {
+            this.value = value;
+            this.end = end;
+            this.error = error;
+        }
+
+        static <E> Page<E> of(E value) {
+            return new Page<>(value, false, null);
+        }
+
+        static <E> Page<E> end() {
+            return new Page<>(null, true, null);
+        }
+
+        static <E> Page<E> failed(RuntimeException error) {
+            return new Page<>(null, false, error);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package me.realseek.permission;
+
+import snw.jkook.Permission;
+import snw.jkook.entity.Role;
+import snw.jkook.event.EventHandler;
+import snw.jkook.event.Listener;
+import snw.jkook.event.role.RoleCreateEvent;
+import snw.jkook.event.role.RoleDeleteEvent;
+import snw.jkook.event.role.RoleInfoUpdateEvent;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 服务器成员有效权限缓存
+ * <p>
+ * 按服务器 → 用户缓存成员的有效权限位掩码，由全体成员角色（ID 0）与成员各角色的掩码按位或得到，
+ * 拥有管理员权限时展开为全部权限。每个服务器的角色掩码表只加载一次，之后由角色事件增量维护：
+ * 角色创建、删除和权限变更时更新掩码表，并只移除持有该角色的成员条目（全体成员角色变更时清空该服务器）。
+ * <p>
+ * 未命中时从 {@link PermissionSource} 加载。加载前记录服务器的代数，写入后代数发生变化则撤回自己的条目，
+ * 保证与角色事件并发时不会留下按旧角色表计算的结果。成员自身角色的增减不在角色事件中，
+ * 需要调用 {@link #invalidateMember} 失效。
+ */
+public class EffectivePermissionCache implements Listener {
+    private static final int[] NO_ROLES = new int[0];
+
+    private final PermissionSource source;
+    private final Map<String, GuildState> guilds = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder sourceCalls = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder staleDiscards = new LongAdder();
+
+    public EffectivePermissionCache(PermissionSource source) {
+        this.source = source;
+    }
+
+    /**
+     * 获取成员的有效权限位掩码
+     */
+    public long getEffectiveMask(String guildId, String userId) {
+        GuildState state = guilds.computeIfAbsent(guildId, id -> new GuildState());
+        MemberEntry cached = state.members.get(userId);
+        if (cached != null) {
+            hits.increment();
+            return cached.mask;
+        }
+        misses.increment();
+
+        long generation = state.generation.get();
+        Map<Integer, Long> roleMasks = loadRoleMasks(guildId, state, generation);
+        sourceCalls.increment();
+        int[] roleIds = toSortedArray(source.getMemberRoles(guildId, userId));
+
+        long mask = roleMasks.getOrDefault(0, 0L);
+        for (int roleId : roleIds) {
+            mask |= roleMasks.getOrDefault(roleId, 0L);
+        }
+        MemberEntry entry = new MemberEntry(PermissionEvaluator.normalize(mask), roleIds);
+
+        state.members.put(userId, entry);
+        if (state.generation.get() != generation) {
+            // 加载期间角色发生了变化，结果可能基于旧的角色表，不保留
+            state.members.remove(userId, entry);
+            staleDiscards.increment();
+        }
+        return entry.mask;
+    }
+
+    /**
+     * 成员是否拥有指定权限
+     */
+    public boolean hasPermission(String guildId, String userId, Permission permission) {
+        return (getEffectiveMask(guildId, userId) & permission.getValue()) != 0;
+    }
+
+    /**
+     * 成员是否拥有位掩码中的全部权限
+     *
+     * @param requiredMask {@link PermissionEvaluator#mask} 计算出的位掩码
+     */
+    public boolean hasAll(String guildId, String userId, long requiredMask) {
+        return (getEffectiveMask(guildId, userId) & requiredMask) == requiredMask;
+    }
+
+    private Map<Integer, Long> loadRoleMasks(String guildId, GuildState state, long generation) {
+        Map<Integer, Long> roleMasks = state.roleMasks;
+        if (roleMasks != null) {
+            return roleMasks;
+        }
+        sourceCalls.increment();
+        Map<Integer, Long> loaded = Collections.unmodifiableMap(new HashMap<>(source.getRoleMasks(guildId)));
+        synchronized (state) {
+            // 加载期间有角色事件时丢弃，由下一次查询重新加载
+            if (state.roleMasks == null && state.generation.get() == generation) {
+                state.roleMasks = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    // ====== 角色事件 ======
+
+    @EventHandler
+    public void onRoleCreate(RoleCreateEvent event) {
+        Role role = event.getRole();
+        onRoleChanged(role.getGuild().getId(), role.getId(), PermissionEvaluator.mask(role));
+    }
+
+    @EventHandler
+    public void onRoleDelete(RoleDeleteEvent event) {
+        Role role = event.getRole();
+        onRoleChanged(role.getGuild().getId(), role.getId(), null);
+    }
+
+    @EventHandler
+    public void onRoleInfoUpdate(RoleInfoUpdateEvent event) {
+        Role role = event.getRole();
+        onRoleChanged(role.getGuild().getId(), role.getId(), PermissionEvaluator.mask(role));
+    }
+
+    /**
+     * 角色创建、变更或删除后更新角色掩码表，并失效持有该角色的成员
+     *
+     * @param mask 角色新的权限位掩码，角色被删除时为 null
+     */
+    public void onRoleChanged(String guildId, int roleId, Long mask) {
+        GuildState state = guilds.get(guildId);
+        if (state == null) {
+            return;
+        }
+        // 先更新角色表再推进代数，最后清理成员：
+        // 读到旧角色表的加载者要么在复查代数时发现变化，要么其条目已写入并在下面被清理
+        synchronized (state) {
+            Map<Integer, Long> roleMasks = state.roleMasks;
+            if (roleMasks != null) {
+                Map<Integer, Long> updated = new HashMap<>(roleMasks);
+                if (mask == null) {
+                    updated.remove(roleId);
+                } else {
+                    updated.put(roleId, mask);
+                }
+                state.roleMasks = Collections.unmodifiableMap(updated);
+            }
+            state.generation.incrementAndGet();
+        }
+
+        if (roleId == 0) {
+            invalidations.add(state.members.size());
+            state.members.clear();
+            return;
+        }
+        Iterator<MemberEntry> iterator = state.members.values().iterator();
+        while (iterator.hasNext()) {
+            if (Arrays.binarySearch(iterator.next().roleIds, roleId) >= 0) {
+                iterator.remove();
+                invalidations.increment();
+            }
+        }
+    }
+
+    /**
+     * 成员角色增减后失效该成员
+     */
+    public void invalidateMember(String guildId, String userId) {
+        GuildState state = guilds.get(guildId);
+        if (state != null) {
+            state.generation.incrementAndGet();
+            if (state.members.remove(userId) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    /**
+     * 失效整个服务器（包括角色掩码表）
+     */
+    public void invalidateGuild(String guildId) {
+        GuildState state = guilds.remove(guildId);
+        if (state != null) {
+            state.generation.incrementAndGet();
+            invalidations.add(state.members.size());
+        }
+    }
+
+    public void clear() {
+        for (String guildId : new ArrayList<>(guilds.keySet())) {
+            invalidateGuild(guildId);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (GuildState state : guilds.values()) {
+            size += state.members.size();
+        }
+        return size;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 调用 {@link PermissionSource} 的次数（角色表加载与成员角色查询）
+     */
+    public long getSourceCalls() {
+        return sourceCalls.sum();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    /**
+     * 加载期间遇到角色事件而被撤回的条目数
+     */
+    public long getStaleDiscards() {
+        return staleDiscards.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+        sourceCalls.reset();
+        invalidations.reset();
+        staleDiscards.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EffectivePermissionCache{size=%d, hits=%d, misses=%d, hitRate=%.1f%%, sourceCalls=%d, invalidations=%d}",
+                size(), getHits(), getMisses(), getHitRate() * 100, getSourceCalls(), getInvalidations());
+    }
+
+    private static int[] toSortedArray(Collection<Integer> roleIds) {
+        if (roleIds == null || roleIds.isEmpty()) {
+            return NO_ROLES;
+        }
+        int[] array = new int[roleIds.size()];
+        int index = 0;
+        for (int roleId : roleIds) {
+            array[index++] = roleId;
+        }
+        Arrays.sort(array);
+        return array;
+    }
+
+    /**
+     * 单个服务器的缓存状态
+     */
+    private static class GuildState {
+        final AtomicLong generation = new AtomicLong();
+        final Map<String, MemberEntry> members = new ConcurrentHashMap<>();
+        /**
+         * 角色 ID → 权限位掩码，写时复制，未加载时为 null
+         */
+        volatile Map<Integer, Long> roleMasks;
+    }
+
+    /**
+     * 成员缓存条目：有效权限位掩码与排序后的角色 ID
+     */
+    private static class MemberEntry {
+        final long mask;
+        final int[] roleIds;
+
+        MemberEntry(long mask, int[] roleIds) {
+            this.mask = mask;
+            this.roleIds = roleIds;
+        }
+    }
+}
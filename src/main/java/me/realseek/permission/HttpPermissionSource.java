@@ -0,0 +1,42 @@
+package me.realseek.permission;
+
+import snw.jkook.HttpAPI;
+import snw.jkook.entity.Guild;
+import snw.jkook.entity.Role;
+import snw.jkook.entity.User;
+import snw.jkook.util.PageIterator;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 通过 HttpAPI 查询成员角色和服务器角色权限的数据来源
+ */
+public class HttpPermissionSource implements PermissionSource {
+    private final HttpAPI httpAPI;
+
+    public HttpPermissionSource(HttpAPI httpAPI) {
+        this.httpAPI = httpAPI;
+    }
+
+    @Override
+    public Collection<Integer> getMemberRoles(String guildId, String userId) {
+        Guild guild = httpAPI.getGuild(guildId);
+        User user = httpAPI.getUser(userId);
+        return user.getRoles(guild);
+    }
+
+    @Override
+    public Map<Integer, Long> getRoleMasks(String guildId) {
+        Map<Integer, Long> masks = new HashMap<>();
+        PageIterator<Set<Role>> pages = httpAPI.getGuild(guildId).getRoles();
+        while (pages.hasNext()) {
+            for (Role role : pages.next()) {
+                masks.put(role.getId(), PermissionEvaluator.mask(role));
+            }
+        }
+        return masks;
+    }
+}
@@ -0,0 +1,164 @@
+package me.realseek.permission;
+
+import snw.jkook.Permission;
+import snw.jkook.entity.Role;
+
+import java.util.*;
+
+/**
+ * 预计算的角色权限表
+ * <p>
+ * 构建时把每个角色的权限折算为一个位掩码，按角色 ID 排序存入原始 long[] 表；
+ * 检查权限时只需对成员的角色下标做按位或，不再重复调用 {@link Permission#sum}。
+ * 拥有 {@link Permission#ADMIN} 的成员视为拥有全部权限，与 {@link Permission#hasPermission} 的语义一致。
+ * 实例不可变，可在多线程间共享；角色权限变更后需要重新构建。
+ */
+public final class PermissionEvaluator {
+    private static final Permission[] PERMISSIONS = Permission.values();
+    private static final long ADMIN_MASK = Permission.ADMIN.getValue();
+    private static final long ALL_MASK = mask(PERMISSIONS);
+
+    private final int[] roleIds;
+    private final long[] roleMasks;
+    private final long baseMask;
+
+    private PermissionEvaluator(int[] roleIds, long[] roleMasks, long baseMask) {
+        this.roleIds = roleIds;
+        this.roleMasks = roleMasks;
+        this.baseMask = baseMask;
+    }
+
+    /**
+     * 由角色 ID → 权限值的映射构建
+     *
+     * @param rolePermissions 每个角色的权限值
+     * @param basePermissions 所有成员都拥有的权限（全体成员角色）
+     */
+    public static PermissionEvaluator of(Map<Integer, Integer> rolePermissions, int basePermissions) {
+        int[] ids = new int[rolePermissions.size()];
+        int index = 0;
+        for (int id : rolePermissions.keySet()) {
+            ids[index++] = id;
+        }
+        Arrays.sort(ids);
+
+        long[] masks = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            masks[i] = normalize(rolePermissions.get(ids[i]) & 0xFFFFFFFFL);
+        }
+        return new PermissionEvaluator(ids, masks, normalize(basePermissions & 0xFFFFFFFFL));
+    }
+
+    /**
+     * 由服务器角色构建，角色 ID 为 0 的全体成员角色作为基础权限
+     */
+    public static PermissionEvaluator fromRoles(Collection<Role> roles) {
+        Map<Integer, Integer> rolePermissions = new HashMap<>();
+        int basePermissions = 0;
+        for (Role role : roles) {
+            int permissions = (int) mask(role);
+            if (role.getId() == 0) {
+                basePermissions = permissions;
+            } else {
+                rolePermissions.put(role.getId(), permissions);
+            }
+        }
+        return of(rolePermissions, basePermissions);
+    }
+
+    /**
+     * 计算权限集合的位掩码
+     */
+    public static long mask(Permission... permissions) {
+        long mask = 0;
+        for (Permission permission : permissions) {
+            mask |= permission.getValue();
+        }
+        return mask;
+    }
+
+    /**
+     * 计算角色自身的权限位掩码（不展开管理员权限）
+     */
+    public static long mask(Role role) {
+        long mask = 0;
+        for (Permission permission : PERMISSIONS) {
+            if (role.isPermissionSet(permission)) {
+                mask |= permission.getValue();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * 拥有管理员权限时展开为全部权限
+     */
+    public static long normalize(long mask) {
+        return (mask & ADMIN_MASK) != 0 ? mask | ALL_MASK : mask;
+    }
+
+    /**
+     * 获取角色在权限表中的下标，不存在时返回负数
+     */
+    public int indexOf(int roleId) {
+        return Arrays.binarySearch(roleIds, roleId);
+    }
+
+    /**
+     * 把成员的角色 ID 转换为权限表下标，未知角色会被忽略
+     * 结果可以随成员信息一起缓存，之后的权限检查不再需要查找
+     */
+    public int[] resolve(Collection<Integer> memberRoleIds) {
+        int[] indexes = new int[memberRoleIds.size()];
+        int count = 0;
+        for (int roleId : memberRoleIds) {
+            int index = indexOf(roleId);
+            if (index >= 0) {
+                indexes[count++] = index;
+            }
+        }
+        return count == indexes.length ? indexes : Arrays.copyOf(indexes, count);
+    }
+
+    /**
+     * 计算成员的有效权限位掩码
+     *
+     * @param roleIndexes {@link #resolve} 返回的角色下标
+     */
+    public long effectiveMask(int[] roleIndexes) {
+        long mask = baseMask;
+        for (int index : roleIndexes) {
+            mask |= roleMasks[index];
+        }
+        return mask;
+    }
+
+    /**
+     * 成员是否拥有指定权限
+     */
+    public boolean has(int[] roleIndexes, Permission permission) {
+        long required = permission.getValue();
+        if ((baseMask & required) != 0) {
+            return true;
+        }
+        for (int index : roleIndexes) {
+            if ((roleMasks[index] & required) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 成员是否拥有位掩码中的全部权限
+     *
+     * @param requiredMask {@link #mask} 计算出的位掩码
+     */
+    public boolean hasAll(int[] roleIndexes, long requiredMask) {
+        return (effectiveMask(roleIndexes) & requiredMask) == requiredMask;
+    }
+
+    public int getRoleCount() {
+        return roleIds.length;
+    }
+}
@@ -0,0 +1,20 @@
+package me.realseek.permission;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 权限数据来源，{@link EffectivePermissionCache} 未命中时调用
+ */
+public interface PermissionSource {
+
+    /**
+     * 获取成员在服务器中持有的角色 ID
+     */
+    Collection<Integer> getMemberRoles(String guildId, String userId);
+
+    /**
+     * 获取服务器所有角色的权限位掩码（角色 ID → 掩码），角色 ID 0 为全体成员角色
+     */
+    Map<Integer, Long> getRoleMasks(String guildId);
+}
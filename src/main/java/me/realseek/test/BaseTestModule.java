@@ -4,7 +4,10 @@ import org.slf4j.Logger;
 import snw.jkook.plugin.Plugin;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 测试模块基类，提供通用的测试执行逻辑
@@ -13,6 +16,8 @@ public abstract class BaseTestModule implements TestModule {
     protected Plugin plugin;
     protected Logger logger;
     protected List<TestResult> results;
+    private final List<String> caseDetails = new ArrayList<>();
+    private final Map<String, List<String>> reportSections = new LinkedHashMap<>();
 
     @Override
     public void initialize(Plugin plugin) {
@@ -24,6 +29,7 @@ public abstract class BaseTestModule implements TestModule {
     @Override
     public List<TestResult> runTests() {
         results.clear();
+        reportSections.clear();
         logger.info("开始执行 {} 测试模块...", getName());
         long startTime = System.currentTimeMillis();
 
@@ -56,11 +62,13 @@ public abstract class BaseTestModule implements TestModule {
      * 执行单个测试用例
      */
     protected void runTest(String testName, Runnable test) {
+        caseDetails.clear();
         long startTime = System.currentTimeMillis();
         try {
             test.run();
             long executionTime = System.currentTimeMillis() - startTime;
-            results.add(new TestResult(testName, getName(), true, "测试通过", executionTime));
+            String message = caseDetails.isEmpty() ? "测试通过" : "测试通过 | " + String.join("; ", caseDetails);
+            results.add(new TestResult(testName, getName(), true, message, executionTime));
             logger.info("  ✓ {} - {}ms", testName, executionTime);
         } catch (AssertionError e) {
             long executionTime = System.currentTimeMillis() - startTime;
@@ -73,6 +81,25 @@ public abstract class BaseTestModule implements TestModule {
         }
     }
 
+    /**
+     * 为当前测试用例附加一条说明（如性能指标），会显示在测试报告中
+     */
+    protected void addDetail(String detail) {
+        caseDetails.add(detail);
+    }
+
+    /**
+     * 设置一个附加报告段落（如延迟分布表），同名段落会被覆盖
+     */
+    protected void setReportSection(String title, List<String> lines) {
+        reportSections.put(title, new ArrayList<>(lines));
+    }
+
+    @Override
+    public Map<String, List<String>> getReportSections() {
+        return Collections.unmodifiableMap(reportSections);
+    }
+
     /**
      * 断言方法
      */
@@ -1,12 +1,26 @@
 package me.realseek.test;
 
+import me.realseek.test.event.EventRecorder;
+import me.realseek.test.event.HandlerInstrumentation;
+import me.realseek.test.mock.LatencyInjector;
+import me.realseek.test.mock.MockFixtures;
+import me.realseek.test.mock.MockKookServer;
 import me.realseek.test.modules.*;
+import me.realseek.test.modules.integration.IntegrationConfig;
+import me.realseek.test.modules.integration.IntegrationConfigWatcher;
+import me.realseek.test.modules.integration.IntegrationFixtures;
 import org.slf4j.Logger;
+import snw.jkook.config.ConfigurationSection;
 import snw.jkook.plugin.Plugin;
 
 import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 测试管理器，负责管理所有测试模块的执行
@@ -16,6 +30,9 @@ public class TestManager {
     private final Logger logger;
     private final List<TestModule> modules;
     private final TestReportManager reportManager;
+    private EventRecorder eventRecorder;
+    private IntegrationConfigWatcher configWatcher;
+    private MockKookServer mockServer;
 
     public TestManager(Plugin plugin) {
         this.plugin = plugin;
@@ -25,6 +42,23 @@ public class TestManager {
         File reportDir = new File(plugin.getDataFolder(), "reports");
         this.reportManager = new TestReportManager(logger, reportDir);
 
+        // 处理器耗时统计需要在模块注册监听器之前启用
+        HandlerInstrumentation.setEnabled(plugin.getConfig().getBoolean("instrumentation.handlers", false));
+
+        // 集成测试配置只读取一次，由所有集成测试模块共享
+        IntegrationConfig.update(IntegrationConfig.from(plugin.getConfig()), logger);
+        if (plugin.getConfig().getBoolean("integration-test.watch-config", true)) {
+            try {
+                configWatcher = IntegrationConfigWatcher.start(plugin.getDataFolder(), logger);
+            } catch (IOException e) {
+                logger.warn("无法监听配置文件变更，集成测试配置需要重启插件后生效: {}", e.getMessage());
+            }
+        }
+
+        if (plugin.getConfig().getBoolean("mock-server.enabled", false)) {
+            startMockServer();
+        }
+
         // 注册所有测试模块
         registerModules();
     }
@@ -53,6 +87,9 @@ public class TestManager {
         registerModule(new RoleManagementTestModule());
         registerModule(new TemplateMessageTestModule());
         registerModule(new RoleEventTestModule());
+        registerModule(new PermissionCacheTestModule());
+        registerModule(new MockServerTestModule());
+        registerModule(new IntegrationFixturesTestModule());
 
         // 集成测试（需要真实环境）
         registerModule(new me.realseek.test.modules.integration.HttpApiIntegrationTestModule());
@@ -67,15 +104,37 @@ public class TestManager {
         // ThreadChannel 集成测试（已启用）
         registerModule(new me.realseek.test.modules.integration.ThreadChannelIntegrationTestModule());
 
-        long unitTestCount = modules.stream()
-                .filter(m -> !(m instanceof me.realseek.test.modules.integration.IntegrationTestModule))
-                .count();
+        // 性能基准测试（需要在配置中启用）
+        registerModule(new me.realseek.test.modules.benchmark.EventDispatchBenchmarkTestModule());
+        registerModule(new me.realseek.test.modules.benchmark.ListenerRegistrationBenchmarkTestModule());
+        registerModule(new me.realseek.test.modules.benchmark.EventContentionBenchmarkTestModule());
+        registerModule(new me.realseek.test.modules.benchmark.EventReplayBenchmarkTestModule());
+        registerModule(new me.realseek.test.modules.benchmark.CommandDispatchBenchmarkTestModule());
+        registerModule(new me.realseek.test.modules.benchmark.CommandStressBenchmarkTestModule());
+        registerModule(new me.realseek.test.modules.benchmark.ArgumentParsingBenchmarkTestModule());
+        registerModule(new me.realseek.test.modules.benchmark.CardBuilderBenchmarkTestModule());
+        registerModule(new me.realseek.test.modules.benchmark.CardTemplateBenchmarkTestModule());
+        registerModule(new me.realseek.test.modules.benchmark.RandomCardBenchmarkTestModule());
+        registerModule(new me.realseek.test.modules.benchmark.PermissionBenchmarkTestModule());
+        registerModule(new me.realseek.test.modules.benchmark.PermissionCacheBenchmarkTestModule());
+        registerModule(new me.realseek.test.modules.benchmark.ConfigurationBenchmarkTestModule());
+        registerModule(new me.realseek.test.modules.benchmark.HttpConcurrencyBenchmarkTestModule());
+        registerModule(new me.realseek.test.modules.benchmark.PageTraversalBenchmarkTestModule());
+        registerModule(new me.realseek.test.modules.benchmark.MemberScanBenchmarkTestModule());
+        registerModule(new me.realseek.test.modules.benchmark.EntityLookupBenchmarkTestModule());
+        registerModule(new me.realseek.test.modules.benchmark.MessageLoadBenchmarkTestModule());
+        registerModule(new me.realseek.test.modules.benchmark.ChannelHistoryBenchmarkTestModule());
+
         long integrationCount = modules.stream()
                 .filter(m -> m instanceof me.realseek.test.modules.integration.IntegrationTestModule)
                 .count();
+        long benchmarkCount = modules.stream()
+                .filter(m -> m instanceof me.realseek.test.modules.benchmark.BenchmarkTestModule)
+                .count();
+        long unitTestCount = modules.size() - integrationCount - benchmarkCount;
 
-        logger.info("已注册 {} 个测试模块（{} 个单元测试 + {} 个集成测试）",
-                modules.size(), unitTestCount, integrationCount);
+        logger.info("已注册 {} 个测试模块（{} 个单元测试 + {} 个集成测试 + {} 个性能测试）",
+                modules.size(), unitTestCount, integrationCount, benchmarkCount);
     }
 
     /**
@@ -103,18 +162,36 @@ public class TestManager {
 
         long startTime = System.currentTimeMillis();
 
-        for (TestModule module : modules) {
-            try {
-                logger.info(">>> 正在测试: {}", module.getName());
-                logger.info("    {}", module.getDescription());
-
-                List<TestResult> results = module.runTests();
-                reportManager.addModuleResults(module.getName(), results);
+        // 集成测试模块共享的服务器/频道/用户，在第一个使用它们的模块开始运行时并发获取一次
+        IntegrationFixtures fixtures = null;
+        IntegrationConfig integrationConfig = IntegrationConfig.current();
+        if (integrationConfig.isEnabled() && !integrationConfig.getGuildId().isEmpty()) {
+            fixtures = IntegrationFixtures.begin(plugin.getCore().getHttpAPI(), integrationConfig);
+        }
 
-                logger.info("");
-            } catch (Exception e) {
-                logger.error("测试模块 {} 执行失败", module.getName(), e);
+        // 模块抛出 Error 时也要释放共享实体，否则获取线程池和当前实例会一直保留到下一次运行
+        try {
+            for (TestModule module : modules) {
+                try {
+                    logger.info(">>> 正在测试: {}", module.getName());
+                    logger.info("    {}", module.getDescription());
+
+                    List<TestResult> results = module.runTests();
+                    reportManager.addModuleResults(module.getName(), results);
+                    module.getReportSections().forEach(reportManager::setSection);
+
+                    logger.info("");
+                } catch (Exception e) {
+                    logger.error("测试模块 {} 执行失败", module.getName(), e);
+                }
             }
+        } finally {
+            if (fixtures != null) {
+                IntegrationFixtures.end(fixtures);
+            }
+        }
+        if (fixtures != null) {
+            reportManager.setSection("集成测试共享实体", fixtures.formatReport());
         }
 
         long totalTime = System.currentTimeMillis() - startTime;
@@ -124,6 +201,9 @@ public class TestManager {
         logger.info("");
 
         // 生成测试报告
+        if (HandlerInstrumentation.isEnabled()) {
+            reportManager.setSection("处理器耗时统计", HandlerInstrumentation.formatReport());
+        }
         reportManager.printSummary();
         reportManager.generateHtmlReport();
         reportManager.generateTextReport();
@@ -158,6 +238,12 @@ public class TestManager {
         for (TestResult result : results) {
             logger.info("  {}", result.toString());
         }
+        for (Map.Entry<String, List<String>> section : targetModule.getReportSections().entrySet()) {
+            logger.info("{}:", section.getKey());
+            for (String line : section.getValue()) {
+                logger.info("  {}", line);
+            }
+        }
     }
 
     /**
@@ -182,6 +268,7 @@ public class TestManager {
             logger.info("自动测试: {}", module.getName());
             List<TestResult> results = module.runTests();
             reportManager.addModuleResults(module.getName(), results);
+            module.getReportSections().forEach(reportManager::setSection);
         }
     }
 
@@ -195,11 +282,142 @@ public class TestManager {
         }
     }
 
+    /**
+     * 打印事件处理器耗时统计
+     */
+    public void printHandlerReport() {
+        logger.info("====================================");
+        logger.info("         事件处理器耗时统计");
+        logger.info("====================================");
+        for (String line : HandlerInstrumentation.formatReport()) {
+            logger.info(line);
+        }
+    }
+
+    /**
+     * 清零事件处理器耗时统计
+     */
+    public void resetHandlerStats() {
+        HandlerInstrumentation.reset();
+        logger.info("事件处理器耗时统计已清零");
+    }
+
+    /**
+     * 启动本地 KOOK 模拟服务器
+     * 配置了 mock-server.use-fixture-ids 时，集成测试配置中的服务器/频道/用户 ID 会替换为模拟数据的 ID；
+     * KookBC 的 HttpAPI 仍然请求真实 KOOK API，只有把它的请求转发到模拟服务器时这些 ID 才有意义
+     */
+    public synchronized void startMockServer() {
+        if (mockServer != null) {
+            logger.warn("模拟服务器已在运行: {}", mockServer.getBaseUrl());
+            return;
+        }
+
+        ConfigurationSection config = plugin.getConfig();
+        Map<String, Long> routeLatency = new HashMap<>();
+        ConfigurationSection routes = config.getConfigurationSection("mock-server.latency.routes");
+        if (routes != null) {
+            for (String route : routes.getKeys(false)) {
+                routeLatency.put(route, routes.getLong(route));
+            }
+        }
+        long seed = config.getLong("mock-server.seed", 20240601L);
+        LatencyInjector latency = new LatencyInjector(config.getLong("mock-server.latency.base-ms", 0),
+                config.getLong("mock-server.latency.jitter-ms", 0), routeLatency, seed);
+        MockFixtures fixtures = new MockFixtures(seed, config.getInt("mock-server.members", 120), config.getInt("mock-server.roles", 8));
+
+        try {
+            mockServer = MockKookServer.start(fixtures, latency,
+                    config.getInt("mock-server.port", 18080), config.getInt("mock-server.gateway-port", 18081));
+        } catch (IOException e) {
+            logger.error("模拟服务器启动失败", e);
+            return;
+        }
+        logger.info("模拟服务器已启动: REST {}，网关 {}", mockServer.getBaseUrl(), mockServer.getGatewayUrl());
+        logger.info("模拟数据: 服务器 {}，文字频道 {}，语音频道 {}，用户 {}", MockFixtures.GUILD_ID,
+                MockFixtures.TEXT_CHANNEL_ID, MockFixtures.VOICE_CHANNEL_ID, MockFixtures.TEST_USER_ID);
+
+        if (config.getBoolean("mock-server.use-fixture-ids", false)) {
+            logger.warn("集成测试目标已切换为模拟数据 ID，但 KookBC 的 HttpAPI 仍请求真实 KOOK API，"
+                    + "未将其请求转发到 {} 时集成测试会因找不到这些实体而失败", mockServer.getBaseUrl());
+            IntegrationConfig.overrideTargets(MockFixtures.GUILD_ID, MockFixtures.TEXT_CHANNEL_ID,
+                    MockFixtures.VOICE_CHANNEL_ID, MockFixtures.TEST_USER_ID, logger);
+        }
+    }
+
+    /**
+     * 停止本地 KOOK 模拟服务器，并恢复配置文件中的集成测试配置
+     */
+    public synchronized void stopMockServer() {
+        if (mockServer == null) {
+            logger.warn("模拟服务器未在运行");
+            return;
+        }
+        mockServer.stop();
+        mockServer = null;
+        IntegrationConfig.clearTargetOverride(logger);
+        logger.info("模拟服务器已停止");
+    }
+
+    /**
+     * 开始录制网关事件到轨迹文件
+     */
+    public synchronized void startRecording() {
+        if (eventRecorder != null) {
+            logger.warn("事件录制已在进行中: {}", eventRecorder.getFile().getName());
+            return;
+        }
+
+        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+        File traceFile = new File(plugin.getDataFolder(), "traces/trace_" + timestamp + ".kbct");
+        try {
+            eventRecorder = new EventRecorder(traceFile);
+            plugin.getCore().getEventManager().registerHandlers(plugin, eventRecorder);
+            logger.info("开始录制事件: {}", traceFile.getAbsolutePath());
+        } catch (IOException e) {
+            eventRecorder = null;
+            logger.error("创建事件轨迹文件失败", e);
+        }
+    }
+
+    /**
+     * 停止录制网关事件
+     */
+    public synchronized void stopRecording() {
+        if (eventRecorder == null) {
+            logger.warn("当前没有进行中的事件录制");
+            return;
+        }
+
+        try {
+            plugin.getCore().getEventManager().unregisterHandlers(eventRecorder);
+            eventRecorder.close();
+            logger.info("事件录制已停止，共录制 {} 个事件: {}",
+                    eventRecorder.getRecordedCount(), eventRecorder.getFile().getAbsolutePath());
+            logger.info("在 config.yml 中设置 benchmark.replay.trace-file=traces/{} 即可回放",
+                    eventRecorder.getFile().getName());
+        } catch (IOException e) {
+            logger.error("关闭事件轨迹文件失败", e);
+        } finally {
+            eventRecorder = null;
+        }
+    }
+
     /**
      * 清理所有测试模块
      */
     public void cleanup() {
         logger.info("清理测试资源...");
+        if (eventRecorder != null) {
+            stopRecording();
+        }
+        if (configWatcher != null) {
+            configWatcher.close();
+            configWatcher = null;
+        }
+        if (mockServer != null) {
+            stopMockServer();
+        }
         for (TestModule module : modules) {
             try {
                 module.cleanup();
@@ -2,7 +2,9 @@ package me.realseek.test;
 
 import snw.jkook.plugin.Plugin;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 测试模块接口，所有测试模块必须实现此接口
@@ -42,4 +44,11 @@ public interface TestModule {
     default boolean isAutoRun() {
         return false;
     }
+
+    /**
+     * 获取最近一次运行生成的附加报告段落（标题 -> 文本行），会追加到测试报告末尾
+     */
+    default Map<String, List<String>> getReportSections() {
+        return Collections.emptyMap();
+    }
 }
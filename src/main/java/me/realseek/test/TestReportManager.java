@@ -16,12 +16,14 @@ public class TestReportManager {
     private final Logger logger;
     private final File reportDir;
     private final Map<String, List<TestResult>> moduleResults;
+    private final Map<String, List<String>> sections;
     private final SimpleDateFormat dateFormat;
 
     public TestReportManager(Logger logger, File reportDir) {
         this.logger = logger;
         this.reportDir = reportDir;
         this.moduleResults = new LinkedHashMap<>();
+        this.sections = new LinkedHashMap<>();
         this.dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
 
         if (!reportDir.exists()) {
@@ -36,6 +38,17 @@ public class TestReportManager {
         moduleResults.put(moduleName, results);
     }
 
+    /**
+     * 添加附加报告段落（如处理器耗时统计），按原样输出到报告末尾；lines 为空时移除该段落
+     */
+    public void setSection(String title, List<String> lines) {
+        if (lines == null || lines.isEmpty()) {
+            sections.remove(title);
+        } else {
+            sections.put(title, new ArrayList<>(lines));
+        }
+    }
+
     /**
      * 生成并打印测试摘要
      */
@@ -209,6 +222,18 @@ public class TestReportManager {
                 writer.println("        </div>");
             }
 
+            // 附加段落
+            for (Map.Entry<String, List<String>> section : sections.entrySet()) {
+                writer.println("        <h2>" + escapeHtml(section.getKey()) + "</h2>");
+                writer.println("        <div class='module'>");
+                writer.println("            <pre class='error-details'>");
+                for (String line : section.getValue()) {
+                    writer.println(escapeHtml(line));
+                }
+                writer.println("            </pre>");
+                writer.println("        </div>");
+            }
+
             writer.println("        <div class='timestamp'>报告生成时间: " + dateFormat.format(new Date()) + "</div>");
             writer.println("    </div>");
             writer.println("</body>");
@@ -272,6 +297,15 @@ public class TestReportManager {
             writer.println("总耗时: " + totalTime + "ms");
             writer.println("====================================");
 
+            for (Map.Entry<String, List<String>> section : sections.entrySet()) {
+                writer.println();
+                writer.println("【" + section.getKey() + "】");
+                writer.println("----------------------------------------");
+                for (String line : section.getValue()) {
+                    writer.println(line);
+                }
+            }
+
             logger.info("文本测试报告已生成: {}", reportFile.getAbsolutePath());
         } catch (IOException e) {
             logger.error("生成文本测试报告失败", e);
@@ -0,0 +1,98 @@
+package me.realseek.test.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+/**
+ * 基准测试工具方法：纳秒计时、线程内存分配统计和结果消费
+ */
+public final class Benchmarks {
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = resolveAllocationBean();
+
+    /**
+     * 防止 JIT 消除无副作用计算的结果槽
+     */
+    private static volatile Object sink;
+
+    private Benchmarks() {
+    }
+
+    private static com.sun.management.ThreadMXBean resolveAllocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            try {
+                if (sunBean.isThreadAllocatedMemorySupported()) {
+                    sunBean.setThreadAllocatedMemoryEnabled(true);
+                    return sunBean;
+                }
+            } catch (UnsupportedOperationException ignored) {
+                // 当前 JVM 不支持线程分配统计
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 当前 JVM 是否支持统计线程内存分配
+     */
+    public static boolean isAllocationTrackingSupported() {
+        return ALLOCATION_BEAN != null;
+    }
+
+    /**
+     * 获取当前线程累计分配的字节数，不支持时返回 -1
+     */
+    public static long currentThreadAllocatedBytes() {
+        if (ALLOCATION_BEAN == null) {
+            return -1;
+        }
+        return ALLOCATION_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * 消费一个结果，避免被 JIT 当作死代码优化掉
+     */
+    public static void consume(Object value) {
+        sink = value;
+    }
+
+    /**
+     * 判断 HttpAPI 调用的异常是否由限速（429）引起。KookBC 没有公开限速异常类型，只能根据异常信息判断
+     */
+    public static boolean isRateLimitError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String message = String.valueOf(cause.getMessage()).toLowerCase(Locale.ROOT);
+            if (message.contains("429") || message.contains("rate limit") || message.contains("频繁")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 先预热再测量，返回每次操作的耗时与分配量
+     *
+     * @param label      测量名称
+     * @param warmup     预热次数
+     * @param iterations 测量次数
+     * @param operation  被测操作
+     */
+    public static Measurement measure(String label, int warmup, int iterations, Runnable operation) {
+        for (int i = 0; i < warmup; i++) {
+            operation.run();
+        }
+
+        long allocatedBefore = currentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocatedAfter = currentThreadAllocatedBytes();
+
+        long allocated = allocatedBefore >= 0 && allocatedAfter >= 0 ? allocatedAfter - allocatedBefore : -1;
+        return new Measurement(label, iterations, elapsed, allocated);
+    }
+}
@@ -0,0 +1,87 @@
+package me.realseek.test.benchmark;
+
+import snw.jkook.message.component.BaseComponent;
+import snw.jkook.message.component.card.MultipleCardComponent;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * 调用 KookBC 内部的消息序列化逻辑，得到发送前的 JSON 载荷
+ * KookBC 的序列化器不属于 JKook API，因此通过反射查找，找不到时 {@link #isAvailable()} 返回 false
+ */
+public final class CardPayloads {
+    private static final String[][] CANDIDATES = {
+            {"snw.kookbc.impl.entity.builder.MessageBuilder", "serialize"},
+            {"snw.kookbc.impl.entity.builder.CardBuilder", "serialize"}
+    };
+
+    private static String serializerName;
+    private static final MethodHandle SERIALIZER = resolveSerializer();
+
+    private CardPayloads() {
+    }
+
+    private static MethodHandle resolveSerializer() {
+        for (String[] candidate : CANDIDATES) {
+            try {
+                Class<?> owner = Class.forName(candidate[0]);
+                for (Method method : owner.getMethods()) {
+                    if (method.getName().equals(candidate[1])
+                            && Modifier.isStatic(method.getModifiers())
+                            && method.getParameterCount() == 1
+                            && method.getParameterTypes()[0].isAssignableFrom(MultipleCardComponent.class)) {
+                        serializerName = owner.getSimpleName() + "." + method.getName();
+                        return MethodHandles.publicLookup().unreflect(method)
+                                .asType(MethodType.methodType(Object.class, BaseComponent.class));
+                    }
+                }
+            } catch (ClassNotFoundException | IllegalAccessException ignored) {
+                // 尝试下一个候选
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 当前运行环境是否找到了 KookBC 的序列化器
+     */
+    public static boolean isAvailable() {
+        return SERIALIZER != null;
+    }
+
+    /**
+     * 找到的序列化器名称，未找到时返回 null
+     */
+    public static String getSerializerName() {
+        return serializerName;
+    }
+
+    /**
+     * 序列化消息组件为 JSON 字符串
+     *
+     * @throws IllegalStateException 序列化器不可用或序列化失败
+     */
+    public static String serialize(BaseComponent component) {
+        if (SERIALIZER == null) {
+            throw new IllegalStateException("未找到 KookBC 的消息序列化器");
+        }
+        Object result;
+        try {
+            result = SERIALIZER.invokeExact(component);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("序列化消息组件失败", t);
+        }
+        // MessageBuilder.serialize 返回 {消息类型, 内容}，CardBuilder.serialize 返回 JSON 数组
+        if (result instanceof Object[]) {
+            Object[] parts = (Object[]) result;
+            return String.valueOf(parts[parts.length - 1]);
+        }
+        return String.valueOf(result);
+    }
+}
@@ -0,0 +1,194 @@
+package me.realseek.test.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 接口端点延迟分析
+ * <p>
+ * 对每个端点先调用一次记为冷调用（首次请求，包含 KookBC 实体缓存未命中、连接建立和类加载），
+ * 再连续调用若干次记为热调用，分别统计。热调用的 p50 远低于冷调用时，说明后续请求走了缓存而非网络。
+ * 调用之间可以设置间隔，间隔时间不计入延迟，避免短时间内大量请求触发限速。
+ */
+public class EndpointProfiler {
+    private final int iterations;
+    private final long intervalMillis;
+    private final List<EndpointLatency> results = new ArrayList<>();
+
+    /**
+     * @param iterations     每个端点的热调用次数
+     * @param intervalMillis 两次调用之间的间隔（毫秒），0 表示不间隔
+     */
+    public EndpointProfiler(int iterations, long intervalMillis) {
+        this.iterations = Math.max(1, iterations);
+        this.intervalMillis = Math.max(0, intervalMillis);
+    }
+
+    /**
+     * 分析一个端点，调用抛出的异常计入错误次数，不会中断分析
+     *
+     * @param endpoint 端点名称
+     * @param call     一次完整的请求（返回值会被消费，防止被优化掉）
+     */
+    public EndpointLatency profile(String endpoint, Supplier<?> call) {
+        Sample cold = invoke(call);
+        int errors = cold.error != null ? 1 : 0;
+        String firstError = cold.error;
+
+        long[] warm = new long[iterations];
+        int count = 0;
+        for (int i = 0; i < iterations; i++) {
+            pause();
+            Sample sample = invoke(call);
+            if (sample.error != null) {
+                errors++;
+                if (firstError == null) {
+                    firstError = sample.error;
+                }
+                continue;
+            }
+            warm[count++] = sample.nanos;
+        }
+
+        EndpointLatency latency = new EndpointLatency(endpoint, cold.nanos, LatencyStats.of(warm, count), errors, firstError);
+        results.add(latency);
+        pause();
+        return latency;
+    }
+
+    private static Sample invoke(Supplier<?> call) {
+        long start = System.nanoTime();
+        try {
+            Benchmarks.consume(call.get());
+            return new Sample(System.nanoTime() - start, null);
+        } catch (RuntimeException e) {
+            return new Sample(System.nanoTime() - start, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private void pause() {
+        if (intervalMillis == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(intervalMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public List<EndpointLatency> getResults() {
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * 获取热调用 p95 最高的端点，没有结果时返回 null
+     */
+    public EndpointLatency slowest() {
+        return results.stream()
+                .filter(r -> r.getWarm().getCount() > 0)
+                .max(Comparator.comparingLong(r -> r.getWarm().getP95()))
+                .orElse(null);
+    }
+
+    /**
+     * 生成延迟表的文本行，按热调用 p95 降序排列
+     */
+    public List<String> formatTable() {
+        List<EndpointLatency> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparingLong((EndpointLatency r) -> r.getWarm().getP95()).reversed());
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%-28s %-6s %-10s %-10s %-10s %-10s %-10s %s",
+                "端点", "次数", "冷调用", "p50", "p95", "p99", "最大", "错误"));
+        for (EndpointLatency r : sorted) {
+            LatencyStats warm = r.getWarm();
+            lines.add(String.format("%-28s %-6d %-10s %-10s %-10s %-10s %-10s %d",
+                    r.getEndpoint(),
+                    warm.getCount(),
+                    millis(r.getColdNanos()),
+                    millis(warm.getP50()),
+                    millis(warm.getP95()),
+                    millis(warm.getP99()),
+                    millis(warm.getMax()),
+                    r.getErrors()));
+        }
+        lines.add("冷调用为每个端点的首次请求；p50/p95/p99/最大为之后 " + iterations + " 次热调用的统计，失败的调用不计入");
+        for (EndpointLatency r : sorted) {
+            if (r.getFirstError() != null) {
+                lines.add(r.getEndpoint() + " 首个错误: " + r.getFirstError());
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * 纳秒转换为毫秒字符串
+     */
+    public static String millis(long nanos) {
+        return String.format("%.2fms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static class Sample {
+        final long nanos;
+        final String error;
+
+        Sample(long nanos, String error) {
+            this.nanos = nanos;
+            this.error = error;
+        }
+    }
+
+    /**
+     * 单个端点的延迟统计
+     */
+    public static class EndpointLatency {
+        private final String endpoint;
+        private final long coldNanos;
+        private final LatencyStats warm;
+        private final int errors;
+        private final String firstError;
+
+        EndpointLatency(String endpoint, long coldNanos, LatencyStats warm, int errors, String firstError) {
+            this.endpoint = endpoint;
+            this.coldNanos = coldNanos;
+            this.warm = warm;
+            this.errors = errors;
+            this.firstError = firstError;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public long getColdNanos() {
+            return coldNanos;
+        }
+
+        public LatencyStats getWarm() {
+            return warm;
+        }
+
+        public int getErrors() {
+            return errors;
+        }
+
+        public String getFirstError() {
+            return firstError;
+        }
+
+        @Override
+        public String toString() {
+            return endpoint + ": 冷调用=" + millis(coldNanos) +
+                    ", p50=" + millis(warm.getP50()) +
+                    ", p95=" + millis(warm.getP95()) +
+                    ", p99=" + millis(warm.getP99()) +
+                    ", 最大=" + millis(warm.getMax()) +
+                    ", 错误=" + errors;
+        }
+    }
+}
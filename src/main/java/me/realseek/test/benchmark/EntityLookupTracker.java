@@ -0,0 +1,145 @@
+package me.realseek.test.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 实体查找的缓存命中统计
+ * <p>
+ * 插件拿不到 KookBC 内部的 HTTP 客户端，无法直接计数网络请求，这里按耗时判断：
+ * 一次查找耗时超过阈值（默认 1ms，远低于到 KOOK 的一次往返）记为发出了网络请求，否则记为命中 KookBC 的实体缓存。
+ * 统计按测试用例和查找方法分组，用于发现重复查找是否被缓存吸收。
+ */
+public class EntityLookupTracker {
+    private static final String DEFAULT_CASE = "未分类";
+
+    private final long thresholdNanos;
+    private final Map<String, Map<String, Stats>> cases = new LinkedHashMap<>();
+    private String currentCase = DEFAULT_CASE;
+
+    /**
+     * @param thresholdMillis 判定为网络请求的耗时阈值（毫秒）
+     */
+    public EntityLookupTracker(double thresholdMillis) {
+        this.thresholdNanos = (long) (Math.max(0, thresholdMillis) * TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * 之后的查找都计入该用例
+     */
+    public synchronized void startCase(String name) {
+        currentCase = name;
+    }
+
+    /**
+     * 执行并记录一次查找，异常照常抛出（计为网络请求）
+     *
+     * @param method 查找方法名，如 getGuild
+     */
+    public <T> T lookup(String method, Supplier<T> call) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = false;
+            return result;
+        } finally {
+            record(method, System.nanoTime() - start, failed);
+        }
+    }
+
+    private synchronized void record(String method, long nanos, boolean failed) {
+        Stats stats = cases.computeIfAbsent(currentCase, key -> new LinkedHashMap<>())
+                .computeIfAbsent(method, key -> new Stats());
+        stats.lookups++;
+        stats.totalNanos += nanos;
+        if (failed || nanos >= thresholdNanos) {
+            stats.network++;
+        }
+    }
+
+    /**
+     * 某个用例的汇总，如 "查找 6 次，网络请求约 2 次，命中率 66.7%"
+     */
+    public synchronized String summary(String caseName) {
+        Stats total = new Stats();
+        Map<String, Stats> methods = cases.get(caseName);
+        if (methods != null) {
+            methods.values().forEach(total::add);
+        }
+        return total.toString();
+    }
+
+    /**
+     * 全部用例的汇总
+     */
+    public synchronized Stats total() {
+        Stats total = new Stats();
+        for (Map<String, Stats> methods : cases.values()) {
+            methods.values().forEach(total::add);
+        }
+        return total;
+    }
+
+    /**
+     * 生成按用例、查找方法分组的报告文本行
+     */
+    public synchronized List<String> formatReport() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%-24s %-18s %-6s %-8s %-8s %s", "用例", "查找", "次数", "网络(估)", "命中率", "累计耗时"));
+        for (Map.Entry<String, Map<String, Stats>> entry : cases.entrySet()) {
+            for (Map.Entry<String, Stats> method : entry.getValue().entrySet()) {
+                Stats stats = method.getValue();
+                lines.add(String.format("%-24s %-18s %-6d %-8d %-8s %s", entry.getKey(), method.getKey(),
+                        stats.lookups, stats.network, percent(stats.getHitRate()), EndpointProfiler.millis(stats.totalNanos)));
+            }
+        }
+        lines.add("合计: " + total());
+        lines.add("耗时不低于 " + EndpointProfiler.millis(thresholdNanos) + " 的查找计为网络请求，其余计为缓存命中");
+        return lines;
+    }
+
+    private static String percent(double rate) {
+        return String.format("%.1f%%", rate * 100);
+    }
+
+    /**
+     * 查找次数、估计的网络请求次数与累计耗时
+     */
+    public static class Stats {
+        private long lookups;
+        private long network;
+        private long totalNanos;
+
+        private void add(Stats other) {
+            lookups += other.lookups;
+            network += other.network;
+            totalNanos += other.totalNanos;
+        }
+
+        public long getLookups() {
+            return lookups;
+        }
+
+        public long getNetworkRequests() {
+            return network;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public double getHitRate() {
+            return lookups == 0 ? 0 : (double) (lookups - network) / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return "查找 " + lookups + " 次，网络请求约 " + network + " 次，命中率 " + percent(getHitRate());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package me.realseek.test.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * 延迟分布统计，基于纳秒采样计算百分位数
+ */
+public class LatencyStats {
+    private final long count;
+    private final long min;
+    private final long max;
+    private final double mean;
+    private final long p50;
+    private final long p95;
+    private final long p99;
+
+    private LatencyStats(long count, long min, long max, double mean, long p50, long p95, long p99) {
+        this.count = count;
+        this.min = min;
+        this.max = max;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p95 = p95;
+        this.p99 = p99;
+    }
+
+    /**
+     * 根据纳秒采样计算统计值（只读取前 length 个元素，不会修改传入数组）
+     */
+    public static LatencyStats of(long[] samples, int length) {
+        if (length <= 0) {
+            return new LatencyStats(0, 0, 0, 0, 0, 0, 0);
+        }
+        long[] sorted = Arrays.copyOf(samples, length);
+        Arrays.sort(sorted);
+
+        long sum = 0;
+        for (long sample : sorted) {
+            sum += sample;
+        }
+
+        return new LatencyStats(
+                length,
+                sorted[0],
+                sorted[length - 1],
+                (double) sum / length,
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.95),
+                percentile(sorted, 0.99)
+        );
+    }
+
+    public static LatencyStats of(long[] samples) {
+        return of(samples, samples.length);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMin() {
+        return min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP95() {
+        return p95;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    /**
+     * 纳秒转换为微秒字符串
+     */
+    public static String micros(double nanos) {
+        return String.format("%.1fµs", nanos / 1000.0);
+    }
+
+    @Override
+    public String toString() {
+        return "n=" + count +
+                ", p50=" + micros(p50) +
+                ", p95=" + micros(p95) +
+                ", p99=" + micros(p99) +
+                ", max=" + micros(max);
+    }
+}
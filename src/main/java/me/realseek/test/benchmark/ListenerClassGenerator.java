@@ -0,0 +1,316 @@
+package me.realseek.test.benchmark;
+
+import snw.jkook.event.Event;
+import snw.jkook.event.EventHandler;
+import snw.jkook.event.Listener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 运行时生成监听器类
+ * 直接写出最小化的 class 文件：一个实现 Listener 的类，包含若干带 @EventHandler 注解的方法。
+ * <ul>
+ *     <li>{@link #generate} - 每个方法体只对 {@link #INVOCATIONS} 计数一次，用于测量 KookBC 反射发现处理器方法的开销；
+ *     相同的处理器数量与事件类型只生成一次，重复运行不会让插件类加载器中的类不断增加</li>
+ *     <li>{@link #generateDelegating} - 每个方法体把 (处理器编号, 事件) 转交给一个静态桥接方法，用于包装已有监听器</li>
+ * </ul>
+ * 生成的方法体没有分支和异常表，因此不需要 StackMapTable。
+ */
+public final class ListenerClassGenerator {
+    /**
+     * 所有生成的处理器方法共享的调用计数器
+     */
+    public static final LongAdder INVOCATIONS = new LongAdder();
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    private static final Map<String, Class<? extends Listener>> GENERATED = new ConcurrentHashMap<>();
+    private static final String PACKAGE_PREFIX = ListenerClassGenerator.class.getPackage().getName().replace('.', '/') + "/";
+
+    private ListenerClassGenerator() {
+    }
+
+    /**
+     * 生成并加载监听器类，已生成过相同结构的类时直接返回该类
+     *
+     * @param handlerCount 处理器方法数量
+     * @param eventTypes   处理器参数类型，按方法序号轮流使用
+     */
+    @SafeVarargs
+    public static Class<? extends Listener> generate(int handlerCount, Class<? extends Event>... eventTypes) {
+        if (handlerCount < 1 || eventTypes.length == 0) {
+            throw new IllegalArgumentException("处理器数量和事件类型不能为空");
+        }
+        StringBuilder key = new StringBuilder().append(handlerCount);
+        for (Class<? extends Event> eventType : eventTypes) {
+            key.append(':').append(eventType.getName());
+        }
+        return GENERATED.computeIfAbsent(key.toString(), ignored -> define(handlerCount, eventTypes));
+    }
+
+    private static Class<? extends Listener> define(int handlerCount, Class<? extends Event>[] eventTypes) {
+        String internalName = PACKAGE_PREFIX + "GeneratedListener_" + handlerCount + "_" + SEQUENCE.incrementAndGet();
+        String[] names = new String[handlerCount];
+        Class<?>[] parameterTypes = new Class<?>[handlerCount];
+        for (int i = 0; i < handlerCount; i++) {
+            names[i] = "handle" + i;
+            parameterTypes[i] = eventTypes[i % eventTypes.length];
+        }
+
+        String counterOwner = internalName(ListenerClassGenerator.class);
+        String counterDescriptor = "L" + internalName(LongAdder.class) + ";";
+        return define(writeClass(internalName, names, parameterTypes, 1, (pool, index) -> {
+            int counterField = pool.fieldRef(counterOwner, "INVOCATIONS", counterDescriptor);
+            int incrementMethod = pool.methodRef(internalName(LongAdder.class), "increment", "()V");
+            return new byte[]{
+                    (byte) 0xb2, hi(counterField), lo(counterField),       // getstatic
+                    (byte) 0xb6, hi(incrementMethod), lo(incrementMethod), // invokevirtual
+                    (byte) 0xb1                                            // return
+            };
+        }));
+    }
+
+    /**
+     * 生成委托监听器类：第 i 个方法调用 {@code bridgeOwner.bridgeMethod(firstId + i, event)}，
+     * 桥接方法签名必须为 {@code public static void (int, Object)}
+     *
+     * @param names          处理器方法名
+     * @param parameterTypes 处理器参数（事件）类型
+     * @param firstId        第一个方法传给桥接方法的编号
+     * @param bridgeOwner    桥接方法所在类
+     * @param bridgeMethod   桥接方法名
+     */
+    public static Class<? extends Listener> generateDelegating(String[] names, Class<?>[] parameterTypes, int firstId,
+                                                               Class<?> bridgeOwner, String bridgeMethod) {
+        if (names.length == 0 || names.length != parameterTypes.length) {
+            throw new IllegalArgumentException("处理器方法名与参数类型数量不匹配");
+        }
+        String internalName = PACKAGE_PREFIX + "DelegatingListener_" + SEQUENCE.incrementAndGet();
+        String owner = internalName(bridgeOwner);
+        return define(writeClass(internalName, names, parameterTypes, 2, (pool, index) -> {
+            int id = pool.integer(firstId + index);
+            int bridge = pool.methodRef(owner, bridgeMethod, "(ILjava/lang/Object;)V");
+            return new byte[]{
+                    0x13, hi(id), lo(id),                      // ldc_w
+                    0x2b,                                      // aload_1
+                    (byte) 0xb8, hi(bridge), lo(bridge),       // invokestatic
+                    (byte) 0xb1                                // return
+            };
+        }));
+    }
+
+    private static Class<? extends Listener> define(byte[] bytes) {
+        try {
+            return MethodHandles.lookup().defineClass(bytes).asSubclass(Listener.class);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("加载生成的监听器类失败", e);
+        }
+    }
+
+    /**
+     * 创建生成类的实例
+     */
+    public static Listener newInstance(Class<? extends Listener> listenerClass) {
+        try {
+            return listenerClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("实例化生成的监听器失败", e);
+        }
+    }
+
+    private static byte[] writeClass(String internalName, String[] names, Class<?>[] parameterTypes,
+                                     int maxStack, HandlerBody body) {
+        int handlerCount = names.length;
+        ConstantPool pool = new ConstantPool();
+        int thisClass = pool.classRef(internalName);
+        int superClass = pool.classRef("java/lang/Object");
+        int listenerInterface = pool.classRef(internalName(Listener.class));
+        int superConstructor = pool.methodRef("java/lang/Object", "<init>", "()V");
+        int codeAttribute = pool.utf8("Code");
+        int annotationsAttribute = pool.utf8("RuntimeVisibleAnnotations");
+        int eventHandlerType = pool.utf8("L" + internalName(EventHandler.class) + ";");
+        int constructorName = pool.utf8("<init>");
+        int constructorDescriptor = pool.utf8("()V");
+
+        int[] handlerNames = new int[handlerCount];
+        int[] handlerDescriptors = new int[handlerCount];
+        byte[][] handlerCode = new byte[handlerCount][];
+        for (int i = 0; i < handlerCount; i++) {
+            handlerNames[i] = pool.utf8(names[i]);
+            handlerDescriptors[i] = pool.utf8("(L" + internalName(parameterTypes[i]) + ";)V");
+            handlerCode[i] = body.code(pool, i);
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(52);
+            pool.writeTo(out);
+            out.writeShort(0x0001 | 0x0010 | 0x0020); // public final super
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(listenerInterface);
+            out.writeShort(0); // fields
+
+            out.writeShort(1 + handlerCount);
+
+            // public <init>() { super(); }
+            out.writeShort(0x0001);
+            out.writeShort(constructorName);
+            out.writeShort(constructorDescriptor);
+            out.writeShort(1);
+            writeCode(out, codeAttribute, 1, 1, new byte[]{
+                    0x2a,                                                   // aload_0
+                    (byte) 0xb7, hi(superConstructor), lo(superConstructor), // invokespecial
+                    (byte) 0xb1                                             // return
+            });
+
+            // @EventHandler public void name(EventType event) { ... }
+            for (int i = 0; i < handlerCount; i++) {
+                out.writeShort(0x0001);
+                out.writeShort(handlerNames[i]);
+                out.writeShort(handlerDescriptors[i]);
+                out.writeShort(2);
+                writeCode(out, codeAttribute, maxStack, 2, handlerCode[i]);
+                out.writeShort(annotationsAttribute);
+                out.writeInt(6);
+                out.writeShort(1);
+                out.writeShort(eventHandlerType);
+                out.writeShort(0);
+            }
+
+            out.writeShort(0); // class attributes
+        } catch (IOException e) {
+            throw new IllegalStateException("写出监听器类失败", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static void writeCode(DataOutputStream out, int codeAttribute, int maxStack, int maxLocals, byte[] code)
+            throws IOException {
+        out.writeShort(codeAttribute);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0); // exception table
+        out.writeShort(0); // attributes
+    }
+
+    private static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    private static byte hi(int index) {
+        return (byte) (index >> 8);
+    }
+
+    private static byte lo(int index) {
+        return (byte) index;
+    }
+
+    /**
+     * 常量池构建器，相同常量只写入一次
+     */
+    private static class ConstantPool {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<byte[]> entries = new ArrayList<>();
+
+        int utf8(String value) {
+            return intern("U" + value, out -> {
+                out.writeByte(1);
+                out.writeUTF(value);
+            });
+        }
+
+        int integer(int value) {
+            return intern("I" + value, out -> {
+                out.writeByte(3);
+                out.writeInt(value);
+            });
+        }
+
+        int classRef(String internalName) {
+            int name = utf8(internalName);
+            return intern("C" + internalName, out -> {
+                out.writeByte(7);
+                out.writeShort(name);
+            });
+        }
+
+        int nameAndType(String name, String descriptor) {
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            return intern("N" + name + ":" + descriptor, out -> {
+                out.writeByte(12);
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+            });
+        }
+
+        int fieldRef(String owner, String name, String descriptor) {
+            return memberRef(9, owner, name, descriptor);
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            return memberRef(10, owner, name, descriptor);
+        }
+
+        private int memberRef(int tag, String owner, String name, String descriptor) {
+            int ownerIndex = classRef(owner);
+            int nameAndTypeIndex = nameAndType(name, descriptor);
+            return intern(tag + owner + "." + name + ":" + descriptor, out -> {
+                out.writeByte(tag);
+                out.writeShort(ownerIndex);
+                out.writeShort(nameAndTypeIndex);
+            });
+        }
+
+        private int intern(String key, EntryWriter writer) {
+            Integer existing = indexes.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            ByteArrayOutputStream entry = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(entry)) {
+                writer.write(out);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            entries.add(entry.toByteArray());
+            int index = entries.size();
+            indexes.put(key, index);
+            return index;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeShort(entries.size() + 1);
+            for (byte[] entry : entries) {
+                out.write(entry);
+            }
+        }
+    }
+
+    private interface EntryWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * 生成第 index 个处理器方法的字节码，所需常量通过 pool 登记
+     */
+    private interface HandlerBody {
+        byte[] code(ConstantPool pool, int index);
+    }
+}
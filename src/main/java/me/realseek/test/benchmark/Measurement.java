@@ -0,0 +1,66 @@
+package me.realseek.test.benchmark;
+
+/**
+ * 单次基准测量结果，记录操作次数、总耗时和线程内存分配量
+ */
+public class Measurement {
+    private final String label;
+    private final long operations;
+    private final long totalNanos;
+    private final long allocatedBytes;
+
+    public Measurement(String label, long operations, long totalNanos, long allocatedBytes) {
+        this.label = label;
+        this.operations = operations;
+        this.totalNanos = totalNanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getOperations() {
+        return operations;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * 测量期间当前线程分配的字节数，JVM 不支持时返回 -1
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public double getNanosPerOp() {
+        return operations > 0 ? (double) totalNanos / operations : 0;
+    }
+
+    public double getOpsPerSecond() {
+        return totalNanos > 0 ? operations * 1_000_000_000.0 / totalNanos : 0;
+    }
+
+    /**
+     * 每次操作分配的字节数，JVM 不支持时返回 -1
+     */
+    public double getBytesPerOp() {
+        if (allocatedBytes < 0) {
+            return -1;
+        }
+        return operations > 0 ? (double) allocatedBytes / operations : 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(label).append(": ");
+        sb.append(String.format("%.1f ns/op, %.0f ops/s", getNanosPerOp(), getOpsPerSecond()));
+        if (allocatedBytes >= 0) {
+            sb.append(String.format(", %.1f B/op", getBytesPerOp()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,222 @@
+package me.realseek.test.benchmark;
+
+import snw.jkook.entity.abilities.Accessory;
+import snw.jkook.message.component.card.CardBuilder;
+import snw.jkook.message.component.card.MultipleCardComponent;
+import snw.jkook.message.component.card.Size;
+import snw.jkook.message.component.card.Theme;
+import snw.jkook.message.component.card.element.ButtonElement;
+import snw.jkook.message.component.card.element.ImageElement;
+import snw.jkook.message.component.card.element.MarkdownElement;
+import snw.jkook.message.component.card.element.PlainTextElement;
+import snw.jkook.message.component.card.module.*;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 可复现的随机卡片生成器
+ * 使用固定种子生成结构随机但合法的卡片消息（不超过 KOOK 的模块数、图片数、按钮数和文本长度限制），
+ * 同时记录生成的结构信息，便于分析序列化耗时与载荷大小随卡片结构的变化
+ */
+public final class RandomCards {
+    public static final int MAX_MODULES = 50;
+    public static final int MAX_IMAGES = 9;
+    public static final int MAX_BUTTONS = 4;
+    public static final int MAX_CONTEXT_ELEMENTS = 10;
+    public static final int MAX_HEADER_LENGTH = 100;
+    public static final int MAX_TEXT_LENGTH = 5000;
+
+    private static final String TEXT_ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789 排行榜用户积分测试卡片\"\\*`~>_-\n";
+    private static final Theme[] BUTTON_THEMES = {Theme.PRIMARY, Theme.SUCCESS, Theme.DANGER, Theme.WARNING, Theme.INFO, Theme.SECONDARY};
+
+    private final Random random;
+
+    public RandomCards(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * 卡片模块类型
+     */
+    public enum ModuleKind {
+        HEADER, SECTION, CONTEXT, IMAGE_GROUP, CONTAINER, ACTION_GROUP
+    }
+
+    /**
+     * 生成混合模块类型的卡片，第一个模块固定为标题
+     *
+     * @param moduleCount   模块数量，不超过 {@link #MAX_MODULES}
+     * @param maxTextLength 文本元素的最大长度，不超过 {@link #MAX_TEXT_LENGTH}
+     */
+    public Shape next(int moduleCount, int maxTextLength) {
+        checkLimits(moduleCount, maxTextLength);
+        ModuleKind[] kinds = ModuleKind.values();
+        Shape shape = new Shape();
+        CardBuilder builder = newBuilder();
+        for (int i = 0; i < moduleCount; i++) {
+            ModuleKind kind = i == 0 ? ModuleKind.HEADER : kinds[1 + random.nextInt(kinds.length - 1)];
+            builder.addModule(newModule(kind, maxTextLength, shape));
+        }
+        shape.card = builder.build();
+        return shape;
+    }
+
+    /**
+     * 生成只包含一种模块类型的卡片，用于比较不同模块类型的序列化开销
+     */
+    public Shape uniform(ModuleKind kind, int moduleCount, int maxTextLength) {
+        checkLimits(moduleCount, maxTextLength);
+        Shape shape = new Shape();
+        CardBuilder builder = newBuilder();
+        for (int i = 0; i < moduleCount; i++) {
+            builder.addModule(newModule(kind, maxTextLength, shape));
+        }
+        shape.card = builder.build();
+        return shape;
+    }
+
+    private static void checkLimits(int moduleCount, int maxTextLength) {
+        if (moduleCount < 1 || moduleCount > MAX_MODULES) {
+            throw new IllegalArgumentException("模块数量必须在 1~" + MAX_MODULES + " 之间");
+        }
+        if (maxTextLength < 1 || maxTextLength > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("文本长度必须在 1~" + MAX_TEXT_LENGTH + " 之间");
+        }
+    }
+
+    private CardBuilder newBuilder() {
+        return new CardBuilder()
+                .setTheme(BUTTON_THEMES[random.nextInt(BUTTON_THEMES.length)])
+                .setSize(random.nextBoolean() ? Size.LG : Size.SM);
+    }
+
+    private BaseModule newModule(ModuleKind kind, int maxTextLength, Shape shape) {
+        shape.modules.merge(kind, 1, Integer::sum);
+        switch (kind) {
+            case HEADER:
+                return new HeaderModule(new PlainTextElement(text(Math.min(maxTextLength, MAX_HEADER_LENGTH), shape)));
+            case SECTION:
+                MarkdownElement content = new MarkdownElement(text(maxTextLength, shape));
+                shape.elements++;
+                if (random.nextInt(3) == 0) {
+                    shape.elements++;
+                    return new SectionModule(content, button(shape), Accessory.Mode.RIGHT);
+                }
+                return new SectionModule(content);
+            case CONTEXT: {
+                ContextModule.Builder context = new ContextModule.Builder();
+                int count = 1 + random.nextInt(MAX_CONTEXT_ELEMENTS);
+                for (int i = 0; i < count; i++) {
+                    context.add(new PlainTextElement(text(Math.min(maxTextLength, MAX_HEADER_LENGTH), shape)));
+                }
+                shape.elements += count;
+                return context.build();
+            }
+            case IMAGE_GROUP: {
+                ImageGroupModule.Builder group = new ImageGroupModule.Builder();
+                int count = 1 + random.nextInt(MAX_IMAGES);
+                for (int i = 0; i < count; i++) {
+                    group.add(image());
+                }
+                shape.elements += count;
+                return group.build();
+            }
+            case CONTAINER: {
+                ContainerModule.Builder container = new ContainerModule.Builder();
+                int count = 1 + random.nextInt(MAX_IMAGES);
+                for (int i = 0; i < count; i++) {
+                    container.add(image());
+                }
+                shape.elements += count;
+                return container.build();
+            }
+            default: {
+                ActionGroupModule.Builder actions = new ActionGroupModule.Builder();
+                int count = 1 + random.nextInt(MAX_BUTTONS);
+                for (int i = 0; i < count; i++) {
+                    actions.add(button(shape));
+                }
+                shape.elements += count;
+                return actions.build();
+            }
+        }
+    }
+
+    private ImageElement image() {
+        return new ImageElement("https://img.kookapp.cn/assets/" + Long.toHexString(random.nextLong()) + ".png",
+                null, Size.SM, random.nextInt(4) == 0);
+    }
+
+    private ButtonElement button(Shape shape) {
+        boolean link = random.nextInt(4) == 0;
+        return new ButtonElement(BUTTON_THEMES[random.nextInt(BUTTON_THEMES.length)],
+                link ? "https://www.kookapp.cn/" + random.nextInt(1000) : "value_" + random.nextInt(100_000),
+                link ? ButtonElement.EventType.LINK : ButtonElement.EventType.RETURN_VAL,
+                new PlainTextElement(text(20, shape)));
+    }
+
+    /**
+     * 生成 1~maxLength 个字符的随机文本，包含中文、引号、反斜杠和换行等需要转义的字符
+     */
+    private String text(int maxLength, Shape shape) {
+        int length = 1 + random.nextInt(maxLength);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = TEXT_ALPHABET.charAt(random.nextInt(TEXT_ALPHABET.length()));
+        }
+        shape.textChars += length;
+        return new String(chars);
+    }
+
+    /**
+     * 生成的卡片及其结构信息
+     */
+    public static class Shape {
+        private MultipleCardComponent card;
+        private final Map<ModuleKind, Integer> modules = new EnumMap<>(ModuleKind.class);
+        private int elements;
+        private long textChars;
+
+        public MultipleCardComponent getCard() {
+            return card;
+        }
+
+        public int getModuleCount() {
+            int total = 0;
+            for (int count : modules.values()) {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * 各模块类型的数量
+         */
+        public Map<ModuleKind, Integer> getModules() {
+            return modules;
+        }
+
+        /**
+         * 模块内元素（文本、图片、按钮）的总数
+         */
+        public int getElements() {
+            return elements;
+        }
+
+        /**
+         * 所有文本元素的字符总数
+         */
+        public long getTextChars() {
+            return textChars;
+        }
+
+        /**
+         * 结构签名，相同种子生成的卡片签名一致
+         */
+        public String signature() {
+            return modules + "/" + elements + "/" + textChars;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package me.realseek.test.benchmark;
+
+import me.realseek.permission.PermissionEvaluator;
+import me.realseek.permission.PermissionSource;
+import snw.jkook.Permission;
+import snw.jkook.entity.Guild;
+import snw.jkook.entity.Role;
+import snw.jkook.event.Event;
+import snw.jkook.event.role.RoleCreateEvent;
+import snw.jkook.event.role.RoleDeleteEvent;
+import snw.jkook.event.role.RoleInfoUpdateEvent;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 内存中的模拟服务器，作为 {@link PermissionSource} 供权限缓存测试使用
+ * 保存角色掩码与成员角色，统计被查询的次数，并生成对应的合成角色事件
+ */
+public class SimulatedPermissionGuild implements PermissionSource {
+    public static final String GUILD_ID = "synthetic-guild";
+    private static final Permission[] PERMISSIONS = Permission.values();
+
+    public final Map<Integer, Long> roleMasks = new ConcurrentHashMap<>();
+    public final Map<String, List<Integer>> memberRoles = new HashMap<>();
+    public final List<String> memberIds = new ArrayList<>();
+    public final LongAdder calls = new LongAdder();
+    public final int adminRoleId;
+    private final Guild guildEntity = SyntheticEvents.stub(Guild.class, GUILD_ID);
+    private int nextRoleId = 1000;
+
+    /**
+     * @param random         随机源，相同种子生成相同的服务器
+     * @param roles          角色数量（不含全体成员角色 0），最后一个角色为管理员
+     * @param members        成员数量
+     * @param maxMemberRoles 每个成员最多持有的角色数
+     */
+    public SimulatedPermissionGuild(Random random, int roles, int members, int maxMemberRoles) {
+        roleMasks.put(0, PermissionEvaluator.mask(Permission.SEND_MESSAGE));
+        List<Integer> roleIds = new ArrayList<>();
+        for (int i = 0; i < roles; i++) {
+            int roleId = nextRoleId++;
+            roleIds.add(roleId);
+            roleMasks.put(roleId, randomMask(random));
+        }
+        adminRoleId = roleIds.get(roles - 1);
+        roleMasks.put(adminRoleId, Permission.ADMIN.getValue());
+
+        for (int m = 0; m < members; m++) {
+            String userId = "user-" + m;
+            Collections.shuffle(roleIds, random);
+            memberIds.add(userId);
+            memberRoles.put(userId, new ArrayList<>(roleIds.subList(0, 1 + random.nextInt(maxMemberRoles))));
+        }
+    }
+
+    /**
+     * 随机权限掩码：除管理员外每项权限约 20% 的概率授予
+     */
+    public static long randomMask(Random random) {
+        long mask = 0;
+        for (Permission permission : PERMISSIONS) {
+            if (permission != Permission.ADMIN && random.nextInt(5) == 0) {
+                mask |= permission.getValue();
+            }
+        }
+        return mask;
+    }
+
+    @Override
+    public Collection<Integer> getMemberRoles(String guildId, String userId) {
+        calls.increment();
+        return memberRoles.get(userId);
+    }
+
+    @Override
+    public Map<Integer, Long> getRoleMasks(String guildId) {
+        calls.increment();
+        return new HashMap<>(roleMasks);
+    }
+
+    public void resetCalls() {
+        calls.reset();
+    }
+
+    /**
+     * 不经过缓存，按当前数据重新计算
+     */
+    public long expectedMask(String userId) {
+        long mask = roleMasks.getOrDefault(0, 0L);
+        for (int roleId : memberRoles.get(userId)) {
+            mask |= roleMasks.getOrDefault(roleId, 0L);
+        }
+        return PermissionEvaluator.normalize(mask);
+    }
+
+    /**
+     * 模拟不使用缓存时的一次检查：查询角色表和成员角色后合并
+     */
+    public long fetchMask(String userId) {
+        Map<Integer, Long> masks = getRoleMasks(GUILD_ID);
+        long mask = masks.getOrDefault(0, 0L);
+        for (int roleId : getMemberRoles(GUILD_ID, userId)) {
+            mask |= masks.getOrDefault(roleId, 0L);
+        }
+        return PermissionEvaluator.normalize(mask);
+    }
+
+    public int randomRole(Random random) {
+        List<Integer> ids = new ArrayList<>(roleMasks.keySet());
+        ids.remove(Integer.valueOf(0));
+        Collections.sort(ids);
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    public int holdersOf(int roleId) {
+        int count = 0;
+        for (List<Integer> roles : memberRoles.values()) {
+            if (roles.contains(roleId)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public String memberWithRole(int roleId) {
+        for (String userId : memberIds) {
+            if (memberRoles.get(userId).contains(roleId)) {
+                return userId;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 先修改数据源再生成事件，与真实网关中事件晚于服务端变更到达的顺序一致
+     */
+    public Event updateRole(int roleId, long mask) {
+        roleMasks.put(roleId, mask);
+        return SyntheticEvents.create(RoleInfoUpdateEvent.class, System.currentTimeMillis(), role(roleId, mask));
+    }
+
+    public Event deleteRole(int roleId) {
+        // 删除后成员仍保留角色 ID，此时该角色不再贡献权限
+        long mask = roleMasks.remove(roleId);
+        return SyntheticEvents.create(RoleDeleteEvent.class, System.currentTimeMillis(), role(roleId, mask));
+    }
+
+    public Event createRole(long mask) {
+        int roleId = nextRoleId++;
+        roleMasks.put(roleId, mask);
+        return SyntheticEvents.create(RoleCreateEvent.class, System.currentTimeMillis(), role(roleId, mask));
+    }
+
+    /**
+     * 创建一个角色代理：getId/getGuild/isPermissionSet 返回模拟数据，其余方法返回默认值
+     */
+    private Role role(int roleId, long mask) {
+        return (Role) Proxy.newProxyInstance(Role.class.getClassLoader(), new Class<?>[]{Role.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getId":
+                    return roleId;
+                case "getGuild":
+                    return guildEntity;
+                case "isPermissionSet":
+                    return (mask & ((Permission) args[0]).getValue()) != 0;
+                case "getName":
+                    return "角色 " + roleId;
+                case "hashCode":
+                    return roleId;
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "SyntheticRole(" + roleId + ")";
+                default:
+                    return method.getReturnType() == boolean.class ? false
+                            : method.getReturnType() == int.class ? 0 : null;
+            }
+        });
+    }
+}
@@ -0,0 +1,250 @@
+package me.realseek.test.benchmark;
+
+import snw.jkook.event.Event;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 合成事件工厂
+ * 通过反射调用事件的公共构造器，实体参数使用动态代理桩对象填充，
+ * 以便在没有真实网关事件的情况下向 EventManager 投递事件。
+ * 构造器中的第一个 long 参数（时间戳）可由调用方指定，用作事件序号。
+ */
+public final class SyntheticEvents {
+    private static final Map<Class<?>, Template> TEMPLATES = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Object> STUBS = new ConcurrentHashMap<>();
+
+    private SyntheticEvents() {
+    }
+
+    /**
+     * 创建合成事件，时间戳使用当前时间
+     */
+    public static <T extends Event> T create(Class<T> eventType) {
+        return create(eventType, System.currentTimeMillis());
+    }
+
+    /**
+     * 创建合成事件，并将 timeStamp 写入构造器的第一个 long 参数
+     */
+    public static <T extends Event> T create(Class<T> eventType, long timeStamp) {
+        Template template = TEMPLATES.computeIfAbsent(eventType, SyntheticEvents::resolveTemplate);
+        return eventType.cast(template.newInstance(timeStamp));
+    }
+
+    /**
+     * 创建合成事件，并用指定的实体替换对应的桩参数
+     * 每个实体按顺序填入第一个类型兼容且尚未被替换的构造器参数，例如传入自定义的 Role 对象
+     *
+     * @throws IllegalArgumentException 某个实体没有可以填入的参数
+     */
+    public static <T extends Event> T create(Class<T> eventType, long timeStamp, Object... entities) {
+        Template template = TEMPLATES.computeIfAbsent(eventType, SyntheticEvents::resolveTemplate);
+        return eventType.cast(template.newInstance(timeStamp, entities));
+    }
+
+    /**
+     * 获取指定接口的桩对象（同一接口共享一个实例）
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> type) {
+        return (T) STUBS.computeIfAbsent(type, SyntheticEvents::newStub);
+    }
+
+    /**
+     * 创建一个独立的桩对象，其 getId() 返回指定的 id，用于区分多个模拟实体（如不同的用户）
+     */
+    public static <T> T stub(Class<T> type, String id) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new StubHandler(type, id)));
+    }
+
+    private static Template resolveTemplate(Class<?> eventType) {
+        Constructor<?>[] constructors = eventType.getConstructors();
+        // 优先使用参数最多的构造器，保证事件字段尽可能完整
+        Arrays.sort(constructors, Comparator.comparingInt(Constructor::getParameterCount));
+        for (int i = constructors.length - 1; i >= 0; i--) {
+            Constructor<?> constructor = constructors[i];
+            Class<?>[] parameterTypes = constructor.getParameterTypes();
+            Object[] arguments = new Object[parameterTypes.length];
+            int timeStampIndex = -1;
+            boolean resolvable = true;
+
+            for (int p = 0; p < parameterTypes.length; p++) {
+                Class<?> parameterType = parameterTypes[p];
+                if (parameterType == long.class && timeStampIndex < 0) {
+                    timeStampIndex = p;
+                    arguments[p] = 0L;
+                } else if (isSupported(parameterType)) {
+                    arguments[p] = defaultValue(parameterType);
+                } else {
+                    resolvable = false;
+                    break;
+                }
+            }
+
+            if (resolvable) {
+                return new Template(constructor, arguments, timeStampIndex);
+            }
+        }
+        throw new IllegalArgumentException("无法为事件 " + eventType.getName() + " 构造合成实例");
+    }
+
+    private static boolean isSupported(Class<?> type) {
+        return type.isPrimitive() || type == String.class || type.isInterface() || type.isEnum() || type.isArray();
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0F;
+        }
+        if (type == double.class) {
+            return 0D;
+        }
+        if (type == String.class) {
+            return "";
+        }
+        if (type.isArray()) {
+            return java.lang.reflect.Array.newInstance(type.getComponentType(), 0);
+        }
+        if (type.isEnum()) {
+            Object[] constants = type.getEnumConstants();
+            return constants.length > 0 ? constants[0] : null;
+        }
+        if (type == List.class || type == Collection.class || type == Iterable.class) {
+            return Collections.emptyList();
+        }
+        if (type == Set.class) {
+            return Collections.emptySet();
+        }
+        if (type == Map.class) {
+            return Collections.emptyMap();
+        }
+        if (type.isInterface() && !type.getName().startsWith("java.")) {
+            return stub(type);
+        }
+        return null;
+    }
+
+    private static Object newStub(Class<?> type) {
+        InvocationHandler handler = new StubHandler(type, null);
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    /**
+     * 桩对象调用处理器：Object 方法按身份语义处理，指定了 id 时 getId() 返回该值，其余方法返回类型默认值
+     */
+    private static class StubHandler implements InvocationHandler {
+        private final Class<?> type;
+        private final String id;
+
+        StubHandler(Class<?> type, String id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "toString":
+                    if (method.getParameterCount() == 0) {
+                        return "Synthetic" + type.getSimpleName() + (id != null ? "(" + id + ")" : "");
+                    }
+                    break;
+                case "getId":
+                    if (id != null && method.getParameterCount() == 0 && method.getReturnType() == String.class) {
+                        return id;
+                    }
+                    break;
+                case "hashCode":
+                    if (method.getParameterCount() == 0) {
+                        return System.identityHashCode(proxy);
+                    }
+                    break;
+                case "equals":
+                    if (method.getParameterCount() == 1) {
+                        return proxy == args[0];
+                    }
+                    break;
+                default:
+                    break;
+            }
+            Class<?> returnType = method.getReturnType();
+            if (returnType == void.class) {
+                return null;
+            }
+            return defaultValue(returnType);
+        }
+    }
+
+    /**
+     * 已解析的构造模板，每次创建仅复制参数数组并写入时间戳
+     */
+    private static class Template {
+        private final Constructor<?> constructor;
+        private final Object[] arguments;
+        private final int timeStampIndex;
+
+        Template(Constructor<?> constructor, Object[] arguments, int timeStampIndex) {
+            this.constructor = constructor;
+            this.arguments = arguments;
+            this.timeStampIndex = timeStampIndex;
+            if (!Modifier.isPublic(constructor.getDeclaringClass().getModifiers())) {
+                constructor.setAccessible(true);
+            }
+        }
+
+        Object newInstance(long timeStamp, Object... entities) {
+            Object[] copy = arguments.clone();
+            if (timeStampIndex >= 0) {
+                copy[timeStampIndex] = timeStamp;
+            }
+            if (entities.length > 0) {
+                Class<?>[] parameterTypes = constructor.getParameterTypes();
+                boolean[] replaced = new boolean[parameterTypes.length];
+                for (Object entity : entities) {
+                    int index = -1;
+                    for (int p = 0; p < parameterTypes.length && index < 0; p++) {
+                        if (!replaced[p] && !parameterTypes[p].isPrimitive() && parameterTypes[p].isInstance(entity)) {
+                            index = p;
+                        }
+                    }
+                    if (index < 0) {
+                        throw new IllegalArgumentException(constructor.getDeclaringClass().getSimpleName()
+                                + " 的构造器没有可接收 " + entity.getClass().getName() + " 的参数");
+                    }
+                    replaced[index] = true;
+                    copy[index] = entity;
+                }
+            }
+            try {
+                return constructor.newInstance(copy);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("创建合成事件 " + constructor.getDeclaringClass().getSimpleName() + " 失败", e);
+            }
+        }
+    }
+}
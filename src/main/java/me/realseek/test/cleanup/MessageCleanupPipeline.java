@@ -0,0 +1,356 @@
+package me.realseek.test.cleanup;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import me.realseek.test.benchmark.Benchmarks;
+import snw.jkook.HttpAPI;
+import snw.jkook.config.ConfigurationSection;
+import snw.jkook.config.file.YamlConfiguration;
+import snw.jkook.message.TextChannelMessage;
+import snw.jkook.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 测试消息的并发批量删除
+ * <p>
+ * 固定数量的虚拟线程从队列中取消息 ID 删除。任何一次删除被限速（429）时，所有线程暂停到建议的重置时间后再继续，
+ * 其他失败按指数退避重试。开启 cleanup.direct-delete 时直接请求 message/delete，一条消息只需一次请求；
+ * 否则通过 HttpAPI 先获取消息再删除（JKook 没有按 ID 删除消息的接口）。
+ * <p>
+ * 直接删除绕过了 KookBC 的 HttpAPI，KookBC 不知道这些请求占用了限速配额，清理期间它自己的请求可能收到 429。
+ * Token 优先读取 KookBC 的 kbc.yml，只有读取不到时才使用 cleanup.api-token（明文保存在插件的 config.yml 中）。
+ */
+public class MessageCleanupPipeline {
+    private static final long INITIAL_BACKOFF_MILLIS = 100;
+    private static final int MAX_THROTTLED_ATTEMPTS = 20;
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final Deleter deleter;
+    private final int concurrency;
+    private final int maxRetries;
+    private final long maxBackoffMillis;
+    private final AtomicLong pausedUntil = new AtomicLong();
+
+    /**
+     * @param deleter          删除单条消息的方式
+     * @param concurrency      同时进行的删除数
+     * @param maxRetries       每条消息失败后的最大重试次数
+     * @param maxBackoffMillis 单次退避的最长等待（毫秒）
+     */
+    public MessageCleanupPipeline(Deleter deleter, int concurrency, int maxRetries, long maxBackoffMillis) {
+        this.deleter = deleter;
+        this.concurrency = Math.max(1, concurrency);
+        this.maxRetries = Math.max(0, maxRetries);
+        this.maxBackoffMillis = Math.max(0, maxBackoffMillis);
+    }
+
+    /**
+     * 按 config.yml 的 cleanup 配置创建
+     */
+    public static MessageCleanupPipeline fromConfig(Plugin plugin) {
+        ConfigurationSection config = plugin.getConfig();
+        String apiToken = Objects.requireNonNullElse(config.getString("cleanup.api-token", ""), "");
+        String token = "";
+        // 兼容只填写了 api-token 的旧配置
+        if (config.getBoolean("cleanup.direct-delete", false) || !apiToken.isEmpty()) {
+            token = kookbcToken(plugin);
+            if (token.isEmpty()) {
+                token = apiToken;
+            }
+            if (token.isEmpty()) {
+                plugin.getLogger().warn("已开启 cleanup.direct-delete，但 kbc.yml 与 cleanup.api-token 中都没有 Token，改为先获取消息再删除");
+            }
+        }
+        Deleter deleter = token.isEmpty()
+                ? fetchAndDelete(plugin.getCore().getHttpAPI())
+                : direct(config.getString("cleanup.api-base-url", "https://www.kookapp.cn/api/v3/"), token);
+        return new MessageCleanupPipeline(deleter,
+                config.getInt("cleanup.concurrency", 4),
+                config.getInt("cleanup.max-retries", 3),
+                config.getLong("cleanup.max-backoff-ms", 2000L));
+    }
+
+    /**
+     * 读取 KookBC 的 kbc.yml 中的 token（KookBC 运行目录即 plugins 目录的上一级），读取不到时返回空字符串。
+     * 通过启动参数传入 Token 时 kbc.yml 中没有该值
+     */
+    private static String kookbcToken(Plugin plugin) {
+        File pluginsFolder = plugin.getDataFolder().getAbsoluteFile().getParentFile();
+        File file = new File(pluginsFolder == null ? new File(".") : pluginsFolder.getParentFile(), "kbc.yml");
+        if (!file.isFile()) {
+            return "";
+        }
+        try {
+            YamlConfiguration kbc = new YamlConfiguration();
+            kbc.load(file);
+            String token = kbc.getString("token", "");
+            return token == null ? "" : token.trim();
+        } catch (Exception e) {
+            plugin.getLogger().warn("读取 {} 失败: {}", file.getPath(), e.getMessage());
+            return "";
+        }
+    }
+
+    /**
+     * 先通过 HttpAPI 获取消息再删除，每条消息两次请求。
+     * KookBC 获取或删除已不存在的消息时抛出异常而不是返回 null，这种情况同样视为删除成功
+     */
+    public static Deleter fetchAndDelete(HttpAPI api) {
+        return messageId -> {
+            try {
+                TextChannelMessage message = api.getTextChannelMessage(messageId);
+                if (message != null) {
+                    message.delete();
+                }
+            } catch (RuntimeException e) {
+                if (!isMessageMissing(e)) {
+                    throw e;
+                }
+            }
+        };
+    }
+
+    /**
+     * 直接请求 KOOK 的 message/delete 接口，每条消息一次请求；消息已不存在时视为删除成功
+     *
+     * @param baseUrl API 地址，如 https://www.kookapp.cn/api/v3/
+     * @param token   机器人 Token
+     */
+    public static Deleter direct(String baseUrl, String token) {
+        String prefix = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        return messageId -> {
+            JsonObject payload = new JsonObject();
+            payload.addProperty("msg_id", messageId);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(prefix + "message/delete"))
+                    .timeout(Duration.ofSeconds(10))
+                    .header("Authorization", "Bot " + token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(payload.toString()))
+                    .build();
+            HttpResponse<String> response = CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 429) {
+                long resetSeconds = Long.parseLong(response.headers().firstValue("X-Rate-Limit-Reset").orElse("1"));
+                throw new RateLimitedException(TimeUnit.SECONDS.toMillis(resetSeconds));
+            }
+            JsonObject body = JsonParser.parseString(response.body()).getAsJsonObject();
+            int code = body.get("code").getAsInt();
+            if (code == 0 && response.statusCode() == 200 || isMessageMissing(code, body)) {
+                return;
+            }
+            throw new IllegalStateException("HTTP " + response.statusCode() + ": " + response.body());
+        };
+    }
+
+    /**
+     * KOOK 对不存在的消息返回 code 40000 与“消息不存在”之类的提示
+     */
+    private static boolean isMessageMissing(int code, JsonObject body) {
+        return code == 40000 && body.has("message") && body.get("message").getAsString().contains("不存在");
+    }
+
+    /**
+     * 判断 HttpAPI 抛出的异常是否表示消息不存在。与限速异常一样，KookBC 没有公开对应的异常类型，只能根据异常信息判断
+     */
+    static boolean isMessageMissing(Throwable e) {
+        if (Benchmarks.isRateLimitError(e)) {
+            return false;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String message = String.valueOf(cause.getMessage());
+            if (message.contains("不存在") || message.toLowerCase(Locale.ROOT).contains("not exist")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 删除所有消息（重复的 ID 只删除一次），阻塞到全部完成或放弃
+     */
+    public Result run(Collection<String> messageIds) {
+        Queue<String> queue = new ConcurrentLinkedQueue<>(new LinkedHashSet<>(messageIds));
+        Result result = new Result(queue.size());
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < Math.min(concurrency, result.total); i++) {
+                executor.submit(() -> {
+                    for (String messageId; (messageId = queue.poll()) != null; ) {
+                        delete(messageId, result);
+                    }
+                });
+            }
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private void delete(String messageId, Result result) {
+        int failures = 0;
+        int throttles = 0;
+        while (true) {
+            awaitPause();
+            result.requests.increment();
+            try {
+                deleter.delete(messageId);
+                result.deleted.increment();
+                return;
+            } catch (Exception e) {
+                boolean limited = e instanceof RateLimitedException || Benchmarks.isRateLimitError(e);
+                if (limited) {
+                    result.throttled.increment();
+                }
+                // 限速只说明需要等待，不计入失败次数，但也不无限等待
+                boolean giveUp = limited ? ++throttles > MAX_THROTTLED_ATTEMPTS : ++failures > maxRetries;
+                if (giveUp) {
+                    result.failed.add(messageId);
+                    result.firstError.compareAndSet(null, e.getClass().getSimpleName() + ": " + e.getMessage());
+                    return;
+                }
+                result.retries.increment();
+                if (limited) {
+                    long wait = e instanceof RateLimitedException
+                            ? ((RateLimitedException) e).getRetryAfterMillis()
+                            : backoff(throttles);
+                    pause(Math.min(maxBackoffMillis, wait));
+                } else {
+                    sleep(backoff(failures));
+                }
+            }
+        }
+    }
+
+    private long backoff(int attempt) {
+        return Math.min(maxBackoffMillis, INITIAL_BACKOFF_MILLIS << Math.min(attempt - 1, 20));
+    }
+
+    /**
+     * 所有线程在 millis 毫秒内都不再发起删除
+     */
+    private void pause(long millis) {
+        long until = System.currentTimeMillis() + millis;
+        pausedUntil.accumulateAndGet(until, Math::max);
+    }
+
+    private void awaitPause() {
+        long wait = pausedUntil.get() - System.currentTimeMillis();
+        while (wait > 0 && !Thread.currentThread().isInterrupted()) {
+            sleep(wait);
+            wait = pausedUntil.get() - System.currentTimeMillis();
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 删除单条消息
+     */
+    @FunctionalInterface
+    public interface Deleter {
+        void delete(String messageId) throws IOException, InterruptedException;
+    }
+
+    /**
+     * 删除被限速，携带建议的等待时间
+     */
+    public static class RateLimitedException extends RuntimeException {
+        private final long retryAfterMillis;
+
+        public RateLimitedException(long retryAfterMillis) {
+            super("HTTP 429, " + retryAfterMillis + "ms 后重置");
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        public long getRetryAfterMillis() {
+            return retryAfterMillis;
+        }
+    }
+
+    /**
+     * 一次清理的统计
+     */
+    public static class Result {
+        private final int total;
+        private final LongAdder deleted = new LongAdder();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder throttled = new LongAdder();
+        private final Queue<String> failed = new ConcurrentLinkedQueue<>();
+        private final AtomicReference<String> firstError = new AtomicReference<>();
+        private long elapsedNanos;
+
+        private Result(int total) {
+            this.total = total;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public long getDeleted() {
+            return deleted.sum();
+        }
+
+        public long getRetries() {
+            return retries.sum();
+        }
+
+        public long getThrottled() {
+            return throttled.sum();
+        }
+
+        /**
+         * 放弃删除的消息 ID
+         */
+        public List<String> getFailed() {
+            return new ArrayList<>(failed);
+        }
+
+        public String getFirstError() {
+            return firstError.get();
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * 每秒删除的消息数
+         */
+        public double throughput() {
+            return elapsedNanos == 0 ? 0 : getDeleted() * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("删除 %d/%d 条，耗时 %dms（%.1f 条/秒），删除请求 %d 次，重试 %d 次（限速 %d 次），失败 %d 条",
+                    getDeleted(), total, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), throughput(),
+                    requests.sum(), getRetries(), getThrottled(), failed.size());
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package me.realseek.test.event;
+
+import snw.jkook.event.Event;
+import snw.jkook.event.EventHandler;
+import snw.jkook.event.Listener;
+import snw.jkook.event.channel.ChannelMessageDeleteEvent;
+import snw.jkook.event.channel.ChannelMessageEvent;
+import snw.jkook.event.channel.ChannelMessageUpdateEvent;
+import snw.jkook.event.guild.GuildBanUserEvent;
+import snw.jkook.event.pm.PrivateMessageReceivedEvent;
+import snw.jkook.event.user.*;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 事件录制监听器
+ * 将收到的网关事件以紧凑格式追加写入轨迹文件（格式见 {@link EventTrace}），
+ * 供 {@link EventReplayer} 离线回放
+ */
+public class EventRecorder implements Listener, Closeable {
+    private final File file;
+    private final DataOutputStream out;
+    private final Map<Class<?>, Integer> typeIds = new HashMap<>();
+    private long lastCaptureNanos = -1;
+    private long recordedCount;
+    private boolean closed;
+
+    public EventRecorder(File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        boolean newFile = !file.exists() || file.length() == 0;
+        this.file = file;
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        if (newFile) {
+            out.writeInt(EventTrace.MAGIC);
+            out.writeByte(EventTrace.VERSION);
+        }
+    }
+
+    /**
+     * 记录一个事件
+     */
+    public synchronized void record(Event event) {
+        if (closed) {
+            return;
+        }
+        long now = System.nanoTime();
+        try {
+            Class<?> type = event.getClass();
+            Integer typeId = typeIds.get(type);
+            if (typeId == null) {
+                // 追加录制时类型编号在文件内重新定义，读取端以最后一次定义为准
+                typeId = typeIds.size() + 1;
+                typeIds.put(type, typeId);
+                out.writeByte(EventTrace.TAG_TYPE);
+                EventTrace.writeVarLong(out, typeId);
+                out.writeUTF(type.getName());
+            }
+            long delta = lastCaptureNanos < 0 ? 0 : now - lastCaptureNanos;
+            lastCaptureNanos = now;
+
+            out.writeByte(EventTrace.TAG_EVENT);
+            EventTrace.writeVarLong(out, typeId);
+            EventTrace.writeVarLong(out, delta);
+            EventTrace.writeVarLong(out, Math.max(0, event.getTimeStamp()));
+            recordedCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入事件轨迹失败", e);
+        }
+    }
+
+    public synchronized long getRecordedCount() {
+        return recordedCount;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public synchronized void flush() throws IOException {
+        if (!closed) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            out.close();
+        }
+    }
+
+    // ====== 录制的事件类型 ======
+
+    @EventHandler
+    public void onChannelMessage(ChannelMessageEvent event) {
+        record(event);
+    }
+
+    @EventHandler
+    public void onChannelMessageUpdate(ChannelMessageUpdateEvent event) {
+        record(event);
+    }
+
+    @EventHandler
+    public void onChannelMessageDelete(ChannelMessageDeleteEvent event) {
+        record(event);
+    }
+
+    @EventHandler
+    public void onPrivateMessage(PrivateMessageReceivedEvent event) {
+        record(event);
+    }
+
+    @EventHandler
+    public void onUserJoinGuild(UserJoinGuildEvent event) {
+        record(event);
+    }
+
+    @EventHandler
+    public void onUserLeaveGuild(UserLeaveGuildEvent event) {
+        record(event);
+    }
+
+    @EventHandler
+    public void onUserOnline(UserOnlineEvent event) {
+        record(event);
+    }
+
+    @EventHandler
+    public void onUserOffline(UserOfflineEvent event) {
+        record(event);
+    }
+
+    @EventHandler
+    public void onUserJoinVoiceChannel(UserJoinVoiceChannelEvent event) {
+        record(event);
+    }
+
+    @EventHandler
+    public void onUserLeaveVoiceChannel(UserLeaveVoiceChannelEvent event) {
+        record(event);
+    }
+
+    @EventHandler
+    public void onUserClickButton(UserClickButtonEvent event) {
+        record(event);
+    }
+
+    @EventHandler
+    public void onUserAddReaction(UserAddReactionEvent event) {
+        record(event);
+    }
+
+    @EventHandler
+    public void onUserRemoveReaction(UserRemoveReactionEvent event) {
+        record(event);
+    }
+
+    @EventHandler
+    public void onGuildBan(GuildBanUserEvent event) {
+        record(event);
+    }
+}
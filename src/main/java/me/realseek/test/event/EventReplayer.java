@@ -0,0 +1,141 @@
+package me.realseek.test.event;
+
+import me.realseek.test.benchmark.LatencyStats;
+import me.realseek.test.benchmark.SyntheticEvents;
+import snw.jkook.event.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 事件轨迹回放器
+ * 按录制时的相对时间间隔（可加速）把合成事件重新投递到指定目标。
+ * 轨迹只保存事件类型和时间，回放的事件是 {@link SyntheticEvents} 生成的代理，读取内容的方法返回默认值，
+ * 因此只应投递给知道这一点的监听器；投递到 EventManager 会让所有插件的处理器收到这些代理
+ */
+public class EventReplayer {
+    /**
+     * 以最快速度回放，不保留时间间隔
+     */
+    public static final double MAX_SPEED = 0;
+
+    private static final long SPIN_THRESHOLD_NANOS = 50_000;
+
+    private final Consumer<Event> target;
+
+    /**
+     * @param target 接收回放事件的目标，例如测试模块自己的监听器或 {@code eventManager::callEvent}
+     */
+    public EventReplayer(Consumer<Event> target) {
+        this.target = target;
+    }
+
+    /**
+     * 回放轨迹
+     *
+     * @param trace 事件轨迹
+     * @param speed 回放倍速，1 为原速，10 为十倍速，{@link #MAX_SPEED} 为不等待
+     */
+    public Result replay(EventTrace trace, double speed) {
+        // 先构造全部事件，避免构造开销影响回放节奏
+        List<Event> events = new ArrayList<>(trace.size());
+        List<Long> offsets = new ArrayList<>(trace.size());
+        int skipped = 0;
+        for (EventTrace.Entry entry : trace.getEntries()) {
+            Class<? extends Event> type = entry.resolveType();
+            if (type == null) {
+                skipped++;
+                continue;
+            }
+            try {
+                events.add(SyntheticEvents.create(type, entry.getTimeStamp()));
+                offsets.add(entry.getOffsetNanos());
+            } catch (RuntimeException e) {
+                skipped++;
+            }
+        }
+
+        long[] lags = new long[events.size()];
+        long[] dispatchTimes = new long[events.size()];
+        boolean paced = speed > 0;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < events.size(); i++) {
+            long scheduled = start;
+            if (paced) {
+                scheduled += (long) (offsets.get(i) / speed);
+                long wait = scheduled - System.nanoTime();
+                if (wait > SPIN_THRESHOLD_NANOS) {
+                    LockSupport.parkNanos(wait - SPIN_THRESHOLD_NANOS);
+                }
+                while (System.nanoTime() < scheduled) {
+                    Thread.onSpinWait();
+                }
+            }
+
+            long dispatchStart = System.nanoTime();
+            target.accept(events.get(i));
+            long dispatchEnd = System.nanoTime();
+
+            lags[i] = paced ? dispatchStart - scheduled : 0;
+            dispatchTimes[i] = dispatchEnd - dispatchStart;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return new Result(events.size(), skipped, elapsed, LatencyStats.of(lags), LatencyStats.of(dispatchTimes));
+    }
+
+    /**
+     * 回放结果
+     */
+    public static class Result {
+        private final int replayed;
+        private final int skipped;
+        private final long elapsedNanos;
+        private final LatencyStats lag;
+        private final LatencyStats dispatch;
+
+        Result(int replayed, int skipped, long elapsedNanos, LatencyStats lag, LatencyStats dispatch) {
+            this.replayed = replayed;
+            this.skipped = skipped;
+            this.elapsedNanos = elapsedNanos;
+            this.lag = lag;
+            this.dispatch = dispatch;
+        }
+
+        public int getReplayed() {
+            return replayed;
+        }
+
+        /**
+         * 无法解析或无法构造的事件数量
+         */
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * 实际投递时间相对计划时间的滞后分布
+         */
+        public LatencyStats getLag() {
+            return lag;
+        }
+
+        /**
+         * 单次投递耗时分布
+         */
+        public LatencyStats getDispatch() {
+            return dispatch;
+        }
+
+        public double getEventsPerSecond() {
+            return elapsedNanos > 0 ? replayed * 1_000_000_000.0 / elapsedNanos : 0;
+        }
+    }
+}
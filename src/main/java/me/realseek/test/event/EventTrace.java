@@ -0,0 +1,165 @@
+package me.realseek.test.event;
+
+import snw.jkook.event.Event;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 事件轨迹文件格式
+ * <p>
+ * 文件以 4 字节魔数和 1 字节版本号开头，之后是追加写入的记录：
+ * <ul>
+ *     <li>{@code 0x01 varint(typeId) utf(className)} - 事件类型定义，首次出现某类型时写入</li>
+ *     <li>{@code 0x02 varint(typeId) varlong(deltaNanos) varlong(timeStamp)} - 一次事件，deltaNanos 为距上一条事件的间隔</li>
+ * </ul>
+ * 类型定义与事件交错写入，因此同一文件可以被多次追加录制。
+ * 轨迹只保存事件类型与相对时间，回放时以合成事件重建。
+ */
+public final class EventTrace {
+    static final int MAGIC = 0x4B424354; // "KBCT"
+    static final int VERSION = 1;
+    static final int TAG_TYPE = 0x01;
+    static final int TAG_EVENT = 0x02;
+
+    private final List<Entry> entries;
+    private final long fileSize;
+
+    private EventTrace(List<Entry> entries, long fileSize) {
+        this.entries = entries;
+        this.fileSize = fileSize;
+    }
+
+    /**
+     * 读取轨迹文件，文件末尾不完整的记录（如录制中断）会被忽略
+     */
+    public static EventTrace read(File file) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        Map<Integer, String> typeNames = new HashMap<>();
+        long offset = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("不是有效的事件轨迹文件: " + file.getName());
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("不支持的事件轨迹版本: " + version);
+            }
+
+            while (true) {
+                int tag = in.read();
+                if (tag < 0) {
+                    break;
+                }
+                try {
+                    if (tag == TAG_TYPE) {
+                        int typeId = (int) readVarLong(in);
+                        typeNames.put(typeId, in.readUTF());
+                    } else if (tag == TAG_EVENT) {
+                        int typeId = (int) readVarLong(in);
+                        offset += readVarLong(in);
+                        long timeStamp = readVarLong(in);
+                        String typeName = typeNames.get(typeId);
+                        if (typeName == null) {
+                            throw new IOException("事件引用了未定义的类型: " + typeId);
+                        }
+                        entries.add(new Entry(typeName, offset, timeStamp));
+                    } else {
+                        throw new IOException("未知的记录标记: " + tag);
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+            }
+        }
+        return new EventTrace(Collections.unmodifiableList(entries), file.length());
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * 轨迹覆盖的时间跨度（纳秒）
+     */
+    public long getDurationNanos() {
+        return entries.isEmpty() ? 0 : entries.get(entries.size() - 1).getOffsetNanos();
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        while (shift < 64) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+        throw new IOException("varint 过长");
+    }
+
+    /**
+     * 轨迹中的单条事件
+     */
+    public static class Entry {
+        private final String typeName;
+        private final long offsetNanos;
+        private final long timeStamp;
+
+        Entry(String typeName, long offsetNanos, long timeStamp) {
+            this.typeName = typeName;
+            this.offsetNanos = offsetNanos;
+            this.timeStamp = timeStamp;
+        }
+
+        public String getTypeName() {
+            return typeName;
+        }
+
+        /**
+         * 相对于轨迹第一条事件的时间偏移（纳秒）
+         */
+        public long getOffsetNanos() {
+            return offsetNanos;
+        }
+
+        public long getTimeStamp() {
+            return timeStamp;
+        }
+
+        /**
+         * 解析事件类型，类不存在或不是事件时返回 null
+         */
+        public Class<? extends Event> resolveType() {
+            try {
+                Class<?> type = Class.forName(typeName, false, Event.class.getClassLoader());
+                return Event.class.isAssignableFrom(type) ? type.asSubclass(Event.class) : null;
+            } catch (ClassNotFoundException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package me.realseek.test.event;
+
+import me.realseek.test.benchmark.LatencyStats;
+import me.realseek.test.benchmark.ListenerClassGenerator;
+import snw.jkook.event.Event;
+import snw.jkook.event.EventHandler;
+import snw.jkook.event.Listener;
+import snw.jkook.plugin.Plugin;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 事件处理器耗时统计（可选启用）
+ * <p>
+ * 通过 {@link #register} 注册监听器时，如果已启用统计，会为监听器生成一个委托类：
+ * 委托类的每个 @EventHandler 方法调用 {@link #dispatch}，由其计时后再调用原处理器。
+ * 统计包括每个处理器方法的调用次数、累计/最大耗时和异常次数，未启用时直接注册原监听器，没有额外开销。
+ * <p>
+ * 通过 {@link #unregister} 注销时释放监听器占用的委托槽位，同一监听器类之后注册的实例复用已生成的委托类和槽位，
+ * 反复注册/注销不会让槽位无限增长。
+ * <p>
+ * 注意：委托方法上的 @EventHandler 使用注解默认值，原方法上的非默认属性不会被保留。
+ */
+public final class HandlerInstrumentation {
+    private static final MethodType BRIDGE_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static volatile boolean enabled;
+    private static volatile Target[] targets = new Target[0];
+    private static final Object LOCK = new Object();
+    private static final Map<String, HandlerStats> STATS = new ConcurrentHashMap<>();
+    private static final Map<Listener, Slots> WRAPPERS = new IdentityHashMap<>();
+    private static final Map<Class<?>, Deque<Slots>> FREE_SLOTS = new HashMap<>();
+
+    private HandlerInstrumentation() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    /**
+     * 注册监听器，启用统计时注册包装后的委托监听器
+     */
+    public static void register(Plugin plugin, Listener listener) {
+        Listener actual = enabled ? wrap(listener) : listener;
+        plugin.getCore().getEventManager().registerHandlers(plugin, actual);
+    }
+
+    /**
+     * 注销通过 {@link #register} 注册的监听器
+     */
+    public static void unregister(Plugin plugin, Listener listener) {
+        Slots slots;
+        synchronized (LOCK) {
+            slots = WRAPPERS.remove(listener);
+        }
+        plugin.getCore().getEventManager().unregisterHandlers(slots != null ? slots.wrapper : listener);
+        if (slots != null) {
+            release(listener, slots);
+        }
+    }
+
+    /**
+     * 清空槽位中的监听器引用，留给同一监听器类的下一个实例复用
+     */
+    private static void release(Listener listener, Slots slots) {
+        synchronized (LOCK) {
+            Target[] updated = targets.clone();
+            for (int i = 0; i < slots.count; i++) {
+                updated[slots.firstId + i] = null;
+            }
+            targets = updated;
+            FREE_SLOTS.computeIfAbsent(listener.getClass(), key -> new ArrayDeque<>()).push(slots);
+        }
+    }
+
+    /**
+     * 为监听器生成计时委托，同一个监听器只包装一次；没有处理器方法时返回原监听器
+     */
+    public static Listener wrap(Listener listener) {
+        synchronized (LOCK) {
+            Slots existing = WRAPPERS.get(listener);
+            if (existing != null) {
+                return existing.wrapper;
+            }
+
+            List<Method> handlers = findHandlers(listener.getClass());
+            if (handlers.isEmpty()) {
+                return listener;
+            }
+
+            Deque<Slots> free = FREE_SLOTS.get(listener.getClass());
+            Slots released = free == null ? null : free.poll();
+            int firstId = released != null ? released.firstId : targets.length;
+            Target[] updated = Arrays.copyOf(targets, Math.max(targets.length, firstId + handlers.size()));
+            String[] names = new String[handlers.size()];
+            Class<?>[] parameterTypes = new Class<?>[handlers.size()];
+            for (int i = 0; i < handlers.size(); i++) {
+                Method method = handlers.get(i);
+                Class<?> eventType = method.getParameterTypes()[0];
+                String handlerName = listener.getClass().getName() + "#" + method.getName() + "(" + eventType.getSimpleName() + ")";
+                HandlerStats stats = STATS.computeIfAbsent(handlerName, HandlerStats::new);
+                updated[firstId + i] = new Target(listener, toHandle(method), stats);
+                names[i] = method.getName();
+                parameterTypes[i] = eventType;
+            }
+
+            // 同一监听器类的处理器方法顺序固定，释放的委托类可以直接复用
+            Listener wrapper = released != null
+                    ? ListenerClassGenerator.newInstance(released.wrapperClass)
+                    : ListenerClassGenerator.newInstance(ListenerClassGenerator.generateDelegating(
+                            names, parameterTypes, firstId, HandlerInstrumentation.class, "dispatch"));
+            targets = updated;
+            WRAPPERS.put(listener, new Slots(wrapper, firstId, handlers.size()));
+            return wrapper;
+        }
+    }
+
+    /**
+     * 委托类调用的桥接方法，不应直接调用
+     */
+    public static void dispatch(int id, Object event) {
+        Target target = targets[id];
+        if (target == null) {
+            // 注销与分发并发时，槽位可能已被释放
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            target.handle.invokeExact(target.listener, event);
+        } catch (Throwable t) {
+            failed = true;
+            throw HandlerInstrumentation.<RuntimeException>sneakyThrow(t);
+        } finally {
+            target.stats.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * 获取所有处理器的统计数据，按累计耗时降序排列
+     */
+    public static List<HandlerStats> snapshot() {
+        List<HandlerStats> result = new ArrayList<>(STATS.values());
+        result.sort(Comparator.comparingLong(HandlerStats::getTotalNanos).reversed());
+        return result;
+    }
+
+    /**
+     * 清零所有统计数据（已包装的监听器仍然有效），并移除已注销处理器的统计行
+     */
+    public static void reset() {
+        Set<HandlerStats> live = liveStats();
+        STATS.values().removeIf(stats -> !live.contains(stats));
+        for (HandlerStats stats : STATS.values()) {
+            stats.reset();
+        }
+    }
+
+    /**
+     * 当前已注册（未注销）的监听器对应的统计数据
+     */
+    private static Set<HandlerStats> liveStats() {
+        Set<HandlerStats> live = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Target target : targets) {
+            if (target != null) {
+                live.add(target.stats);
+            }
+        }
+        return live;
+    }
+
+    /**
+     * 当前占用的委托槽位数，用于检查注销后槽位被释放
+     */
+    public static int getActiveSlotCount() {
+        int count = 0;
+        for (Target target : targets) {
+            if (target != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 生成处理器耗时报告的文本行
+     */
+    public static List<String> formatReport() {
+        List<String> lines = new ArrayList<>();
+        if (!enabled && STATS.isEmpty()) {
+            lines.add("处理器耗时统计未启用（config.yml 中设置 instrumentation.handlers=true）");
+            return lines;
+        }
+        lines.add(String.format("%-10s %-10s %-10s %-12s %-6s %s", "调用次数", "平均", "最大", "累计", "异常", "处理器"));
+        Set<HandlerStats> live = liveStats();
+        for (HandlerStats stats : snapshot()) {
+            lines.add(String.format("%-10d %-10s %-10s %-12s %-6d %s",
+                    stats.getInvocations(),
+                    LatencyStats.micros(stats.getAverageNanos()),
+                    LatencyStats.micros(stats.getMaxNanos()),
+                    LatencyStats.micros(stats.getTotalNanos()),
+                    stats.getExceptions(),
+                    stats.getHandlerName() + (live.contains(stats) ? "" : "（已注销）")));
+        }
+        return lines;
+    }
+
+    private static List<Method> findHandlers(Class<?> listenerClass) {
+        List<Method> handlers = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (Class<?> type = listenerClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Method method : type.getDeclaredMethods()) {
+                if (!method.isAnnotationPresent(EventHandler.class)
+                        || Modifier.isStatic(method.getModifiers())
+                        || method.getParameterCount() != 1
+                        || !Event.class.isAssignableFrom(method.getParameterTypes()[0])) {
+                    continue;
+                }
+                // 子类覆盖的方法只保留一次
+                if (seen.add(method.getName() + Arrays.toString(method.getParameterTypes()))) {
+                    handlers.add(method);
+                }
+            }
+        }
+        return handlers;
+    }
+
+    private static MethodHandle toHandle(Method method) {
+        try {
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method).asType(BRIDGE_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("无法访问事件处理器 " + method, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> T sneakyThrow(Throwable t) throws T {
+        throw (T) t;
+    }
+
+    /**
+     * 一个监听器占用的委托槽位与包装后的委托监听器
+     */
+    private static class Slots {
+        final Listener wrapper;
+        final Class<? extends Listener> wrapperClass;
+        final int firstId;
+        final int count;
+
+        Slots(Listener wrapper, int firstId, int count) {
+            this.wrapper = wrapper;
+            this.wrapperClass = wrapper.getClass();
+            this.firstId = firstId;
+            this.count = count;
+        }
+    }
+
+    /**
+     * 委托目标：原监听器实例、处理器方法句柄和对应的统计数据
+     */
+    private static class Target {
+        final Object listener;
+        final MethodHandle handle;
+        final HandlerStats stats;
+
+        Target(Object listener, MethodHandle handle, HandlerStats stats) {
+            this.listener = listener;
+            this.handle = handle;
+            this.stats = stats;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package me.realseek.test.event;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个事件处理器方法的统计数据
+ * 使用分段计数器（LongAdder / LongAccumulator），多线程并发记录时几乎没有竞争
+ */
+public class HandlerStats {
+    private final String handlerName;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder exceptions = new LongAdder();
+
+    public HandlerStats(String handlerName) {
+        this.handlerName = handlerName;
+    }
+
+    void record(long nanos, boolean failed) {
+        invocations.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        if (failed) {
+            exceptions.increment();
+        }
+    }
+
+    void reset() {
+        invocations.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        exceptions.reset();
+    }
+
+    /**
+     * 处理器名称，格式为 类名#方法名(事件类型)
+     */
+    public String getHandlerName() {
+        return handlerName;
+    }
+
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public long getExceptions() {
+        return exceptions.sum();
+    }
+
+    public double getAverageNanos() {
+        long count = getInvocations();
+        return count > 0 ? (double) getTotalNanos() / count : 0;
+    }
+}
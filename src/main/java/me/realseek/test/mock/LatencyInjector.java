@@ -0,0 +1,69 @@
+package me.realseek.test.mock;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 模拟服务器的延迟注入
+ * 每个请求的延迟 = 路由延迟（未单独配置时为基础延迟）+ [0, jitter) 的随机抖动，
+ * 抖动使用固定种子生成，相同的请求序列得到相同的延迟序列
+ */
+public class LatencyInjector {
+    private final long baseMillis;
+    private final long jitterMillis;
+    private final Map<String, Long> routeMillis;
+    private final Random random;
+
+    public LatencyInjector(long baseMillis, long jitterMillis, Map<String, Long> routeMillis, long seed) {
+        this.baseMillis = Math.max(0, baseMillis);
+        this.jitterMillis = Math.max(0, jitterMillis);
+        this.routeMillis = new HashMap<>(routeMillis);
+        this.random = new Random(seed);
+    }
+
+    /**
+     * 不注入延迟
+     */
+    public static LatencyInjector none() {
+        return new LatencyInjector(0, 0, new HashMap<>(), 0);
+    }
+
+    /**
+     * 计算路由的下一个延迟
+     *
+     * @param route 不含 /api/v3/ 前缀的路由，如 message/create
+     */
+    public long nextDelay(String route) {
+        long delay = routeMillis.getOrDefault(route, baseMillis);
+        if (jitterMillis > 0) {
+            synchronized (random) {
+                delay += (long) (random.nextDouble() * jitterMillis);
+            }
+        }
+        return delay;
+    }
+
+    /**
+     * 按路由延迟阻塞当前线程
+     */
+    public void apply(String route) {
+        long delay = nextDelay(route);
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getBaseMillis() {
+        return baseMillis;
+    }
+
+    public long getJitterMillis() {
+        return jitterMillis;
+    }
+}
@@ -0,0 +1,349 @@
+package me.realseek.test.mock;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 模拟服务器的固定数据
+ * <p>
+ * 服务器、频道、角色和成员由种子确定性生成，ID 固定，可直接填入 integration-test 配置；
+ * 运行期间创建的消息和上传的文件保存在内存中，消息 ID 与时间戳由种子和序号生成，
+ * 相同种子和相同请求序列得到完全相同的响应。
+ */
+public class MockFixtures {
+    public static final String BOT_ID = "3000000000000000";
+    public static final String GUILD_ID = "1000000000000001";
+    public static final String TEXT_CHANNEL_ID = "2000000000000001";
+    public static final String VOICE_CHANNEL_ID = "2000000000000002";
+    /**
+     * 第一个普通成员，可作为 integration-test.test-user-id
+     */
+    public static final String TEST_USER_ID = "3000000000000001";
+
+    private static final long EPOCH_MILLIS = 1_700_000_000_000L;
+    private static final String[] NAME_PARTS = {"星", "月", "风", "云", "山", "海", "林", "雪", "光", "影"};
+
+    private final long seed;
+    private final JsonObject bot;
+    private final JsonObject guild;
+    private final Map<String, JsonObject> users = new LinkedHashMap<>();
+    private final Map<String, JsonObject> channels = new LinkedHashMap<>();
+    private final List<JsonObject> roles = new ArrayList<>();
+    private final Map<String, List<Integer>> memberRoles = new HashMap<>();
+
+    private final Map<String, JsonObject> messages = new ConcurrentHashMap<>();
+    private final Map<String, List<JsonObject>> channelMessages = new ConcurrentHashMap<>();
+    private final Map<String, Integer> assets = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public MockFixtures(long seed, int memberCount, int roleCount) {
+        this.seed = seed;
+        Random random = new Random(seed);
+
+        bot = user(BOT_ID, "MockBot", 1, true);
+        users.put(BOT_ID, bot);
+        for (int i = 1; i <= memberCount; i++) {
+            String id = String.valueOf(Long.parseLong(BOT_ID) + i);
+            String name = NAME_PARTS[random.nextInt(NAME_PARTS.length)] + NAME_PARTS[random.nextInt(NAME_PARTS.length)] + i;
+            users.put(id, user(id, name, 1000 + random.nextInt(9000), false));
+        }
+
+        List<Integer> roleIds = new ArrayList<>();
+        for (int i = 0; i <= roleCount; i++) {
+            JsonObject role = new JsonObject();
+            int roleId = i == 0 ? 0 : 100 + i;
+            role.addProperty("role_id", roleId);
+            role.addProperty("name", i == 0 ? "@全体成员" : "角色" + i);
+            role.addProperty("color", random.nextInt(0xFFFFFF));
+            role.addProperty("position", i);
+            role.addProperty("hoist", 0);
+            role.addProperty("mentionable", 0);
+            // 全体成员只有基础权限，其余角色随机授予
+            role.addProperty("permissions", i == 0 ? 0x800 : random.nextInt(1 << 28) & ~1);
+            roles.add(role);
+            if (roleId != 0) {
+                roleIds.add(roleId);
+            }
+        }
+        for (String userId : users.keySet()) {
+            List<Integer> held = new ArrayList<>();
+            for (int roleId : roleIds) {
+                if (random.nextInt(4) == 0) {
+                    held.add(roleId);
+                }
+            }
+            memberRoles.put(userId, held);
+        }
+
+        addChannel(TEXT_CHANNEL_ID, "测试文字频道", 1);
+        addChannel(VOICE_CHANNEL_ID, "测试语音频道", 2);
+        for (int i = 3; i <= 5; i++) {
+            addChannel(String.valueOf(Long.parseLong(TEXT_CHANNEL_ID) + i - 1), "文字频道" + i, 1);
+        }
+
+        guild = new JsonObject();
+        guild.addProperty("id", GUILD_ID);
+        guild.addProperty("name", "模拟测试服务器");
+        guild.addProperty("topic", "");
+        guild.addProperty("user_id", BOT_ID);
+        guild.addProperty("icon", "https://img.kookapp.cn/assets/mock/guild.png");
+        guild.addProperty("notify_type", 0);
+        guild.addProperty("region", "beijing");
+        guild.addProperty("enable_open", false);
+        guild.addProperty("open_id", "0");
+        guild.addProperty("default_channel_id", TEXT_CHANNEL_ID);
+        guild.addProperty("welcome_channel_id", TEXT_CHANNEL_ID);
+        guild.addProperty("boost_num", 0);
+        guild.addProperty("level", 0);
+    }
+
+    private static JsonObject user(String id, String name, int identifyNum, boolean isBot) {
+        JsonObject user = new JsonObject();
+        user.addProperty("id", id);
+        user.addProperty("username", name);
+        user.addProperty("nickname", name);
+        user.addProperty("identify_num", String.format("%04d", identifyNum));
+        user.addProperty("online", true);
+        user.addProperty("bot", isBot);
+        user.addProperty("status", 0);
+        user.addProperty("avatar", "https://img.kookapp.cn/assets/mock/avatar_" + id + ".png");
+        user.addProperty("vip_avatar", "");
+        user.addProperty("mobile_verified", true);
+        return user;
+    }
+
+    private void addChannel(String id, String name, int type) {
+        JsonObject channel = new JsonObject();
+        channel.addProperty("id", id);
+        channel.addProperty("name", name);
+        channel.addProperty("user_id", BOT_ID);
+        channel.addProperty("guild_id", GUILD_ID);
+        channel.addProperty("topic", "");
+        channel.addProperty("is_category", false);
+        channel.addProperty("parent_id", "");
+        channel.addProperty("level", channels.size());
+        channel.addProperty("slow_mode", 0);
+        channel.addProperty("type", type);
+        channel.add("permission_overwrites", new JsonArray());
+        channel.add("permission_users", new JsonArray());
+        channel.addProperty("permission_sync", 1);
+        channel.addProperty("has_password", false);
+        channel.addProperty("limit_amount", 0);
+        channels.put(id, channel);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public JsonObject getBot() {
+        return bot.deepCopy();
+    }
+
+    public boolean isGuild(String guildId) {
+        return GUILD_ID.equals(guildId);
+    }
+
+    public JsonObject getGuild() {
+        return guild.deepCopy();
+    }
+
+    /**
+     * 服务器详情：在基础信息上附带频道和角色
+     */
+    public JsonObject getGuildView() {
+        JsonObject view = guild.deepCopy();
+        view.add("channels", toArray(channels.values()));
+        view.add("roles", toArray(roles));
+        return view;
+    }
+
+    /**
+     * 获取用户，指定 guildId 时附带该服务器中的角色
+     */
+    public JsonObject getUser(String userId, String guildId) {
+        JsonObject user = users.get(userId);
+        if (user == null) {
+            return null;
+        }
+        JsonObject copy = user.deepCopy();
+        JsonArray held = new JsonArray();
+        if (isGuild(guildId)) {
+            for (int roleId : memberRoles.get(userId)) {
+                held.add(roleId);
+            }
+        }
+        copy.add("roles", held);
+        return copy;
+    }
+
+    public List<JsonObject> getMembers() {
+        return getMembers(0, users.size());
+    }
+
+    public int getMemberCount() {
+        return users.size();
+    }
+
+    /**
+     * 获取 [from, to) 范围内的成员，分页时只复制当前页
+     */
+    public List<JsonObject> getMembers(int from, int to) {
+        List<JsonObject> members = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            members.add(getUser(memberId(i), GUILD_ID));
+        }
+        return members;
+    }
+
+    private String memberId(int index) {
+        // 成员 ID 从 BOT_ID 开始连续编号，见构造方法
+        return String.valueOf(Long.parseLong(BOT_ID) + index);
+    }
+
+    public List<JsonObject> getChannels() {
+        return copies(channels.values());
+    }
+
+    public JsonObject getChannel(String channelId) {
+        JsonObject channel = channels.get(channelId);
+        return channel == null ? null : channel.deepCopy();
+    }
+
+    public List<JsonObject> getRoles() {
+        return copies(roles);
+    }
+
+    /**
+     * 保存一条新消息
+     *
+     * @param targetId 频道 ID 或私聊用户 ID
+     */
+    public JsonObject createMessage(String targetId, String content, int type, String quote) {
+        long index = sequence.incrementAndGet();
+        JsonObject message = new JsonObject();
+        message.addProperty("id", new UUID(seed, index).toString());
+        message.addProperty("type", type);
+        message.addProperty("content", content);
+        message.addProperty("create_at", EPOCH_MILLIS + index * 1000);
+        message.addProperty("updated_at", 0);
+        message.addProperty("target_id", targetId);
+        message.addProperty("quote", quote == null ? "" : quote);
+        message.add("author", getUser(BOT_ID, GUILD_ID));
+        message.add("mention", new JsonArray());
+        message.addProperty("mention_all", false);
+        message.add("reactions", new JsonArray());
+
+        messages.put(message.get("id").getAsString(), message);
+        channelMessages.computeIfAbsent(targetId, id -> Collections.synchronizedList(new ArrayList<>())).add(message);
+        return message;
+    }
+
+    public JsonObject getMessage(String messageId) {
+        JsonObject message = messages.get(messageId);
+        if (message == null) {
+            return null;
+        }
+        synchronized (message) {
+            return message.deepCopy();
+        }
+    }
+
+    public boolean updateMessage(String messageId, String content) {
+        JsonObject message = messages.get(messageId);
+        if (message == null) {
+            return false;
+        }
+        synchronized (message) {
+            message.addProperty("content", content);
+            message.addProperty("updated_at", EPOCH_MILLIS + sequence.incrementAndGet() * 1000);
+        }
+        return true;
+    }
+
+    public boolean deleteMessage(String messageId) {
+        JsonObject message = messages.remove(messageId);
+        if (message == null) {
+            return false;
+        }
+        List<JsonObject> list = channelMessages.get(message.get("target_id").getAsString());
+        if (list != null) {
+            list.remove(message);
+        }
+        return true;
+    }
+
+    /**
+     * 以某条消息为参照获取频道消息，按时间从旧到新，与 KOOK message/list 一致：
+     * before 为参照消息之前的 pageSize 条，after 为之后的 pageSize 条，around 为以参照消息为中心的 pageSize 条（含参照消息）。
+     * 不指定参照消息时返回最近的 pageSize 条；参照消息不存在时返回空列表
+     */
+    public List<JsonObject> getMessages(String targetId, String referenceId, String flag, int pageSize) {
+        List<JsonObject> list = channelMessages.getOrDefault(targetId, Collections.emptyList());
+        synchronized (list) {
+            if (referenceId == null || referenceId.isEmpty()) {
+                return copies(list.subList(Math.max(0, list.size() - pageSize), list.size()));
+            }
+            int reference = -1;
+            for (int i = list.size() - 1; i >= 0; i--) {
+                if (referenceId.equals(list.get(i).get("id").getAsString())) {
+                    reference = i;
+                    break;
+                }
+            }
+            if (reference < 0) {
+                return Collections.emptyList();
+            }
+            int from;
+            int to;
+            if ("after".equals(flag)) {
+                from = reference + 1;
+                to = Math.min(list.size(), from + pageSize);
+            } else if ("around".equals(flag)) {
+                from = Math.max(0, reference - pageSize / 2);
+                to = Math.min(list.size(), from + pageSize);
+            } else {
+                to = reference;
+                from = Math.max(0, to - pageSize);
+            }
+            return copies(list.subList(from, to));
+        }
+    }
+
+    /**
+     * 保存上传的文件，URL 由内容摘要决定，相同内容得到相同 URL
+     */
+    public String createAsset(String digest, String extension, int size) {
+        String url = "https://img.kookapp.cn/assets/mock/" + digest + (extension.isEmpty() ? "" : "." + extension);
+        assets.put(url, size);
+        return url;
+    }
+
+    public int getAssetCount() {
+        return assets.size();
+    }
+
+    public int getMessageCount() {
+        return messages.size();
+    }
+
+    private static List<JsonObject> copies(Collection<JsonObject> source) {
+        List<JsonObject> result = new ArrayList<>(source.size());
+        for (JsonObject object : source) {
+            result.add(object.deepCopy());
+        }
+        return result;
+    }
+
+    private static JsonArray toArray(Collection<JsonObject> source) {
+        JsonArray array = new JsonArray();
+        for (JsonObject object : source) {
+            array.add(object.deepCopy());
+        }
+        return array;
+    }
+}
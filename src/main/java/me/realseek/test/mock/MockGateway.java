@@ -0,0 +1,344 @@
+package me.realseek.test.mock;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 模拟 KOOK 网关
+ * <p>
+ * 只实现 KOOK 网关需要的 WebSocket 子集（RFC 6455 握手、文本帧、ping/pong 与关闭帧，不压缩），
+ * 以及 KOOK 信令：连接后发送 HELLO（s=1），收到 PING（s=2）回复 PONG（s=3），
+ * 收到 RESUME（s=4）回复 RESUME ACK（s=6），事件以 s=0 推送并按会话递增 sn。
+ */
+public class MockGateway {
+    private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final int OP_TEXT = 0x1;
+    private static final int OP_CLOSE = 0x8;
+    private static final int OP_PING = 0x9;
+    private static final int OP_PONG = 0xA;
+
+    private final ServerSocket serverSocket;
+    private final List<Session> sessions = new CopyOnWriteArrayList<>();
+    private final AtomicInteger sessionIds = new AtomicInteger();
+    private final AtomicLong pings = new AtomicLong();
+    private final Thread acceptThread;
+    private volatile boolean running = true;
+
+    public MockGateway(int port) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.acceptThread = new Thread(this::acceptLoop, "mock-kook-gateway");
+        this.acceptThread.setDaemon(true);
+        this.acceptThread.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public long getPingCount() {
+        return pings.get();
+    }
+
+    /**
+     * 向所有已连接的会话推送事件
+     *
+     * @param data 事件内容（信令的 d 字段）
+     */
+    public void broadcast(JsonObject data) {
+        for (Session session : sessions) {
+            session.sendEvent(data);
+        }
+    }
+
+    public void close() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // 关闭时忽略
+        }
+        for (Session session : sessions) {
+            session.close();
+        }
+        sessions.clear();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread thread = new Thread(() -> handle(socket), "mock-kook-gateway-session");
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (running) {
+                    continue;
+                }
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        Session session = null;
+        try {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            if (!handshake(in, out)) {
+                socket.close();
+                return;
+            }
+            session = new Session(socket, out, "mock-session-" + sessionIds.incrementAndGet());
+            sessions.add(session);
+            session.sendHello();
+
+            while (running) {
+                Frame frame = readFrame(in);
+                if (frame == null || frame.opcode == OP_CLOSE) {
+                    session.sendFrame(OP_CLOSE, new byte[0]);
+                    break;
+                }
+                if (frame.opcode == OP_PING) {
+                    session.sendFrame(OP_PONG, frame.payload);
+                } else if (frame.opcode == OP_TEXT) {
+                    session.onSignal(JsonParser.parseString(new String(frame.payload, StandardCharsets.UTF_8)).getAsJsonObject());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // 客户端断开或发送了无法解析的数据，结束会话
+        } finally {
+            if (session != null) {
+                sessions.remove(session);
+                session.close();
+            } else {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // 关闭时忽略
+                }
+            }
+        }
+    }
+
+    /**
+     * 处理 HTTP Upgrade 请求并回复 101
+     */
+    private boolean handshake(InputStream in, OutputStream out) throws IOException {
+        String key = null;
+        String line;
+        boolean first = true;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            if (first) {
+                first = false;
+                if (!line.startsWith("GET ")) {
+                    return false;
+                }
+                continue;
+            }
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).trim().toLowerCase(Locale.ROOT).equals("sec-websocket-key")) {
+                key = line.substring(colon + 1).trim();
+            }
+        }
+        if (key == null) {
+            out.write("HTTP/1.1 400 Bad Request\r\nContent-Length: 0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            return false;
+        }
+
+        String response = "HTTP/1.1 101 Switching Protocols\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n";
+        out.write(response.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return true;
+    }
+
+    private static String acceptKey(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1")
+                    .digest((key + WEBSOCKET_GUID).getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 不可用", e);
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        int b;
+        while ((b = in.read()) >= 0) {
+            if (b == '\n') {
+                int length = builder.length();
+                if (length > 0 && builder.charAt(length - 1) == '\r') {
+                    builder.setLength(length - 1);
+                }
+                return builder.toString();
+            }
+            builder.append((char) b);
+        }
+        return builder.length() == 0 ? null : builder.toString();
+    }
+
+    /**
+     * 读取一个完整的消息（合并分片），客户端帧必须带掩码
+     */
+    private static Frame readFrame(InputStream in) throws IOException {
+        ByteArrayOutputStream message = new ByteArrayOutputStream();
+        int messageOpcode = -1;
+        while (true) {
+            int b0 = in.read();
+            int b1 = in.read();
+            if (b0 < 0 || b1 < 0) {
+                return null;
+            }
+            boolean fin = (b0 & 0x80) != 0;
+            int opcode = b0 & 0x0F;
+            boolean masked = (b1 & 0x80) != 0;
+            long length = b1 & 0x7F;
+            DataInputStream data = new DataInputStream(in);
+            if (length == 126) {
+                length = data.readUnsignedShort();
+            } else if (length == 127) {
+                length = data.readLong();
+            }
+            if (length > Integer.MAX_VALUE - 8) {
+                throw new IOException("帧过大: " + length);
+            }
+            byte[] mask = new byte[4];
+            if (masked) {
+                data.readFully(mask);
+            }
+            byte[] payload = new byte[(int) length];
+            data.readFully(payload);
+            if (masked) {
+                for (int i = 0; i < payload.length; i++) {
+                    payload[i] ^= mask[i & 3];
+                }
+            }
+
+            // 控制帧可以穿插在分片之间，直接返回
+            if (opcode >= OP_CLOSE) {
+                return new Frame(opcode, payload);
+            }
+            if (opcode != 0) {
+                messageOpcode = opcode;
+            }
+            message.write(payload);
+            if (fin) {
+                return new Frame(messageOpcode, message.toByteArray());
+            }
+        }
+    }
+
+    private static class Frame {
+        final int opcode;
+        final byte[] payload;
+
+        Frame(int opcode, byte[] payload) {
+            this.opcode = opcode;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * 单个网关连接
+     */
+    private class Session {
+        private final Socket socket;
+        private final OutputStream out;
+        private final String sessionId;
+        private long sn;
+
+        Session(Socket socket, OutputStream out, String sessionId) {
+            this.socket = socket;
+            this.out = out;
+            this.sessionId = sessionId;
+        }
+
+        void sendHello() {
+            JsonObject data = new JsonObject();
+            data.addProperty("code", 0);
+            data.addProperty("session_id", sessionId);
+            sendSignal(1, data, null);
+        }
+
+        void onSignal(JsonObject signal) {
+            int s = signal.has("s") ? signal.get("s").getAsInt() : -1;
+            if (s == 2) {
+                pings.incrementAndGet();
+                sendSignal(3, null, null);
+            } else if (s == 4) {
+                JsonObject data = new JsonObject();
+                data.addProperty("session_id", sessionId);
+                sendSignal(6, data, null);
+            }
+        }
+
+        synchronized void sendEvent(JsonObject data) {
+            sendSignal(0, data, ++sn);
+        }
+
+        private void sendSignal(int s, JsonObject data, Long sequence) {
+            JsonObject signal = new JsonObject();
+            signal.addProperty("s", s);
+            if (data != null) {
+                signal.add("d", data);
+            }
+            if (sequence != null) {
+                signal.addProperty("sn", sequence);
+            }
+            sendFrame(OP_TEXT, signal.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        synchronized void sendFrame(int opcode, byte[] payload) {
+            try {
+                out.write(0x80 | opcode);
+                if (payload.length < 126) {
+                    out.write(payload.length);
+                } else if (payload.length <= 0xFFFF) {
+                    out.write(126);
+                    out.write(payload.length >>> 8);
+                    out.write(payload.length & 0xFF);
+                } else {
+                    out.write(127);
+                    long length = payload.length;
+                    for (int shift = 56; shift >= 0; shift -= 8) {
+                        out.write((int) (length >>> shift) & 0xFF);
+                    }
+                }
+                out.write(payload);
+                out.flush();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // 关闭时忽略
+            }
+        }
+    }
+}
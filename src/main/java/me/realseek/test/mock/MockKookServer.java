@@ -0,0 +1,475 @@
+package me.realseek.test.mock;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * 进程内的 KOOK 模拟服务器
+ * <p>
+ * 提供 HttpAPI 用到的 REST 接口子集（网关地址、用户、服务器、频道、角色、消息、私聊、文件上传）
+ * 和 {@link MockGateway} 网关，数据来自 {@link MockFixtures}，响应前按 {@link LatencyInjector} 注入延迟，
+ * 配置了 {@link RateLimiter} 时超出配额的请求返回 429。
+ * 响应格式与 KOOK 一致：{@code {"code":0,"message":"操作成功","data":...}}，列表接口带分页 meta。
+ * 频道消息创建后会像真实服务器一样通过网关推送给机器人自己。
+ */
+public class MockKookServer {
+    public static final String API_PREFIX = "/api/v3/";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final MockFixtures fixtures;
+    private final LatencyInjector latency;
+    private final RateLimiter rateLimiter;
+    private final HttpServer httpServer;
+    private final MockGateway gateway;
+    private final ExecutorService executor;
+    private final Map<String, LongAdder> requestCounts = new ConcurrentHashMap<>();
+    private final LongAdder rateLimited = new LongAdder();
+
+    private MockKookServer(MockFixtures fixtures, LatencyInjector latency, RateLimiter rateLimiter,
+                           int port, int gatewayPort) throws IOException {
+        this.fixtures = fixtures;
+        this.latency = latency;
+        this.rateLimiter = rateLimiter;
+        // 先绑定网关端口：未启动的 HttpServer 调用 stop 不会释放端口，而网关可以随时关闭，
+        // REST 端口被占用时关闭网关，避免重试 /kbctest mock start 时网关端口一直被占用
+        this.gateway = new MockGateway(gatewayPort);
+        try {
+            this.httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException | RuntimeException e) {
+            gateway.close();
+            throw e;
+        }
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "mock-kook-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpServer.createContext(API_PREFIX, this::handle);
+        httpServer.setExecutor(executor);
+    }
+
+    /**
+     * 启动模拟服务器
+     *
+     * @param port        REST 端口，0 表示自动分配
+     * @param gatewayPort 网关端口，0 表示自动分配
+     */
+    public static MockKookServer start(MockFixtures fixtures, LatencyInjector latency, int port, int gatewayPort) throws IOException {
+        return start(fixtures, latency, RateLimiter.unlimited(), port, gatewayPort);
+    }
+
+    /**
+     * 启动带限速的模拟服务器
+     *
+     * @param port        REST 端口，0 表示自动分配
+     * @param gatewayPort 网关端口，0 表示自动分配
+     */
+    public static MockKookServer start(MockFixtures fixtures, LatencyInjector latency, RateLimiter rateLimiter,
+                                       int port, int gatewayPort) throws IOException {
+        MockKookServer server = new MockKookServer(fixtures, latency, rateLimiter, port, gatewayPort);
+        server.httpServer.start();
+        return server;
+    }
+
+    public void stop() {
+        httpServer.stop(0);
+        gateway.close();
+        executor.shutdownNow();
+    }
+
+    /**
+     * REST 接口根地址，形如 http://127.0.0.1:port/api/v3
+     */
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + httpServer.getAddress().getPort() + API_PREFIX.substring(0, API_PREFIX.length() - 1);
+    }
+
+    public String getGatewayUrl() {
+        return "ws://127.0.0.1:" + gateway.getPort() + "/gateway?compress=0";
+    }
+
+    public MockFixtures getFixtures() {
+        return fixtures;
+    }
+
+    public MockGateway getGateway() {
+        return gateway;
+    }
+
+    /**
+     * 路由被请求的次数
+     */
+    public long getRequestCount(String route) {
+        LongAdder count = requestCounts.get(route);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * 因限速返回 429 的请求数
+     */
+    public long getRateLimitedCount() {
+        return rateLimited.sum();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String route = exchange.getRequestURI().getPath().substring(API_PREFIX.length());
+        requestCounts.computeIfAbsent(route, key -> new LongAdder()).increment();
+        RateLimiter.Decision decision = rateLimiter.acquire(route);
+        if (rateLimiter.isEnabled()) {
+            Headers headers = exchange.getResponseHeaders();
+            headers.set("X-Rate-Limit-Limit", String.valueOf(decision.getLimit()));
+            headers.set("X-Rate-Limit-Remaining", String.valueOf(decision.getRemaining()));
+            headers.set("X-Rate-Limit-Reset", String.valueOf(decision.getResetSeconds()));
+            headers.set("X-Rate-Limit-Bucket", decision.getBucket());
+            if (decision.isGlobal()) {
+                headers.set("X-Rate-Limit-Global", "true");
+            }
+        }
+        if (!decision.isAllowed()) {
+            rateLimited.increment();
+            readAll(exchange.getRequestBody());
+            respond(exchange, 429, 429, "请求过于频繁", new JsonArray());
+            return;
+        }
+        try {
+            latency.apply(route);
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            byte[] body = readAll(exchange.getRequestBody());
+            JsonElement data = dispatch(route, exchange.getRequestMethod(), query, body,
+                    exchange.getRequestHeaders().getFirst("Content-Type"));
+            respond(exchange, 200, 0, "操作成功", data);
+        } catch (ApiException e) {
+            respond(exchange, e.status, e.code, e.getMessage(), new JsonArray());
+        } catch (RuntimeException e) {
+            respond(exchange, 500, 50000, "模拟服务器内部错误: " + e.getMessage(), new JsonArray());
+        }
+    }
+
+    private JsonElement dispatch(String route, String method, Map<String, String> query, byte[] body, String contentType) {
+        switch (route) {
+            case "gateway/index": {
+                JsonObject data = new JsonObject();
+                data.addProperty("url", getGatewayUrl());
+                return data;
+            }
+            case "user/me":
+                return fixtures.getBot();
+            case "user/view":
+                return require(fixtures.getUser(query.get("user_id"), query.get("guild_id")), "用户不存在");
+            case "guild/list":
+                return page(Collections.singletonList(fixtures.getGuild()), query);
+            case "guild/view":
+                requireGuild(query.get("guild_id"));
+                return fixtures.getGuildView();
+            case "guild/user-list":
+                requireGuild(query.get("guild_id"));
+                return page(fixtures.getMemberCount(), fixtures::getMembers, query);
+            case "channel/list":
+                requireGuild(query.get("guild_id"));
+                return page(fixtures.getChannels(), query);
+            case "channel/view":
+                return require(fixtures.getChannel(query.get("target_id")), "频道不存在");
+            case "guild-role/list":
+                requireGuild(query.get("guild_id"));
+                return page(fixtures.getRoles(), query);
+            case "message/list": {
+                String targetId = query.get("target_id");
+                require(fixtures.getChannel(targetId), "频道不存在");
+                JsonObject data = new JsonObject();
+                data.add("items", toArray(fixtures.getMessages(targetId, query.get("msg_id"),
+                        query.getOrDefault("flag", "before"), pageSize(query))));
+                return data;
+            }
+            case "message/view":
+                return require(fixtures.getMessage(query.get("msg_id")), "消息不存在");
+            case "message/create":
+                requirePost(method);
+                return createMessage(parseJson(body), true);
+            case "direct-message/create":
+                requirePost(method);
+                return createMessage(parseJson(body), false);
+            case "message/update": {
+                requirePost(method);
+                JsonObject request = parseJson(body);
+                if (!fixtures.updateMessage(string(request, "msg_id"), string(request, "content"))) {
+                    throw new ApiException(40000, "消息不存在");
+                }
+                return new JsonArray();
+            }
+            case "message/delete":
+                requirePost(method);
+                if (!fixtures.deleteMessage(string(parseJson(body), "msg_id"))) {
+                    throw new ApiException(40000, "消息不存在");
+                }
+                return new JsonArray();
+            case "asset/create": {
+                requirePost(method);
+                byte[] file = filePart(body, contentType);
+                JsonObject data = new JsonObject();
+                data.addProperty("url", fixtures.createAsset(digest(file), extension(body, contentType), file.length));
+                return data;
+            }
+            default:
+                throw new ApiException(404, 40400, "模拟服务器未实现的接口: " + route);
+        }
+    }
+
+    private JsonObject createMessage(JsonObject request, boolean channel) {
+        String targetId = string(request, "target_id");
+        if (channel) {
+            require(fixtures.getChannel(targetId), "频道不存在");
+        } else {
+            require(fixtures.getUser(targetId, null), "用户不存在");
+        }
+        int type = request.has("type") ? request.get("type").getAsInt() : 1;
+        JsonObject message = fixtures.createMessage(targetId, string(request, "content"), type, string(request, "quote"));
+
+        if (channel) {
+            gateway.broadcast(channelMessageEvent(message));
+        }
+        JsonObject data = new JsonObject();
+        data.addProperty("msg_id", message.get("id").getAsString());
+        data.addProperty("msg_timestamp", message.get("create_at").getAsLong());
+        data.addProperty("nonce", string(request, "nonce"));
+        return data;
+    }
+
+    /**
+     * 构造频道消息事件（信令 d 字段）
+     */
+    private JsonObject channelMessageEvent(JsonObject message) {
+        String targetId = message.get("target_id").getAsString();
+        JsonObject event = new JsonObject();
+        event.addProperty("channel_type", "GROUP");
+        event.addProperty("type", message.get("type").getAsInt());
+        event.addProperty("target_id", targetId);
+        event.addProperty("author_id", MockFixtures.BOT_ID);
+        event.addProperty("content", message.get("content").getAsString());
+        event.addProperty("msg_id", message.get("id").getAsString());
+        event.addProperty("msg_timestamp", message.get("create_at").getAsLong());
+        event.addProperty("nonce", "");
+
+        JsonObject extra = new JsonObject();
+        extra.addProperty("type", message.get("type").getAsInt());
+        extra.addProperty("guild_id", MockFixtures.GUILD_ID);
+        extra.addProperty("channel_name", fixtures.getChannel(targetId).get("name").getAsString());
+        extra.add("mention", new JsonArray());
+        extra.addProperty("mention_all", false);
+        extra.add("mention_roles", new JsonArray());
+        extra.addProperty("mention_here", false);
+        extra.add("author", fixtures.getUser(MockFixtures.BOT_ID, MockFixtures.GUILD_ID));
+        event.add("extra", extra);
+        return event;
+    }
+
+    private JsonObject page(List<JsonObject> items, Map<String, String> query) {
+        return page(items.size(), items::subList, query);
+    }
+
+    /**
+     * 分页响应
+     *
+     * @param total 总条数
+     * @param slice 按 [from, to) 取出当前页的数据
+     */
+    private JsonObject page(int total, BiFunction<Integer, Integer, List<JsonObject>> slice, Map<String, String> query) {
+        int pageSize = pageSize(query);
+        int pageTotal = Math.max(1, (total + pageSize - 1) / pageSize);
+        int page = Math.max(1, parseInt(query.get("page"), 1));
+        int from = Math.min(total, (page - 1) * pageSize);
+        int to = Math.min(total, from + pageSize);
+
+        JsonObject meta = new JsonObject();
+        meta.addProperty("page", page);
+        meta.addProperty("page_total", pageTotal);
+        meta.addProperty("page_size", pageSize);
+        meta.addProperty("total", total);
+
+        JsonObject data = new JsonObject();
+        data.add("items", toArray(slice.apply(from, to)));
+        data.add("meta", meta);
+        data.add("sort", new JsonObject());
+        return data;
+    }
+
+    private static int pageSize(Map<String, String> query) {
+        return Math.min(MAX_PAGE_SIZE, Math.max(1, parseInt(query.get("page_size"), DEFAULT_PAGE_SIZE)));
+    }
+
+    private void requireGuild(String guildId) {
+        if (!fixtures.isGuild(guildId)) {
+            throw new ApiException(40000, "服务器不存在");
+        }
+    }
+
+    private static void requirePost(String method) {
+        if (!"POST".equalsIgnoreCase(method)) {
+            throw new ApiException(405, 40500, "请使用 POST 请求");
+        }
+    }
+
+    private static JsonObject require(JsonObject value, String message) {
+        if (value == null) {
+            throw new ApiException(40000, message);
+        }
+        return value;
+    }
+
+    private static void respond(HttpExchange exchange, int status, int code, String message, JsonElement data) throws IOException {
+        JsonObject response = new JsonObject();
+        response.addProperty("code", code);
+        response.addProperty("message", message);
+        response.add("data", data);
+        byte[] bytes = response.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static JsonObject parseJson(byte[] body) {
+        if (body.length == 0) {
+            return new JsonObject();
+        }
+        try {
+            return JsonParser.parseString(new String(body, StandardCharsets.UTF_8)).getAsJsonObject();
+        } catch (RuntimeException e) {
+            throw new ApiException(40000, "请求体不是 JSON 对象");
+        }
+    }
+
+    private static String string(JsonObject object, String key) {
+        JsonElement value = object.get(key);
+        return value == null || value.isJsonNull() ? "" : value.getAsString();
+    }
+
+    private static JsonArray toArray(List<JsonObject> items) {
+        JsonArray array = new JsonArray();
+        items.forEach(array::add);
+        return array;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        in.transferTo(out);
+        return out.toByteArray();
+    }
+
+    private static String digest(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                hex.append(String.format("%02x", hash[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    /**
+     * 取 multipart 请求中的文件内容，使相同文件的摘要与分隔符无关；不是 multipart 时返回整个请求体
+     */
+    private static byte[] filePart(byte[] body, String contentType) {
+        if (contentType == null || !contentType.startsWith("multipart/")) {
+            return body;
+        }
+        int boundaryIndex = contentType.indexOf("boundary=");
+        if (boundaryIndex < 0) {
+            return body;
+        }
+        String boundary = contentType.substring(boundaryIndex + 9).replace("\"", "");
+        String text = new String(body, StandardCharsets.ISO_8859_1);
+        int partStart = text.indexOf("filename=");
+        int dataStart = partStart < 0 ? -1 : text.indexOf("\r\n\r\n", partStart);
+        if (dataStart < 0) {
+            return body;
+        }
+        dataStart += 4;
+        int dataEnd = text.indexOf("\r\n--" + boundary, dataStart);
+        return Arrays.copyOfRange(body, dataStart, dataEnd < 0 ? body.length : dataEnd);
+    }
+
+    /**
+     * 从 multipart 请求中的文件名取扩展名
+     */
+    private static String extension(byte[] body, String contentType) {
+        if (contentType == null || !contentType.startsWith("multipart/")) {
+            return "";
+        }
+        String head = new String(body, 0, Math.min(body.length, 1024), StandardCharsets.ISO_8859_1);
+        int index = head.indexOf("filename=\"");
+        if (index < 0) {
+            return "";
+        }
+        int end = head.indexOf('"', index + 10);
+        String fileName = end < 0 ? "" : head.substring(index + 10, end);
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 业务错误，KOOK 以 code 字段区分
+     */
+    private static class ApiException extends RuntimeException {
+        final int status;
+        final int code;
+
+        ApiException(int code, String message) {
+            this(200, code, message);
+        }
+
+        ApiException(int status, int code, String message) {
+            super(message);
+            this.status = status;
+            this.code = code;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package me.realseek.test.mock;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 通过 HTTP 逐页读取模拟服务器的列表接口
+ * <p>
+ * 与 KookBC 的 PageIterator 一样按响应中的 meta.page_total 判断是否还有下一页，每次 next 发出一次请求，
+ * 可以在没有 KookBC 的情况下充当分页数据源。
+ */
+public class MockPages implements Iterator<List<JsonObject>> {
+    private final HttpClient client;
+    private final String url;
+    private final int pageSize;
+    private int page = 1;
+    private int pageTotal = 1;
+
+    /**
+     * @param client   HTTP 客户端
+     * @param server   模拟服务器
+     * @param route    带查询参数的路由，如 guild/user-list?guild_id=...
+     * @param pageSize 每页条数
+     */
+    public MockPages(HttpClient client, MockKookServer server, String route, int pageSize) {
+        this.client = client;
+        this.url = server.getBaseUrl() + "/" + route + (route.contains("?") ? "&" : "?");
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * 模拟服务器成员列表
+     */
+    public static MockPages members(HttpClient client, MockKookServer server, int pageSize) {
+        return new MockPages(client, server, "guild/user-list?guild_id=" + MockFixtures.GUILD_ID, pageSize);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return page <= pageTotal;
+    }
+
+    @Override
+    public List<JsonObject> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + "page=" + page + "&page_size=" + pageSize))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+        String body;
+        try {
+            body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        } catch (IOException e) {
+            throw new IllegalStateException("请求模拟服务器失败: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("请求被中断", e);
+        }
+
+        JsonObject response = JsonParser.parseString(body).getAsJsonObject();
+        if (response.get("code").getAsInt() != 0) {
+            throw new IllegalStateException("模拟服务器返回错误: " + response.get("message").getAsString());
+        }
+        JsonObject data = response.getAsJsonObject("data");
+        pageTotal = data.getAsJsonObject("meta").get("page_total").getAsInt();
+        page++;
+        JsonArray items = data.getAsJsonArray("items");
+        List<JsonObject> result = new ArrayList<>(items.size());
+        for (JsonElement item : items) {
+            result.add(item.getAsJsonObject());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,155 @@
+package me.realseek.test.mock;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 模拟服务器的限速
+ * <p>
+ * 仿照 KOOK 的限速方式：每个路由是一个桶，桶在固定时间窗口内最多接受 bucketLimit 个请求，
+ * 所有路由另外共享一个全局窗口 globalLimit。超出时返回 429，响应头与 KOOK 一致：
+ * X-Rate-Limit-Limit / X-Rate-Limit-Remaining / X-Rate-Limit-Reset（距窗口重置的秒数）/
+ * X-Rate-Limit-Bucket，全局限速时额外带 X-Rate-Limit-Global。
+ */
+public class RateLimiter {
+    private final int bucketLimit;
+    private final int globalLimit;
+    private final long windowMillis;
+    private final Map<String, Window> buckets = new ConcurrentHashMap<>();
+    private final Window global = new Window();
+
+    /**
+     * @param bucketLimit  每个路由每个窗口的请求上限，0 表示不限
+     * @param globalLimit  所有路由每个窗口的请求上限，0 表示不限
+     * @param windowMillis 窗口长度（毫秒）
+     */
+    public RateLimiter(int bucketLimit, int globalLimit, long windowMillis) {
+        this.bucketLimit = Math.max(0, bucketLimit);
+        this.globalLimit = Math.max(0, globalLimit);
+        this.windowMillis = Math.max(1, windowMillis);
+    }
+
+    /**
+     * 不限速
+     */
+    public static RateLimiter unlimited() {
+        return new RateLimiter(0, 0, 1000);
+    }
+
+    public boolean isEnabled() {
+        return bucketLimit > 0 || globalLimit > 0;
+    }
+
+    public int getBucketLimit() {
+        return bucketLimit;
+    }
+
+    public int getGlobalLimit() {
+        return globalLimit;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    /**
+     * 为一次请求占用配额
+     *
+     * @param route 不含 /api/v3/ 前缀的路由，即桶名
+     */
+    public Decision acquire(String route) {
+        if (!isEnabled()) {
+            return new Decision(true, false, route, 0, 0, 0);
+        }
+        long now = System.currentTimeMillis();
+        long windowStart = now - now % windowMillis;
+        long resetMillis = windowStart + windowMillis - now;
+
+        // 全局窗口先检查，被全局限速的请求不消耗路由桶
+        if (globalLimit > 0 && !global.tryAcquire(windowStart, globalLimit)) {
+            return new Decision(false, true, route, globalLimit, 0, resetMillis);
+        }
+        if (bucketLimit == 0) {
+            return new Decision(true, false, route, globalLimit, global.remaining(windowStart, globalLimit), resetMillis);
+        }
+        Window bucket = buckets.computeIfAbsent(route, key -> new Window());
+        boolean allowed = bucket.tryAcquire(windowStart, bucketLimit);
+        return new Decision(allowed, false, route, bucketLimit, bucket.remaining(windowStart, bucketLimit), resetMillis);
+    }
+
+    /**
+     * 固定窗口计数
+     */
+    private static class Window {
+        private long start = -1;
+        private int used;
+
+        synchronized boolean tryAcquire(long windowStart, int limit) {
+            if (start != windowStart) {
+                start = windowStart;
+                used = 0;
+            }
+            if (used >= limit) {
+                return false;
+            }
+            used++;
+            return true;
+        }
+
+        synchronized int remaining(long windowStart, int limit) {
+            return start != windowStart ? limit : Math.max(0, limit - used);
+        }
+    }
+
+    /**
+     * 一次限速判定的结果
+     */
+    public static class Decision {
+        private final boolean allowed;
+        private final boolean global;
+        private final String bucket;
+        private final int limit;
+        private final int remaining;
+        private final long resetMillis;
+
+        Decision(boolean allowed, boolean global, String bucket, int limit, int remaining, long resetMillis) {
+            this.allowed = allowed;
+            this.global = global;
+            this.bucket = bucket;
+            this.limit = limit;
+            this.remaining = remaining;
+            this.resetMillis = resetMillis;
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        public boolean isGlobal() {
+            return global;
+        }
+
+        public String getBucket() {
+            return bucket;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public int getRemaining() {
+            return remaining;
+        }
+
+        public long getResetMillis() {
+            return resetMillis;
+        }
+
+        /**
+         * X-Rate-Limit-Reset 头的值：距窗口重置的秒数，向上取整
+         */
+        public long getResetSeconds() {
+            return (resetMillis + 999) / 1000;
+        }
+    }
+}
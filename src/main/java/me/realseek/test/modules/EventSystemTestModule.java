@@ -1,7 +1,10 @@
 package me.realseek.test.modules;
 
 import me.realseek.test.BaseTestModule;
+import me.realseek.test.benchmark.SyntheticEvents;
+import me.realseek.test.event.HandlerInstrumentation;
 import snw.jkook.entity.User;
+import snw.jkook.event.Event;
 import snw.jkook.event.EventHandler;
 import snw.jkook.event.Listener;
 import snw.jkook.event.channel.*;
@@ -11,6 +14,10 @@ import snw.jkook.event.user.*;
 import snw.jkook.message.Message;
 import snw.jkook.message.ChannelMessage;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -20,6 +27,11 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class EventSystemTestModule extends BaseTestModule {
     private final AtomicInteger eventCount = new AtomicInteger(0);
+    /**
+     * 分发计数测试投递的合成事件实例，只统计这些实例，不受期间到达的真实网关事件影响
+     */
+    private final Set<Event> pendingSynthetic = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    private final AtomicInteger syntheticCount = new AtomicInteger(0);
     private final AtomicBoolean listenerRegistered = new AtomicBoolean(false);
     private TestEventListener testListener;
 
@@ -38,6 +50,7 @@ public class EventSystemTestModule extends BaseTestModule {
         runTest("事件管理器可用性检查", this::testEventManagerAvailability);
         runTest("事件监听器注册", this::testEventListenerRegistration);
         runTest("事件监听器注销", this::testEventListenerUnregistration);
+        runTest("事件分发计数验证", this::testEventDispatchCount);
         runTest("事件优先级支持", this::testEventPriority);
         runTest("频道消息事件类型检查", this::testChannelMessageEventType);
         runTest("用户事件类型检查", this::testUserEventTypes);
@@ -51,25 +64,54 @@ public class EventSystemTestModule extends BaseTestModule {
     }
 
     private void testEventListenerRegistration() {
+        if (listenerRegistered.get() && testListener != null) {
+            // 上一次运行的监听器
+            HandlerInstrumentation.unregister(plugin, testListener);
+        }
         testListener = new TestEventListener();
-        plugin.getCore().getEventManager().registerHandlers(plugin, testListener);
+        HandlerInstrumentation.register(plugin, testListener);
         listenerRegistered.set(true);
         assertTrue(true, "监听器注册成功");
     }
 
     private void testEventListenerUnregistration() {
         if (listenerRegistered.get() && testListener != null) {
-            // 测试注销功能
-            plugin.getCore().getEventManager().unregisterAllHandlers(plugin);
-            assertTrue(true, "监听器注销成功");
+            // 只注销本模块的监听器，不影响插件的其他监听器（如事件录制）
+            int slotsBefore = HandlerInstrumentation.getActiveSlotCount();
+            HandlerInstrumentation.unregister(plugin, testListener);
+            if (HandlerInstrumentation.isEnabled()) {
+                assertTrue(HandlerInstrumentation.getActiveSlotCount() < slotsBefore, "注销后应释放监听器占用的委托槽位");
+            }
 
             // 重新注册以便后续测试
-            plugin.getCore().getEventManager().registerHandlers(plugin, testListener);
+            HandlerInstrumentation.register(plugin, testListener);
         } else {
             assertTrue(false, "监听器未注册，无法测试注销");
         }
     }
 
+    private void testEventDispatchCount() {
+        assertTrue(listenerRegistered.get() && testListener != null, "监听器未注册，无法验证事件分发");
+
+        Event message = SyntheticEvents.create(ChannelMessageEvent.class);
+        Event join = SyntheticEvents.create(UserJoinGuildEvent.class);
+        pendingSynthetic.clear();
+        pendingSynthetic.add(message);
+        pendingSynthetic.add(join);
+        int before = syntheticCount.get();
+        plugin.getCore().getEventManager().callEvent(message);
+        plugin.getCore().getEventManager().callEvent(join);
+
+        // 兼容异步分发，最多等待 2 秒
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (syntheticCount.get() - before < 2 && System.nanoTime() < deadline) {
+            Thread.yield();
+        }
+
+        assertEquals(2, syntheticCount.get() - before, "两个合成事件应各被处理一次");
+        assertTrue(pendingSynthetic.isEmpty(), "合成事件未被处理: " + pendingSynthetic);
+    }
+
     private void testEventPriority() {
         // 验证事件处理器注解支持
         assertTrue(EventHandler.class.isAnnotation(), "EventHandler应该是注解类型");
@@ -131,50 +173,58 @@ public class EventSystemTestModule extends BaseTestModule {
     public void cleanup() {
         if (listenerRegistered.get() && testListener != null) {
             try {
-                plugin.getCore().getEventManager().unregisterAllHandlers(plugin);
+                HandlerInstrumentation.unregister(plugin, testListener);
+                listenerRegistered.set(false);
             } catch (Exception e) {
                 logger.warn("清理事件监听器时发生错误", e);
             }
         }
     }
 
+    private void received(Event event) {
+        eventCount.incrementAndGet();
+        if (pendingSynthetic.remove(event)) {
+            syntheticCount.incrementAndGet();
+        }
+    }
+
     /**
      * 测试用事件监听器
      */
     private class TestEventListener implements Listener {
         @EventHandler
         public void onChannelMessage(ChannelMessageEvent event) {
-            eventCount.incrementAndGet();
+            received(event);
             logger.debug("收到频道消息事件: {}", event.getClass().getSimpleName());
         }
 
         @EventHandler
         public void onUserJoinGuild(UserJoinGuildEvent event) {
-            eventCount.incrementAndGet();
+            received(event);
             logger.debug("收到用户加入服务器事件");
         }
 
         @EventHandler
         public void onUserLeaveGuild(UserLeaveGuildEvent event) {
-            eventCount.incrementAndGet();
+            received(event);
             logger.debug("收到用户离开服务器事件");
         }
 
         @EventHandler
         public void onPrivateMessage(PrivateMessageReceivedEvent event) {
-            eventCount.incrementAndGet();
+            received(event);
             logger.debug("收到私聊消息事件");
         }
 
         @EventHandler
         public void onGuildBan(GuildBanUserEvent event) {
-            eventCount.incrementAndGet();
+            received(event);
             logger.debug("收到用户被封禁事件");
         }
 
         @EventHandler
         public void onUserClickButton(UserClickButtonEvent event) {
-            eventCount.incrementAndGet();
+            received(event);
             logger.debug("收到用户点击按钮事件");
         }
     }
@@ -0,0 +1,175 @@
+package me.realseek.test.modules;
+
+import me.realseek.test.BaseTestModule;
+import me.realseek.test.benchmark.SyntheticEvents;
+import me.realseek.test.modules.integration.IntegrationConfig;
+import me.realseek.test.modules.integration.IntegrationFixtures;
+import snw.jkook.entity.Guild;
+import snw.jkook.entity.User;
+import snw.jkook.entity.channel.TextChannel;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 集成测试共享实体注册表测试模块
+ * 用内存中的桩对象代替 HttpAPI 验证 {@link IntegrationFixtures}：并发访问只获取一次、
+ * 获取失败不缓存、失效后重新获取，以及未配置的实体不发出请求。不需要真实环境
+ */
+public class IntegrationFixturesTestModule extends BaseTestModule {
+    private static final int CONCURRENT_READERS = 16;
+    private static final long RESOLVE_MILLIS = 50;
+
+    private final Map<IntegrationFixtures.Kind, AtomicInteger> calls = new EnumMap<>(IntegrationFixtures.Kind.class);
+
+    @Override
+    public String getName() {
+        return "共享实体注册表";
+    }
+
+    @Override
+    public String getDescription() {
+        return "验证集成测试共享实体的并发去重、失败不缓存与失效重新获取";
+    }
+
+    @Override
+    protected void executeTests() {
+        runTest("并发访问只获取一次", this::testConcurrentGet);
+        runTest("获取失败不缓存", this::testFailureNotCached);
+        runTest("失效后重新获取", this::testInvalidate);
+        runTest("未配置的实体", this::testUnconfigured);
+    }
+
+    private IntegrationFixtures create(IntegrationFixtures.Resolver resolver) {
+        calls.clear();
+        for (IntegrationFixtures.Kind kind : IntegrationFixtures.Kind.values()) {
+            calls.put(kind, new AtomicInteger());
+        }
+        IntegrationConfig config = IntegrationConfig.current().withTargets("guild-1", "text-1", "", "user-1");
+        return IntegrationFixtures.create(config, (kind, id) -> {
+            calls.get(kind).incrementAndGet();
+            return resolver.resolve(kind, id);
+        });
+    }
+
+    private static Object stub(IntegrationFixtures.Kind kind, String id) {
+        switch (kind) {
+            case GUILD:
+                return SyntheticEvents.stub(Guild.class, id);
+            case TEXT_CHANNEL:
+                return SyntheticEvents.stub(TextChannel.class, id);
+            default:
+                return SyntheticEvents.stub(User.class, id);
+        }
+    }
+
+    /**
+     * 多个线程同时访问尚未获取的服务器，获取较慢时也只应发出一次请求，所有线程拿到同一个实例
+     */
+    private void testConcurrentGet() {
+        IntegrationFixtures fixtures = create((kind, id) -> {
+            try {
+                Thread.sleep(RESOLVE_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return stub(kind, id);
+        });
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Guild>> results = new ArrayList<>();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < CONCURRENT_READERS; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return fixtures.guild();
+                    }));
+                }
+                start.countDown();
+            }
+
+            Set<Guild> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Future<Guild> result : results) {
+                Guild guild = result.get();
+                assertNotNull(guild, "共享服务器不应为 null");
+                distinct.add(guild);
+            }
+            assertEquals(1, distinct.size(), "所有线程应拿到同一个服务器实例");
+            assertEquals(1, calls.get(IntegrationFixtures.Kind.GUILD).get(), "并发访问应只获取一次");
+            assertEquals(1L, fixtures.getResolutionCount(), "注册表统计的请求次数不匹配");
+            assertEquals((long) CONCURRENT_READERS, fixtures.getAccessCount(), "注册表统计的访问次数不匹配");
+            addDetail(CONCURRENT_READERS + " 个线程并发访问，获取 " + calls.get(IntegrationFixtures.Kind.GUILD).get() + " 次");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("等待并发访问被中断: " + e.getMessage(), e);
+        } catch (ExecutionException e) {
+            throw new AssertionError("并发访问失败: " + e.getCause(), e.getCause());
+        } finally {
+            fixtures.close();
+        }
+    }
+
+    /**
+     * 第一次获取失败时异常传给访问者，下一次访问重新请求而不是返回缓存的失败
+     */
+    private void testFailureNotCached() {
+        AtomicInteger attempts = new AtomicInteger();
+        IntegrationFixtures fixtures = create((kind, id) -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("模拟请求失败");
+            }
+            return stub(kind, id);
+        });
+        try {
+            try {
+                fixtures.textChannel();
+                throw new AssertionError("第一次获取失败时应抛出异常");
+            } catch (IllegalStateException expected) {
+                assertEquals("模拟请求失败", expected.getMessage(), "应抛出获取时的原始异常");
+            }
+            assertNotNull(fixtures.textChannel(), "失败后再次访问应重新获取成功");
+            assertNotNull(fixtures.textChannel(), "成功后应缓存结果");
+            assertEquals(2, calls.get(IntegrationFixtures.Kind.TEXT_CHANNEL).get(), "失败一次后应只再获取一次");
+        } finally {
+            fixtures.close();
+        }
+    }
+
+    /**
+     * 失效后下一次访问重新获取，得到新的实例
+     */
+    private void testInvalidate() {
+        IntegrationFixtures fixtures = create(IntegrationFixturesTestModule::stub);
+        try {
+            User first = fixtures.user();
+            assertTrue(first == fixtures.user(), "未失效时应返回缓存的实例");
+            assertEquals(1, calls.get(IntegrationFixtures.Kind.USER).get(), "未失效时应只获取一次");
+
+            fixtures.invalidate(IntegrationFixtures.Kind.USER);
+            User second = fixtures.user();
+            assertEquals(2, calls.get(IntegrationFixtures.Kind.USER).get(), "失效后应重新获取");
+            assertFalse(first == second, "失效后应返回重新获取的实例");
+            assertTrue(fixtures.formatReport().stream().anyMatch(line -> line.startsWith(IntegrationFixtures.Kind.USER.getDisplayName())),
+                    "报告中应包含用户的统计");
+        } finally {
+            fixtures.close();
+        }
+    }
+
+    /**
+     * 未配置 ID 的实体返回 null，prefetch 也不会为它发出请求
+     */
+    private void testUnconfigured() {
+        IntegrationFixtures fixtures = create(IntegrationFixturesTestModule::stub);
+        try {
+            fixtures.prefetch();
+            assertNotNull(fixtures.guild(), "已配置的服务器应能获取");
+            assertTrue(fixtures.voiceChannel() == null, "未配置的语音频道应返回 null");
+            assertEquals(0, calls.get(IntegrationFixtures.Kind.VOICE_CHANNEL).get(), "未配置的实体不应发出请求");
+            assertEquals(3L, fixtures.getResolutionCount(), "prefetch 应只获取已配置的三种实体");
+        } finally {
+            fixtures.close();
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package me.realseek.test.modules;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import me.realseek.test.BaseTestModule;
+import me.realseek.test.cleanup.MessageCleanupPipeline;
+import me.realseek.test.mock.LatencyInjector;
+import me.realseek.test.mock.MockFixtures;
+import me.realseek.test.mock.MockKookServer;
+import me.realseek.test.mock.RateLimiter;
+import snw.jkook.HttpAPI;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 本地模拟服务器测试模块
+ * 在随机端口启动 {@link MockKookServer}，用 JDK 自带的 HTTP/WebSocket 客户端验证各个 REST 接口、
+ * 分页、消息生命周期、文件上传、网关信令、固定数据的可复现性以及延迟注入，
+ * 并在限速的实例上验证 {@link MessageCleanupPipeline} 的直接删除
+ */
+public class MockServerTestModule extends BaseTestModule {
+    private static final long SEED = 41L;
+    private static final int MEMBERS = 120;
+    private static final int ROLES = 8;
+    private static final long INJECTED_MILLIS = 20;
+    private static final int LATENCY_SAMPLES = 10;
+    private static final int CLEANUP_MESSAGES = 30;
+    private static final int CLEANUP_BUCKET_LIMIT = 5;
+    private static final long CLEANUP_WINDOW_MILLIS = 200;
+    private static final int CLEANUP_MAX_RETRIES = 2;
+    /**
+     * 判断暂停期间是否有请求发出时的容差，覆盖 429 返回与设置暂停之间已经在途的请求
+     */
+    private static final long PAUSE_TOLERANCE_MILLIS = 20;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private MockKookServer server;
+    /**
+     * 只有启用 benchmark.enabled 时才断言实测耗时，避免负载较高的机器上误报
+     */
+    private boolean timingChecks;
+
+    @Override
+    public String getName() {
+        return "模拟服务器";
+    }
+
+    @Override
+    public String getDescription() {
+        return "验证本地 KOOK 模拟服务器的 REST 接口、网关信令、固定数据可复现性与延迟注入";
+    }
+
+    @Override
+    public void initialize(snw.jkook.plugin.Plugin plugin) {
+        super.initialize(plugin);
+        timingChecks = plugin.getConfig().getBoolean("benchmark.enabled", false);
+    }
+
+    @Override
+    protected void executeTests() {
+        runTest("启动模拟服务器", this::testStart);
+        if (server == null) {
+            return;
+        }
+        runTest("固定数据可复现", this::testDeterministicFixtures);
+        runTest("服务器/频道/用户接口", this::testEntityEndpoints);
+        runTest("分页接口", this::testPagination);
+        runTest("消息生命周期", this::testMessageLifecycle);
+        runTest("文件上传", this::testAssetUpload);
+        runTest("网关信令", this::testGateway);
+        runTest("延迟注入", this::testLatencyInjection);
+        runTest("限速下的批量删除", this::testCleanupPipeline);
+        runTest("获取后删除时消息已不存在", this::testFetchAndDeleteMissing);
+    }
+
+    private void testStart() {
+        cleanup();
+        try {
+            server = MockKookServer.start(new MockFixtures(SEED, MEMBERS, ROLES), LatencyInjector.none(), 0, 0);
+        } catch (IOException e) {
+            throw new AssertionError("模拟服务器启动失败: " + e.getMessage(), e);
+        }
+        JsonObject data = get("gateway/index").getAsJsonObject("data");
+        assertEquals(server.getGatewayUrl(), data.get("url").getAsString(), "网关地址不匹配");
+        addDetail("REST " + server.getBaseUrl() + "，网关 " + server.getGatewayUrl());
+    }
+
+    private void testDeterministicFixtures() {
+        MockFixtures first = new MockFixtures(SEED, MEMBERS, ROLES);
+        MockFixtures second = new MockFixtures(SEED, MEMBERS, ROLES);
+        MockFixtures other = new MockFixtures(SEED + 1, MEMBERS, ROLES);
+
+        assertEquals(first.getMembers(), second.getMembers(), "相同种子生成的成员应一致");
+        assertEquals(first.getRoles(), second.getRoles(), "相同种子生成的角色应一致");
+        assertFalse(first.getMembers().equals(other.getMembers()), "不同种子生成的成员应不同");
+
+        JsonObject a = first.createMessage(MockFixtures.TEXT_CHANNEL_ID, "内容", 1, null);
+        JsonObject b = second.createMessage(MockFixtures.TEXT_CHANNEL_ID, "内容", 1, null);
+        assertEquals(a, b, "相同请求序列生成的消息应一致");
+    }
+
+    private void testEntityEndpoints() {
+        JsonObject me = get("user/me").getAsJsonObject("data");
+        assertEquals(MockFixtures.BOT_ID, me.get("id").getAsString(), "机器人 ID 不匹配");
+        assertTrue(me.get("bot").getAsBoolean(), "user/me 应返回机器人");
+
+        JsonObject guild = get("guild/view?guild_id=" + MockFixtures.GUILD_ID).getAsJsonObject("data");
+        assertEquals(MockFixtures.GUILD_ID, guild.get("id").getAsString(), "服务器 ID 不匹配");
+        assertEquals(ROLES + 1, guild.getAsJsonArray("roles").size(), "角色数量应包含全体成员角色");
+        assertTrue(guild.getAsJsonArray("channels").size() >= 2, "服务器应包含测试频道");
+
+        JsonObject channel = get("channel/view?target_id=" + MockFixtures.TEXT_CHANNEL_ID).getAsJsonObject("data");
+        assertEquals(1, channel.get("type").getAsInt(), "测试文字频道类型应为 1");
+
+        JsonObject user = get("user/view?user_id=" + MockFixtures.TEST_USER_ID + "&guild_id=" + MockFixtures.GUILD_ID).getAsJsonObject("data");
+        assertEquals(MockFixtures.TEST_USER_ID, user.get("id").getAsString(), "用户 ID 不匹配");
+        assertNotNull(user.getAsJsonArray("roles"), "指定服务器时应返回用户角色");
+
+        JsonObject missing = get("guild/view?guild_id=404");
+        assertFalse(missing.get("code").getAsInt() == 0, "不存在的服务器应返回错误码");
+        JsonObject unknown = get("not/implemented");
+        assertEquals(40400, unknown.get("code").getAsInt(), "未实现的接口应返回 40400");
+    }
+
+    private void testPagination() {
+        int total = MEMBERS + 1;
+        int pageSize = 50;
+        int seen = 0;
+        int pageTotal = Integer.MAX_VALUE;
+        for (int page = 1; page <= pageTotal; page++) {
+            JsonObject data = get("guild/user-list?guild_id=" + MockFixtures.GUILD_ID + "&page=" + page + "&page_size=" + pageSize)
+                    .getAsJsonObject("data");
+            JsonObject meta = data.getAsJsonObject("meta");
+            pageTotal = meta.get("page_total").getAsInt();
+            assertEquals(total, meta.get("total").getAsInt(), "分页 total 不匹配");
+            seen += data.getAsJsonArray("items").size();
+        }
+        assertEquals(total, seen, "逐页获取的成员数量不匹配");
+        assertEquals((total + pageSize - 1) / pageSize, pageTotal, "page_total 不匹配");
+        addDetail(total + " 个成员，" + pageTotal + " 页");
+    }
+
+    private void testMessageLifecycle() {
+        JsonObject created = post("message/create", "{\"target_id\":\"" + MockFixtures.TEXT_CHANNEL_ID + "\",\"content\":\"模拟消息\",\"type\":1}");
+        assertEquals(0, created.get("code").getAsInt(), "发送消息失败: " + created);
+        String msgId = created.getAsJsonObject("data").get("msg_id").getAsString();
+
+        JsonObject view = get("message/view?msg_id=" + msgId).getAsJsonObject("data");
+        assertEquals("模拟消息", view.get("content").getAsString(), "消息内容不匹配");
+
+        post("message/update", "{\"msg_id\":\"" + msgId + "\",\"content\":\"已编辑\"}");
+        view = get("message/view?msg_id=" + msgId).getAsJsonObject("data");
+        assertEquals("已编辑", view.get("content").getAsString(), "编辑后的消息内容不匹配");
+
+        JsonObject list = get("message/list?target_id=" + MockFixtures.TEXT_CHANNEL_ID).getAsJsonObject("data");
+        assertTrue(list.getAsJsonArray("items").size() >= 1, "消息列表应包含新消息");
+
+        post("message/delete", "{\"msg_id\":\"" + msgId + "\"}");
+        assertFalse(get("message/view?msg_id=" + msgId).get("code").getAsInt() == 0, "删除后的消息不应再能查询");
+
+        JsonObject direct = post("direct-message/create", "{\"target_id\":\"" + MockFixtures.TEST_USER_ID + "\",\"content\":\"私聊\",\"type\":1}");
+        assertEquals(0, direct.get("code").getAsInt(), "发送私聊消息失败: " + direct);
+
+        JsonObject wrongMethod = get("message/create");
+        assertFalse(wrongMethod.get("code").getAsInt() == 0, "GET 请求写接口应返回错误");
+    }
+
+    private void testAssetUpload() {
+        String first = upload("BOUNDARY-A", "avatar.PNG", "模拟文件内容");
+        String second = upload("BOUNDARY-B", "avatar.png", "模拟文件内容");
+        String third = upload("BOUNDARY-C", "avatar.png", "另一个文件");
+
+        assertTrue(first.endsWith(".png"), "资源 URL 应保留文件扩展名: " + first);
+        assertEquals(first, second, "相同内容应得到相同的资源 URL");
+        assertFalse(first.equals(third), "不同内容应得到不同的资源 URL");
+        addDetail(first);
+    }
+
+    private void testGateway() {
+        BlockingQueue<JsonObject> signals = new LinkedBlockingQueue<>();
+        WebSocket webSocket = client.newWebSocketBuilder()
+                .buildAsync(URI.create(server.getGatewayUrl()), new SignalListener(signals))
+                .join();
+        try {
+            JsonObject hello = poll(signals);
+            assertEquals(1, hello.get("s").getAsInt(), "连接后应收到 HELLO");
+            String sessionId = hello.getAsJsonObject("d").get("session_id").getAsString();
+
+            webSocket.sendText("{\"s\":2,\"sn\":0}", true).join();
+            assertEquals(3, poll(signals).get("s").getAsInt(), "PING 后应收到 PONG");
+
+            for (int i = 1; i <= 3; i++) {
+                post("message/create", "{\"target_id\":\"" + MockFixtures.TEXT_CHANNEL_ID + "\",\"content\":\"事件" + i + "\"}");
+                JsonObject event = poll(signals);
+                assertEquals(0, event.get("s").getAsInt(), "消息创建后应推送事件");
+                assertEquals(i, event.get("sn").getAsInt(), "事件 sn 应连续递增");
+                assertEquals("事件" + i, event.getAsJsonObject("d").get("content").getAsString(), "事件内容不匹配");
+            }
+
+            webSocket.sendText("{\"s\":4,\"sn\":3}", true).join();
+            JsonObject resumeAck = poll(signals);
+            assertEquals(6, resumeAck.get("s").getAsInt(), "RESUME 后应收到 RESUME ACK");
+            assertEquals(sessionId, resumeAck.getAsJsonObject("d").get("session_id").getAsString(), "会话 ID 不匹配");
+        } finally {
+            webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "").join();
+        }
+    }
+
+    private void testLatencyInjection() {
+        Map<String, Long> routes = new HashMap<>();
+        routes.put("asset/create", INJECTED_MILLIS * 3);
+        MockKookServer delayed;
+        try {
+            delayed = MockKookServer.start(new MockFixtures(SEED, MEMBERS, ROLES),
+                    new LatencyInjector(INJECTED_MILLIS, 0, routes, SEED), 0, 0);
+        } catch (IOException e) {
+            throw new AssertionError("模拟服务器启动失败: " + e.getMessage(), e);
+        }
+        try {
+            // 预热连接
+            send(delayed, HttpRequest.newBuilder(URI.create(delayed.getBaseUrl() + "/user/me")).build());
+            long start = System.nanoTime();
+            for (int i = 0; i < LATENCY_SAMPLES; i++) {
+                send(delayed, HttpRequest.newBuilder(URI.create(delayed.getBaseUrl() + "/user/me")).build());
+            }
+            double averageMillis = (System.nanoTime() - start) / 1_000_000.0 / LATENCY_SAMPLES;
+            if (timingChecks) {
+                assertTrue(averageMillis >= INJECTED_MILLIS, "平均延迟应不低于注入的 " + INJECTED_MILLIS + "ms，实际 " + averageMillis);
+            }
+            assertEquals(INJECTED_MILLIS * 3, new LatencyInjector(INJECTED_MILLIS, 0, routes, SEED).nextDelay("asset/create"),
+                    "路由单独配置的延迟不匹配");
+
+            LatencyInjector first = new LatencyInjector(INJECTED_MILLIS, 10, routes, SEED);
+            LatencyInjector second = new LatencyInjector(INJECTED_MILLIS, 10, routes, SEED);
+            for (int i = 0; i < 100; i++) {
+                assertEquals(first.nextDelay("user/me"), second.nextDelay("user/me"), "相同种子的抖动序列应一致");
+            }
+            addDetail(String.format("注入 %dms，实测平均 %.1fms%s", INJECTED_MILLIS, averageMillis,
+                    timingChecks ? "" : "（未启用 benchmark.enabled，只记录不断言）"));
+        } finally {
+            delayed.stop();
+        }
+    }
+
+    /**
+     * 在 message/delete 每 200ms 只接受 5 个请求的实例上用 direct 删除：
+     * 重复的 ID 只删除一次，已不存在的消息视为成功，一次 429 让所有线程暂停（启用 benchmark.enabled 时按时间断言），
+     * 持续失败的消息重试 maxRetries 次后进入失败列表
+     */
+    private void testCleanupPipeline() {
+        MockFixtures fixtures = new MockFixtures(SEED, MEMBERS, ROLES);
+        MockKookServer limited;
+        try {
+            limited = MockKookServer.start(fixtures, LatencyInjector.none(),
+                    new RateLimiter(CLEANUP_BUCKET_LIMIT, 0, CLEANUP_WINDOW_MILLIS), 0, 0);
+        } catch (IOException e) {
+            throw new AssertionError("模拟服务器启动失败: " + e.getMessage(), e);
+        }
+        try {
+            List<String> messageIds = new ArrayList<>();
+            for (int i = 0; i < CLEANUP_MESSAGES; i++) {
+                messageIds.add(fixtures.createMessage(MockFixtures.TEXT_CHANNEL_ID, "清理测试 #" + i, 1, null)
+                        .get("id").getAsString());
+            }
+            String missing = fixtures.createMessage(MockFixtures.TEXT_CHANNEL_ID, "已删除", 1, null).get("id").getAsString();
+            fixtures.deleteMessage(missing);
+            List<String> broken = List.of("broken-1", "broken-2");
+
+            List<String> input = new ArrayList<>(messageIds);
+            input.addAll(messageIds.subList(0, 10));
+            input.add(missing);
+            input.addAll(broken);
+            input.addAll(broken);
+
+            MessageCleanupPipeline.Deleter direct = MessageCleanupPipeline.direct(limited.getBaseUrl(), "mock-token");
+            Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+            Map<String, AtomicInteger> accepted = new ConcurrentHashMap<>();
+            Queue<Long> starts = new ConcurrentLinkedQueue<>();
+            Queue<Long> throttledAt = new ConcurrentLinkedQueue<>();
+            MessageCleanupPipeline pipeline = new MessageCleanupPipeline(messageId -> {
+                attempts.computeIfAbsent(messageId, key -> new AtomicInteger()).incrementAndGet();
+                if (messageId.startsWith("broken-")) {
+                    throw new IOException("模拟删除失败");
+                }
+                starts.add(System.nanoTime());
+                try {
+                    direct.delete(messageId);
+                    accepted.computeIfAbsent(messageId, key -> new AtomicInteger()).incrementAndGet();
+                } catch (MessageCleanupPipeline.RateLimitedException e) {
+                    throttledAt.add(System.nanoTime());
+                    throw e;
+                }
+            }, 4, CLEANUP_MAX_RETRIES, CLEANUP_WINDOW_MILLIS);
+
+            MessageCleanupPipeline.Result result = pipeline.run(input);
+
+            assertEquals(CLEANUP_MESSAGES + 1 + broken.size(), result.getTotal(), "重复的 ID 应只计一次");
+            assertEquals((long) CLEANUP_MESSAGES + 1, result.getDeleted(), "除持续失败的消息外都应删除成功");
+            for (String messageId : messageIds) {
+                assertTrue(fixtures.getMessage(messageId) == null, "消息未被删除: " + messageId);
+                assertEquals(1, accepted.get(messageId).get(), "每条消息应只被成功删除一次: " + messageId);
+            }
+            assertEquals(1, accepted.get(missing).get(), "已不存在的消息应视为删除成功");
+            assertEquals(broken, result.getFailed().stream().sorted().toList(), "失败列表应只包含持续失败的消息");
+            for (String messageId : broken) {
+                assertEquals(CLEANUP_MAX_RETRIES + 1, attempts.get(messageId).get(), "持续失败的消息应重试 " + CLEANUP_MAX_RETRIES + " 次后放弃");
+            }
+
+            assertTrue(limited.getRateLimitedCount() > 0, "删除速度应超过限速并触发 429");
+            assertEquals(limited.getRateLimitedCount(), result.getThrottled(), "管道统计的限速次数与服务器不一致");
+            if (timingChecks) {
+                long tolerance = TimeUnit.MILLISECONDS.toNanos(PAUSE_TOLERANCE_MILLIS);
+                long pause = TimeUnit.MILLISECONDS.toNanos(CLEANUP_WINDOW_MILLIS);
+                for (long throttled : throttledAt) {
+                    for (long start : starts) {
+                        assertFalse(start > throttled + tolerance && start < throttled + pause - tolerance,
+                                "收到 429 后的暂停期间仍有线程发出删除请求");
+                    }
+                }
+            }
+            addDetail(result.toString());
+        } finally {
+            limited.stop();
+        }
+    }
+
+    /**
+     * KookBC 获取已删除的消息时抛出异常而不是返回 null：“不存在”视为删除成功，其他异常（包括限速）照常抛出
+     */
+    private void testFetchAndDeleteMissing() {
+        HttpAPI api = (HttpAPI) Proxy.newProxyInstance(HttpAPI.class.getClassLoader(), new Class<?>[]{HttpAPI.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("getTextChannelMessage")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    switch ((String) args[0]) {
+                        case "gone":
+                            throw new IllegalStateException("请求失败", new RuntimeException("code 40000: 消息不存在"));
+                        case "limited":
+                            throw new IllegalStateException("HTTP 429 消息不存在");
+                        case "broken":
+                            throw new IllegalStateException("模拟网络错误");
+                        default:
+                            return null;
+                    }
+                });
+        MessageCleanupPipeline.Deleter deleter = MessageCleanupPipeline.fetchAndDelete(api);
+        try {
+            deleter.delete("gone");
+            deleter.delete("null");
+        } catch (Exception e) {
+            throw new AssertionError("消息不存在时应视为删除成功: " + e.getMessage(), e);
+        }
+        for (String messageId : List.of("limited", "broken")) {
+            try {
+                deleter.delete(messageId);
+                throw new AssertionError(messageId + " 的异常不应被当作消息不存在");
+            } catch (IllegalStateException expected) {
+                // 限速与其他失败交给管道重试
+            } catch (Exception e) {
+                throw new AssertionError("应抛出原始异常: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private JsonObject get(String route) {
+        return send(server, HttpRequest.newBuilder(URI.create(server.getBaseUrl() + "/" + route)).build());
+    }
+
+    private JsonObject post(String route, String json) {
+        return send(server, HttpRequest.newBuilder(URI.create(server.getBaseUrl() + "/" + route))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build());
+    }
+
+    private String upload(String boundary, String fileName, String content) {
+        String body = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n"
+                + content + "\r\n"
+                + "--" + boundary + "--\r\n";
+        JsonObject response = send(server, HttpRequest.newBuilder(URI.create(server.getBaseUrl() + "/asset/create"))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+        assertEquals(0, response.get("code").getAsInt(), "上传失败: " + response);
+        return response.getAsJsonObject("data").get("url").getAsString();
+    }
+
+    private JsonObject send(MockKookServer target, HttpRequest request) {
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            return JsonParser.parseString(response.body()).getAsJsonObject();
+        } catch (IOException e) {
+            throw new AssertionError("请求 " + target.getBaseUrl() + " 失败: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("请求被中断: " + e.getMessage(), e);
+        }
+    }
+
+    private JsonObject poll(BlockingQueue<JsonObject> signals) {
+        try {
+            JsonObject signal = signals.poll(5, TimeUnit.SECONDS);
+            assertNotNull(signal, "等待网关信令超时");
+            return signal;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("等待网关信令被中断: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void cleanup() {
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+    }
+
+    /**
+     * 把网关文本帧解析为信令放入队列
+     */
+    private static class SignalListener implements WebSocket.Listener {
+        private final BlockingQueue<JsonObject> signals;
+        private final StringBuilder buffer = new StringBuilder();
+
+        SignalListener(BlockingQueue<JsonObject> signals) {
+            this.signals = signals;
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            buffer.append(data);
+            if (last) {
+                signals.add(JsonParser.parseString(buffer.toString()).getAsJsonObject());
+                buffer.setLength(0);
+            }
+            webSocket.request(1);
+            return null;
+        }
+    }
+}
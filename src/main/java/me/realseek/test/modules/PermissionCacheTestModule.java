@@ -0,0 +1,119 @@
+package me.realseek.test.modules;
+
+import me.realseek.permission.EffectivePermissionCache;
+import me.realseek.permission.PermissionEvaluator;
+import me.realseek.permission.PermissionSource;
+import me.realseek.test.BaseTestModule;
+import me.realseek.test.benchmark.SimulatedPermissionGuild;
+import me.realseek.test.event.HandlerInstrumentation;
+import snw.jkook.Permission;
+import snw.jkook.event.EventManager;
+
+import java.util.Random;
+
+import static me.realseek.test.benchmark.SimulatedPermissionGuild.GUILD_ID;
+
+/**
+ * 成员有效权限缓存测试模块
+ * 使用内存中的模拟服务器作为 {@link PermissionSource}，通过 EventManager 投递合成的角色事件驱动
+ * {@link EffectivePermissionCache} 失效，验证缓存结果与重新计算一致。
+ * 事件风暴、命中率与 HttpAPI 查询耗时见 PermissionCacheBenchmarkTestModule
+ */
+public class PermissionCacheTestModule extends BaseTestModule {
+    private static final int ROLES = 30;
+    private static final int MEMBERS = 500;
+    private static final int MAX_MEMBER_ROLES = 6;
+    private static final Permission[] PERMISSIONS = Permission.values();
+
+    private SimulatedPermissionGuild guild;
+    private EffectivePermissionCache cache;
+
+    @Override
+    public String getName() {
+        return "权限缓存";
+    }
+
+    @Override
+    public String getDescription() {
+        return "验证成员有效权限缓存的结果正确，并在角色事件后只失效受影响的成员";
+    }
+
+    @Override
+    protected void executeTests() {
+        runTest("缓存结果正确性", this::testCorrectness);
+        runTest("角色事件失效", this::testRoleEventInvalidation);
+    }
+
+    private void setUp(long seed) {
+        cleanup();
+        guild = new SimulatedPermissionGuild(new Random(seed), ROLES, MEMBERS, MAX_MEMBER_ROLES);
+        cache = new EffectivePermissionCache(guild);
+        HandlerInstrumentation.register(plugin, cache);
+    }
+
+    private void testCorrectness() {
+        setUp(38L);
+        for (int pass = 0; pass < 2; pass++) {
+            for (String userId : guild.memberIds) {
+                assertEquals(guild.expectedMask(userId), cache.getEffectiveMask(GUILD_ID, userId),
+                        "缓存的有效权限与重新计算结果不一致: " + userId);
+            }
+        }
+        assertEquals((long) MEMBERS, cache.getHits(), "第二轮检查应全部命中");
+        assertEquals((long) MEMBERS + 1, cache.getSourceCalls(), "每个成员只应查询一次角色，角色表只应加载一次");
+
+        String adminMember = guild.memberWithRole(guild.adminRoleId);
+        if (adminMember != null) {
+            for (Permission permission : PERMISSIONS) {
+                assertTrue(cache.hasPermission(GUILD_ID, adminMember, permission), "管理员应拥有全部权限: " + permission);
+            }
+        }
+        addDetail(MEMBERS + " 个成员，" + ROLES + " 个角色，" + cache);
+    }
+
+    private void testRoleEventInvalidation() {
+        setUp(39L);
+        EventManager eventManager = plugin.getCore().getEventManager();
+        Random random = new Random(39L);
+        guild.memberIds.forEach(userId -> cache.getEffectiveMask(GUILD_ID, userId));
+
+        // 权限变更：只失效持有该角色的成员
+        int roleId = guild.randomRole(random);
+        int holders = guild.holdersOf(roleId);
+        int sizeBefore = cache.size();
+        eventManager.callEvent(guild.updateRole(roleId, PermissionEvaluator.mask(Permission.KICK, Permission.BAN)));
+        assertEquals(sizeBefore - holders, cache.size(), "角色变更后应只失效持有该角色的成员");
+        assertAllConsistent("角色权限变更后");
+
+        // 删除角色
+        roleId = guild.randomRole(random);
+        eventManager.callEvent(guild.deleteRole(roleId));
+        assertAllConsistent("角色删除后");
+
+        // 新建角色不影响已有成员
+        sizeBefore = cache.size();
+        eventManager.callEvent(guild.createRole(PermissionEvaluator.mask(Permission.SEND_MESSAGE)));
+        assertEquals(sizeBefore, cache.size(), "新建角色不应失效任何成员");
+
+        // 全体成员角色变更会影响所有成员
+        eventManager.callEvent(guild.updateRole(0, PermissionEvaluator.mask(Permission.SEND_MESSAGE, Permission.MENTION_EVERYONE)));
+        assertEquals(0, cache.size(), "全体成员角色变更后应清空该服务器的缓存");
+        assertAllConsistent("全体成员角色变更后");
+        addDetail("失效 " + cache.getInvalidations() + " 个条目，" + cache);
+    }
+
+    private void assertAllConsistent(String stage) {
+        for (String userId : guild.memberIds) {
+            assertEquals(guild.expectedMask(userId), cache.getEffectiveMask(GUILD_ID, userId),
+                    stage + "缓存结果与重新计算不一致: " + userId);
+        }
+    }
+
+    @Override
+    public void cleanup() {
+        if (cache != null) {
+            HandlerInstrumentation.unregister(plugin, cache);
+            cache = null;
+        }
+    }
+}
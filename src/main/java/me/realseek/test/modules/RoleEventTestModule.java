@@ -1,6 +1,7 @@
 package me.realseek.test.modules;
 
 import me.realseek.test.BaseTestModule;
+import me.realseek.test.event.HandlerInstrumentation;
 import snw.jkook.event.EventHandler;
 import snw.jkook.event.Listener;
 import snw.jkook.event.role.RoleCreateEvent;
@@ -64,8 +65,9 @@ public class RoleEventTestModule extends BaseTestModule implements Listener {
 
     private void testRegisterRoleEventListeners() {
         try {
-            // 注册监听器
-            plugin.getCore().getEventManager().registerHandlers(plugin, this);
+            // 注册监听器（先注销上一次运行注册的，避免重复注册）
+            HandlerInstrumentation.unregister(plugin, this);
+            HandlerInstrumentation.register(plugin, this);
 
             logger.info("成功注册 Role 事件监听器");
 
@@ -209,7 +211,7 @@ public class RoleEventTestModule extends BaseTestModule implements Listener {
         super.cleanup();
         // 注销监听器
         try {
-            plugin.getCore().getEventManager().unregisterAllHandlers(plugin);
+            HandlerInstrumentation.unregister(plugin, this);
             logger.info("已注销 Role 事件监听器");
         } catch (Exception e) {
             logger.warn("注销 Role 事件监听器失败", e);
@@ -0,0 +1,206 @@
+package me.realseek.test.modules.benchmark;
+
+import me.realseek.test.benchmark.Benchmarks;
+import me.realseek.test.benchmark.Measurement;
+import snw.jkook.command.CommandExecutor;
+import snw.jkook.command.CommandManager;
+import snw.jkook.command.CommandSender;
+import snw.jkook.command.JKookCommand;
+import snw.jkook.entity.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 命令参数解析性能测试模块
+ * 为每种参数类型注册一个命令，通过 executeCommand 驱动 KookBC 的参数转换流程，
+ * 报告 int/double/string/用户提及、可选参数默认值和超长字符串的 ns/op 与 B/op，
+ * 并以无参数命令作为基线，扣除命令查找本身的开销
+ */
+public class ArgumentParsingBenchmarkTestModule extends BenchmarkTestModule {
+    private static final AtomicInteger RUN_SEQUENCE = new AtomicInteger();
+
+    private final LongAdder executions = new LongAdder();
+    private final List<JKookCommand> registeredCommands = new ArrayList<>();
+    private volatile Object[] lastArguments;
+    private String prefix;
+    private Measurement baseline;
+
+    @Override
+    public String getName() {
+        return "命令参数解析性能";
+    }
+
+    @Override
+    public String getDescription() {
+        return "测量 KookBC 命令参数转换（int/double/string/用户提及/可选参数/长字符串）的 ns/op 与 B/op";
+    }
+
+    @Override
+    protected void executeTests() {
+        if (!isBenchmarkEnabled()) {
+            return;
+        }
+
+        // 基线只对本次运行有效，避免与上一次运行的测量结果比较
+        baseline = null;
+        // 每轮结束立即注销，避免重复运行时不断累积新的 kbcargN_ 命令
+        try {
+            runTest("注册参数测试命令", this::testRegisterCommands);
+            if (registeredCommands.isEmpty()) {
+                return;
+            }
+            runTest("无参数基线", this::testBaseline);
+            runTest("Integer 参数", () -> testParse("/" + prefix + "int 12345", 12345));
+            runTest("Double 参数", () -> testParse("/" + prefix + "double 3.14159", 3.14159));
+            runTest("String 参数", () -> testParse("/" + prefix + "string hello", "hello"));
+            runTest("混合参数（Integer + Double + String）", () -> testParse("/" + prefix + "mixed 7 2.5 abc", 7, 2.5, "abc"));
+            runTest("可选参数使用默认值", () -> testParse("/" + prefix + "optional 1", 1, 0, "default"));
+            runTest("可选参数全部提供", () -> testParse("/" + prefix + "optional 1 2 given", 1, 2, "given"));
+            runTest("长字符串参数（256 字符）", this::testLongToken);
+            runTest("带空格的引号字符串（约 1KB）", this::testQuotedString);
+            runTest("用户提及参数", this::testUserMention);
+        } finally {
+            cleanup();
+        }
+    }
+
+    private void testRegisterCommands() {
+        prefix = "kbcarg" + RUN_SEQUENCE.incrementAndGet() + "_";
+        CommandManager commandManager = plugin.getCore().getCommandManager();
+        CommandExecutor executor = (sender, arguments, message) -> {
+            executions.increment();
+            lastArguments = arguments;
+            Benchmarks.consume(arguments);
+        };
+
+        List<JKookCommand> commands = Arrays.asList(
+                new JKookCommand(prefix + "none"),
+                new JKookCommand(prefix + "int").addArgument(Integer.class),
+                new JKookCommand(prefix + "double").addArgument(Double.class),
+                new JKookCommand(prefix + "string").addArgument(String.class),
+                new JKookCommand(prefix + "mixed").addArgument(Integer.class).addArgument(Double.class).addArgument(String.class),
+                new JKookCommand(prefix + "optional").addArgument(Integer.class)
+                        .addOptionalArgument(Integer.class, 0)
+                        .addOptionalArgument(String.class, "default"),
+                new JKookCommand(prefix + "user").addArgument(User.class)
+        );
+        for (JKookCommand command : commands) {
+            command.setExecutor(executor);
+            commandManager.registerCommand(plugin, command);
+            registeredCommands.add(command);
+        }
+        addDetail("已注册 " + commands.size() + " 个参数测试命令");
+    }
+
+    private void testBaseline() {
+        String commandLine = "/" + prefix + "none";
+        assertTrue(executeOnce(commandLine), "无参数命令应该被执行");
+        baseline = measureCommand("无参数", commandLine);
+    }
+
+    /**
+     * 先执行一次并校验转换后的参数，再进行基准测量
+     */
+    private void testParse(String commandLine, Object... expected) {
+        assertTrue(executeOnce(commandLine), "命令应该被执行: " + commandLine);
+        assertEquals(Arrays.asList(expected), Arrays.asList(lastArguments), "参数转换结果不匹配: " + commandLine);
+        measureCommand(commandLine.substring(commandLine.indexOf(' ') + 1), commandLine);
+    }
+
+    private void testLongToken() {
+        char[] token = new char[256];
+        Arrays.fill(token, 'a');
+        String value = new String(token);
+        String commandLine = "/" + prefix + "string " + value;
+
+        assertTrue(executeOnce(commandLine), "长字符串命令应该被执行");
+        assertEquals(value, lastArguments[0], "长字符串参数应完整保留");
+        measureCommand("256 字符", commandLine);
+    }
+
+    private void testQuotedString() {
+        StringBuilder value = new StringBuilder();
+        while (value.length() < 1024) {
+            value.append("word").append(value.length()).append(' ');
+        }
+        String text = value.toString().trim();
+        String commandLine = "/" + prefix + "string \"" + text + "\"";
+
+        // 不同 KookBC 版本对引号的处理不同：不支持时记录结果而不判定失败
+        if (!executeOnce(commandLine) || lastArguments == null || !text.equals(lastArguments[0])) {
+            logger.info("    当前 KookBC 版本未将引号内容解析为单个参数，仅记录解析耗时");
+            addDetail("引号字符串未被解析为单个参数");
+        }
+        measureCommand("引号字符串 " + text.length() + " 字符", commandLine);
+    }
+
+    private void testUserMention() {
+        User bot = plugin.getCore().getUser();
+        if (bot == null) {
+            logger.warn("    无法获取机器人用户，跳过用户提及参数测试");
+            addDetail("已跳过：无法获取机器人用户");
+            return;
+        }
+
+        // 使用机器人自身的 ID，该用户已在实体缓存中，避免测量期间发起网络请求
+        String commandLine = "/" + prefix + "user (met)" + bot.getId() + "(met)";
+        assertTrue(executeOnce(commandLine), "用户提及命令应该被执行");
+        assertTrue(lastArguments[0] instanceof User, "用户提及应转换为 User 对象");
+        assertEquals(bot.getId(), ((User) lastArguments[0]).getId(), "转换后的用户 ID 不匹配");
+        measureCommand("(met)" + bot.getId() + "(met)", commandLine);
+    }
+
+    /**
+     * 测量一条命令，报告 ns/op、B/op 以及相对无参数基线的额外开销
+     */
+    private Measurement measureCommand(String label, String commandLine) {
+        CommandManager commandManager = plugin.getCore().getCommandManager();
+        CommandSender sender = plugin.getCore().getConsoleCommandSender();
+        long before = executions.sum();
+        Measurement measurement = measure(label, () -> execute(commandManager, sender, commandLine));
+        assertEquals((long) warmupIterations + measureIterations, executions.sum() - before, "执行次数应与调用次数一致");
+
+        if (baseline != null && measurement != baseline) {
+            String overhead = String.format("参数解析额外开销 %.1f ns/op", measurement.getNanosPerOp() - baseline.getNanosPerOp());
+            if (measurement.getBytesPerOp() >= 0 && baseline.getBytesPerOp() >= 0) {
+                overhead += String.format(", %.1f B/op", measurement.getBytesPerOp() - baseline.getBytesPerOp());
+            }
+            logger.info("    {}", overhead);
+            addDetail(overhead);
+        }
+        return measurement;
+    }
+
+    private boolean executeOnce(String commandLine) {
+        lastArguments = null;
+        long before = executions.sum();
+        execute(plugin.getCore().getCommandManager(), plugin.getCore().getConsoleCommandSender(), commandLine);
+        return executions.sum() > before;
+    }
+
+    private static boolean execute(CommandManager commandManager, CommandSender sender, String commandLine) {
+        try {
+            return commandManager.executeCommand(sender, commandLine);
+        } catch (Exception e) {
+            throw new AssertionError("执行命令失败: " + commandLine + " - " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void cleanup() {
+        CommandManager commandManager = plugin.getCore().getCommandManager();
+        for (JKookCommand command : registeredCommands) {
+            try {
+                commandManager.unregisterCommand(command);
+            } catch (Exception e) {
+                logger.warn("注销命令 {} 失败", command.getRootName(), e);
+            }
+        }
+        registeredCommands.clear();
+        baseline = null;
+    }
+}
@@ -0,0 +1,67 @@
+package me.realseek.test.modules.benchmark;
+
+import me.realseek.test.BaseTestModule;
+import me.realseek.test.benchmark.Benchmarks;
+import me.realseek.test.benchmark.Measurement;
+import snw.jkook.config.file.FileConfiguration;
+
+/**
+ * 性能基准测试模块基类
+ * 所有性能测试模块都应继承此类，基准测试耗时较长，需要在配置中显式启用
+ */
+public abstract class BenchmarkTestModule extends BaseTestModule {
+    protected boolean benchmarkEnabled;
+    protected int warmupIterations;
+    protected int measureIterations;
+
+    @Override
+    public void initialize(snw.jkook.plugin.Plugin plugin) {
+        super.initialize(plugin);
+        loadBenchmarkConfig();
+    }
+
+    /**
+     * 加载基准测试配置
+     */
+    private void loadBenchmarkConfig() {
+        FileConfiguration config = plugin.getConfig();
+
+        benchmarkEnabled = config.getBoolean("benchmark.enabled", false);
+        warmupIterations = Math.max(0, config.getInt("benchmark.warmup-iterations", 2000));
+        measureIterations = Math.max(1, config.getInt("benchmark.measure-iterations", 20000));
+    }
+
+    /**
+     * 检查基准测试是否已启用
+     */
+    protected boolean isBenchmarkEnabled() {
+        if (!benchmarkEnabled) {
+            logger.warn("性能基准测试未启用，请在 config.yml 中设置 benchmark.enabled=true");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 使用配置的预热和测量次数执行基准测量，并把结果写入日志和报告
+     */
+    protected Measurement measure(String label, Runnable operation) {
+        return measure(label, warmupIterations, measureIterations, operation);
+    }
+
+    /**
+     * 使用指定的预热和测量次数执行基准测量，并把结果写入日志和报告
+     */
+    protected Measurement measure(String label, int warmup, int iterations, Runnable operation) {
+        Measurement measurement = Benchmarks.measure(label, warmup, iterations, operation);
+        logger.info("    {}", measurement);
+        addDetail(measurement.toString());
+        return measurement;
+    }
+
+    @Override
+    public boolean isAutoRun() {
+        // 基准测试不自动运行，需要手动触发
+        return false;
+    }
+}
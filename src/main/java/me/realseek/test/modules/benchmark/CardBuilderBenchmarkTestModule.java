@@ -0,0 +1,133 @@
+package me.realseek.test.modules.benchmark;
+
+import me.realseek.test.benchmark.Benchmarks;
+import me.realseek.test.benchmark.CardPayloads;
+import me.realseek.test.benchmark.Measurement;
+import snw.jkook.entity.abilities.Accessory;
+import snw.jkook.message.component.card.CardBuilder;
+import snw.jkook.message.component.card.MultipleCardComponent;
+import snw.jkook.message.component.card.Size;
+import snw.jkook.message.component.card.Theme;
+import snw.jkook.message.component.card.element.ButtonElement;
+import snw.jkook.message.component.card.element.MarkdownElement;
+import snw.jkook.message.component.card.element.PlainTextElement;
+import snw.jkook.message.component.card.module.ActionGroupModule;
+import snw.jkook.message.component.card.module.ContextModule;
+import snw.jkook.message.component.card.module.HeaderModule;
+import snw.jkook.message.component.card.module.SectionModule;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 卡片消息构建与序列化性能测试模块
+ * 按排行榜类卡片的结构生成 1~50 个模块的卡片，分别测量 CardBuilder 构建、
+ * KookBC 发送前的 JSON 序列化以及两者合计的吞吐量、每次分配量和序列化后的载荷大小
+ */
+public class CardBuilderBenchmarkTestModule extends BenchmarkTestModule {
+    private static final List<Integer> DEFAULT_MODULE_COUNTS = Arrays.asList(1, 5, 10, 25, 50);
+
+    private List<Integer> moduleCounts;
+    private int sequence;
+
+    @Override
+    public String getName() {
+        return "卡片构建性能";
+    }
+
+    @Override
+    public String getDescription() {
+        return "测量 1~50 个模块的卡片消息 CardBuilder 构建与 KookBC JSON 序列化的吞吐量、内存分配和载荷大小";
+    }
+
+    @Override
+    public void initialize(snw.jkook.plugin.Plugin plugin) {
+        super.initialize(plugin);
+        List<Integer> configured = plugin.getConfig().getIntegerList("benchmark.card.module-counts");
+        moduleCounts = configured == null || configured.isEmpty() ? DEFAULT_MODULE_COUNTS : configured;
+    }
+
+    @Override
+    protected void executeTests() {
+        if (!isBenchmarkEnabled()) {
+            return;
+        }
+
+        runTest("KookBC 序列化器检测", this::testSerializerAvailability);
+        for (int moduleCount : moduleCounts) {
+            runTest("卡片构建（" + moduleCount + " 个模块）", () -> testBuild(moduleCount));
+            if (CardPayloads.isAvailable()) {
+                runTest("卡片序列化（" + moduleCount + " 个模块）", () -> testSerialize(moduleCount));
+            }
+        }
+    }
+
+    private void testSerializerAvailability() {
+        if (!CardPayloads.isAvailable()) {
+            logger.warn("    未找到 KookBC 的消息序列化器，只测量卡片构建");
+            addDetail("序列化器不可用，跳过序列化测量");
+            return;
+        }
+        String payload = CardPayloads.serialize(buildCard(3, 0));
+        assertTrue(payload.startsWith("["), "卡片消息应序列化为 JSON 数组");
+        addDetail("使用 " + CardPayloads.getSerializerName());
+    }
+
+    private void testBuild(int moduleCount) {
+        MultipleCardComponent card = buildCard(moduleCount, 0);
+        assertEquals(moduleCount, card.getComponents().get(0).getModules().size(), "卡片模块数量不匹配");
+
+        measure("构建 " + moduleCount + " 个模块", () -> Benchmarks.consume(buildCard(moduleCount, sequence++)));
+    }
+
+    private void testSerialize(int moduleCount) {
+        MultipleCardComponent card = buildCard(moduleCount, 0);
+        String payload = CardPayloads.serialize(card);
+        int payloadBytes = payload.getBytes(StandardCharsets.UTF_8).length;
+
+        Measurement serialize = measure("序列化 " + moduleCount + " 个模块",
+                () -> Benchmarks.consume(CardPayloads.serialize(card)));
+        measure("构建 + 序列化 " + moduleCount + " 个模块",
+                () -> Benchmarks.consume(CardPayloads.serialize(buildCard(moduleCount, sequence++))));
+
+        String detail = String.format("载荷 %d 字节（%.1f 字节/模块），序列化吞吐 %.1f MB/s",
+                payloadBytes, (double) payloadBytes / moduleCount,
+                serialize.getOpsPerSecond() * payloadBytes / (1024 * 1024));
+        logger.info("    {}", detail);
+        addDetail(detail);
+    }
+
+    /**
+     * 按排行榜卡片的结构构建：标题 → 若干条目（Markdown 段落，每 5 条带一个按钮附件）→ 分组说明 → 底部按钮
+     * variant 参与文本内容，避免每次构建完全相同的对象
+     */
+    static MultipleCardComponent buildCard(int moduleCount, int variant) {
+        CardBuilder builder = new CardBuilder()
+                .setTheme(Theme.PRIMARY)
+                .setSize(Size.LG);
+        for (int i = 0; i < moduleCount; i++) {
+            if (i == 0) {
+                builder.addModule(new HeaderModule(new PlainTextElement("排行榜 #" + variant)));
+            } else if (i == moduleCount - 1 && moduleCount > 2) {
+                builder.addModule(new ActionGroupModule.Builder()
+                        .add(new ButtonElement(Theme.PRIMARY, "prev_" + variant, ButtonElement.EventType.RETURN_VAL, new PlainTextElement("上一页")))
+                        .add(new ButtonElement(Theme.PRIMARY, "next_" + variant, ButtonElement.EventType.RETURN_VAL, new PlainTextElement("下一页")))
+                        .build());
+            } else if (i % 10 == 0) {
+                builder.addModule(new ContextModule.Builder()
+                        .add(new PlainTextElement("第 " + (i / 10 + 1) + " 组"))
+                        .build());
+            } else if (i % 5 == 0) {
+                builder.addModule(new SectionModule(
+                        new MarkdownElement("**" + i + ".** 用户" + (variant + i) + " `" + (10_000 - i) + " 分`"),
+                        new ButtonElement(Theme.SECONDARY, "detail_" + i, ButtonElement.EventType.RETURN_VAL, new PlainTextElement("详情")),
+                        Accessory.Mode.RIGHT));
+            } else {
+                builder.addModule(new SectionModule(
+                        new MarkdownElement("**" + i + ".** 用户" + (variant + i) + " `" + (10_000 - i) + " 分`")));
+            }
+        }
+        return builder.build();
+    }
+}
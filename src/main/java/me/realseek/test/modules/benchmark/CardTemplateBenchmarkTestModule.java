@@ -0,0 +1,253 @@
+package me.realseek.test.modules.benchmark;
+
+import me.realseek.card.CardTemplate;
+import me.realseek.card.CardTemplateCache;
+import me.realseek.test.benchmark.Benchmarks;
+import me.realseek.test.benchmark.CardPayloads;
+import me.realseek.test.benchmark.Measurement;
+import snw.jkook.message.component.card.CardBuilder;
+import snw.jkook.message.component.card.MultipleCardComponent;
+import snw.jkook.message.component.card.Size;
+import snw.jkook.message.component.card.Theme;
+import snw.jkook.message.component.card.element.MarkdownElement;
+import snw.jkook.message.component.card.element.PlainTextElement;
+import snw.jkook.message.component.card.module.HeaderModule;
+import snw.jkook.message.component.card.module.SectionModule;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 卡片模板性能测试模块
+ * 对比预编译卡片模板（{@link CardTemplate}）的占位符渲染与每条消息重新通过 CardBuilder 构建（及序列化）的开销，
+ * 并测量模板编译和 LRU 缓存（{@link CardTemplateCache}）的命中开销
+ */
+public class CardTemplateBenchmarkTestModule extends BenchmarkTestModule {
+    private static final List<Integer> DEFAULT_ENTRY_COUNTS = Arrays.asList(10, 48);
+    private static final int CACHE_SIZE = 64;
+
+    private List<Integer> entryCounts;
+
+    @Override
+    public String getName() {
+        return "卡片模板性能";
+    }
+
+    @Override
+    public String getDescription() {
+        return "对比预编译卡片模板的占位符渲染与逐条 CardBuilder 构建/序列化的开销，并测量模板编译与 LRU 缓存";
+    }
+
+    @Override
+    public void initialize(snw.jkook.plugin.Plugin plugin) {
+        super.initialize(plugin);
+        List<Integer> configured = plugin.getConfig().getIntegerList("benchmark.card-template.entry-counts");
+        entryCounts = configured == null || configured.isEmpty() ? DEFAULT_ENTRY_COUNTS : configured;
+    }
+
+    @Override
+    protected void executeTests() {
+        if (!isBenchmarkEnabled()) {
+            return;
+        }
+
+        runTest("模板编译与渲染正确性", this::testCompileAndRender);
+        for (int entries : entryCounts) {
+            runTest("模板渲染 vs CardBuilder（" + entries + " 个条目）", () -> testRenderVersusBuilder(entries));
+        }
+        runTest("LRU 模板缓存", this::testCache);
+    }
+
+    private void testCompileAndRender() {
+        String source = leaderboardLayout(3);
+        CardTemplate template = CardTemplate.compile(source);
+        assertEquals(1 + 3 * 3, template.getPlaceholderNames().size(), "占位符数量不匹配");
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("title", "周榜 \"测试\"");
+        for (int i = 0; i < 3; i++) {
+            values.put("rank" + i, i + 1);
+            values.put("name" + i, "用户\\" + i);
+            values.put("score" + i, 1000 - i);
+        }
+        String rendered = template.render(values);
+        assertTrue(!rendered.contains("{{"), "渲染结果不应残留占位符");
+        assertTrue(rendered.contains("周榜 \\\"测试\\\""), "文本值中的引号应被转义");
+        assertTrue(rendered.contains("用户\\\\0"), "文本值中的反斜杠应被转义");
+        assertTrue(rendered.contains("**1.**"), "整数占位符应写入数字");
+
+        try {
+            values.put("score0", "not a number");
+            template.render(values);
+            throw new AssertionError("整数占位符传入字符串时应抛出异常");
+        } catch (IllegalArgumentException expected) {
+            // 类型校验生效
+        }
+
+        CardTemplate number = CardTemplate.compile("{\"value\":{{value:number}}}");
+        assertEquals("{\"value\":2.5}", number.render(2.5), "数字占位符应写入数字");
+        for (double invalid : new double[]{Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}) {
+            try {
+                number.render(invalid);
+                throw new AssertionError("数字占位符传入 " + invalid + " 时应抛出异常");
+            } catch (IllegalArgumentException expected) {
+                // NaN 与无穷大会生成非法 JSON
+            }
+        }
+
+        String large = leaderboardLayout(48);
+        measure("编译 48 个条目的模板", Math.max(1, warmupIterations / 10), Math.max(1, measureIterations / 10),
+                () -> Benchmarks.consume(CardTemplate.compile(large)));
+    }
+
+    private void testRenderVersusBuilder(int entries) {
+        String[] names = new String[entries];
+        int[] scores = new int[entries];
+        for (int i = 0; i < entries; i++) {
+            names[i] = "用户" + i;
+            scores[i] = 10_000 - i * 7;
+        }
+
+        // 有 KookBC 序列化器时，模板直接取自 CardBuilder 的序列化结果，两者载荷一致才比较耗时
+        boolean verified = CardPayloads.isAvailable();
+        CardTemplate template = CardTemplate.compile(verified ? serializedLayout(entries) : leaderboardLayout(entries));
+        if (verified) {
+            JsonElement rendered = JsonParser.parseString(template.render(positionalValues(entries, names, scores)));
+            JsonElement built = JsonParser.parseString(CardPayloads.serialize(buildCard(entries, names, scores)));
+            assertEquals(built, rendered, "模板渲染结果应与 CardBuilder 序列化结果等价");
+        }
+
+        Measurement render = measure("模板渲染（按位置）",
+                () -> Benchmarks.consume(template.render(positionalValues(entries, names, scores))));
+        measure("模板渲染（按名称）",
+                () -> Benchmarks.consume(template.render(namedValues(entries, names, scores))));
+        Measurement build = measure("CardBuilder 构建",
+                () -> Benchmarks.consume(buildCard(entries, names, scores)));
+
+        String comparison;
+        if (verified) {
+            Measurement serialize = measure("CardBuilder 构建 + 序列化",
+                    () -> Benchmarks.consume(CardPayloads.serialize(buildCard(entries, names, scores))));
+            comparison = String.format("载荷等价，模板渲染比 CardBuilder 构建快 %.1fx，比构建 + 序列化快 %.1fx",
+                    build.getNanosPerOp() / render.getNanosPerOp(), serialize.getNanosPerOp() / render.getNanosPerOp());
+        } else {
+            comparison = "未找到 KookBC 序列化器，无法校验两者载荷等价，不计算加速比";
+        }
+        logger.info("    {}", comparison);
+        addDetail(comparison);
+    }
+
+    private void testCache() {
+        CardTemplateCache cache = new CardTemplateCache(CACHE_SIZE);
+        String[] sources = new String[CACHE_SIZE * 2];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = leaderboardLayout(1 + i % 10).replace("排行榜", "排行榜" + i);
+        }
+
+        // 工作集小于容量时全部命中
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < CACHE_SIZE / 2; i++) {
+                cache.get(sources[i]);
+            }
+        }
+        assertEquals((long) CACHE_SIZE / 2, cache.getMisses(), "工作集小于容量时只应在首次访问时编译");
+
+        // 工作集超出容量时按 LRU 淘汰
+        for (String source : sources) {
+            cache.get(source);
+        }
+        assertEquals((long) CACHE_SIZE, (long) cache.size(), "缓存大小不应超过容量");
+        assertTrue(cache.getEvictions() > 0, "超出容量时应淘汰模板");
+
+        String hot = sources[sources.length - 1];
+        measure("缓存命中", () -> Benchmarks.consume(cache.get(hot)));
+        logger.info("    {}", cache);
+        addDetail(cache.toString());
+    }
+
+    private static Object[] positionalValues(int entries, String[] names, int[] scores) {
+        Object[] values = new Object[1 + entries * 3];
+        values[0] = "周榜";
+        for (int i = 0; i < entries; i++) {
+            values[1 + i * 3] = i + 1;
+            values[2 + i * 3] = names[i];
+            values[3 + i * 3] = scores[i];
+        }
+        return values;
+    }
+
+    private static Map<String, Object> namedValues(int entries, String[] names, int[] scores) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("title", "周榜");
+        for (int i = 0; i < entries; i++) {
+            values.put("rank" + i, i + 1);
+            values.put("name" + i, names[i]);
+            values.put("score" + i, scores[i]);
+        }
+        return values;
+    }
+
+    /**
+     * 用占位符代替数据构建卡片并交给 KookBC 序列化，得到与 {@link #buildCard} 字段完全一致的模板
+     */
+    private static String serializedLayout(int entries) {
+        String[] ranks = new String[entries];
+        String[] names = new String[entries];
+        String[] scores = new String[entries];
+        for (int i = 0; i < entries; i++) {
+            ranks[i] = "{{rank" + i + ":int}}";
+            names[i] = "{{name" + i + "}}";
+            scores[i] = "{{score" + i + ":int}}";
+        }
+        return CardPayloads.serialize(buildCard("{{title}}", ranks, names, scores));
+    }
+
+    /**
+     * 与 {@link #buildCard} 结构相同的手写卡片模板：标题 + 每个条目一个 Markdown 段落，
+     * 不含 KookBC 序列化时补充的字段
+     */
+    private static String leaderboardLayout(int entries) {
+        StringBuilder json = new StringBuilder();
+        json.append("[{\"type\":\"card\",\"theme\":\"primary\",\"size\":\"lg\",\"modules\":[");
+        json.append("{\"type\":\"header\",\"text\":{\"type\":\"plain-text\",\"content\":\"排行榜 {{title}}\"}}");
+        for (int i = 0; i < entries; i++) {
+            json.append(",{\"type\":\"section\",\"text\":{\"type\":\"kmarkdown\",\"content\":\"**{{rank").append(i)
+                    .append(":int}}.** {{name").append(i)
+                    .append("}} `{{score").append(i).append(":int}} 分`\"}}");
+        }
+        json.append("]}]");
+        return json.toString();
+    }
+
+    private static MultipleCardComponent buildCard(int entries, String[] names, int[] scores) {
+        CardBuilder builder = new CardBuilder()
+                .setTheme(Theme.PRIMARY)
+                .setSize(Size.LG)
+                .addModule(new HeaderModule(new PlainTextElement("排行榜 周榜")));
+        for (int i = 0; i < entries; i++) {
+            builder.addModule(new SectionModule(
+                    new MarkdownElement("**" + (i + 1) + ".** " + names[i] + " `" + scores[i] + " 分`")));
+        }
+        return builder.build();
+    }
+
+    /**
+     * 与 {@link #buildCard(int, String[], int[])} 结构相同，各处数据以字符串给出
+     */
+    private static MultipleCardComponent buildCard(String title, String[] ranks, String[] names, String[] scores) {
+        CardBuilder builder = new CardBuilder()
+                .setTheme(Theme.PRIMARY)
+                .setSize(Size.LG)
+                .addModule(new HeaderModule(new PlainTextElement("排行榜 " + title)));
+        for (int i = 0; i < ranks.length; i++) {
+            builder.addModule(new SectionModule(
+                    new MarkdownElement("**" + ranks[i] + ".** " + names[i] + " `" + scores[i] + " 分`")));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,450 @@
+package me.realseek.test.modules.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import me.realseek.test.benchmark.EndpointProfiler;
+import me.realseek.test.benchmark.LatencyStats;
+import me.realseek.test.mock.LatencyInjector;
+import me.realseek.test.mock.MockFixtures;
+import me.realseek.test.mock.MockKookServer;
+import me.realseek.test.modules.integration.IntegrationConfig;
+import me.realseek.test.modules.integration.IntegrationFixtures;
+import snw.jkook.config.ConfigurationSection;
+import snw.jkook.entity.channel.TextChannel;
+import snw.jkook.message.ChannelMessage;
+import snw.jkook.message.component.BaseComponent;
+import snw.jkook.util.PageIterator;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 频道历史深度扫描测试模块
+ * <p>
+ * 消息集成测试只读取 getMessages 的第一页，这里以最旧一条消息为参照（flag=before）向前翻页，
+ * 扫描数千条历史消息，统计翻页速度、每页的请求与反序列化耗时，以及按消息类型分组的解析失败率，
+ * 用于估计大频道历史回填的开销。
+ * <p>
+ * 启用集成测试时每一页都以上一页最旧的消息为参照调用 {@link TextChannel#getMessages}，
+ * 反序列化由 KookBC 在翻页时完成，计入请求耗时，这是历史回填开销的实际测量。
+ * <p>
+ * 另外扫描本地模拟服务器中按固定种子生成的混合类型消息（其中一部分故意损坏），
+ * 这只是本模块 Gson 校验器对自己生成的数据的自检：验证 flag=before 翻页不重不漏、损坏的消息都能被识别，
+ * 不代表 KookBC 反序列化历史消息的开销。
+ */
+public class ChannelHistoryBenchmarkTestModule extends BenchmarkTestModule {
+    private static final long SEED = 50L;
+    private static final String PAGE_FAILURE_TYPE = "整页获取/反序列化失败";
+    private static final int MAX_PAGE_RETRIES = 3;
+    private static final int[] MOCK_TYPES = {1, 9, 10, 2};
+    private static final double[] MOCK_TYPE_WEIGHTS = {0.5, 0.3, 0.15, 0.05};
+
+    private int mockMessages;
+    private int pageSize;
+    private long latencyMillis;
+    private double malformedRatio;
+    private int maxMessages;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private MockKookServer server;
+    private int expectedMalformed;
+    private final List<String> reportLines = new ArrayList<>();
+
+    @Override
+    public String getName() {
+        return "频道历史深度扫描";
+    }
+
+    @Override
+    public String getDescription() {
+        return "以 flag=before 逐页向前扫描测试频道历史消息，统计翻页速度、每页耗时与按类型的解析失败率，并自检模拟数据的翻页与校验";
+    }
+
+    @Override
+    public void initialize(snw.jkook.plugin.Plugin plugin) {
+        super.initialize(plugin);
+        ConfigurationSection config = plugin.getConfig();
+        mockMessages = Math.max(1, config.getInt("benchmark.channel-history.mock-messages", 5000));
+        pageSize = Math.min(100, Math.max(1, config.getInt("benchmark.channel-history.page-size", 100)));
+        latencyMillis = Math.max(0, config.getLong("benchmark.channel-history.latency-ms", 20L));
+        malformedRatio = Math.min(1, Math.max(0, config.getDouble("benchmark.channel-history.malformed-ratio", 0.02)));
+        maxMessages = Math.max(1, config.getInt("benchmark.channel-history.max-messages", 2000));
+    }
+
+    @Override
+    protected void executeTests() {
+        if (!isBenchmarkEnabled()) {
+            return;
+        }
+
+        cleanup();
+        reportLines.clear();
+        reportLines.add(String.format("%-24s %-6s %-8s %-8s %-12s %-12s %-12s %s",
+                "数据源", "页数", "消息", "页/秒", "请求 p50", "请求 p95", "反序列化 p50", "反序列化 p95"));
+        List<String> failureLines = new ArrayList<>();
+
+        runTest("启动模拟服务器", this::testStartMockServer);
+        if (server != null) {
+            runTest("模拟数据翻页与校验器自检（" + mockMessages + " 条）", () -> {
+                Scan scan = scanMock();
+                record("模拟频道（校验器自检）", scan, failureLines);
+                assertEquals((long) mockMessages, scan.messages, "翻页扫描到的消息数量应与模拟数据一致");
+                assertEquals((long) expectedMalformed, scan.failures(), "校验器应识别出全部故意损坏的消息");
+            });
+        }
+
+        IntegrationConfig config = IntegrationConfig.current();
+        if (config.isEnabled() && !config.getTextChannelId().isEmpty()) {
+            IntegrationFixtures fixtures = IntegrationFixtures.current();
+            TextChannel channel = fixtures != null && fixtures.getConfig().equals(config)
+                    ? fixtures.textChannel()
+                    : plugin.getCore().getHttpAPI().getTextChannel(config.getTextChannelId());
+            runTest("测试频道历史扫描", () -> {
+                Scan scan = scanChannel(channel);
+                record("频道 " + channel.getName(), scan, failureLines);
+                if (scan.stalled) {
+                    logger.warn("    翻页返回的消息全部已出现过，提前结束扫描");
+                }
+                if (scan.aborted) {
+                    logger.warn("    同一页连续 {} 次获取/反序列化失败，提前结束扫描", MAX_PAGE_RETRIES + 1);
+                }
+            });
+        } else {
+            logger.info("    集成测试未启用，跳过测试频道历史扫描");
+        }
+
+        reportLines.add("");
+        reportLines.addAll(failureLines);
+        reportLines.add("测试频道由 KookBC 在翻页时反序列化（计入请求耗时），反序列化列为逐条读取 getComponent/getSender/getTimeStamp 的耗时，"
+                + "最多扫描 " + maxMessages + " 条");
+        reportLines.add("模拟频道一行是本模块 Gson 校验器对自己生成的固定数据的自检，失败数等于故意损坏的条数只说明校验器识别出了这些损坏，"
+                + "反序列化列为响应 JSON 解析与逐条校验的耗时，不代表 KookBC 回填历史消息的反序列化开销");
+        setReportSection("频道历史深度扫描", reportLines);
+    }
+
+    private void testStartMockServer() {
+        cleanup();
+        MockFixtures fixtures = new MockFixtures(SEED, 10, 2);
+        expectedMalformed = seedMessages(fixtures);
+        LatencyInjector latency = new LatencyInjector(latencyMillis, 0, new HashMap<>(), SEED);
+        try {
+            server = MockKookServer.start(fixtures, latency, 0, 0);
+        } catch (IOException e) {
+            throw new AssertionError("模拟服务器启动失败: " + e.getMessage(), e);
+        }
+        addDetail(server.getBaseUrl() + "，" + mockMessages + " 条消息（" + expectedMalformed + " 条损坏），每页 "
+                + pageSize + " 条，每次请求延迟 " + latencyMillis + "ms");
+    }
+
+    /**
+     * 按固定种子生成文本/KMarkdown/卡片/图片消息，返回故意损坏的消息数
+     */
+    private int seedMessages(MockFixtures fixtures) {
+        Random random = new Random(SEED);
+        int malformed = 0;
+        for (int i = 0; i < mockMessages; i++) {
+            int type = pickType(random.nextDouble());
+            boolean broken = random.nextDouble() < malformedRatio;
+            if (broken) {
+                malformed++;
+            }
+            fixtures.createMessage(MockFixtures.TEXT_CHANNEL_ID, mockContent(type, i, broken), type, null);
+        }
+        return malformed;
+    }
+
+    private static int pickType(double roll) {
+        double cumulative = 0;
+        for (int i = 0; i < MOCK_TYPES.length; i++) {
+            cumulative += MOCK_TYPE_WEIGHTS[i];
+            if (roll < cumulative) {
+                return MOCK_TYPES[i];
+            }
+        }
+        return MOCK_TYPES[0];
+    }
+
+    private static String mockContent(int type, int index, boolean broken) {
+        switch (type) {
+            case 10:
+                String card = "[{\"type\":\"card\",\"theme\":\"secondary\",\"size\":\"lg\",\"modules\":[{\"type\":\"section\","
+                        + "\"text\":{\"type\":\"kmarkdown\",\"content\":\"历史卡片 " + index + "\"}}]}]";
+                return broken ? card.substring(0, card.length() / 2) : card;
+            case 2:
+                return broken ? "" : "https://img.kookapp.cn/assets/mock/" + index + ".png";
+            case 9:
+                return broken ? "" : "**历史消息** " + index;
+            default:
+                return broken ? "" : "历史消息 " + index;
+        }
+    }
+
+    /**
+     * 从最新一页开始，以每页最旧的消息为参照向前翻页，直到返回空页
+     */
+    private Scan scanMock() {
+        Scan scan = new Scan();
+        String reference = null;
+        long start = System.nanoTime();
+        while (true) {
+            String route = "message/list?target_id=" + MockFixtures.TEXT_CHANNEL_ID + "&page_size=" + pageSize
+                    + (reference == null ? "" : "&flag=before&msg_id=" + reference);
+            long fetchStart = System.nanoTime();
+            String body = get(route);
+            long parseStart = System.nanoTime();
+            JsonObject response = JsonParser.parseString(body).getAsJsonObject();
+            assertEquals(0, response.get("code").getAsInt(), "获取历史消息失败: " + body);
+            JsonArray items = response.getAsJsonObject("data").getAsJsonArray("items");
+            for (JsonElement item : items) {
+                parseMessage(item.getAsJsonObject(), scan);
+            }
+            long end = System.nanoTime();
+            if (items.size() == 0) {
+                break;
+            }
+            scan.addPage(parseStart - fetchStart, end - parseStart, items.size());
+            // 页内按时间从旧到新，第一条是最旧的
+            reference = items.get(0).getAsJsonObject().get("id").getAsString();
+        }
+        scan.elapsedNanos = System.nanoTime() - start;
+        return scan;
+    }
+
+    /**
+     * 按类型解析一条消息，解析失败计入该类型的失败次数
+     */
+    private static void parseMessage(JsonObject message, Scan scan) {
+        String type = "未知";
+        try {
+            type = typeName(message.get("type").getAsInt());
+            message.getAsJsonObject("author").get("id").getAsString();
+            message.get("create_at").getAsLong();
+            String content = message.get("content").getAsString();
+            switch (type) {
+                case "卡片":
+                    JsonElement cards = JsonParser.parseString(content);
+                    if (!cards.isJsonArray() || cards.getAsJsonArray().size() == 0) {
+                        throw new IllegalStateException("卡片内容不是非空数组");
+                    }
+                    break;
+                case "图片":
+                    if (!content.startsWith("http")) {
+                        throw new IllegalStateException("图片地址无效: " + content);
+                    }
+                    break;
+                default:
+                    if (content.isEmpty()) {
+                        throw new IllegalStateException("消息内容为空");
+                    }
+                    break;
+            }
+            scan.count(type, null);
+        } catch (RuntimeException e) {
+            scan.count(type, e);
+        }
+    }
+
+    private static String typeName(int type) {
+        switch (type) {
+            case 1:
+                return "文本";
+            case 2:
+                return "图片";
+            case 3:
+                return "视频";
+            case 4:
+                return "文件";
+            case 9:
+                return "KMarkdown";
+            case 10:
+                return "卡片";
+            default:
+                return "类型 " + type;
+        }
+    }
+
+    /**
+     * 从最新一页开始，每一页都以上一页最旧的消息为参照重新调用 getMessages(msgId, false, "before") 向前翻页，
+     * 读取每条消息的组件、发送者和时间。整页获取或反序列化失败时计入 {@value #PAGE_FAILURE_TYPE} 并重试
+     */
+    private Scan scanChannel(TextChannel channel) {
+        Scan scan = new Scan();
+        Set<String> seen = new HashSet<>();
+        String reference = null;
+        long start = System.nanoTime();
+        int consecutiveFailures = 0;
+        while (scan.messages < maxMessages) {
+            long fetchStart = System.nanoTime();
+            Collection<ChannelMessage> page;
+            try {
+                PageIterator<Collection<ChannelMessage>> pages = channel.getMessages(reference, false, "before");
+                page = pages.hasNext() ? pages.next() : null;
+            } catch (RuntimeException e) {
+                // KookBC 在 hasNext/next 中请求并反序列化整页，失败时单独计数后以同一参照重试；
+                // 下一页的参照只能是这一页中的消息 ID，持续失败时无法越过，结束扫描并保留已有结果
+                scan.count(PAGE_FAILURE_TYPE, e);
+                if (++consecutiveFailures > MAX_PAGE_RETRIES) {
+                    scan.aborted = true;
+                    break;
+                }
+                continue;
+            }
+            consecutiveFailures = 0;
+            long parseStart = System.nanoTime();
+            if (page == null || page.isEmpty()) {
+                break;
+            }
+            int fresh = 0;
+            ChannelMessage oldest = null;
+            for (ChannelMessage message : page) {
+                if (oldest == null || message.getTimeStamp() < oldest.getTimeStamp()) {
+                    oldest = message;
+                }
+                if (!seen.add(message.getId())) {
+                    continue;
+                }
+                fresh++;
+                String type = "未知";
+                try {
+                    BaseComponent component = message.getComponent();
+                    type = component.getClass().getSimpleName();
+                    message.getSender().getId();
+                    message.getTimeStamp();
+                    scan.count(type, null);
+                } catch (RuntimeException e) {
+                    scan.count(type, e);
+                }
+            }
+            scan.addPage(parseStart - fetchStart, System.nanoTime() - parseStart, fresh);
+            if (fresh == 0) {
+                scan.stalled = true;
+                break;
+            }
+            reference = oldest.getId();
+        }
+        scan.elapsedNanos = System.nanoTime() - start;
+        return scan;
+    }
+
+    private void record(String label, Scan scan, List<String> failureLines) {
+        LatencyStats fetch = LatencyStats.of(scan.fetchNanos, scan.pages);
+        LatencyStats parse = LatencyStats.of(scan.parseNanos, scan.pages);
+        String summary = String.format("%d 页 %d 条，%.1f 页/秒，每页请求 p50 %s，反序列化 p50 %s，解析失败 %d 条（%.2f%%），整页失败 %d 次",
+                scan.pages, scan.messages, scan.pagesPerSecond(), EndpointProfiler.millis(fetch.getP50()),
+                EndpointProfiler.millis(parse.getP50()), scan.failures(), scan.failureRate() * 100, scan.pageFailures());
+        logger.info("    {}: {}", label, summary);
+        addDetail(summary);
+        reportLines.add(String.format("%-24s %-6d %-8d %-8.1f %-12s %-12s %-12s %s", label, scan.pages, scan.messages,
+                scan.pagesPerSecond(), EndpointProfiler.millis(fetch.getP50()), EndpointProfiler.millis(fetch.getP95()),
+                EndpointProfiler.millis(parse.getP50()), EndpointProfiler.millis(parse.getP95())));
+
+        failureLines.add(label + " 按类型的解析结果:");
+        for (Map.Entry<String, TypeStats> entry : scan.types.entrySet()) {
+            TypeStats stats = entry.getValue();
+            failureLines.add(String.format("  %-20s %-8d 失败 %-6d (%.2f%%)%s", entry.getKey(), stats.total, stats.failures,
+                    stats.total == 0 ? 0 : stats.failures * 100.0 / stats.total,
+                    stats.firstError == null ? "" : "，首个错误: " + stats.firstError));
+        }
+    }
+
+    private String get(String route) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.getBaseUrl() + "/" + route))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        } catch (IOException e) {
+            throw new IllegalStateException("请求模拟服务器失败: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("请求被中断", e);
+        }
+    }
+
+    @Override
+    public void cleanup() {
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+    }
+
+    /**
+     * 一次扫描的统计：每页的请求与反序列化耗时、按类型的解析结果
+     */
+    private static class Scan {
+        long[] fetchNanos = new long[64];
+        long[] parseNanos = new long[64];
+        int pages;
+        long messages;
+        long elapsedNanos;
+        boolean stalled;
+        boolean aborted;
+        final Map<String, TypeStats> types = new TreeMap<>();
+
+        void addPage(long fetch, long parse, int size) {
+            if (pages == fetchNanos.length) {
+                fetchNanos = Arrays.copyOf(fetchNanos, pages * 2);
+                parseNanos = Arrays.copyOf(parseNanos, pages * 2);
+            }
+            fetchNanos[pages] = fetch;
+            parseNanos[pages] = parse;
+            pages++;
+            messages += size;
+        }
+
+        void count(String type, RuntimeException failure) {
+            TypeStats stats = types.computeIfAbsent(type, key -> new TypeStats());
+            stats.total++;
+            if (failure != null) {
+                stats.failures++;
+                if (stats.firstError == null) {
+                    stats.firstError = failure.getClass().getSimpleName() + ": " + failure.getMessage();
+                }
+            }
+        }
+
+        /**
+         * 逐条解析失败的消息数，不含整页失败
+         */
+        long failures() {
+            long total = 0;
+            for (Map.Entry<String, TypeStats> entry : types.entrySet()) {
+                if (!entry.getKey().equals(PAGE_FAILURE_TYPE)) {
+                    total += entry.getValue().failures;
+                }
+            }
+            return total;
+        }
+
+        long pageFailures() {
+            TypeStats stats = types.get(PAGE_FAILURE_TYPE);
+            return stats == null ? 0 : stats.failures;
+        }
+
+        double failureRate() {
+            return messages == 0 ? 0 : (double) failures() / messages;
+        }
+
+        double pagesPerSecond() {
+            return elapsedNanos == 0 ? 0 : pages * 1e9 / elapsedNanos;
+        }
+    }
+
+    private static class TypeStats {
+        long total;
+        long failures;
+        String firstError;
+    }
+}
@@ -0,0 +1,178 @@
+package me.realseek.test.modules.benchmark;
+
+import me.realseek.test.benchmark.Benchmarks;
+import me.realseek.test.benchmark.LatencyStats;
+import snw.jkook.command.CommandExecutor;
+import snw.jkook.command.CommandManager;
+import snw.jkook.command.CommandSender;
+import snw.jkook.command.JKookCommand;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 命令分发性能测试模块
+ * 通过 CommandManager 注册指定规模的合成命令树（根命令数量 × 子命令宽度 × 嵌套深度，每个根命令带别名和额外前缀），
+ * 再测量 executeCommand 查找命令并解析参数的单次耗时和内存分配
+ */
+public class CommandDispatchBenchmarkTestModule extends BenchmarkTestModule {
+    private static final List<Integer> DEFAULT_ROOT_COUNTS = Arrays.asList(10, 100, 500);
+    private static final AtomicInteger RUN_SEQUENCE = new AtomicInteger();
+
+    private final LongAdder executions = new LongAdder();
+    private final List<JKookCommand> registeredCommands = new ArrayList<>();
+    private List<Integer> rootCounts;
+    private int subcommandBreadth;
+    private int depth;
+    private int aliasCount;
+    private String namePrefix;
+
+    @Override
+    public String getName() {
+        return "命令分发性能";
+    }
+
+    @Override
+    public String getDescription() {
+        return "注册大规模命令树，测量 executeCommand 在不同前缀/别名/子命令组合下的查找与参数解析开销";
+    }
+
+    @Override
+    public void initialize(snw.jkook.plugin.Plugin plugin) {
+        super.initialize(plugin);
+        List<Integer> configured = plugin.getConfig().getIntegerList("benchmark.command-dispatch.root-counts");
+        rootCounts = configured == null || configured.isEmpty() ? DEFAULT_ROOT_COUNTS : configured;
+        subcommandBreadth = Math.max(1, plugin.getConfig().getInt("benchmark.command-dispatch.subcommand-breadth", 4));
+        depth = Math.max(0, plugin.getConfig().getInt("benchmark.command-dispatch.depth", 2));
+        aliasCount = Math.max(1, plugin.getConfig().getInt("benchmark.command-dispatch.aliases", 2));
+    }
+
+    @Override
+    protected void executeTests() {
+        if (!isBenchmarkEnabled()) {
+            return;
+        }
+
+        for (int rootCount : rootCounts) {
+            // 每轮使用不同的命令名前缀，避免与上一轮未能注销的命令冲突
+            namePrefix = "kbcbench" + RUN_SEQUENCE.incrementAndGet() + "_";
+            runTest("注册命令树（" + rootCount + " 个根命令）", () -> testRegisterTree(rootCount));
+            if (registeredCommands.size() != rootCount) {
+                unregisterCommands();
+                continue;
+            }
+            runTest("命令分发（" + rootCount + " 个根命令）", () -> testDispatch(rootCount));
+            unregisterCommands();
+        }
+    }
+
+    private void testRegisterTree(int rootCount) {
+        CommandManager commandManager = plugin.getCore().getCommandManager();
+        CommandExecutor executor = (sender, arguments, message) -> {
+            executions.increment();
+            Benchmarks.consume(arguments);
+        };
+
+        long[] registerTimes = new long[rootCount];
+        for (int i = 0; i < rootCount; i++) {
+            JKookCommand command = buildCommand(namePrefix + "c" + i, 0, executor);
+            for (int a = 0; a < aliasCount; a++) {
+                command.addAlias(namePrefix + "a" + i + "_" + a);
+            }
+            command.addPrefix(".");
+
+            long start = System.nanoTime();
+            commandManager.registerCommand(plugin, command);
+            registerTimes[i] = System.nanoTime() - start;
+            registeredCommands.add(command);
+        }
+
+        int nodesPerRoot = 0;
+        for (int level = 0, width = 1; level <= depth; level++, width *= subcommandBreadth) {
+            nodesPerRoot += width;
+        }
+        String detail = String.format("%d 个根命令（每个含 %d 个节点、%d 个别名），注册耗时 %s",
+                rootCount, nodesPerRoot, aliasCount, LatencyStats.of(registerTimes));
+        logger.info("    {}", detail);
+        addDetail(detail);
+    }
+
+    /**
+     * 构建命令节点：一个必需 String 参数和一个可选 Integer 参数，未到达最大深度时继续添加子命令
+     */
+    private JKookCommand buildCommand(String name, int level, CommandExecutor executor) {
+        JKookCommand command = new JKookCommand(name)
+                .addArgument(String.class)
+                .addOptionalArgument(Integer.class, 0)
+                .setExecutor(executor);
+        if (level < depth) {
+            for (int i = 0; i < subcommandBreadth; i++) {
+                command.addSubcommand(buildCommand("s" + i, level + 1, executor));
+            }
+        }
+        return command;
+    }
+
+    private void testDispatch(int rootCount) {
+        CommandSender sender = plugin.getCore().getConsoleCommandSender();
+        // 使用最后注册的命令，线性查找时这是最坏情况
+        int target = rootCount - 1;
+        String name = namePrefix + "c" + target;
+        String alias = namePrefix + "a" + target + "_" + (aliasCount - 1);
+
+        StringBuilder deepest = new StringBuilder("/").append(name);
+        for (int level = 0; level < depth; level++) {
+            deepest.append(" s").append(subcommandBreadth - 1);
+        }
+
+        measureHit(sender, "名称 + 默认前缀", "/" + name + " hello 42");
+        measureHit(sender, "别名 + 默认前缀", "/" + alias + " hello 42");
+        measureHit(sender, "名称 + 自定义前缀", "." + name + " hello 42");
+        measureHit(sender, "仅必需参数", "/" + name + " hello");
+        measureHit(sender, "最深子命令（深度 " + depth + "）", deepest + " hello 42");
+
+        String unknown = "/" + namePrefix + "missing hello 42";
+        assertTrue(!execute(sender, unknown), "未注册的命令不应被执行");
+        measure("未命中的命令", () -> execute(sender, unknown));
+    }
+
+    /**
+     * 测量一种命中的命令行，并校验执行器的实际执行次数
+     */
+    private void measureHit(CommandSender sender, String label, String commandLine) {
+        assertTrue(execute(sender, commandLine), label + " 应该命中已注册的命令: " + commandLine);
+
+        long before = executions.sum();
+        measure(label, () -> execute(sender, commandLine));
+        assertEquals((long) warmupIterations + measureIterations, executions.sum() - before,
+                label + " 的执行次数应与调用次数一致");
+    }
+
+    private boolean execute(CommandSender sender, String commandLine) {
+        try {
+            return plugin.getCore().getCommandManager().executeCommand(sender, commandLine);
+        } catch (Exception e) {
+            throw new AssertionError("执行命令失败: " + commandLine + " - " + e.getMessage(), e);
+        }
+    }
+
+    private void unregisterCommands() {
+        CommandManager commandManager = plugin.getCore().getCommandManager();
+        for (JKookCommand command : registeredCommands) {
+            try {
+                commandManager.unregisterCommand(command);
+            } catch (Exception e) {
+                logger.warn("注销命令 {} 失败", command.getRootName(), e);
+            }
+        }
+        registeredCommands.clear();
+    }
+
+    @Override
+    public void cleanup() {
+        unregisterCommands();
+    }
+}
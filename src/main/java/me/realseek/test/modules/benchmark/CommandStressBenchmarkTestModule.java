@@ -0,0 +1,283 @@
+package me.realseek.test.modules.benchmark;
+
+import me.realseek.test.benchmark.LatencyStats;
+import me.realseek.test.benchmark.SyntheticEvents;
+import snw.jkook.command.CommandManager;
+import snw.jkook.command.CommandSender;
+import snw.jkook.command.ConsoleCommandSender;
+import snw.jkook.command.JKookCommand;
+import snw.jkook.config.file.FileConfiguration;
+import snw.jkook.entity.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 并发命令执行压力测试模块
+ * 多个模拟发送者（用户与控制台交替）同时调用 executeCommand，命令行中编码了发送者和序号，
+ * 执行器校验解析出的参数与实际发送者是否一致，以检测参数解析或执行器调用中的竞争问题，
+ * 同时报告吞吐量和单次调用的尾延迟
+ */
+public class CommandStressBenchmarkTestModule extends BenchmarkTestModule {
+    private static final AtomicInteger RUN_SEQUENCE = new AtomicInteger();
+
+    private int senderCount;
+    private int commandsPerSender;
+    private JKookCommand stressCommand;
+    private String commandName;
+    private double baselineThroughput;
+
+    /**
+     * 当前阶段的校验状态，由执行器并发写入
+     */
+    private volatile PhaseState state;
+
+    @Override
+    public String getName() {
+        return "并发命令执行";
+    }
+
+    @Override
+    public String getDescription() {
+        return "多个用户/控制台发送者并发执行命令，检测参数解析和执行器调用的竞争问题并测量吞吐量与尾延迟";
+    }
+
+    @Override
+    public void initialize(snw.jkook.plugin.Plugin plugin) {
+        super.initialize(plugin);
+        FileConfiguration config = plugin.getConfig();
+        senderCount = Math.max(2, config.getInt("benchmark.command-stress.senders", 16));
+        commandsPerSender = Math.max(100, config.getInt("benchmark.command-stress.commands-per-sender", 5000));
+    }
+
+    @Override
+    protected void executeTests() {
+        if (!isBenchmarkEnabled()) {
+            return;
+        }
+
+        // 每轮结束立即注销，避免重复运行时不断累积新的 kbcstressN 命令
+        try {
+            runTest("注册压力测试命令", this::testRegisterCommand);
+            if (stressCommand == null) {
+                return;
+            }
+            runTest("单发送者基线", () -> testPhase(1));
+            runTest("并发执行（" + senderCount + " 个发送者）", () -> testPhase(senderCount));
+        } finally {
+            cleanup();
+        }
+    }
+
+    private void testRegisterCommand() {
+        commandName = "kbcstress" + RUN_SEQUENCE.incrementAndGet();
+        JKookCommand command = new JKookCommand(commandName)
+                .addArgument(String.class)
+                .addArgument(Integer.class)
+                .addOptionalArgument(Integer.class, -1)
+                .executesUser((sender, arguments, message) -> verify(sender, arguments, "u"))
+                .executesConsole((sender, arguments) -> verify(sender, arguments, "c"));
+        plugin.getCore().getCommandManager().registerCommand(plugin, command);
+        stressCommand = command;
+        addDetail("已注册命令 /" + commandName + " <发送者> <序号> [校验序号]");
+    }
+
+    /**
+     * 执行器校验：发送者类型与执行器一致、发送者标识与命令行一致、可选参数为默认值或等于序号
+     */
+    private void verify(CommandSender sender, Object[] arguments, String executorTag) {
+        PhaseState current = state;
+        if (current == null) {
+            return;
+        }
+        current.executions.increment();
+
+        if (arguments.length != 3 || !(arguments[0] instanceof String) || !(arguments[1] instanceof Integer)
+                || !(arguments[2] instanceof Integer)) {
+            current.argumentErrors.increment();
+            return;
+        }
+        String token = (String) arguments[0];
+        int index = (Integer) arguments[1];
+        int check = (Integer) arguments[2];
+        if (index < 0 || index >= current.seen.length()) {
+            current.argumentErrors.increment();
+            return;
+        }
+        current.seen.incrementAndGet(index);
+
+        int senderIndex = index / commandsPerSender;
+        String expectedToken = senderTag(senderIndex) + senderIndex;
+        if (!expectedToken.equals(token) || (check != -1 && check != index)) {
+            current.argumentErrors.increment();
+        }
+        if (!token.startsWith(executorTag)) {
+            current.executorErrors.increment();
+        } else if (sender instanceof User && !token.equals(((User) sender).getId())) {
+            current.executorErrors.increment();
+        }
+    }
+
+    private void testPhase(int senders) {
+        int total = senders * commandsPerSender;
+        PhaseState phase = new PhaseState(total);
+        CommandManager commandManager = plugin.getCore().getCommandManager();
+        ConsoleCommandSender console = plugin.getCore().getConsoleCommandSender();
+
+        ExecutorService executor = Executors.newFixedThreadPool(senders, runnable -> {
+            Thread thread = new Thread(runnable, "kbctest-command-stress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CountDownLatch startGate = new CountDownLatch(1);
+        long[][] latencies = new long[senders][];
+        LongAdder rejected = new LongAdder();
+        List<Future<?>> futures = new ArrayList<>();
+
+        state = phase;
+        try {
+            for (int s = 0; s < senders; s++) {
+                int senderIndex = s;
+                String tag = senderTag(senderIndex) + senderIndex;
+                CommandSender sender = senderTag(senderIndex).equals("u") ? SyntheticEvents.stub(User.class, tag) : console;
+                futures.add(executor.submit(() -> {
+                    long[] samples = new long[commandsPerSender];
+                    awaitGate(startGate);
+                    for (int i = 0; i < commandsPerSender; i++) {
+                        int index = senderIndex * commandsPerSender + i;
+                        // 一半命令带可选参数，一半使用默认值
+                        String commandLine = (i & 1) == 0
+                                ? "/" + commandName + " " + tag + " " + index
+                                : "/" + commandName + " " + tag + " " + index + " " + index;
+                        long start = System.nanoTime();
+                        boolean executed = execute(commandManager, sender, commandLine);
+                        samples[i] = System.nanoTime() - start;
+                        if (!executed) {
+                            rejected.increment();
+                        }
+                    }
+                    latencies[senderIndex] = samples;
+                }));
+            }
+
+            long start = System.nanoTime();
+            startGate.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            phase.awaitExecutions(total);
+
+            long lost = 0;
+            long duplicated = 0;
+            for (int i = 0; i < total; i++) {
+                int seen = phase.seen.get(i);
+                if (seen == 0) {
+                    lost++;
+                } else if (seen > 1) {
+                    duplicated += seen - 1;
+                }
+            }
+
+            double throughput = total * 1_000_000_000.0 / elapsed;
+            if (senders == 1) {
+                baselineThroughput = throughput;
+            }
+            long[] all = new long[total];
+            for (int s = 0; s < senders; s++) {
+                System.arraycopy(latencies[s], 0, all, s * commandsPerSender, commandsPerSender);
+            }
+
+            String detail = String.format("%.0f commands/s, 调用延迟 %s", throughput, LatencyStats.of(all));
+            logger.info("    {}", detail);
+            addDetail(detail);
+            if (senders > 1 && baselineThroughput > 0) {
+                String scaling = String.format("相对单发送者 %.2fx", throughput / baselineThroughput);
+                logger.info("    {}", scaling);
+                addDetail(scaling);
+            }
+            String errors = String.format("未执行 %d, 丢失 %d, 重复 %d, 参数错误 %d, 执行器错误 %d",
+                    rejected.sum(), lost, duplicated, phase.argumentErrors.sum(), phase.executorErrors.sum());
+            logger.info("    {}", errors);
+            addDetail(errors);
+
+            assertEquals(0L, rejected.sum(), "所有命令都应被执行");
+            assertEquals(0L, lost, "不应有命令丢失");
+            assertEquals(0L, duplicated, "不应有命令重复执行");
+            assertEquals(0L, phase.argumentErrors.sum(), "参数解析结果应与命令行一致");
+            assertEquals(0L, phase.executorErrors.sum(), "执行器和发送者应与命令行一致");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("并发命令测试被中断");
+        } catch (ExecutionException e) {
+            throw new AssertionError("并发命令测试线程异常: " + e.getCause(), e.getCause());
+        } finally {
+            state = null;
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 偶数序号的发送者为用户，奇数序号的发送者为控制台
+     */
+    private static String senderTag(int senderIndex) {
+        return (senderIndex & 1) == 0 ? "u" : "c";
+    }
+
+    private static boolean execute(CommandManager commandManager, CommandSender sender, String commandLine) {
+        try {
+            return commandManager.executeCommand(sender, commandLine);
+        } catch (Exception e) {
+            throw new AssertionError("执行命令失败: " + commandLine + " - " + e.getMessage(), e);
+        }
+    }
+
+    private static void awaitGate(CountDownLatch gate) {
+        try {
+            gate.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void cleanup() {
+        if (stressCommand != null) {
+            try {
+                plugin.getCore().getCommandManager().unregisterCommand(stressCommand);
+            } catch (Exception e) {
+                logger.warn("注销压力测试命令失败: {}", e.getMessage());
+            }
+            stressCommand = null;
+        }
+    }
+
+    /**
+     * 单个阶段的校验状态
+     */
+    private static class PhaseState {
+        final AtomicIntegerArray seen;
+        final LongAdder executions = new LongAdder();
+        final LongAdder argumentErrors = new LongAdder();
+        final LongAdder executorErrors = new LongAdder();
+
+        PhaseState(int size) {
+            this.seen = new AtomicIntegerArray(size);
+        }
+
+        /**
+         * 等待执行次数达到期望值（兼容异步执行），最多等待 5 秒
+         */
+        void awaitExecutions(long expected) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (executions.sum() < expected && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package me.realseek.test.modules.benchmark;
+
+import me.realseek.test.benchmark.Benchmarks;
+import me.realseek.test.benchmark.Measurement;
+import snw.jkook.config.file.YamlConfiguration;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * 大型配置文件性能测试模块
+ * 按配置的键数量与路径深度生成类似按服务器保存的大型 YAML 配置，测量写入、保存、加载的耗时，
+ * 不同深度下 getString 路径查找的开销，以及加载后配置对象占用的内存，
+ * 并与平铺的 HashMap 对比，加载耗时超过预算时给出提示
+ */
+public class ConfigurationBenchmarkTestModule extends BenchmarkTestModule {
+    private static final List<Integer> DEFAULT_KEY_COUNTS = Arrays.asList(1000, 10000, 50000);
+    private static final List<Integer> DEFAULT_DEPTHS = Arrays.asList(2, 4, 8);
+    private static final int LOOKUP_KEYS = 1024;
+    private static final long SEED = 39L;
+
+    private List<Integer> keyCounts;
+    private List<Integer> depths;
+    private long loadBudgetMillis;
+    private final List<File> generatedFiles = new ArrayList<>();
+    private int cursor;
+
+    @Override
+    public String getName() {
+        return "配置文件性能";
+    }
+
+    @Override
+    public String getDescription() {
+        return "测量不同键数量与深度的 YamlConfiguration 保存、加载、路径查找耗时与内存占用";
+    }
+
+    @Override
+    public void initialize(snw.jkook.plugin.Plugin plugin) {
+        super.initialize(plugin);
+        List<Integer> configuredCounts = plugin.getConfig().getIntegerList("benchmark.config.key-counts");
+        keyCounts = configuredCounts == null || configuredCounts.isEmpty() ? DEFAULT_KEY_COUNTS : configuredCounts;
+        List<Integer> configuredDepths = plugin.getConfig().getIntegerList("benchmark.config.depths");
+        depths = configuredDepths == null || configuredDepths.isEmpty() ? DEFAULT_DEPTHS : configuredDepths;
+        loadBudgetMillis = plugin.getConfig().getLong("benchmark.config.load-budget-ms", 100L);
+    }
+
+    @Override
+    protected void executeTests() {
+        if (!isBenchmarkEnabled()) {
+            return;
+        }
+
+        runTest("生成配置往返正确性", this::testRoundTrip);
+        for (int keyCount : keyCounts) {
+            for (int depth : depths) {
+                runTest("大型配置（" + keyCount + " 个键，深度 " + depth + "）", () -> testConfig(keyCount, depth));
+            }
+        }
+    }
+
+    private void testRoundTrip() {
+        int keyCount = 500;
+        int depth = 3;
+        List<String> paths = generatePaths(keyCount, depth);
+        YamlConfiguration config = build(paths);
+        File file = saveToFile(config, keyCount, depth);
+
+        YamlConfiguration loaded = load(file);
+        for (String path : paths) {
+            assertEquals(valueOf(path), loaded.getString(path), "加载后的配置值不一致: " + path);
+        }
+        assertEquals(keyCount, loaded.getKeys(true).size() - sectionCount(paths), "加载后的叶子键数量不一致");
+        addDetail(keyCount + " 个键，深度 " + depth + "，" + file.length() + " 字节");
+    }
+
+    private void testConfig(int keyCount, int depth) {
+        List<String> paths = generatePaths(keyCount, depth);
+        int iterations = Math.max(3, 200_000 / keyCount);
+
+        // 写入：逐个 set 构建配置
+        long start = System.nanoTime();
+        YamlConfiguration config = build(paths);
+        double buildMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        File file = saveToFile(config, keyCount, depth);
+        Measurement save = Benchmarks.measure("保存", 1, iterations, () -> saveTo(config, file));
+        Measurement load = Benchmarks.measure("加载", 1, iterations, () -> Benchmarks.consume(load(file)));
+
+        // 查找：随机选取已有键和不存在的键，路径深度即段数
+        Random random = new Random(SEED + keyCount + depth);
+        String[] hits = new String[LOOKUP_KEYS];
+        String[] misses = new String[LOOKUP_KEYS];
+        for (int i = 0; i < LOOKUP_KEYS; i++) {
+            hits[i] = paths.get(random.nextInt(paths.size()));
+            misses[i] = hits[i] + ".missing";
+        }
+        YamlConfiguration loaded = load(file);
+        assertEquals(valueOf(hits[0]), loaded.getString(hits[0]), "查找结果不一致");
+        Measurement lookup = measure("getString（深度 " + depth + "）",
+                () -> Benchmarks.consume(loaded.getString(hits[cursor++ & (LOOKUP_KEYS - 1)])));
+        measure("getString 不存在的键", () -> Benchmarks.consume(loaded.getString(misses[cursor++ & (LOOKUP_KEYS - 1)])));
+
+        Map<String, String> flat = new HashMap<>();
+        for (String path : paths) {
+            flat.put(path, valueOf(path));
+        }
+        Measurement flatLookup = measure("平铺 HashMap 查找（对照）",
+                () -> Benchmarks.consume(flat.get(hits[cursor++ & (LOOKUP_KEYS - 1)])));
+
+        long retained = retainedBytes(file);
+        double loadMillis = load.getNanosPerOp() / 1_000_000.0;
+        String summary = String.format("文件 %.1fKB，构建 %.1fms，保存 %.2fms，加载 %.2fms（分配 %.1fMB），常驻内存约 %.1fMB（%.0f B/键）",
+                file.length() / 1024.0, buildMillis, save.getNanosPerOp() / 1_000_000.0, loadMillis,
+                load.getBytesPerOp() / 1024 / 1024, retained / 1024.0 / 1024, (double) retained / keyCount);
+        logger.info("    {}", summary);
+        addDetail(summary);
+        addDetail(String.format("路径查找为平铺 HashMap 的 %.1fx", lookup.getNanosPerOp() / flatLookup.getNanosPerOp()));
+
+        if (loadMillis > loadBudgetMillis) {
+            String warning = String.format("⚠ 加载耗时超过预算 %dms，此规模建议改用分片文件或数据库存储", loadBudgetMillis);
+            logger.warn("    {}", warning);
+            addDetail(warning);
+        }
+    }
+
+    /**
+     * 生成 keyCount 个路径，每个路径由 depth 段组成：前 depth-1 段是分组节点，最后一段是键名。
+     * 每层的分支数取能容纳全部键的最小值，使键均匀分布
+     */
+    private List<String> generatePaths(int keyCount, int depth) {
+        int fanOut = Math.max(2, (int) Math.ceil(Math.pow(keyCount, 1.0 / depth)));
+        while (Math.pow(fanOut, depth) < keyCount) {
+            fanOut++;
+        }
+
+        List<String> paths = new ArrayList<>(keyCount);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < keyCount; i++) {
+            builder.setLength(0);
+            int remaining = i;
+            for (int level = depth - 1; level >= 0; level--) {
+                int divisor = (int) Math.pow(fanOut, level);
+                int digit = remaining / divisor;
+                remaining %= divisor;
+                if (builder.length() > 0) {
+                    builder.append('.');
+                }
+                builder.append(level == 0 ? "key" : "node").append(digit);
+            }
+            paths.add(builder.toString());
+        }
+        return paths;
+    }
+
+    /**
+     * 分组节点的数量（getKeys(true) 会同时返回节点和叶子键）
+     */
+    private int sectionCount(List<String> paths) {
+        Set<String> sections = new HashSet<>();
+        for (String path : paths) {
+            int index = path.indexOf('.');
+            while (index >= 0) {
+                sections.add(path.substring(0, index));
+                index = path.indexOf('.', index + 1);
+            }
+        }
+        return sections.size();
+    }
+
+    private YamlConfiguration build(List<String> paths) {
+        YamlConfiguration config = new YamlConfiguration();
+        for (String path : paths) {
+            config.set(path, valueOf(path));
+        }
+        return config;
+    }
+
+    private String valueOf(String path) {
+        return "value-" + path.hashCode();
+    }
+
+    private File saveToFile(YamlConfiguration config, int keyCount, int depth) {
+        File file = new File(plugin.getDataFolder(), "benchmark_config_" + keyCount + "_" + depth + ".yml");
+        generatedFiles.add(file);
+        saveTo(config, file);
+        return file;
+    }
+
+    private void saveTo(YamlConfiguration config, File file) {
+        try {
+            config.save(file);
+        } catch (Exception e) {
+            throw new AssertionError("配置保存失败: " + e.getMessage(), e);
+        }
+    }
+
+    private YamlConfiguration load(File file) {
+        try {
+            YamlConfiguration config = new YamlConfiguration();
+            config.load(file);
+            return config;
+        } catch (Exception e) {
+            throw new AssertionError("配置加载失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 估算加载后的配置对象常驻内存：加载前后各做一次 GC 并比较已用堆大小
+     */
+    private long retainedBytes(File file) {
+        long before = usedHeap();
+        YamlConfiguration config = load(file);
+        long after = usedHeap();
+        Benchmarks.consume(config);
+        return Math.max(0, after - before);
+    }
+
+    private long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 2; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Override
+    public void cleanup() {
+        for (File file : generatedFiles) {
+            if (file.exists() && file.delete()) {
+                logger.debug("已删除基准配置文件 {}", file.getName());
+            }
+        }
+        generatedFiles.clear();
+    }
+}
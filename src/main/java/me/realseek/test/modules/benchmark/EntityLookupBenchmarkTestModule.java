@@ -0,0 +1,89 @@
+package me.realseek.test.modules.benchmark;
+
+import me.realseek.test.benchmark.EndpointProfiler;
+import me.realseek.test.benchmark.EntityLookupTracker;
+import me.realseek.test.modules.integration.IntegrationConfig;
+import snw.jkook.HttpAPI;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 实体查找缓存性能测试模块
+ * <p>
+ * 对 getGuild/getTextChannel/getVoiceChannel/getUser 各调用一次（冷）再重复调用若干次（热），
+ * 对比冷热延迟，并用 {@link EntityLookupTracker} 估计重复查找中有多少被 KookBC 的实体缓存吸收。
+ * 需要启用集成测试并配置测试服务器/频道/用户 ID。
+ */
+public class EntityLookupBenchmarkTestModule extends BenchmarkTestModule {
+    private int iterations;
+    private double thresholdMillis;
+
+    @Override
+    public String getName() {
+        return "实体查找缓存";
+    }
+
+    @Override
+    public String getDescription() {
+        return "重复调用 getGuild/getUser/getTextChannel 等查找，对比冷热延迟并估计 KookBC 实体缓存命中率";
+    }
+
+    @Override
+    public void initialize(snw.jkook.plugin.Plugin plugin) {
+        super.initialize(plugin);
+        iterations = Math.max(1, plugin.getConfig().getInt("benchmark.entity-lookup.iterations", 200));
+        thresholdMillis = plugin.getConfig().getDouble("instrumentation.network-threshold-ms", 1.0);
+    }
+
+    @Override
+    protected void executeTests() {
+        if (!isBenchmarkEnabled()) {
+            return;
+        }
+        IntegrationConfig config = IntegrationConfig.current();
+        if (!config.isEnabled() || config.getGuildId().isEmpty() || config.getTextChannelId().isEmpty()) {
+            logger.warn("实体查找缓存测试需要启用集成测试并配置 test-guild-id 与 test-text-channel-id");
+            return;
+        }
+
+        HttpAPI api = plugin.getCore().getHttpAPI();
+        EndpointProfiler profiler = new EndpointProfiler(iterations, 0);
+        EntityLookupTracker tracker = new EntityLookupTracker(thresholdMillis);
+        List<String> lines = new ArrayList<>();
+
+        runTest("getGuild", () -> testLookup(profiler, tracker, "getGuild", () -> api.getGuild(config.getGuildId())));
+        runTest("getTextChannel", () -> testLookup(profiler, tracker, "getTextChannel",
+                () -> api.getTextChannel(config.getTextChannelId())));
+        if (!config.getVoiceChannelId().isEmpty()) {
+            runTest("getVoiceChannel", () -> testLookup(profiler, tracker, "getVoiceChannel",
+                    () -> api.getVoiceChannel(config.getVoiceChannelId())));
+        }
+        if (!config.getUserId().isEmpty()) {
+            runTest("getUser", () -> testLookup(profiler, tracker, "getUser", () -> api.getUser(config.getUserId())));
+        }
+
+        lines.addAll(profiler.formatTable());
+        lines.add("");
+        lines.addAll(tracker.formatReport());
+        setReportSection("实体查找缓存", lines);
+    }
+
+    private void testLookup(EndpointProfiler profiler, EntityLookupTracker tracker, String method, Supplier<?> call) {
+        tracker.startCase(method);
+        EndpointProfiler.EndpointLatency latency = profiler.profile(method, () -> tracker.lookup(method, call));
+        assertEquals(0, latency.getErrors(), method + " 调用失败: " + latency.getFirstError());
+
+        long warmP50 = latency.getWarm().getP50();
+        double speedup = warmP50 == 0 ? 0 : (double) latency.getColdNanos() / warmP50;
+        String detail = String.format("冷 %s，热 p50 %s（%.0fx），%s",
+                EndpointProfiler.millis(latency.getColdNanos()), EndpointProfiler.millis(warmP50), speedup,
+                tracker.summary(method));
+        logger.info("    {}: {}", method, detail);
+        addDetail(detail);
+        if (latency.getColdNanos() < thresholdMillis * 1_000_000) {
+            logger.info("    {} 的首次调用也低于网络阈值，实体在本次测试前已被缓存", method);
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package me.realseek.test.modules.benchmark;
+
+import me.realseek.test.benchmark.LatencyStats;
+import me.realseek.test.benchmark.SyntheticEvents;
+import snw.jkook.config.file.FileConfiguration;
+import snw.jkook.event.EventHandler;
+import snw.jkook.event.EventManager;
+import snw.jkook.event.Listener;
+import snw.jkook.event.user.UserJoinGuildEvent;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 并发事件分发竞争测试模块
+ * 多个生产者线程同时调用 callEvent，同时另有线程不断注册/注销监听器，
+ * 通过事件序号检测丢失或重复投递，并报告吞吐量变化、线程阻塞时间和注册/注销耗时
+ */
+public class EventContentionBenchmarkTestModule extends BenchmarkTestModule {
+    private int producerThreads;
+    private int churnThreads;
+    private int eventsPerProducer;
+
+    /**
+     * 事件序号基数，每个阶段递增，避免前一阶段的迟到事件被计入当前阶段
+     */
+    private final AtomicLong sequenceBase = new AtomicLong(1_000_000_000L);
+    private final List<Listener> registeredListeners = new CopyOnWriteArrayList<>();
+    private double baselineThroughput;
+
+    @Override
+    public String getName() {
+        return "并发事件分发";
+    }
+
+    @Override
+    public String getDescription() {
+        return "多线程并发 callEvent 并伴随监听器注册/注销抖动，检测投递丢失/重复并测量吞吐量与阻塞时间";
+    }
+
+    @Override
+    public void initialize(snw.jkook.plugin.Plugin plugin) {
+        super.initialize(plugin);
+        FileConfiguration config = plugin.getConfig();
+        producerThreads = Math.max(1, config.getInt("benchmark.contention.producer-threads", 8));
+        churnThreads = Math.max(1, config.getInt("benchmark.contention.churn-threads", 2));
+        eventsPerProducer = Math.max(1000, config.getInt("benchmark.contention.events-per-producer", 50000));
+    }
+
+    @Override
+    protected void executeTests() {
+        if (!isBenchmarkEnabled()) {
+            return;
+        }
+
+        runTest("单线程分发基线", () -> testPhase(1, 0));
+        runTest("并发分发（" + producerThreads + " 个生产者线程）", () -> testPhase(producerThreads, 0));
+        runTest("并发分发 + 注册/注销抖动（" + producerThreads + " 生产者 / " + churnThreads + " 抖动线程）",
+                () -> testPhase(producerThreads, churnThreads));
+    }
+
+    private void testPhase(int producers, int churners) {
+        PhaseResult result = runPhase(producers, churners);
+
+        if (producers == 1 && churners == 0) {
+            baselineThroughput = result.throughput;
+        }
+
+        String detail = String.format("%.0f events/s, 丢失 %d, 重复 %d, 调用延迟 %s",
+                result.throughput, result.lost, result.duplicated, result.latency);
+        logger.info("    {}", detail);
+        addDetail(detail);
+
+        if (baselineThroughput > 0 && producers > 1) {
+            String scaling = String.format("相对单线程 %.2fx（理想 %dx）",
+                    result.throughput / baselineThroughput, producers);
+            logger.info("    {}", scaling);
+            addDetail(scaling);
+        }
+
+        String blocking = String.format("生产者线程阻塞 %d 次 / %dms，等待 %d 次 / %dms",
+                result.blockedCount, result.blockedMillis, result.waitedCount, result.waitedMillis);
+        logger.info("    {}", blocking);
+        addDetail(blocking);
+
+        if (churners > 0) {
+            String churn = String.format("注册 %s，注销 %s", result.registerStats, result.unregisterStats);
+            logger.info("    {}", churn);
+            addDetail(churn);
+        }
+
+        assertEquals(0L, result.lost, "不应有事件丢失");
+        assertEquals(0L, result.duplicated, "不应有事件重复投递");
+    }
+
+    private PhaseResult runPhase(int producers, int churners) {
+        EventManager eventManager = plugin.getCore().getEventManager();
+        int totalEvents = producers * eventsPerProducer;
+        long base = sequenceBase.getAndAdd(totalEvents + 1_000_000L);
+
+        SequenceListener sequenceListener = new SequenceListener(base, totalEvents);
+        eventManager.registerHandlers(plugin, sequenceListener);
+        registeredListeners.add(sequenceListener);
+
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        boolean contentionSupported = threadBean.isThreadContentionMonitoringSupported();
+        // 阻塞时间统计对整个 JVM 生效，测量结束后恢复原来的设置
+        boolean contentionWasEnabled = contentionSupported && threadBean.isThreadContentionMonitoringEnabled();
+        if (contentionSupported) {
+            threadBean.setThreadContentionMonitoringEnabled(true);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers + churners, runnable -> {
+            Thread thread = new Thread(runnable, "kbctest-contention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CountDownLatch startGate = new CountDownLatch(1);
+        AtomicBoolean producing = new AtomicBoolean(true);
+        long[][] latencies = new long[producers][];
+        long[] producerThreadIds = new long[producers];
+        Queue<Long> registerTimes = new ConcurrentLinkedQueue<>();
+        Queue<Long> unregisterTimes = new ConcurrentLinkedQueue<>();
+        List<Future<?>> producerFutures = new ArrayList<>();
+        List<Future<?>> churnFutures = new ArrayList<>();
+
+        try {
+            for (int p = 0; p < producers; p++) {
+                int producerIndex = p;
+                producerFutures.add(executor.submit(() -> {
+                    producerThreadIds[producerIndex] = Thread.currentThread().getId();
+                    long[] samples = new long[eventsPerProducer];
+                    long offset = base + (long) producerIndex * eventsPerProducer;
+                    awaitGate(startGate);
+                    for (int i = 0; i < eventsPerProducer; i++) {
+                        UserJoinGuildEvent event = SyntheticEvents.create(UserJoinGuildEvent.class, offset + i);
+                        long start = System.nanoTime();
+                        eventManager.callEvent(event);
+                        samples[i] = System.nanoTime() - start;
+                    }
+                    latencies[producerIndex] = samples;
+                }));
+            }
+
+            for (int c = 0; c < churners; c++) {
+                churnFutures.add(executor.submit(() -> {
+                    awaitGate(startGate);
+                    while (producing.get()) {
+                        Listener listener = new ChurnListener();
+                        long start = System.nanoTime();
+                        eventManager.registerHandlers(plugin, listener);
+                        registerTimes.add(System.nanoTime() - start);
+
+                        start = System.nanoTime();
+                        eventManager.unregisterHandlers(listener);
+                        unregisterTimes.add(System.nanoTime() - start);
+                    }
+                }));
+            }
+
+            long start = System.nanoTime();
+            startGate.countDown();
+            for (Future<?> future : producerFutures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            producing.set(false);
+            for (Future<?> future : churnFutures) {
+                future.get();
+            }
+
+            sequenceListener.awaitDeliveries(totalEvents);
+
+            PhaseResult result = new PhaseResult();
+            result.throughput = totalEvents * 1_000_000_000.0 / elapsed;
+            result.latency = LatencyStats.of(flatten(latencies));
+            result.registerStats = LatencyStats.of(toArray(registerTimes));
+            result.unregisterStats = LatencyStats.of(toArray(unregisterTimes));
+            for (int i = 0; i < totalEvents; i++) {
+                int seen = sequenceListener.seen.get(i);
+                if (seen == 0) {
+                    result.lost++;
+                } else if (seen > 1) {
+                    result.duplicated += seen - 1;
+                }
+            }
+            if (contentionSupported) {
+                for (ThreadInfo info : threadBean.getThreadInfo(producerThreadIds)) {
+                    if (info != null) {
+                        result.blockedCount += info.getBlockedCount();
+                        result.blockedMillis += Math.max(0, info.getBlockedTime());
+                        result.waitedCount += info.getWaitedCount();
+                        result.waitedMillis += Math.max(0, info.getWaitedTime());
+                    }
+                }
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("并发测试被中断");
+        } catch (ExecutionException e) {
+            throw new AssertionError("并发测试线程异常: " + e.getCause(), e.getCause());
+        } finally {
+            producing.set(false);
+            executor.shutdownNow();
+            if (contentionSupported && !contentionWasEnabled) {
+                threadBean.setThreadContentionMonitoringEnabled(false);
+            }
+            eventManager.unregisterHandlers(sequenceListener);
+            registeredListeners.remove(sequenceListener);
+        }
+    }
+
+    private static void awaitGate(CountDownLatch gate) {
+        try {
+            gate.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long[] flatten(long[][] arrays) {
+        int length = 0;
+        for (long[] array : arrays) {
+            length += array == null ? 0 : array.length;
+        }
+        long[] result = new long[length];
+        int position = 0;
+        for (long[] array : arrays) {
+            if (array != null) {
+                System.arraycopy(array, 0, result, position, array.length);
+                position += array.length;
+            }
+        }
+        return result;
+    }
+
+    private static long[] toArray(Collection<Long> values) {
+        long[] result = new long[values.size()];
+        int index = 0;
+        for (Long value : values) {
+            if (index == result.length) {
+                break;
+            }
+            result[index++] = value;
+        }
+        return index == result.length ? result : Arrays.copyOf(result, index);
+    }
+
+    @Override
+    public void cleanup() {
+        EventManager eventManager = plugin.getCore().getEventManager();
+        for (Listener listener : registeredListeners) {
+            try {
+                eventManager.unregisterHandlers(listener);
+            } catch (Exception e) {
+                logger.warn("注销并发测试监听器时发生错误: {}", e.getMessage());
+            }
+        }
+        registeredListeners.clear();
+    }
+
+    /**
+     * 单个阶段的测量结果
+     */
+    private static class PhaseResult {
+        double throughput;
+        long lost;
+        long duplicated;
+        long blockedCount;
+        long blockedMillis;
+        long waitedCount;
+        long waitedMillis;
+        LatencyStats latency;
+        LatencyStats registerStats;
+        LatencyStats unregisterStats;
+    }
+
+    /**
+     * 按事件序号记录投递次数的监听器
+     */
+    public static class SequenceListener implements Listener {
+        private final long base;
+        private final AtomicIntegerArray seen;
+        private final LongAdder total = new LongAdder();
+
+        public SequenceListener(long base, int size) {
+            this.base = base;
+            this.seen = new AtomicIntegerArray(size);
+        }
+
+        @EventHandler
+        public void onUserJoinGuild(UserJoinGuildEvent event) {
+            long index = event.getTimeStamp() - base;
+            if (index >= 0 && index < seen.length()) {
+                seen.incrementAndGet((int) index);
+                total.increment();
+            }
+        }
+
+        /**
+         * 等待投递数达到期望值（兼容异步分发），最多等待 5 秒
+         */
+        void awaitDeliveries(long expected) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (total.sum() < expected && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+    }
+
+    /**
+     * 抖动线程反复注册/注销的监听器
+     */
+    public static class ChurnListener implements Listener {
+        @EventHandler
+        public void onUserJoinGuild(UserJoinGuildEvent event) {
+            // 仅参与分发，不做任何处理
+        }
+    }
+}
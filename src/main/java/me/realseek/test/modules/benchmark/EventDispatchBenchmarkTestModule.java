@@ -0,0 +1,221 @@
+package me.realseek.test.modules.benchmark;
+
+import me.realseek.test.benchmark.LatencyStats;
+import me.realseek.test.benchmark.Measurement;
+import me.realseek.test.benchmark.SyntheticEvents;
+import snw.jkook.event.Event;
+import snw.jkook.event.EventHandler;
+import snw.jkook.event.EventManager;
+import snw.jkook.event.Listener;
+import snw.jkook.event.channel.ChannelMessageEvent;
+import snw.jkook.event.user.UserJoinGuildEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 事件分发性能测试模块
+ * 通过 EventManager.callEvent 投递合成的 ChannelMessageEvent / UserJoinGuildEvent，
+ * 测量不同监听器数量下的吞吐量、平均分摊到每个监听器的耗时和每次分发的内存分配
+ */
+public class EventDispatchBenchmarkTestModule extends BenchmarkTestModule {
+    private static final int[] LISTENER_COUNTS = {1, 10, 1000};
+    private static final int[] TARGET_RATES = {1_000, 10_000, 50_000, 0};
+    private static final int RATE_STEP_EVENTS = 20_000;
+
+    private final List<Listener> registeredListeners = new ArrayList<>();
+    private final LongAdder deliveries = new LongAdder();
+    private Event[] events;
+
+    @Override
+    public String getName() {
+        return "事件分发性能";
+    }
+
+    @Override
+    public String getDescription() {
+        return "测量 EventManager.callEvent 在 1/10/1000 个监听器下的吞吐量、每个监听器的平均耗时和内存分配";
+    }
+
+    @Override
+    protected void executeTests() {
+        if (!isBenchmarkEnabled()) {
+            return;
+        }
+
+        runTest("构造合成事件", this::testCreateSyntheticEvents);
+        runTest("事件投递计数校验", this::testDeliveryCount);
+        for (int listenerCount : LISTENER_COUNTS) {
+            runTest("分发吞吐量（" + listenerCount + " 个监听器）", () -> testDispatchThroughput(listenerCount));
+        }
+        runTest("阶梯速率分发延迟（10 个监听器）", this::testRateSweep);
+    }
+
+    private void testCreateSyntheticEvents() {
+        ChannelMessageEvent messageEvent = SyntheticEvents.create(ChannelMessageEvent.class);
+        UserJoinGuildEvent joinEvent = SyntheticEvents.create(UserJoinGuildEvent.class);
+
+        assertNotNull(messageEvent, "合成 ChannelMessageEvent 不应为 null");
+        assertNotNull(joinEvent, "合成 UserJoinGuildEvent 不应为 null");
+
+        events = new Event[]{messageEvent, joinEvent};
+        logger.info("合成事件构造成功: {}, {}",
+                messageEvent.getClass().getSimpleName(), joinEvent.getClass().getSimpleName());
+    }
+
+    private void testDeliveryCount() {
+        ensureEvents();
+        EventManager eventManager = plugin.getCore().getEventManager();
+        registerListeners(1);
+        try {
+            long before = deliveries.sum();
+            int fired = 200;
+            for (int i = 0; i < fired; i++) {
+                eventManager.callEvent(events[i & 1]);
+            }
+            long delivered = awaitDeliveries(before + fired) - before;
+            assertEquals((long) fired, delivered, "每个事件应当恰好投递一次");
+            logger.info("投递 {} 个事件，处理器收到 {} 次", fired, delivered);
+        } finally {
+            unregisterListeners();
+        }
+    }
+
+    private void testDispatchThroughput(int listenerCount) {
+        ensureEvents();
+        EventManager eventManager = plugin.getCore().getEventManager();
+        registerListeners(listenerCount);
+        try {
+            // 监听器越多单次分发越慢，按监听器数量缩放迭代次数以控制总耗时
+            int iterations = Math.max(100, measureIterations / listenerCount);
+            int warmup = Math.max(10, warmupIterations / listenerCount);
+            int[] cursor = {0};
+
+            long before = deliveries.sum();
+            Measurement measurement = measure("callEvent x" + listenerCount, warmup, iterations,
+                    () -> eventManager.callEvent(events[cursor[0]++ & 1]));
+            long expected = (long) (warmup + iterations) * listenerCount;
+            long delivered = awaitDeliveries(before + expected) - before;
+
+            // 单次分发总耗时按监听器数量平均分摊，不是逐个处理器测得的延迟
+            double perListener = measurement.getNanosPerOp() / listenerCount;
+            String detail = String.format("%.0f events/s, 平均每个监听器 %s",
+                    measurement.getOpsPerSecond(), LatencyStats.micros(perListener));
+            logger.info("    {}", detail);
+            addDetail(detail);
+
+            assertEquals(expected, delivered, "处理器调用次数应等于 事件数 × 监听器数");
+        } finally {
+            unregisterListeners();
+        }
+    }
+
+    private void testRateSweep() {
+        ensureEvents();
+        EventManager eventManager = plugin.getCore().getEventManager();
+        registerListeners(10);
+        try {
+            for (int targetRate : TARGET_RATES) {
+                int count = targetRate > 0 ? Math.min(RATE_STEP_EVENTS, targetRate * 2) : RATE_STEP_EVENTS;
+                long interval = targetRate > 0 ? TimeUnit.SECONDS.toNanos(1) / targetRate : 0;
+                long[] latencies = new long[count];
+
+                long start = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    if (interval > 0) {
+                        long scheduled = start + i * interval;
+                        long wait = scheduled - System.nanoTime();
+                        if (wait > 50_000) {
+                            LockSupport.parkNanos(wait);
+                        }
+                        while (System.nanoTime() < scheduled) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    long dispatchStart = System.nanoTime();
+                    eventManager.callEvent(events[i & 1]);
+                    latencies[i] = System.nanoTime() - dispatchStart;
+                }
+                long elapsed = System.nanoTime() - start;
+
+                double achieved = count * 1_000_000_000.0 / elapsed;
+                String label = targetRate > 0 ? targetRate + "/s" : "max";
+                String detail = String.format("目标 %s → 实际 %.0f events/s, %s",
+                        label, achieved, LatencyStats.of(latencies));
+                logger.info("    {}", detail);
+                addDetail(detail);
+            }
+        } finally {
+            unregisterListeners();
+        }
+    }
+
+    private void ensureEvents() {
+        if (events == null) {
+            testCreateSyntheticEvents();
+        }
+    }
+
+    private void registerListeners(int count) {
+        EventManager eventManager = plugin.getCore().getEventManager();
+        for (int i = 0; i < count; i++) {
+            Listener listener = new CountingListener(deliveries);
+            eventManager.registerHandlers(plugin, listener);
+            registeredListeners.add(listener);
+        }
+    }
+
+    private void unregisterListeners() {
+        EventManager eventManager = plugin.getCore().getEventManager();
+        for (Listener listener : registeredListeners) {
+            try {
+                eventManager.unregisterHandlers(listener);
+            } catch (Exception e) {
+                logger.warn("注销基准测试监听器时发生错误: {}", e.getMessage());
+            }
+        }
+        registeredListeners.clear();
+    }
+
+    /**
+     * 等待投递计数达到期望值（兼容异步分发），超时后返回当前计数
+     */
+    private long awaitDeliveries(long expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        long current = deliveries.sum();
+        while (current < expected && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            current = deliveries.sum();
+        }
+        return current;
+    }
+
+    @Override
+    public void cleanup() {
+        unregisterListeners();
+    }
+
+    /**
+     * 计数监听器，处理器只做一次计数，尽量只测量分发本身的开销
+     */
+    public static class CountingListener implements Listener {
+        private final LongAdder counter;
+
+        public CountingListener(LongAdder counter) {
+            this.counter = counter;
+        }
+
+        @EventHandler
+        public void onChannelMessage(ChannelMessageEvent event) {
+            counter.increment();
+        }
+
+        @EventHandler
+        public void onUserJoinGuild(UserJoinGuildEvent event) {
+            counter.increment();
+        }
+    }
+}
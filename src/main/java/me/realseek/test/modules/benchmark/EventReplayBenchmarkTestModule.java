@@ -0,0 +1,194 @@
+package me.realseek.test.modules.benchmark;
+
+import me.realseek.test.benchmark.LatencyStats;
+import me.realseek.test.benchmark.SyntheticEvents;
+import me.realseek.test.event.EventRecorder;
+import me.realseek.test.event.EventReplayer;
+import me.realseek.test.event.EventTrace;
+import snw.jkook.event.Event;
+import snw.jkook.event.channel.ChannelMessageEvent;
+import snw.jkook.event.user.UserClickButtonEvent;
+import snw.jkook.event.user.UserJoinGuildEvent;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 事件轨迹回放测试模块
+ * 使用 EventRecorder 录制的轨迹（未配置时先录制一段合成的突发流量），
+ * 再以 1x / 10x / 最快速度回放，测量节奏保真度和投递开销。
+ * 回放的是只带类型和时间的合成代理，因此只投递给模块自己的校验录制器，不经过 EventManager：
+ * 其他插件的处理器不会收到这些代理，进行中的 /kbctest record 录制也不会混入回放事件
+ */
+public class EventReplayBenchmarkTestModule extends BenchmarkTestModule {
+    private static final List<Double> DEFAULT_SPEEDS = Arrays.asList(1.0, 10.0, 0.0);
+    private static final int SYNTHETIC_BURSTS = 40;
+    private static final int SYNTHETIC_BURST_SIZE = 50;
+    private static final long SYNTHETIC_BURST_GAP_MILLIS = 20;
+
+    private final List<File> generatedFiles = new ArrayList<>();
+    private String configuredTrace;
+    private List<Double> speeds;
+    private EventTrace trace;
+
+    @Override
+    public String getName() {
+        return "事件轨迹回放";
+    }
+
+    @Override
+    public String getDescription() {
+        return "录制事件轨迹并以 1x/10x/最快速度回放到模块自己的监听器，测量节奏保真度和投递开销";
+    }
+
+    @Override
+    public void initialize(snw.jkook.plugin.Plugin plugin) {
+        super.initialize(plugin);
+        configuredTrace = plugin.getConfig().getString("benchmark.replay.trace-file", "");
+        List<Double> configured = plugin.getConfig().getDoubleList("benchmark.replay.speeds");
+        speeds = configured == null || configured.isEmpty() ? DEFAULT_SPEEDS : configured;
+    }
+
+    @Override
+    protected void executeTests() {
+        if (!isBenchmarkEnabled()) {
+            return;
+        }
+
+        runTest("准备事件轨迹", this::testPrepareTrace);
+        if (trace == null) {
+            return;
+        }
+        runTest("读取事件轨迹", this::testReadTrace);
+        for (double speed : speeds) {
+            String label = speed > 0 ? formatSpeed(speed) : "最快速度";
+            runTest("回放轨迹（" + label + "）", () -> testReplay(speed));
+        }
+    }
+
+    private void testPrepareTrace() {
+        try {
+            if (configuredTrace != null && !configuredTrace.isEmpty()) {
+                File file = new File(plugin.getDataFolder(), configuredTrace);
+                assertTrue(file.exists(), "配置的轨迹文件不存在: " + file.getPath());
+                trace = EventTrace.read(file);
+                logger.info("使用已录制的轨迹: {}", file.getName());
+                return;
+            }
+
+            File file = new File(plugin.getDataFolder(), "traces/synthetic_" + System.currentTimeMillis() + ".kbct");
+            generatedFiles.add(file);
+            long recorded = recordSyntheticTraffic(file);
+            assertEquals((long) SYNTHETIC_BURSTS * SYNTHETIC_BURST_SIZE, recorded, "录制的事件数量应与投递数量一致");
+
+            trace = EventTrace.read(file);
+            logger.info("未配置 benchmark.replay.trace-file，已录制合成突发流量: {} 个事件", recorded);
+        } catch (IOException e) {
+            throw new AssertionError("准备事件轨迹失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 以突发模式直接写入合成事件：每批连续写入若干事件，批次之间间隔固定时间。
+     * 不经过 EventManager，避免其他监听器收到合成代理
+     */
+    private long recordSyntheticTraffic(File file) throws IOException {
+        Event[] events = {
+                SyntheticEvents.create(ChannelMessageEvent.class),
+                SyntheticEvents.create(UserJoinGuildEvent.class),
+                SyntheticEvents.create(UserClickButtonEvent.class)
+        };
+
+        try (EventRecorder recorder = new EventRecorder(file)) {
+            for (int burst = 0; burst < SYNTHETIC_BURSTS; burst++) {
+                for (int i = 0; i < SYNTHETIC_BURST_SIZE; i++) {
+                    recorder.record(events[(burst + i) % events.length]);
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(SYNTHETIC_BURST_GAP_MILLIS));
+            }
+            return recorder.getRecordedCount();
+        }
+    }
+
+    private void testReadTrace() {
+        assertTrue(trace.size() > 0, "事件轨迹不应为空");
+
+        String detail = String.format("%d 个事件, 跨度 %dms, 文件 %d 字节 (%.1f B/事件)",
+                trace.size(),
+                TimeUnit.NANOSECONDS.toMillis(trace.getDurationNanos()),
+                trace.getFileSize(),
+                (double) trace.getFileSize() / trace.size());
+        logger.info("    {}", detail);
+        addDetail(detail);
+    }
+
+    private void testReplay(double speed) {
+        File verifyFile = new File(plugin.getDataFolder(), "traces/replay_verify_" + System.currentTimeMillis() + ".kbct");
+        generatedFiles.add(verifyFile);
+
+        EventReplayer.Result result;
+        try (EventRecorder verifier = new EventRecorder(verifyFile)) {
+            result = new EventReplayer(verifier::record).replay(trace, speed);
+        } catch (IOException e) {
+            throw new AssertionError("回放校验录制失败: " + e.getMessage(), e);
+        }
+
+        long expectedMillis = speed > 0 ? TimeUnit.NANOSECONDS.toMillis((long) (trace.getDurationNanos() / speed)) : 0;
+        String detail = String.format("回放 %d 个（跳过 %d），耗时 %dms（期望 %dms），%.0f events/s",
+                result.getReplayed(), result.getSkipped(),
+                TimeUnit.NANOSECONDS.toMillis(result.getElapsedNanos()), expectedMillis,
+                result.getEventsPerSecond());
+        logger.info("    {}", detail);
+        addDetail(detail);
+        if (speed > 0) {
+            addDetail("节奏滞后 " + result.getLag());
+        }
+        addDetail("投递 " + result.getDispatch());
+
+        try {
+            EventTrace replayed = EventTrace.read(verifyFile);
+            assertEquals(result.getReplayed(), replayed.size(), "回放投递数量应与录制数量一致");
+            List<String> expectedTypes = new ArrayList<>();
+            for (EventTrace.Entry entry : trace.getEntries()) {
+                if (entry.resolveType() != null) {
+                    expectedTypes.add(entry.getTypeName());
+                }
+            }
+            List<String> actualTypes = new ArrayList<>();
+            for (EventTrace.Entry entry : replayed.getEntries()) {
+                actualTypes.add(entry.getTypeName());
+            }
+            if (expectedTypes.size() == actualTypes.size()) {
+                assertEquals(expectedTypes, actualTypes, "回放事件的类型顺序应与轨迹一致");
+            }
+        } catch (IOException e) {
+            throw new AssertionError("读取回放校验轨迹失败: " + e.getMessage(), e);
+        }
+
+        if (speed > 0) {
+            double lagMillis = result.getLag().getP99() / 1_000_000.0;
+            logger.info("    节奏滞后 p99 = {}", LatencyStats.micros(result.getLag().getP99()));
+            assertTrue(lagMillis < 100, "回放节奏 p99 滞后不应超过 100ms");
+        }
+    }
+
+    private static String formatSpeed(double speed) {
+        return speed == Math.rint(speed) ? (long) speed + "x" : speed + "x";
+    }
+
+    @Override
+    public void cleanup() {
+        for (File file : generatedFiles) {
+            if (file.exists() && !file.delete()) {
+                logger.warn("无法删除轨迹文件: {}", file.getName());
+            }
+        }
+        generatedFiles.clear();
+        trace = null;
+    }
+}
@@ -0,0 +1,495 @@
+package me.realseek.test.modules.benchmark;
+
+import me.realseek.test.benchmark.Benchmarks;
+import me.realseek.test.benchmark.EndpointProfiler;
+import me.realseek.test.benchmark.LatencyStats;
+import me.realseek.test.mock.LatencyInjector;
+import me.realseek.test.mock.MockFixtures;
+import me.realseek.test.mock.MockKookServer;
+import me.realseek.test.mock.RateLimiter;
+import me.realseek.test.modules.integration.IntegrationConfig;
+import snw.jkook.HttpAPI;
+import snw.jkook.config.ConfigurationSection;
+import snw.jkook.entity.Guild;
+import snw.jkook.util.PageIterator;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HttpAPI 并发伸缩测试模块
+ * <p>
+ * 以 1、2、4……N 个虚拟线程并发发起相同的只读请求，每个并发级别持续固定时间，
+ * 统计成功请求吞吐、429 次数、退避耗时与单次逻辑调用（含重试）的尾延迟，
+ * 找出吞吐达到峰值的拐点：继续增加并发只会换来更多 429 和更高的延迟。
+ * <p>
+ * 目标可以是本地带限速的模拟服务器（默认，直接观察 429 与 X-Rate-Limit-Reset 头），
+ * 也可以是真实 KOOK API（通过 HttpAPI，429 只能从异常信息识别，KookBC 内部的限速等待计入延迟）。
+ */
+public class HttpConcurrencyBenchmarkTestModule extends BenchmarkTestModule {
+    private static final long SEED = 43L;
+    private static final int BURST_ATTEMPTS = 3;
+    private static final String[] MOCK_ROUTES = {
+            "guild/view?guild_id=" + MockFixtures.GUILD_ID,
+            "channel/view?target_id=" + MockFixtures.TEXT_CHANNEL_ID,
+            "user/view?user_id=" + MockFixtures.TEST_USER_ID + "&guild_id=" + MockFixtures.GUILD_ID,
+            "guild/list"
+    };
+
+    private String target;
+    private int maxConcurrency;
+    private long durationMillis;
+    private int maxRetries;
+    private long maxBackoffMillis;
+    private double kneeTolerance;
+    private long mockLatencyMillis;
+    private long mockJitterMillis;
+    private int mockBucketLimit;
+    private int mockGlobalLimit;
+    private long mockWindowMillis;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private MockKookServer server;
+    private final List<LevelResult> levels = new ArrayList<>();
+
+    @Override
+    public String getName() {
+        return "HttpAPI 并发伸缩";
+    }
+
+    @Override
+    public String getDescription() {
+        return "以递增的虚拟线程并发发起只读请求，测量吞吐、429 次数与尾延迟，找出限速下的吞吐拐点";
+    }
+
+    @Override
+    public void initialize(snw.jkook.plugin.Plugin plugin) {
+        super.initialize(plugin);
+        ConfigurationSection config = plugin.getConfig();
+        target = config.getString("benchmark.http-concurrency.target", "mock");
+        maxConcurrency = Math.max(1, config.getInt("benchmark.http-concurrency.max-concurrency", 64));
+        durationMillis = Math.max(100, config.getLong("benchmark.http-concurrency.duration-ms", 3000L));
+        maxRetries = Math.max(0, config.getInt("benchmark.http-concurrency.max-retries", 3));
+        maxBackoffMillis = Math.max(0, config.getLong("benchmark.http-concurrency.max-backoff-ms", 1000L));
+        kneeTolerance = config.getDouble("benchmark.http-concurrency.knee-tolerance", 0.1);
+        mockLatencyMillis = config.getLong("benchmark.http-concurrency.mock.latency-ms", 20L);
+        mockJitterMillis = config.getLong("benchmark.http-concurrency.mock.jitter-ms", 10L);
+        mockBucketLimit = config.getInt("benchmark.http-concurrency.mock.bucket-limit", 20);
+        mockGlobalLimit = config.getInt("benchmark.http-concurrency.mock.global-limit", 60);
+        mockWindowMillis = config.getLong("benchmark.http-concurrency.mock.window-ms", 1000L);
+    }
+
+    @Override
+    protected void executeTests() {
+        if (!isBenchmarkEnabled()) {
+            return;
+        }
+
+        Workload workload;
+        if ("api".equalsIgnoreCase(target)) {
+            workload = apiWorkload();
+            if (workload == null) {
+                return;
+            }
+        } else {
+            runTest("启动限速模拟服务器", this::testStartMockServer);
+            if (server == null) {
+                return;
+            }
+            runTest("429 与限速响应头", this::testRateLimitResponse);
+            workload = this::mockAttempt;
+        }
+
+        levels.clear();
+        for (int concurrency : concurrencyLevels()) {
+            runTest("并发 " + concurrency, () -> testLevel(concurrency, workload));
+        }
+        runTest("吞吐拐点", this::testKnee);
+    }
+
+    private List<Integer> concurrencyLevels() {
+        List<Integer> result = new ArrayList<>();
+        for (int level = 1; level < maxConcurrency; level *= 2) {
+            result.add(level);
+        }
+        result.add(maxConcurrency);
+        return result;
+    }
+
+    private void testStartMockServer() {
+        cleanup();
+        RateLimiter limiter = new RateLimiter(mockBucketLimit, mockGlobalLimit, mockWindowMillis);
+        LatencyInjector latency = new LatencyInjector(mockLatencyMillis, mockJitterMillis, new HashMap<>(), SEED);
+        try {
+            server = MockKookServer.start(new MockFixtures(SEED, 50, 4), latency, limiter, 0, 0);
+        } catch (IOException e) {
+            throw new AssertionError("模拟服务器启动失败: " + e.getMessage(), e);
+        }
+        addDetail(server.getBaseUrl() + "，每路由 " + mockBucketLimit + " 次/" + mockWindowMillis
+                + "ms，全局 " + mockGlobalLimit + " 次/" + mockWindowMillis + "ms，延迟 " + mockLatencyMillis + "ms");
+    }
+
+    private void testRateLimitResponse() {
+        int limit = mockBucketLimit > 0 ? mockBucketLimit : mockGlobalLimit;
+        if (limit == 0) {
+            assertTrue(get("guild/list").statusCode() != 429, "未配置限速时不应返回 429");
+            addDetail("未配置限速");
+            return;
+        }
+
+        // 顺序请求受注入延迟影响可能跨过窗口边界，改为在窗口开始时并发发出 limit + 1 个请求；
+        // 偶尔仍跨过边界时重新发一次，只有整批落在同一窗口内才检查配额
+        List<HttpResponse<String>> burst = null;
+        for (int attempt = 0; attempt < BURST_ATTEMPTS && burst == null; attempt++) {
+            sleep(mockWindowMillis - System.currentTimeMillis() % mockWindowMillis);
+            long window = System.currentTimeMillis() / mockWindowMillis;
+            List<HttpResponse<String>> responses = sendBurst("guild/list", limit + 1);
+            if (System.currentTimeMillis() / mockWindowMillis == window) {
+                burst = responses;
+            }
+        }
+        assertNotNull(burst, "连续 " + BURST_ATTEMPTS + " 次突发请求都跨过了限速窗口，请调大 mock.window-ms");
+
+        HttpResponse<String> limited = null;
+        int accepted = 0;
+        for (HttpResponse<String> response : burst) {
+            if (response.statusCode() == 429) {
+                limited = response;
+            } else {
+                accepted++;
+            }
+        }
+        assertNotNull(limited, "同一窗口内并发 " + (limit + 1) + " 次请求应触发 429");
+        assertTrue(accepted <= limit, "同一窗口内接受的请求不应超过配额 [接受: " + accepted + "]");
+        assertTrue(limited.headers().firstValue("X-Rate-Limit-Reset").isPresent(), "429 响应应带 X-Rate-Limit-Reset");
+        assertEquals("0", limited.headers().firstValue("X-Rate-Limit-Remaining").orElse(null), "429 响应的剩余配额应为 0");
+
+        sleep(resetMillis(limited));
+        assertEquals(200, get("guild/list").statusCode(), "窗口重置后请求应恢复");
+        addDetail("并发 " + (limit + 1) + " 次请求中 " + accepted + " 次被接受、" + (burst.size() - accepted)
+                + " 次返回 429，等待 X-Rate-Limit-Reset 后恢复");
+    }
+
+    /**
+     * 用虚拟线程同时发出 count 个相同请求，返回全部响应
+     */
+    private List<HttpResponse<String>> sendBurst(String route, int count) {
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Future<HttpResponse<String>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                futures.add(executor.submit(() -> {
+                    gate.await();
+                    return get(route);
+                }));
+            }
+            gate.countDown();
+        }
+        List<HttpResponse<String>> responses = new ArrayList<>();
+        try {
+            for (Future<HttpResponse<String>> future : futures) {
+                responses.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("等待突发请求被中断: " + e.getMessage(), e);
+        } catch (ExecutionException e) {
+            throw new AssertionError("突发请求失败: " + e.getCause().getMessage(), e.getCause());
+        }
+        return responses;
+    }
+
+    private void testLevel(int concurrency, Workload workload) {
+        LevelResult result = runLevel(concurrency, workload);
+        levels.add(result);
+        logger.info("    {}", result);
+        addDetail(result.toString());
+        if (result.firstError.get() != null) {
+            logger.warn("    并发 {} 首个错误: {}", concurrency, result.firstError.get());
+        }
+        assertTrue(result.successes > 0, "并发 " + concurrency + " 没有成功的请求: " + result.firstError.get());
+    }
+
+    private void testKnee() {
+        assertFalse(levels.isEmpty(), "没有可分析的并发级别");
+        LevelResult peak = Collections.max(levels, Comparator.comparingDouble(LevelResult::throughput));
+        LevelResult knee = null;
+        LevelResult firstLimited = null;
+        for (LevelResult level : levels) {
+            if (knee == null && level.throughput() >= peak.throughput() * (1 - kneeTolerance)) {
+                knee = level;
+            }
+            if (firstLimited == null && level.rateLimited.sum() > 0) {
+                firstLimited = level;
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add("目标: " + ("api".equalsIgnoreCase(target) ? "真实 KOOK API" : "限速模拟服务器 " + server.getBaseUrl())
+                + "，每级持续 " + durationMillis + "ms，429 最多重试 " + maxRetries + " 次");
+        lines.add(String.format("%-6s %-10s %-8s %-6s %-6s %-6s %-10s %-10s %-10s %-10s %s",
+                "并发", "请求/秒", "成功", "429", "放弃", "错误", "退避", "p50", "p95", "p99", "最大"));
+        for (LevelResult level : levels) {
+            lines.add(String.format("%-6d %-10.1f %-8d %-6d %-6d %-6d %-10s %-10s %-10s %-10s %s",
+                    level.concurrency, level.throughput(), level.successes,
+                    level.rateLimited.sum(), level.gaveUp.sum(), level.errors.sum(),
+                    EndpointProfiler.millis(level.backoff.sum()),
+                    EndpointProfiler.millis(level.latency.getP50()),
+                    EndpointProfiler.millis(level.latency.getP95()),
+                    EndpointProfiler.millis(level.latency.getP99()),
+                    EndpointProfiler.millis(level.latency.getMax())));
+        }
+        String summary = "拐点: 并发 " + knee.concurrency + "（" + String.format("%.1f", knee.throughput()) + " 请求/秒，峰值 "
+                + String.format("%.1f", peak.throughput()) + " 请求/秒 @ 并发 " + peak.concurrency + "），"
+                + (firstLimited == null ? "未出现 429" : "并发 " + firstLimited.concurrency + " 起出现 429");
+        lines.add(summary);
+        setReportSection("HttpAPI 并发伸缩", lines);
+        logger.info("    {}", summary);
+        addDetail(summary);
+
+        if (server != null) {
+            double capacity = mockCapacity();
+            if (capacity > 0) {
+                // 固定窗口在边界处最多多放行一个窗口的配额
+                double bound = capacity * (1 + (double) mockWindowMillis / durationMillis) * 1.05;
+                assertTrue(peak.throughput() <= bound,
+                        String.format("吞吐超过模拟服务器配额 [峰值: %.1f, 上限: %.1f]", peak.throughput(), bound));
+                assertTrue(levels.get(levels.size() - 1).rateLimited.sum() > 0, "最高并发下应触发模拟服务器限速");
+            }
+        }
+    }
+
+    /**
+     * 模拟服务器每秒可接受的请求数，不限速时返回 0
+     */
+    private double mockCapacity() {
+        double perWindow = Double.MAX_VALUE;
+        if (mockBucketLimit > 0) {
+            perWindow = (double) mockBucketLimit * MOCK_ROUTES.length;
+        }
+        if (mockGlobalLimit > 0) {
+            perWindow = Math.min(perWindow, mockGlobalLimit);
+        }
+        return perWindow == Double.MAX_VALUE ? 0 : perWindow * 1000.0 / mockWindowMillis;
+    }
+
+    private LevelResult runLevel(int concurrency, Workload workload) {
+        LevelResult result = new LevelResult(concurrency);
+        long[][] samples = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                int worker = i;
+                executor.submit(() -> {
+                    long[] local = new long[256];
+                    int count = 0;
+                    for (int sequence = worker; System.nanoTime() < deadline; sequence += concurrency) {
+                        long callStart = System.nanoTime();
+                        if (call(workload, sequence, result)) {
+                            if (count == local.length) {
+                                local = Arrays.copyOf(local, count * 2);
+                            }
+                            local[count++] = System.nanoTime() - callStart;
+                        }
+                    }
+                    samples[worker] = local;
+                    counts[worker] = count;
+                });
+            }
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        long[] merged = new long[total];
+        int offset = 0;
+        for (int i = 0; i < concurrency; i++) {
+            System.arraycopy(samples[i], 0, merged, offset, counts[i]);
+            offset += counts[i];
+        }
+        result.latency = LatencyStats.of(merged);
+        result.successes = total;
+        return result;
+    }
+
+    /**
+     * 执行一次逻辑调用，被限速时按建议时间退避并重试
+     *
+     * @return 是否成功
+     */
+    private boolean call(Workload workload, int sequence, LevelResult result) {
+        for (int attempt = 0; ; attempt++) {
+            long retryAfter;
+            try {
+                retryAfter = workload.attempt(sequence);
+            } catch (Exception e) {
+                result.errors.increment();
+                result.firstError.compareAndSet(null, e.getClass().getSimpleName() + ": " + e.getMessage());
+                return false;
+            }
+            if (retryAfter < 0) {
+                return true;
+            }
+            result.rateLimited.increment();
+            if (attempt >= maxRetries) {
+                result.gaveUp.increment();
+                return false;
+            }
+            long wait = Math.min(retryAfter, maxBackoffMillis);
+            result.backoff.add(TimeUnit.MILLISECONDS.toNanos(wait));
+            sleep(wait);
+        }
+    }
+
+    private long mockAttempt(int sequence) {
+        HttpResponse<String> response = get(MOCK_ROUTES[sequence % MOCK_ROUTES.length]);
+        if (response.statusCode() == 429) {
+            return resetMillis(response);
+        }
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode() + ": " + response.body());
+        }
+        return -1;
+    }
+
+    /**
+     * 真实 API 的只读请求：分页接口每次都会发出网络请求，不受 KookBC 实体缓存影响
+     */
+    private Workload apiWorkload() {
+        IntegrationConfig config = IntegrationConfig.current();
+        if (!config.isEnabled() || config.getGuildId().isEmpty()) {
+            logger.warn("目标为真实 API 时需要启用集成测试并配置 integration-test.test-guild-id");
+            return null;
+        }
+        HttpAPI api = plugin.getCore().getHttpAPI();
+        Guild guild = api.getGuild(config.getGuildId());
+        return sequence -> {
+            try {
+                switch (sequence % 3) {
+                    case 0:
+                        Benchmarks.consume(firstPage(api.getJoinedGuilds()));
+                        break;
+                    case 1:
+                        Benchmarks.consume(firstPage(guild.getRoles()));
+                        break;
+                    default:
+                        Benchmarks.consume(firstPage(guild.getUsers()));
+                        break;
+                }
+                return -1;
+            } catch (RuntimeException e) {
+                if (Benchmarks.isRateLimitError(e)) {
+                    return maxBackoffMillis;
+                }
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * JKook 的分页迭代器在 hasNext 中发出请求，必须先调用 hasNext 再取第一页
+     */
+    private static <T> T firstPage(PageIterator<T> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private HttpResponse<String> get(String route) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.getBaseUrl() + "/" + route))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new IllegalStateException("请求模拟服务器失败: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("请求被中断", e);
+        }
+    }
+
+    private static long resetMillis(HttpResponse<String> response) {
+        return TimeUnit.SECONDS.toMillis(Long.parseLong(response.headers().firstValue("X-Rate-Limit-Reset").orElse("1")));
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void cleanup() {
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+    }
+
+    /**
+     * 一次请求尝试
+     */
+    @FunctionalInterface
+    private interface Workload {
+        /**
+         * @return 成功时返回负数；被限速时返回建议的等待毫秒数
+         */
+        long attempt(int sequence) throws Exception;
+    }
+
+    /**
+     * 单个并发级别的统计
+     */
+    private static class LevelResult {
+        final int concurrency;
+        final LongAdder rateLimited = new LongAdder();
+        final LongAdder gaveUp = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder backoff = new LongAdder();
+        final AtomicReference<String> firstError = new AtomicReference<>();
+        long successes;
+        long elapsedNanos;
+        LatencyStats latency;
+
+        LevelResult(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        double throughput() {
+            return elapsedNanos == 0 ? 0 : successes * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("并发 %d: %.1f 请求/秒, 成功 %d, 429 %d, 放弃 %d, 错误 %d, p50=%s, p99=%s",
+                    concurrency, throughput(), successes, rateLimited.sum(), gaveUp.sum(), errors.sum(),
+                    EndpointProfiler.millis(latency.getP50()), EndpointProfiler.millis(latency.getP99()));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package me.realseek.test.modules.benchmark;
+
+import me.realseek.test.benchmark.LatencyStats;
+import me.realseek.test.benchmark.ListenerClassGenerator;
+import me.realseek.test.benchmark.SyntheticEvents;
+import snw.jkook.event.Event;
+import snw.jkook.event.EventManager;
+import snw.jkook.event.Listener;
+import snw.jkook.event.channel.ChannelMessageEvent;
+import snw.jkook.event.user.UserJoinGuildEvent;
+import snw.jkook.event.user.UserLeaveGuildEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 监听器注册性能测试模块
+ * 运行时生成包含 N 个 @EventHandler 方法的监听器类并注册 M 个实例，
+ * 测量注册/注销耗时以及已注册处理器对事件分发的影响，用于评估插件热重载的开销
+ */
+public class ListenerRegistrationBenchmarkTestModule extends BenchmarkTestModule {
+    private static final List<Integer> DEFAULT_HANDLER_COUNTS = Arrays.asList(1, 10, 100, 500);
+    private static final List<Integer> DEFAULT_INSTANCE_COUNTS = Arrays.asList(1, 10, 100);
+    private static final int ROUNDS = 5;
+
+    private final List<Listener> registeredListeners = new ArrayList<>();
+    private List<Integer> handlerCounts;
+    private List<Integer> instanceCounts;
+
+    @Override
+    public String getName() {
+        return "监听器注册性能";
+    }
+
+    @Override
+    public String getDescription() {
+        return "测量包含大量 @EventHandler 方法的监听器的注册、注销耗时及其对事件分发的影响";
+    }
+
+    @Override
+    public void initialize(snw.jkook.plugin.Plugin plugin) {
+        super.initialize(plugin);
+        handlerCounts = readCounts("benchmark.listener-registration.handler-counts", DEFAULT_HANDLER_COUNTS);
+        instanceCounts = readCounts("benchmark.listener-registration.instance-counts", DEFAULT_INSTANCE_COUNTS);
+    }
+
+    private List<Integer> readCounts(String path, List<Integer> defaults) {
+        List<Integer> values = plugin.getConfig().getIntegerList(path);
+        return values == null || values.isEmpty() ? defaults : values;
+    }
+
+    @Override
+    protected void executeTests() {
+        if (!isBenchmarkEnabled()) {
+            return;
+        }
+
+        runTest("生成监听器类", this::testGenerateListenerClass);
+        runTest("分发基线（无生成监听器）", this::testBaselineDispatch);
+        for (int handlerCount : handlerCounts) {
+            for (int instanceCount : instanceCounts) {
+                runTest("注册/注销 " + handlerCount + " 个处理器 × " + instanceCount + " 个实例",
+                        () -> testRegistrationScaling(handlerCount, instanceCount));
+            }
+        }
+    }
+
+    private void testGenerateListenerClass() {
+        long start = System.nanoTime();
+        Class<? extends Listener> listenerClass =
+                ListenerClassGenerator.generate(100, ChannelMessageEvent.class, UserJoinGuildEvent.class);
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(100, listenerClass.getDeclaredMethods().length, "生成的处理器方法数量不匹配");
+        assertNotNull(ListenerClassGenerator.newInstance(listenerClass), "生成的监听器应该可以实例化");
+
+        // 生成的类按结构缓存，同一进程中再次运行时这里是复用已生成的类
+        addDetail("生成（或复用已生成的）100 个处理器的类耗时 " + LatencyStats.micros(elapsed));
+    }
+
+    private void testBaselineDispatch() {
+        measureDispatch("基线");
+    }
+
+    private void testRegistrationScaling(int handlerCount, int instanceCount) {
+        EventManager eventManager = plugin.getCore().getEventManager();
+        Class<? extends Listener> listenerClass =
+                ListenerClassGenerator.generate(handlerCount, ChannelMessageEvent.class, UserJoinGuildEvent.class);
+
+        long[] registerTimes = new long[ROUNDS];
+        long[] unregisterTimes = new long[ROUNDS];
+
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Listener> listeners = new ArrayList<>(instanceCount);
+            for (int i = 0; i < instanceCount; i++) {
+                listeners.add(ListenerClassGenerator.newInstance(listenerClass));
+            }
+
+            long start = System.nanoTime();
+            for (Listener listener : listeners) {
+                eventManager.registerHandlers(plugin, listener);
+                registeredListeners.add(listener);
+            }
+            registerTimes[round] = System.nanoTime() - start;
+
+            // 只在最后一轮测量分发开销，避免重复消耗时间
+            if (round == ROUNDS - 1) {
+                measureDispatch(handlerCount + "x" + instanceCount);
+            }
+
+            start = System.nanoTime();
+            for (Listener listener : listeners) {
+                eventManager.unregisterHandlers(listener);
+            }
+            unregisterTimes[round] = System.nanoTime() - start;
+            registeredListeners.removeAll(listeners);
+        }
+
+        LatencyStats register = LatencyStats.of(registerTimes);
+        LatencyStats unregister = LatencyStats.of(unregisterTimes);
+        long totalHandlers = (long) handlerCount * instanceCount;
+        String detail = String.format("注册 p50=%s (%s/处理器), 注销 p50=%s",
+                LatencyStats.micros(register.getP50()),
+                LatencyStats.micros((double) register.getP50() / totalHandlers),
+                LatencyStats.micros(unregister.getP50()));
+        logger.info("    {}", detail);
+        addDetail(detail);
+    }
+
+    /**
+     * 分别测量有处理器的事件和无处理器的事件的分发耗时
+     */
+    private void measureDispatch(String label) {
+        EventManager eventManager = plugin.getCore().getEventManager();
+        Event handled = SyntheticEvents.create(ChannelMessageEvent.class);
+        Event unhandled = SyntheticEvents.create(UserLeaveGuildEvent.class);
+
+        int iterations = Math.max(100, measureIterations / 10);
+        int warmup = Math.max(10, warmupIterations / 10);
+        measure(label + " 有处理器事件", warmup, iterations, () -> eventManager.callEvent(handled));
+        measure(label + " 无处理器事件", warmup, iterations, () -> eventManager.callEvent(unhandled));
+    }
+
+    @Override
+    public void cleanup() {
+        EventManager eventManager = plugin.getCore().getEventManager();
+        for (Listener listener : registeredListeners) {
+            try {
+                eventManager.unregisterHandlers(listener);
+            } catch (Exception e) {
+                logger.warn("注销生成的监听器时发生错误: {}", e.getMessage());
+            }
+        }
+        registeredListeners.clear();
+    }
+}
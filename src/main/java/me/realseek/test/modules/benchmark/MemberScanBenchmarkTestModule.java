@@ -0,0 +1,429 @@
+package me.realseek.test.modules.benchmark;
+
+import com.google.gson.JsonObject;
+import me.realseek.paging.PagePublisher;
+import me.realseek.paging.PageStreams;
+import me.realseek.test.mock.LatencyInjector;
+import me.realseek.test.mock.MockFixtures;
+import me.realseek.test.mock.MockKookServer;
+import me.realseek.test.mock.MockPages;
+import me.realseek.test.modules.integration.IntegrationConfig;
+import snw.jkook.entity.Guild;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * 成员流式扫描测试模块
+ * <p>
+ * 验证 {@link PageStreams} 与 {@link PagePublisher} 的惰性与背压：只在需要时请求下一页，
+ * 订阅者不 request 就不会继续拉取。随后扫描十万级的合成成员，在扫描过程中多次 GC 后采样已用堆，
+ * 确认堆占用保持平稳（与一次性物化全部成员对比），并测量模拟服务器和真实服务器的扫描吞吐。
+ */
+public class MemberScanBenchmarkTestModule extends BenchmarkTestModule {
+    private static final long SEED = 45L;
+    private static final int PAGE_SIZE = 100;
+    private static final int HEAP_CHECKPOINTS = 10;
+    private static final Executor DIRECT = Runnable::run;
+
+    private int members;
+    private int mockMembers;
+    private long heapToleranceBytes;
+    private int batchSize;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private MockKookServer server;
+
+    @Override
+    public String getName() {
+        return "成员流式扫描";
+    }
+
+    @Override
+    public String getDescription() {
+        return "验证分页成员流/发布者的惰性与背压，扫描十万级成员时堆占用保持平稳，并测量扫描吞吐";
+    }
+
+    @Override
+    public void initialize(snw.jkook.plugin.Plugin plugin) {
+        super.initialize(plugin);
+        members = Math.max(PAGE_SIZE, plugin.getConfig().getInt("benchmark.member-scan.members", 200000));
+        mockMembers = Math.max(1, plugin.getConfig().getInt("benchmark.member-scan.mock-members", 20000));
+        heapToleranceBytes = plugin.getConfig().getLong("benchmark.member-scan.heap-tolerance-mb", 8L) * 1024 * 1024;
+        batchSize = Math.max(1, plugin.getConfig().getInt("benchmark.member-scan.batch-size", 100));
+    }
+
+    @Override
+    protected void executeTests() {
+        if (!isBenchmarkEnabled()) {
+            return;
+        }
+
+        runTest("发布者背压", this::testPublisherBackpressure);
+        runTest("发布者不提前请求下一页", this::testPublisherNoEagerFetch);
+        runTest("发布者错误与非法请求", this::testPublisherErrors);
+        runTest("流式扫描惰性", this::testStreamLaziness);
+        runTest("大型服务器堆占用（" + members + " 人）", this::testFlatHeap);
+        runTest("模拟服务器流式扫描（" + mockMembers + " 人）", this::testMockServerScan);
+
+        IntegrationConfig config = IntegrationConfig.current();
+        if (config.isEnabled() && !config.getGuildId().isEmpty()) {
+            runTest("真实服务器流式扫描", () -> testRealGuildScan(config.getGuildId()));
+        } else {
+            logger.info("    集成测试未启用，跳过真实服务器成员扫描");
+        }
+    }
+
+    private void testPublisherBackpressure() {
+        SyntheticPages pages = new SyntheticPages(10 * PAGE_SIZE);
+        // 直接执行器让投递在 request 调用内同步完成，便于逐步检查
+        RecordingSubscriber<SyntheticMember> subscriber = new RecordingSubscriber<>();
+        new PagePublisher<>(() -> pages, DIRECT).subscribe(subscriber);
+        assertEquals(0, pages.fetched, "订阅后未 request 前不应请求分页");
+
+        subscriber.subscription.request(1);
+        assertEquals(1, subscriber.items.size(), "request(1) 应收到 1 个元素");
+        assertEquals(1, pages.fetched, "request(1) 只应请求第一页");
+
+        subscriber.subscription.request(PAGE_SIZE);
+        assertEquals(PAGE_SIZE + 1, subscriber.items.size(), "累计应收到 " + (PAGE_SIZE + 1) + " 个元素");
+        assertEquals(2, pages.fetched, "跨页的 request 只应多请求一页");
+
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(PAGE_SIZE * 5);
+        assertEquals(PAGE_SIZE + 1, subscriber.items.size(), "取消后不应再收到元素");
+        assertEquals(2, pages.fetched, "取消后不应再请求分页");
+        assertFalse(subscriber.completed, "取消的订阅不应收到 onComplete");
+
+        // 不限量请求：全部按顺序送达并恰好完成一次
+        SyntheticPages all = new SyntheticPages(10 * PAGE_SIZE);
+        RecordingSubscriber<SyntheticMember> unbounded = new RecordingSubscriber<>();
+        new PagePublisher<>(() -> all, DIRECT).subscribe(unbounded);
+        unbounded.subscription.request(Long.MAX_VALUE);
+        assertEquals(10 * PAGE_SIZE, unbounded.items.size(), "不限量请求应收到全部元素");
+        for (int i = 0; i < unbounded.items.size(); i++) {
+            assertEquals((long) i, unbounded.items.get(i).id, "元素顺序不一致");
+        }
+        assertTrue(unbounded.completed, "全部发送后应收到 onComplete");
+        addDetail("request(1) 请求 1 页，request(" + PAGE_SIZE + ") 共 2 页，取消后不再拉取");
+    }
+
+    /**
+     * JKook 的分页迭代器在 hasNext 中发出请求：恰好发完一页且没有更多需求时，发布者不应为判断是否结束而请求下一页
+     */
+    private void testPublisherNoEagerFetch() {
+        FetchOnHasNextPages pages = new FetchOnHasNextPages(3 * PAGE_SIZE);
+        RecordingSubscriber<SyntheticMember> subscriber = new RecordingSubscriber<>();
+        new PagePublisher<>(() -> pages, DIRECT).subscribe(subscriber);
+
+        for (int page = 1; page <= 3; page++) {
+            subscriber.subscription.request(PAGE_SIZE);
+            assertEquals(page * PAGE_SIZE, subscriber.items.size(), "第 " + page + " 次 request 应收到一整页");
+            assertEquals(page, pages.fetched, "恰好发完第 " + page + " 页时不应请求下一页");
+        }
+        assertFalse(subscriber.completed, "没有需求时不应为判断是否结束而调用 hasNext");
+
+        subscriber.subscription.request(1);
+        assertTrue(subscriber.completed, "再次 request 后应发现没有后续页并完成");
+        assertEquals(3 * PAGE_SIZE, subscriber.items.size(), "完成时不应多出元素");
+        assertEquals(3, pages.fetched, "共只应请求 3 页");
+        addDetail("每次 request(" + PAGE_SIZE + ") 只请求一页，hasNext 共调用 " + pages.hasNextCalls + " 次");
+    }
+
+    private void testPublisherErrors() {
+        IllegalStateException failure = new IllegalStateException("模拟分页请求失败");
+        SyntheticPages pages = new SyntheticPages(10 * PAGE_SIZE);
+        pages.failAt = 3;
+        pages.failure = failure;
+        RecordingSubscriber<SyntheticMember> subscriber = new RecordingSubscriber<>();
+        new PagePublisher<>(() -> pages, DIRECT).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(2 * PAGE_SIZE, subscriber.items.size(), "出错前的两页应正常送达");
+        assertTrue(subscriber.error == failure, "应通过 onError 传递分页异常");
+        assertFalse(subscriber.completed, "出错后不应收到 onComplete");
+
+        RecordingSubscriber<SyntheticMember> invalid = new RecordingSubscriber<>();
+        new PagePublisher<>(() -> new SyntheticPages(PAGE_SIZE), DIRECT).subscribe(invalid);
+        invalid.subscription.request(0);
+        assertTrue(invalid.error instanceof IllegalArgumentException, "request(0) 应以 IllegalArgumentException 结束订阅");
+    }
+
+    private void testStreamLaziness() {
+        SyntheticPages pages = new SyntheticPages(10 * PAGE_SIZE);
+        List<SyntheticMember> first = PageStreams.stream(pages).limit(5).collect(Collectors.toList());
+        assertEquals(5, first.size(), "limit(5) 应返回 5 个元素");
+        assertEquals(1, pages.fetched, "limit(5) 只应请求第一页");
+
+        SyntheticPages all = new SyntheticPages(10 * PAGE_SIZE + 7);
+        assertEquals(10L * PAGE_SIZE + 7, PageStreams.stream(all).count(), "完整扫描的元素数量不一致");
+        assertEquals(11, all.fetched, "完整扫描应请求全部 11 页");
+    }
+
+    private void testFlatHeap() {
+        // 计时：不插入 GC 的完整扫描
+        long start = System.nanoTime();
+        long checksum = PageStreams.stream(new SyntheticPages(members)).mapToLong(member -> member.nickname.length()).sum();
+        long nanos = System.nanoTime() - start;
+        assertTrue(checksum > 0, "扫描结果不应为空");
+
+        // 堆占用：扫描过程中每 10% GC 一次并采样已用堆
+        long interval = members / HEAP_CHECKPOINTS;
+        long[] samples = new long[HEAP_CHECKPOINTS + 1];
+        int[] sampleCount = {0};
+        long[] scanned = {0};
+        samples[sampleCount[0]++] = usedHeapAfterGc();
+        PageStreams.stream(new SyntheticPages(members)).forEach(member -> {
+            scanned[0]++;
+            if (scanned[0] % interval == 0 && sampleCount[0] < samples.length) {
+                samples[sampleCount[0]++] = usedHeapAfterGc();
+            }
+        });
+        assertEquals((long) members, scanned[0], "扫描的成员数量不一致");
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < sampleCount[0]; i++) {
+            min = Math.min(min, samples[i]);
+            max = Math.max(max, samples[i]);
+        }
+        long growth = max - min;
+
+        // 对照：一次性物化全部成员
+        long before = usedHeapAfterGc();
+        List<SyntheticMember> materialized = new ArrayList<>(members);
+        new SyntheticPages(members).forEachRemaining(materialized::addAll);
+        long materializedBytes = usedHeapAfterGc() - before;
+        assertEquals(members, materialized.size(), "物化的成员数量不一致");
+        materialized = null;
+
+        String detail = String.format("%.0f 成员/秒，流式扫描堆波动 %s（%d 次采样），一次性物化需 %s",
+                members * 1e9 / nanos, mib(growth), sampleCount[0], mib(materializedBytes));
+        logger.info("    {}", detail);
+        addDetail(detail);
+        assertTrue(growth <= heapToleranceBytes,
+                "流式扫描期间堆占用应保持平稳 [波动: " + mib(growth) + ", 允许: " + mib(heapToleranceBytes) + "]");
+    }
+
+    private void testMockServerScan() {
+        cleanup();
+        try {
+            server = MockKookServer.start(new MockFixtures(SEED, mockMembers, 8), LatencyInjector.none(), 0, 0);
+        } catch (IOException e) {
+            throw new AssertionError("模拟服务器启动失败: " + e.getMessage(), e);
+        }
+
+        // 订阅者每处理完一批再请求下一批，分页请求随之按需发出
+        Set<String> ids = new HashSet<>();
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Flow.Subscriber<JsonObject> subscriber = new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+            private int remaining;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                remaining = batchSize;
+                subscription.request(batchSize);
+            }
+
+            @Override
+            public void onNext(JsonObject member) {
+                ids.add(member.get("id").getAsString());
+                if (--remaining == 0) {
+                    remaining = batchSize;
+                    subscription.request(batchSize);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                failure.set(throwable);
+                done.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                done.countDown();
+            }
+        };
+
+        long start = System.nanoTime();
+        Executor executor = task -> Thread.ofVirtual().name("member-scan").start(task);
+        new PagePublisher<>(() -> MockPages.members(client, server, PAGE_SIZE), executor).subscribe(subscriber);
+        try {
+            assertTrue(done.await(120, TimeUnit.SECONDS), "扫描在 120 秒内未完成");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("等待扫描完成时被中断", e);
+        }
+        long nanos = System.nanoTime() - start;
+
+        if (failure.get() != null) {
+            throw new AssertionError("扫描失败: " + failure.get().getMessage(), failure.get());
+        }
+        assertEquals(mockMembers + 1, ids.size(), "扫描到的不重复成员数量应与模拟数据一致");
+        long requests = server.getRequestCount("guild/user-list");
+        long expectedPages = (mockMembers + 1 + PAGE_SIZE - 1) / PAGE_SIZE;
+        assertEquals(expectedPages, requests, "每页应只请求一次");
+        addDetail(String.format("%d 页，%.0f 成员/秒，每批 request(%d)", requests, ids.size() * 1e9 / nanos, batchSize));
+    }
+
+    private void testRealGuildScan(String guildId) {
+        Guild guild = plugin.getCore().getHttpAPI().getGuild(guildId);
+        assertNotNull(guild, "测试服务器不应为 null");
+        long start = System.nanoTime();
+        // 只计数不收集 ID，内存占用与服务器规模无关
+        long count = PageStreams.members(guild).count();
+        long nanos = System.nanoTime() - start;
+        assertTrue(count > 0, "服务器应至少有一个成员");
+        addDetail(String.format("%s: %d 名成员，%.0f 成员/秒", guild.getName(), count, count * 1e9 / nanos));
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String mib(long bytes) {
+        return String.format("%.1fMiB", bytes / 1024.0 / 1024.0);
+    }
+
+    @Override
+    public void cleanup() {
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+    }
+
+    /**
+     * 合成成员，字段规模接近 KOOK 用户的常用信息
+     */
+    private static final class SyntheticMember {
+        final long id;
+        final String nickname;
+        final int[] roles;
+
+        SyntheticMember(long id, String nickname, int[] roles) {
+            this.id = id;
+            this.nickname = nickname;
+            this.roles = roles;
+        }
+    }
+
+    /**
+     * 按需生成成员分页，记录被请求的页数，可在指定页抛出异常
+     */
+    private static final class SyntheticPages implements Iterator<List<SyntheticMember>> {
+        private final int total;
+        private int offset;
+        int fetched;
+        int failAt = -1;
+        RuntimeException failure;
+
+        SyntheticPages(int total) {
+            this.total = total;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return offset < total;
+        }
+
+        @Override
+        public List<SyntheticMember> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            fetched++;
+            if (fetched == failAt) {
+                throw failure;
+            }
+            int end = Math.min(total, offset + PAGE_SIZE);
+            List<SyntheticMember> page = new ArrayList<>(end - offset);
+            for (int i = offset; i < end; i++) {
+                page.add(new SyntheticMember(i, "成员" + i + "#" + (1000 + i % 9000), new int[]{i % 7, i % 11}));
+            }
+            offset = end;
+            return page;
+        }
+    }
+
+    /**
+     * 与 JKook 的分页迭代器一样在 hasNext 中请求下一页，记录实际请求的页数与 hasNext 调用次数
+     */
+    private static final class FetchOnHasNextPages implements Iterator<List<SyntheticMember>> {
+        private final SyntheticPages source;
+        private List<SyntheticMember> buffered;
+        int fetched;
+        int hasNextCalls;
+
+        FetchOnHasNextPages(int total) {
+            this.source = new SyntheticPages(total);
+        }
+
+        @Override
+        public boolean hasNext() {
+            hasNextCalls++;
+            if (buffered == null && source.hasNext()) {
+                buffered = source.next();
+                fetched++;
+            }
+            return buffered != null;
+        }
+
+        @Override
+        public List<SyntheticMember> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<SyntheticMember> page = buffered;
+            buffered = null;
+            return page;
+        }
+    }
+
+    /**
+     * 记录收到的元素与结束信号
+     */
+    private static final class RecordingSubscriber<T> implements Flow.Subscriber<T> {
+        final List<T> items = new ArrayList<>();
+        Flow.Subscription subscription;
+        boolean completed;
+        Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package me.realseek.test.modules.benchmark;
+
+import me.realseek.test.benchmark.Benchmarks;
+import me.realseek.test.benchmark.EndpointProfiler;
+import me.realseek.test.benchmark.LatencyStats;
+import me.realseek.test.cleanup.MessageCleanupPipeline;
+import me.realseek.test.modules.integration.IntegrationConfig;
+import me.realseek.test.modules.integration.IntegrationFixtures;
+import snw.jkook.config.ConfigurationSection;
+import snw.jkook.entity.channel.TextChannel;
+import snw.jkook.message.component.TextComponent;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 消息发送负载测试模块
+ * <p>
+ * 向测试文本频道发送两类负载：一次突发（所有消息同时发出）与若干并发级别下的持续发送
+ * （每级由 1、2、4……N 个虚拟线程发完固定数量的消息）。记录每次 sendComponent 的延迟、
+ * 被限速的次数与成功率，生成吞吐-延迟曲线，用于确定可持续的发送速率。
+ * <p>
+ * 被限速的发送不重试，直接计入失败；KookBC 内部的限速等待计入延迟。
+ * 需要启用集成测试、配置测试文本频道并开启 allow-side-effects，auto-cleanup 开启时测试结束后用 {@link MessageCleanupPipeline} 删除发送的消息并记录清理吞吐。
+ */
+public class MessageLoadBenchmarkTestModule extends BenchmarkTestModule {
+    private int burstSize;
+    private int maxConcurrency;
+    private int messagesPerLevel;
+
+    private final Queue<String> sentMessageIds = new ConcurrentLinkedQueue<>();
+    private final List<LoadResult> levels = new ArrayList<>();
+    private LoadResult burst;
+    private List<String> reportSection = new ArrayList<>();
+    private boolean autoCleanup;
+
+    @Override
+    public String getName() {
+        return "消息发送负载";
+    }
+
+    @Override
+    public String getDescription() {
+        return "向测试频道突发与持续并发发送消息，测量发送延迟、限速次数与成功率，生成吞吐-延迟曲线";
+    }
+
+    @Override
+    public void initialize(snw.jkook.plugin.Plugin plugin) {
+        super.initialize(plugin);
+        ConfigurationSection config = plugin.getConfig();
+        burstSize = Math.max(0, config.getInt("benchmark.message-load.burst-size", 10));
+        maxConcurrency = Math.max(1, config.getInt("benchmark.message-load.max-concurrency", 8));
+        messagesPerLevel = Math.max(1, config.getInt("benchmark.message-load.messages-per-level", 20));
+    }
+
+    @Override
+    protected void executeTests() {
+        if (!isBenchmarkEnabled()) {
+            return;
+        }
+        IntegrationConfig config = IntegrationConfig.current();
+        if (!config.isEnabled() || config.getTextChannelId().isEmpty()) {
+            logger.warn("消息发送负载测试需要启用集成测试并配置 test-text-channel-id");
+            return;
+        }
+        if (!config.isAllowSideEffects()) {
+            logger.warn("消息发送负载测试会在测试频道发送大量消息，需要开启 integration-test.allow-side-effects");
+            return;
+        }
+        autoCleanup = config.isAutoCleanup();
+
+        IntegrationFixtures fixtures = IntegrationFixtures.current();
+        TextChannel channel = fixtures != null && fixtures.getConfig().equals(config)
+                ? fixtures.textChannel()
+                : plugin.getCore().getHttpAPI().getTextChannel(config.getTextChannelId());
+        assertNotNull(channel, "测试频道不应为 null");
+
+        levels.clear();
+        burst = null;
+        reportSection = new ArrayList<>();
+        if (burstSize > 0) {
+            runTest("突发 " + burstSize + " 条", () -> testBurst(channel));
+        }
+        for (int concurrency : concurrencyLevels()) {
+            runTest("并发 " + concurrency, () -> testLevel(channel, concurrency));
+        }
+        runTest("吞吐-延迟曲线", this::testCurve);
+        if (autoCleanup) {
+            runTest("清理已发送消息", this::testCleanup);
+        }
+    }
+
+    private List<Integer> concurrencyLevels() {
+        List<Integer> result = new ArrayList<>();
+        for (int level = 1; level < maxConcurrency; level *= 2) {
+            result.add(level);
+        }
+        result.add(maxConcurrency);
+        return result;
+    }
+
+    private void testBurst(TextChannel channel) {
+        LoadResult result = new LoadResult("突发", burstSize);
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < burstSize; i++) {
+                int index = i;
+                executor.submit(() -> {
+                    start.await();
+                    send(channel, result, index);
+                    return null;
+                });
+            }
+            result.startNanos = System.nanoTime();
+            start.countDown();
+        }
+        result.finish();
+        burst = result;
+        report(result);
+        // 突发只用于观察限速行为，不参与最高吞吐的比较
+        assertTrue(result.successes() > 0, "突发发送全部失败: " + result.firstError.get());
+    }
+
+    private void testLevel(TextChannel channel, int concurrency) {
+        LoadResult result = new LoadResult("并发 " + concurrency, messagesPerLevel);
+        AtomicInteger next = new AtomicInteger();
+        result.startNanos = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                executor.submit(() -> {
+                    for (int index = next.getAndIncrement(); index < messagesPerLevel; index = next.getAndIncrement()) {
+                        send(channel, result, index);
+                    }
+                });
+            }
+        }
+        result.finish();
+        levels.add(result);
+        report(result);
+        assertTrue(result.successes() > 0, result.label + " 没有发送成功的消息: " + result.firstError.get());
+    }
+
+    private void send(TextChannel channel, LoadResult result, int index) {
+        String content = "【负载测试】" + result.label + " #" + (index + 1) + " - " + System.currentTimeMillis();
+        long start = System.nanoTime();
+        try {
+            String messageId = channel.sendComponent(new TextComponent(content));
+            result.latencies[index] = System.nanoTime() - start;
+            if (messageId != null && !messageId.isEmpty()) {
+                sentMessageIds.add(messageId);
+            }
+        } catch (Exception e) {
+            result.latencies[index] = -1;
+            if (Benchmarks.isRateLimitError(e)) {
+                result.throttled.increment();
+            } else {
+                result.errors.increment();
+            }
+            result.firstError.compareAndSet(null, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private void report(LoadResult result) {
+        logger.info("    {}", result);
+        addDetail(result.toString());
+        if (result.firstError.get() != null) {
+            logger.warn("    {} 首个错误: {}", result.label, result.firstError.get());
+        }
+    }
+
+    private void testCurve() {
+        assertFalse(levels.isEmpty(), "没有可分析的并发级别");
+        LoadResult best = Collections.max(levels, Comparator.comparingDouble(LoadResult::throughput));
+        LoadResult firstThrottled = null;
+        for (LoadResult level : levels) {
+            if (level.throttled.sum() > 0) {
+                firstThrottled = level;
+                break;
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add("每个并发级别发送 " + messagesPerLevel + " 条消息" + (burstSize > 0 ? "，突发 " + burstSize + " 条" : ""));
+        lines.add(String.format("%-10s %-10s %-8s %-6s %-6s %-10s %-10s %-10s %s",
+                "负载", "消息/秒", "成功率", "限速", "错误", "p50", "p95", "p99", "最大"));
+        List<LoadResult> rows = new ArrayList<>();
+        if (burst != null) {
+            rows.add(burst);
+        }
+        rows.addAll(levels);
+        for (LoadResult level : rows) {
+            LatencyStats latency = level.latency;
+            lines.add(String.format("%-10s %-10.2f %-8s %-6d %-6d %-10s %-10s %-10s %s",
+                    level.label, level.throughput(), String.format("%.1f%%", level.successRate() * 100),
+                    level.throttled.sum(), level.errors.sum(),
+                    EndpointProfiler.millis(latency.getP50()), EndpointProfiler.millis(latency.getP95()),
+                    EndpointProfiler.millis(latency.getP99()), EndpointProfiler.millis(latency.getMax())));
+        }
+        String summary = String.format("最高吞吐 %.2f 消息/秒 @ %s（p95 %s），%s", best.throughput(), best.label,
+                EndpointProfiler.millis(best.latency.getP95()),
+                firstThrottled == null ? "各级别均未被限速" : firstThrottled.label + " 起出现限速");
+        lines.add(summary);
+        reportSection = lines;
+        setReportSection("消息发送负载", lines);
+        logger.info("    {}", summary);
+        addDetail(summary);
+    }
+
+    /**
+     * 用 {@link MessageCleanupPipeline} 删除本次发送的消息，并记录清理吞吐
+     */
+    private void testCleanup() {
+        List<String> messageIds = new ArrayList<>(sentMessageIds);
+        sentMessageIds.clear();
+        MessageCleanupPipeline.Result result = MessageCleanupPipeline.fromConfig(plugin).run(messageIds);
+        logger.info("    {}", result);
+        addDetail(result.toString());
+        List<String> lines = new ArrayList<>(reportSection);
+        lines.add("清理: " + result);
+        setReportSection("消息发送负载", lines);
+        if (!result.getFailed().isEmpty()) {
+            // 清理不完整时留给插件卸载时再试一次
+            sentMessageIds.addAll(result.getFailed());
+        }
+        assertTrue(result.getFailed().isEmpty(), result.getFailed().size() + " 条消息清理失败: " + result.getFirstError());
+    }
+
+    @Override
+    public void cleanup() {
+        if (!autoCleanup || sentMessageIds.isEmpty()) {
+            return;
+        }
+        logger.info("清理 {} 条负载测试消息...", sentMessageIds.size());
+        MessageCleanupPipeline.Result result = MessageCleanupPipeline.fromConfig(plugin).run(sentMessageIds);
+        sentMessageIds.clear();
+        logger.info("负载测试消息清理完成: {}", result);
+    }
+
+    /**
+     * 一种负载下的发送统计，latencies 中 -1 表示发送失败
+     */
+    private static class LoadResult {
+        final String label;
+        final long[] latencies;
+        final LongAdder throttled = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final AtomicReference<String> firstError = new AtomicReference<>();
+        long startNanos;
+        long elapsedNanos;
+        LatencyStats latency;
+
+        LoadResult(String label, int messages) {
+            this.label = label;
+            this.latencies = new long[messages];
+        }
+
+        void finish() {
+            elapsedNanos = System.nanoTime() - startNanos;
+            long[] succeeded = Arrays.stream(latencies).filter(nanos -> nanos >= 0).toArray();
+            latency = LatencyStats.of(succeeded);
+        }
+
+        int successes() {
+            return (int) latency.getCount();
+        }
+
+        double successRate() {
+            return latencies.length == 0 ? 0 : (double) successes() / latencies.length;
+        }
+
+        double throughput() {
+            return elapsedNanos == 0 ? 0 : successes() * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %.2f 消息/秒, 成功 %d/%d, 限速 %d, 错误 %d, p50=%s, p99=%s",
+                    label, throughput(), successes(), latencies.length, throttled.sum(), errors.sum(),
+                    EndpointProfiler.millis(latency.getP50()), EndpointProfiler.millis(latency.getP99()));
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package me.realseek.test.modules.benchmark;
+
+import me.realseek.paging.PrefetchingPageIterator;
+import me.realseek.test.benchmark.Benchmarks;
+import me.realseek.test.benchmark.EndpointProfiler;
+import me.realseek.test.mock.LatencyInjector;
+import me.realseek.test.mock.MockFixtures;
+import me.realseek.test.mock.MockKookServer;
+import me.realseek.test.mock.MockPages;
+import me.realseek.test.modules.integration.IntegrationConfig;
+import snw.jkook.entity.Guild;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 分页遍历性能测试模块
+ * <p>
+ * 集成测试只读取 PageIterator 的第一页，这里完整遍历大型服务器的所有分页，
+ * 对比逐页顺序请求与 {@link PrefetchingPageIterator}（处理第 n 页时预取第 n+1 页）的总耗时、
+ * 内存分配和遍历期间的堆占用峰值。每个元素附带固定的处理耗时，模拟调用方对数据的实际处理。
+ * <p>
+ * 默认遍历本地模拟服务器的成员列表，启用集成测试时额外遍历配置服务器的成员和角色。
+ */
+public class PageTraversalBenchmarkTestModule extends BenchmarkTestModule {
+    private static final long SEED = 44L;
+
+    private int members;
+    private int pageSize;
+    private long latencyMillis;
+    private long workMicrosPerItem;
+    private int runs;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private MockKookServer server;
+    private ExecutorService prefetchExecutor;
+    private final List<String> reportLines = new ArrayList<>();
+
+    @Override
+    public String getName() {
+        return "分页遍历性能";
+    }
+
+    @Override
+    public String getDescription() {
+        return "完整遍历大型服务器的分页数据，对比逐页请求与预取下一页的总耗时和内存";
+    }
+
+    @Override
+    public void initialize(snw.jkook.plugin.Plugin plugin) {
+        super.initialize(plugin);
+        members = Math.max(1, plugin.getConfig().getInt("benchmark.page-traversal.members", 10000));
+        pageSize = Math.max(1, plugin.getConfig().getInt("benchmark.page-traversal.page-size", 100));
+        latencyMillis = Math.max(0, plugin.getConfig().getLong("benchmark.page-traversal.latency-ms", 20L));
+        workMicrosPerItem = Math.max(0, plugin.getConfig().getLong("benchmark.page-traversal.work-micros-per-item", 150L));
+        runs = Math.max(1, plugin.getConfig().getInt("benchmark.page-traversal.runs", 3));
+    }
+
+    @Override
+    protected void executeTests() {
+        if (!isBenchmarkEnabled()) {
+            return;
+        }
+
+        cleanup();
+        reportLines.clear();
+        reportLines.add(String.format("%-24s %-6s %-8s %-10s %-10s %-12s %s",
+                "数据源", "页数", "条数", "逐页", "预取", "分配(逐页/预取)", "堆峰值增量(逐页/预取)"));
+        prefetchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kbctest-page-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        runTest("预取迭代器正确性", this::testPrefetchCorrectness);
+        runTest("启动模拟服务器", this::testStartMockServer);
+        if (server != null) {
+            runTest("模拟服务器成员遍历（" + members + " 人）", () -> {
+                Traversal sequential = compareTraversal("模拟服务器成员", () -> MockPages.members(client, server, pageSize));
+                assertEquals((long) members + 1, sequential.items, "遍历的成员数量应与模拟数据一致");
+            });
+        }
+
+        IntegrationConfig config = IntegrationConfig.current();
+        if (config.isEnabled() && !config.getGuildId().isEmpty()) {
+            Guild guild = plugin.getCore().getHttpAPI().getGuild(config.getGuildId());
+            runTest("真实服务器成员遍历", () -> compareTraversal("成员 " + guild.getName(), guild::getUsers));
+            runTest("真实服务器角色遍历", () -> compareTraversal("角色 " + guild.getName(), guild::getRoles));
+        } else {
+            logger.info("    集成测试未启用，跳过真实服务器分页遍历");
+        }
+
+        reportLines.add("每个元素模拟处理 " + workMicrosPerItem + "µs；耗时为 " + runs + " 次遍历的中位数；"
+                + "分配为消费线程与预取线程的合计，堆峰值为遍历期间每页采样的已用堆减去开始前的值（近似）");
+        setReportSection("分页遍历", reportLines);
+    }
+
+    private void testPrefetchCorrectness() {
+        List<List<Integer>> pages = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            pages.add(Arrays.asList(i * 3, i * 3 + 1, i * 3 + 2));
+        }
+        List<List<Integer>> collected = new ArrayList<>();
+        try (PrefetchingPageIterator<List<Integer>> iterator = new PrefetchingPageIterator<>(pages.iterator(), prefetchExecutor)) {
+            while (iterator.hasNext()) {
+                collected.add(iterator.next());
+            }
+            assertEquals(pages.size(), iterator.getPagesFetched(), "预取的页数不一致");
+            assertFalse(iterator.hasNext(), "遍历结束后 hasNext 应保持 false");
+        }
+        assertEquals(pages, collected, "预取后的页内容或顺序不一致");
+
+        try (PrefetchingPageIterator<Object> empty = new PrefetchingPageIterator<>(Collections.emptyIterator(), prefetchExecutor)) {
+            assertFalse(empty.hasNext(), "空迭代器不应有下一页");
+            try {
+                empty.next();
+                throw new AssertionError("空迭代器的 next 应抛出 NoSuchElementException");
+            } catch (NoSuchElementException expected) {
+                // 预期行为
+            }
+        }
+
+        // 第 3 页请求失败：前两页正常返回，第 3 页的 next 抛出原异常
+        IllegalStateException failure = new IllegalStateException("模拟请求失败");
+        Iterator<Integer> failing = new Iterator<>() {
+            private int page;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                if (page == 2) {
+                    throw failure;
+                }
+                return page++;
+            }
+        };
+        try (PrefetchingPageIterator<Integer> iterator = new PrefetchingPageIterator<>(failing, prefetchExecutor)) {
+            assertEquals(0, iterator.next(), "第 1 页不一致");
+            assertEquals(1, iterator.next(), "第 2 页不一致");
+            try {
+                iterator.next();
+                throw new AssertionError("第 3 页应抛出底层迭代器的异常");
+            } catch (IllegalStateException e) {
+                assertTrue(e == failure, "应原样抛出底层迭代器的异常");
+            }
+            assertFalse(iterator.hasNext(), "出错后迭代应结束");
+        }
+    }
+
+    private void testStartMockServer() {
+        cleanupServer();
+        LatencyInjector latency = new LatencyInjector(latencyMillis, 0, new HashMap<>(), SEED);
+        try {
+            server = MockKookServer.start(new MockFixtures(SEED, members, 8), latency, 0, 0);
+        } catch (IOException e) {
+            throw new AssertionError("模拟服务器启动失败: " + e.getMessage(), e);
+        }
+        addDetail(server.getBaseUrl() + "，" + (members + 1) + " 名成员，每页 " + pageSize + " 条，每次请求延迟 " + latencyMillis + "ms");
+    }
+
+    /**
+     * 分别以逐页和预取方式遍历，取多次运行的中位数
+     *
+     * @return 逐页遍历的结果
+     */
+    private <T extends Collection<?>> Traversal compareTraversal(String label, Supplier<? extends Iterator<T>> pages) {
+        // 预热一次，避免首次遍历的类加载和连接建立影响对比
+        traverse(pages.get(), false);
+
+        List<Traversal> sequentialRuns = new ArrayList<>();
+        List<Traversal> prefetchRuns = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            sequentialRuns.add(traverse(pages.get(), false));
+            prefetchRuns.add(traverse(pages.get(), true));
+        }
+        Traversal sequential = median(sequentialRuns);
+        Traversal prefetch = median(prefetchRuns);
+
+        assertEquals(sequential.items, prefetch.items, label + " 两种方式遍历的条数应一致");
+        assertEquals(sequential.pages, prefetch.pages, label + " 两种方式遍历的页数应一致");
+
+        double speedup = prefetch.nanos == 0 ? 0 : (double) sequential.nanos / prefetch.nanos;
+        String summary = String.format("%d 页 %d 条，逐页 %s，预取 %s（%.2fx）", sequential.pages, sequential.items,
+                EndpointProfiler.millis(sequential.nanos), EndpointProfiler.millis(prefetch.nanos), speedup);
+        logger.info("    {}: {}", label, summary);
+        addDetail(summary);
+        reportLines.add(String.format("%-24s %-6d %-8d %-10s %-10s %-12s %s",
+                label, sequential.pages, sequential.items,
+                EndpointProfiler.millis(sequential.nanos), EndpointProfiler.millis(prefetch.nanos),
+                kib(sequential.allocatedBytes) + "/" + kib(prefetch.allocatedBytes),
+                kib(sequential.peakHeapBytes) + "/" + kib(prefetch.peakHeapBytes)));
+        return sequential;
+    }
+
+    private <T extends Collection<?>> Traversal traverse(Iterator<T> source, boolean prefetch) {
+        Thread consumer = Thread.currentThread();
+        AtomicLong fetchAllocated = new AtomicLong();
+        // 预取线程上的请求分配单独统计，逐页模式下请求分配已包含在消费线程中
+        Iterator<T> counted = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return track(source::hasNext);
+            }
+
+            @Override
+            public T next() {
+                return track(source::next);
+            }
+
+            private <R> R track(Supplier<R> call) {
+                if (Thread.currentThread() == consumer) {
+                    return call.get();
+                }
+                long before = Benchmarks.currentThreadAllocatedBytes();
+                try {
+                    return call.get();
+                } finally {
+                    fetchAllocated.addAndGet(Benchmarks.currentThreadAllocatedBytes() - before);
+                }
+            }
+        };
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long baseline = runtime.totalMemory() - runtime.freeMemory();
+        long peak = baseline;
+        long allocatedBefore = Benchmarks.currentThreadAllocatedBytes();
+        long start = System.nanoTime();
+
+        Traversal traversal = new Traversal();
+        Iterator<T> iterator = prefetch ? new PrefetchingPageIterator<>(counted, prefetchExecutor) : counted;
+        try {
+            while (iterator.hasNext()) {
+                T page = iterator.next();
+                traversal.pages++;
+                for (Object item : page) {
+                    Benchmarks.consume(item);
+                    work();
+                    traversal.items++;
+                }
+                peak = Math.max(peak, runtime.totalMemory() - runtime.freeMemory());
+            }
+        } finally {
+            if (iterator instanceof PrefetchingPageIterator) {
+                ((PrefetchingPageIterator<?>) iterator).close();
+            }
+        }
+
+        traversal.nanos = System.nanoTime() - start;
+        traversal.allocatedBytes = Benchmarks.isAllocationTrackingSupported()
+                ? Benchmarks.currentThreadAllocatedBytes() - allocatedBefore + fetchAllocated.get() : -1;
+        traversal.peakHeapBytes = peak - baseline;
+        return traversal;
+    }
+
+    /**
+     * 模拟调用方对每个元素的处理（忙等，不让出 CPU）
+     */
+    private void work() {
+        if (workMicrosPerItem == 0) {
+            return;
+        }
+        long until = System.nanoTime() + workMicrosPerItem * 1000;
+        while (System.nanoTime() < until) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static Traversal median(List<Traversal> traversals) {
+        List<Traversal> sorted = new ArrayList<>(traversals);
+        sorted.sort(Comparator.comparingLong(t -> t.nanos));
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static String kib(long bytes) {
+        return bytes < 0 ? "N/A" : (bytes / 1024) + "KiB";
+    }
+
+    private void cleanupServer() {
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+    }
+
+    @Override
+    public void cleanup() {
+        cleanupServer();
+        if (prefetchExecutor != null) {
+            prefetchExecutor.shutdownNow();
+            prefetchExecutor = null;
+        }
+    }
+
+    /**
+     * 一次遍历的统计
+     */
+    private static class Traversal {
+        long pages;
+        long items;
+        long nanos;
+        long allocatedBytes;
+        long peakHeapBytes;
+    }
+}
@@ -0,0 +1,155 @@
+package me.realseek.test.modules.benchmark;
+
+import me.realseek.permission.PermissionEvaluator;
+import me.realseek.test.benchmark.Benchmarks;
+import me.realseek.test.benchmark.Measurement;
+import snw.jkook.Permission;
+
+import java.util.*;
+
+/**
+ * 权限计算性能测试模块
+ * 在接近真实的角色配置（服务器 50 个角色、成员持有 1~10 个角色）上测量 JKook Permission 各项运算的开销，
+ * 并对比每次检查都调用 Permission.sum 的做法与 {@link PermissionEvaluator} 预计算位掩码表的查表开销
+ */
+public class PermissionBenchmarkTestModule extends BenchmarkTestModule {
+    private static final int GUILD_ROLES = 50;
+    private static final int[] MEMBER_ROLE_COUNTS = {1, 5, 10};
+    private static final int MEMBERS = 256;
+    private static final long SEED = 37L;
+
+    private static final Permission[] PERMISSIONS = Permission.values();
+
+    /**
+     * 每个角色的权限列表（模拟按权限枚举保存角色配置的插件）
+     */
+    private final Map<Integer, Permission[]> rolePermissionLists = new HashMap<>();
+    private final Map<Integer, Integer> rolePermissionValues = new HashMap<>();
+    private int basePermissions;
+    private PermissionEvaluator evaluator;
+    private int cursor;
+
+    @Override
+    public String getName() {
+        return "权限计算性能";
+    }
+
+    @Override
+    public String getDescription() {
+        return "测量 Permission.sum/removeFrom/isIncludedIn/hasPermission 的开销，并对比预计算 long[] 权限表的查表开销";
+    }
+
+    @Override
+    protected void executeTests() {
+        if (!isBenchmarkEnabled()) {
+            return;
+        }
+
+        runTest("生成角色配置", this::testPrepareRoles);
+        runTest("Permission 基础运算", this::testPermissionOperations);
+        runTest("预计算权限表正确性", this::testEvaluatorCorrectness);
+        for (int roleCount : MEMBER_ROLE_COUNTS) {
+            runTest("成员权限检查（" + roleCount + " 个角色）", () -> testMemberCheck(roleCount));
+        }
+    }
+
+    private void testPrepareRoles() {
+        Random random = new Random(SEED);
+        rolePermissionLists.clear();
+        rolePermissionValues.clear();
+        for (int i = 0; i < GUILD_ROLES; i++) {
+            int roleId = 1000 + i * 7;
+            List<Permission> granted = new ArrayList<>();
+            for (Permission permission : PERMISSIONS) {
+                // 管理员权限只授予少数角色，其余权限约 20% 的概率授予
+                boolean grant = permission == Permission.ADMIN ? i == GUILD_ROLES - 1 : random.nextInt(5) == 0;
+                if (grant) {
+                    granted.add(permission);
+                }
+            }
+            Permission[] list = granted.toArray(new Permission[0]);
+            rolePermissionLists.put(roleId, list);
+            rolePermissionValues.put(roleId, Permission.sum(list));
+        }
+        basePermissions = Permission.sum(Permission.SEND_MESSAGE);
+
+        long start = System.nanoTime();
+        evaluator = PermissionEvaluator.of(rolePermissionValues, basePermissions);
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(GUILD_ROLES, evaluator.getRoleCount(), "权限表角色数量不匹配");
+        addDetail(String.format("%d 个角色，%d 种权限，构建权限表耗时 %.1fµs", GUILD_ROLES, PERMISSIONS.length, elapsed / 1000.0));
+    }
+
+    private void testPermissionOperations() {
+        int combined = Permission.sum(Permission.KICK, Permission.BAN, Permission.SEND_MESSAGE);
+        Permission[] three = {Permission.KICK, Permission.BAN, Permission.SEND_MESSAGE};
+
+        measure("Permission.sum(3 个权限)", () -> Benchmarks.consume(Permission.sum(three)));
+        measure("Permission.sum(基础值, 3 个权限)", () -> Benchmarks.consume(Permission.sum(cursor++, three)));
+        measure("Permission.removeFrom", () -> Benchmarks.consume(Permission.removeFrom(combined | (cursor++ & 1), Permission.BAN)));
+        measure("Permission.isIncludedIn", () -> Benchmarks.consume(PERMISSIONS[cursor++ % PERMISSIONS.length].isIncludedIn(combined)));
+        measure("Permission.hasPermission", () -> Benchmarks.consume(Permission.hasPermission(PERMISSIONS[cursor++ % PERMISSIONS.length], combined)));
+    }
+
+    private void testEvaluatorCorrectness() {
+        Random random = new Random(SEED + 1);
+        for (int m = 0; m < MEMBERS; m++) {
+            List<Integer> roleIds = randomMemberRoles(random, 1 + random.nextInt(10));
+            int[] indexes = evaluator.resolve(roleIds);
+            for (Permission permission : PERMISSIONS) {
+                assertEquals(naiveHas(roleIds, permission), evaluator.has(indexes, permission),
+                        "预计算结果与 Permission.sum 结果不一致: " + permission + " " + roleIds);
+            }
+        }
+        addDetail(MEMBERS + " 个随机成员 × " + PERMISSIONS.length + " 种权限结果一致");
+    }
+
+    private void testMemberCheck(int roleCount) {
+        Random random = new Random(SEED + roleCount);
+        List<List<Integer>> members = new ArrayList<>();
+        List<int[]> resolved = new ArrayList<>();
+        for (int m = 0; m < MEMBERS; m++) {
+            List<Integer> roleIds = randomMemberRoles(random, roleCount);
+            members.add(roleIds);
+            resolved.add(evaluator.resolve(roleIds));
+        }
+        long required = PermissionEvaluator.mask(Permission.MESSAGE_MANAGE, Permission.KICK);
+
+        Measurement naive = measure("每次检查调用 Permission.sum", () -> {
+            int index = cursor++ & (MEMBERS - 1);
+            Benchmarks.consume(naiveHas(members.get(index), PERMISSIONS[index % PERMISSIONS.length]));
+        });
+        measure("权限表（含角色 ID 查找）", () -> {
+            int index = cursor++ & (MEMBERS - 1);
+            Benchmarks.consume(evaluator.has(evaluator.resolve(members.get(index)), PERMISSIONS[index % PERMISSIONS.length]));
+        });
+        Measurement table = measure("权限表（已缓存角色下标）", () -> {
+            int index = cursor++ & (MEMBERS - 1);
+            Benchmarks.consume(evaluator.has(resolved.get(index), PERMISSIONS[index % PERMISSIONS.length]));
+        });
+        measure("权限表 hasAll（2 个权限）", () -> Benchmarks.consume(evaluator.hasAll(resolved.get(cursor++ & (MEMBERS - 1)), required)));
+
+        String speedup = String.format("预计算权限表比 Permission.sum 快 %.1fx", naive.getNanosPerOp() / table.getNanosPerOp());
+        logger.info("    {}", speedup);
+        addDetail(speedup);
+    }
+
+    /**
+     * 不做预计算的检查方式：每次都用 Permission.sum 计算成员每个角色的权限值再合并
+     */
+    private boolean naiveHas(List<Integer> roleIds, Permission permission) {
+        int permissions = basePermissions;
+        for (int roleId : roleIds) {
+            permissions |= Permission.sum(rolePermissionLists.get(roleId));
+        }
+        return Permission.hasPermission(permission, permissions);
+    }
+
+    private List<Integer> randomMemberRoles(Random random, int count) {
+        List<Integer> all = new ArrayList<>(rolePermissionLists.keySet());
+        Collections.sort(all);
+        Collections.shuffle(all, random);
+        return new ArrayList<>(all.subList(0, Math.min(count, all.size())));
+    }
+}
@@ -0,0 +1,227 @@
+package me.realseek.test.modules.benchmark;
+
+import me.realseek.permission.EffectivePermissionCache;
+import me.realseek.permission.HttpPermissionSource;
+import me.realseek.permission.PermissionEvaluator;
+import me.realseek.permission.PermissionSource;
+import me.realseek.test.benchmark.Benchmarks;
+import me.realseek.test.benchmark.Measurement;
+import me.realseek.test.benchmark.SimulatedPermissionGuild;
+import me.realseek.test.event.HandlerInstrumentation;
+import me.realseek.test.modules.integration.IntegrationConfig;
+import snw.jkook.Permission;
+import snw.jkook.event.EventManager;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static me.realseek.test.benchmark.SimulatedPermissionGuild.GUILD_ID;
+
+/**
+ * 成员有效权限缓存性能测试模块
+ * 在角色事件风暴下并发检查权限并验证缓存与重新计算一致，统计偏斜访问下的命中率、
+ * 相对每次检查都调用 HttpAPI 节省的调用次数，以及真实 HttpAPI 计算一次有效权限的耗时
+ */
+public class PermissionCacheBenchmarkTestModule extends BenchmarkTestModule {
+    private static final int ROLES = 30;
+    private static final int MEMBERS = 500;
+    private static final int MAX_MEMBER_ROLES = 6;
+    private static final int READERS = 4;
+    private static final int STORM_EVENTS = 2000;
+    private static final int WORKLOAD_CHECKS = 200_000;
+    /**
+     * 命中率测试中每多少次检查发生一次角色变更
+     */
+    private static final int CHECKS_PER_EVENT = 1000;
+    private static final int HTTP_SAMPLES = 5;
+    private static final Permission[] PERMISSIONS = Permission.values();
+
+    private SimulatedPermissionGuild guild;
+    private EffectivePermissionCache cache;
+
+    @Override
+    public String getName() {
+        return "权限缓存性能";
+    }
+
+    @Override
+    public String getDescription() {
+        return "角色事件风暴下的缓存一致性与并发检查吞吐，偏斜访问下的命中率与 HttpAPI 调用节省";
+    }
+
+    @Override
+    protected void executeTests() {
+        if (!isBenchmarkEnabled()) {
+            return;
+        }
+
+        runTest("事件风暴下的一致性", this::testEventStorm);
+        runTest("命中率与源调用次数", this::testHitRate);
+        runTest("HttpAPI 单次权限查询耗时", this::testHttpSourceLatency);
+    }
+
+    private void setUp(long seed) {
+        cleanup();
+        guild = new SimulatedPermissionGuild(new Random(seed), ROLES, MEMBERS, MAX_MEMBER_ROLES);
+        cache = new EffectivePermissionCache(guild);
+        HandlerInstrumentation.register(plugin, cache);
+    }
+
+    /**
+     * 多个读线程持续检查权限，同时一个线程不断修改角色并投递对应事件；
+     * 每个事件投递后立即检查该角色的一个持有者，结束后再全量比对
+     */
+    private void testEventStorm() {
+        setUp(40L);
+        EventManager eventManager = plugin.getCore().getEventManager();
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder checks = new LongAdder();
+        AtomicLong readerErrors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(READERS);
+        List<Thread> readers = new ArrayList<>();
+
+        for (int r = 0; r < READERS; r++) {
+            Thread reader = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    while (running.get()) {
+                        String userId = guild.memberIds.get(random.nextInt(MEMBERS));
+                        Benchmarks.consume(cache.hasPermission(GUILD_ID, userId, PERMISSIONS[random.nextInt(PERMISSIONS.length)]));
+                        checks.increment();
+                    }
+                } catch (Throwable t) {
+                    readerErrors.incrementAndGet();
+                    logger.error("    读线程异常", t);
+                } finally {
+                    done.countDown();
+                }
+            }, "permission-cache-reader-" + r);
+            readers.add(reader);
+            reader.start();
+        }
+
+        Random random = new Random(41L);
+        int mismatches = 0;
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < STORM_EVENTS; i++) {
+                int action = random.nextInt(10);
+                int roleId;
+                if (action == 0 && guild.roleMasks.size() > ROLES / 2) {
+                    roleId = guild.randomRole(random);
+                    eventManager.callEvent(guild.deleteRole(roleId));
+                } else if (action == 1) {
+                    eventManager.callEvent(guild.createRole(SimulatedPermissionGuild.randomMask(random)));
+                    continue;
+                } else {
+                    roleId = action == 2 ? 0 : guild.randomRole(random);
+                    eventManager.callEvent(guild.updateRole(roleId, SimulatedPermissionGuild.randomMask(random)));
+                }
+
+                String userId = roleId == 0 ? guild.memberIds.get(random.nextInt(MEMBERS)) : guild.memberWithRole(roleId);
+                if (userId != null && cache.getEffectiveMask(GUILD_ID, userId) != guild.expectedMask(userId)) {
+                    mismatches++;
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        try {
+            assertTrue(done.await(10, TimeUnit.SECONDS), "读线程未能按时结束");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("等待读线程被中断: " + e.getMessage(), e);
+        }
+        assertEquals(0L, readerErrors.get(), "读线程发生异常");
+        assertEquals(0, mismatches, "事件投递后缓存结果与重新计算不一致");
+        for (String userId : guild.memberIds) {
+            assertEquals(guild.expectedMask(userId), cache.getEffectiveMask(GUILD_ID, userId),
+                    "事件风暴结束后缓存结果与重新计算不一致: " + userId);
+        }
+
+        addDetail(String.format("%d 个角色事件，%d 次并发检查，耗时 %.1fms", STORM_EVENTS, checks.sum(), elapsed / 1_000_000.0));
+        addDetail(String.format("命中率 %.1f%%，失效 %d 个条目，撤回 %d 个加载中的过期结果",
+                cache.getHitRate() * 100, cache.getInvalidations(), cache.getStaleDiscards()));
+    }
+
+    /**
+     * 偏斜的访问分布（少数活跃成员）下混入少量角色变更，统计缓存命中率；
+     * 不使用缓存时每次检查都需要查询成员角色和服务器角色两次 HttpAPI
+     */
+    private void testHitRate() {
+        setUp(42L);
+        EventManager eventManager = plugin.getCore().getEventManager();
+        Random random = new Random(43L);
+        guild.resetCalls();
+
+        for (int i = 0; i < WORKLOAD_CHECKS; i++) {
+            // 平方分布：下标越小的成员越活跃
+            double u = random.nextDouble();
+            String userId = guild.memberIds.get((int) (u * u * MEMBERS));
+            Benchmarks.consume(cache.hasPermission(GUILD_ID, userId, PERMISSIONS[random.nextInt(PERMISSIONS.length)]));
+            if (i % CHECKS_PER_EVENT == CHECKS_PER_EVENT - 1) {
+                eventManager.callEvent(guild.updateRole(guild.randomRole(random), SimulatedPermissionGuild.randomMask(random)));
+            }
+        }
+
+        long perCheckCalls = 2L * WORKLOAD_CHECKS;
+        long cachedCalls = guild.calls.sum();
+        assertEquals(cache.getSourceCalls(), cachedCalls, "缓存统计的源调用次数与实际不一致");
+        assertTrue(cachedCalls < perCheckCalls / 10, "缓存应至少减少 90% 的源调用");
+        addDetail(String.format("%d 次检查，命中率 %.1f%%，源调用 %d 次（逐次调用需 %d 次，节省 %.1f%%）",
+                WORKLOAD_CHECKS, cache.getHitRate() * 100, cachedCalls, perCheckCalls,
+                100.0 * (perCheckCalls - cachedCalls) / perCheckCalls));
+
+        Measurement cached = measure("缓存检查", () ->
+                Benchmarks.consume(cache.hasPermission(GUILD_ID, guild.memberIds.get(ThreadLocalRandom.current().nextInt(MEMBERS)), Permission.KICK)));
+        Measurement uncached = measure("每次查询源", warmupIterations / 10, Math.max(1, measureIterations / 10), () ->
+                Benchmarks.consume(guild.fetchMask(guild.memberIds.get(ThreadLocalRandom.current().nextInt(MEMBERS)))));
+        addDetail(String.format("缓存检查比逐次查询内存源快 %.1fx", uncached.getNanosPerOp() / cached.getNanosPerOp()));
+    }
+
+    /**
+     * 配置了集成测试服务器和用户时，测量通过 HttpAPI 计算一次有效权限的真实耗时
+     */
+    private void testHttpSourceLatency() {
+        IntegrationConfig config = IntegrationConfig.current();
+        String guildId = config.getGuildId();
+        String userId = config.getUserId();
+        if (!config.isEnabled() || guildId.isEmpty() || userId.isEmpty()) {
+            addDetail("未启用集成测试或未配置服务器/用户，跳过");
+            return;
+        }
+
+        PermissionSource source = new HttpPermissionSource(plugin.getCore().getHttpAPI());
+        long total = 0;
+        long mask = 0;
+        for (int i = 0; i < HTTP_SAMPLES; i++) {
+            long start = System.nanoTime();
+            Map<Integer, Long> roleMasks = source.getRoleMasks(guildId);
+            mask = roleMasks.getOrDefault(0, 0L);
+            for (int roleId : source.getMemberRoles(guildId, userId)) {
+                mask |= roleMasks.getOrDefault(roleId, 0L);
+            }
+            total += System.nanoTime() - start;
+        }
+        double millis = total / 1_000_000.0 / HTTP_SAMPLES;
+
+        EffectivePermissionCache httpCache = new EffectivePermissionCache(source);
+        assertEquals(PermissionEvaluator.normalize(mask), httpCache.getEffectiveMask(guildId, userId), "缓存结果与 HttpAPI 直接计算结果不一致");
+        addDetail(String.format("HttpAPI 单次有效权限计算平均 %.1fms（%d 次采样），缓存命中后无需请求", millis, HTTP_SAMPLES));
+    }
+
+    @Override
+    public void cleanup() {
+        if (cache != null) {
+            HandlerInstrumentation.unregister(plugin, cache);
+            cache = null;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package me.realseek.test.modules.benchmark;
+
+import me.realseek.test.benchmark.Benchmarks;
+import me.realseek.test.benchmark.CardPayloads;
+import me.realseek.test.benchmark.Measurement;
+import me.realseek.test.benchmark.RandomCards;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 随机卡片序列化扩展性测试模块
+ * 使用固定种子的 {@link RandomCards} 生成结构随机的大卡片，沿模块数量、文本长度和模块类型三个维度
+ * 测量 KookBC 序列化耗时与载荷大小，并标出单位载荷耗时明显高于最小规模的形状（非线性增长）
+ */
+public class RandomCardBenchmarkTestModule extends BenchmarkTestModule {
+    private static final int[] MODULE_COUNTS = {5, 10, 20, 30, 40, 50};
+    private static final int[] TEXT_LENGTHS = {100, 500, 1000, 2000, 5000};
+    private static final int VALIDATION_CARDS = 200;
+    /**
+     * 单位载荷耗时超过基准形状的倍数时视为非线性
+     */
+    private static final double NONLINEAR_FACTOR = 2.0;
+
+    private long seed;
+    private int samples;
+    private int iterations;
+
+    @Override
+    public String getName() {
+        return "随机卡片序列化";
+    }
+
+    @Override
+    public String getDescription() {
+        return "使用可复现的随机大卡片测量 KookBC 序列化耗时与载荷大小随模块数量、文本长度和模块类型的变化";
+    }
+
+    @Override
+    public void initialize(snw.jkook.plugin.Plugin plugin) {
+        super.initialize(plugin);
+        seed = plugin.getConfig().getLong("benchmark.random-card.seed", 20240601L);
+        samples = Math.max(1, plugin.getConfig().getInt("benchmark.random-card.samples", 3));
+        // 大卡片单次序列化较慢，测量次数按配置缩小
+        iterations = Math.max(50, measureIterations / 20);
+    }
+
+    @Override
+    protected void executeTests() {
+        if (!isBenchmarkEnabled()) {
+            return;
+        }
+
+        runTest("随机卡片结构合法性与可复现性", this::testGeneratorValidity);
+        if (!CardPayloads.isAvailable()) {
+            logger.warn("    未找到 KookBC 的消息序列化器，跳过序列化扩展性测量");
+            return;
+        }
+        runTest("序列化扩展性：模块数量", this::testModuleCountScaling);
+        runTest("序列化扩展性：文本长度", this::testTextLengthScaling);
+        runTest("序列化扩展性：模块类型", this::testModuleKindScaling);
+    }
+
+    private void testGeneratorValidity() {
+        RandomCards first = new RandomCards(seed);
+        RandomCards second = new RandomCards(seed);
+        for (int i = 0; i < VALIDATION_CARDS; i++) {
+            int moduleCount = 1 + i % RandomCards.MAX_MODULES;
+            RandomCards.Shape shape = first.next(moduleCount, RandomCards.MAX_TEXT_LENGTH);
+            RandomCards.Shape replay = second.next(moduleCount, RandomCards.MAX_TEXT_LENGTH);
+
+            assertEquals(shape.signature(), replay.signature(), "相同种子应生成相同结构的卡片");
+            assertEquals(moduleCount, shape.getCard().getComponents().get(0).getModules().size(), "卡片模块数量不匹配");
+            if (CardPayloads.isAvailable()) {
+                String payload = CardPayloads.serialize(shape.getCard());
+                assertTrue(payload.startsWith("["), "随机卡片应可以被序列化");
+                assertEquals(payload, CardPayloads.serialize(replay.getCard()), "相同种子生成的卡片载荷应一致");
+            }
+        }
+        addDetail("种子 " + seed + "，验证 " + VALIDATION_CARDS + " 张卡片");
+    }
+
+    private void testModuleCountScaling() {
+        RandomCards generator = new RandomCards(seed);
+        List<Point> points = new ArrayList<>();
+        for (int moduleCount : MODULE_COUNTS) {
+            for (int s = 0; s < samples; s++) {
+                points.add(measurePoint(moduleCount + " 模块 #" + s,
+                        generator.next(moduleCount, RandomCards.MAX_TEXT_LENGTH / 10)));
+            }
+        }
+        report(points);
+    }
+
+    private void testTextLengthScaling() {
+        RandomCards generator = new RandomCards(seed);
+        List<Point> points = new ArrayList<>();
+        for (int textLength : TEXT_LENGTHS) {
+            for (int s = 0; s < samples; s++) {
+                points.add(measurePoint("文本≤" + textLength + " #" + s,
+                        generator.uniform(RandomCards.ModuleKind.SECTION, 10, textLength)));
+            }
+        }
+        report(points);
+    }
+
+    private void testModuleKindScaling() {
+        RandomCards generator = new RandomCards(seed);
+        List<Point> points = new ArrayList<>();
+        for (RandomCards.ModuleKind kind : RandomCards.ModuleKind.values()) {
+            points.add(measurePoint(kind + " × " + RandomCards.MAX_MODULES,
+                    generator.uniform(kind, RandomCards.MAX_MODULES, 200)));
+        }
+        report(points);
+    }
+
+    private Point measurePoint(String label, RandomCards.Shape shape) {
+        int payloadBytes = CardPayloads.serialize(shape.getCard()).getBytes(StandardCharsets.UTF_8).length;
+        Measurement measurement = Benchmarks.measure(label, Math.max(10, iterations / 10), iterations,
+                () -> Benchmarks.consume(CardPayloads.serialize(shape.getCard())));
+        return new Point(label, shape, payloadBytes, measurement);
+    }
+
+    /**
+     * 输出每个形状的耗时与载荷，并以单位载荷耗时最低的形状为基准标出非线性点
+     */
+    private void report(List<Point> points) {
+        double bestNanosPerKb = Double.MAX_VALUE;
+        for (Point point : points) {
+            bestNanosPerKb = Math.min(bestNanosPerKb, point.nanosPerKb());
+        }
+
+        int nonlinear = 0;
+        for (Point point : points) {
+            double ratio = point.nanosPerKb() / bestNanosPerKb;
+            boolean flagged = ratio > NONLINEAR_FACTOR;
+            String line = String.format("%s: %d 元素, %d 字节, %.0f ns/op, %.0f ns/KB, %.1f B/op%s",
+                    point.label, point.shape.getElements(), point.payloadBytes,
+                    point.measurement.getNanosPerOp(), point.nanosPerKb(), point.measurement.getBytesPerOp(),
+                    flagged ? String.format(" ⚠ 单位耗时为最优形状的 %.1fx", ratio) : "");
+            logger.info("    {}", line);
+            if (flagged) {
+                nonlinear++;
+                addDetail(line);
+            }
+        }
+
+        Point largest = points.get(points.size() - 1);
+        for (Point point : points) {
+            if (point.payloadBytes > largest.payloadBytes) {
+                largest = point;
+            }
+        }
+        addDetail(String.format("最大载荷 %d 字节（%s），%.0f ns/op", largest.payloadBytes, largest.label,
+                largest.measurement.getNanosPerOp()));
+        addDetail(nonlinear == 0 ? "未发现非线性增长的形状" : nonlinear + " 个形状的单位耗时超过最优形状 " + NONLINEAR_FACTOR + "x");
+    }
+
+    /**
+     * 单个形状的测量结果
+     */
+    private static class Point {
+        final String label;
+        final RandomCards.Shape shape;
+        final int payloadBytes;
+        final Measurement measurement;
+
+        Point(String label, RandomCards.Shape shape, int payloadBytes, Measurement measurement) {
+            this.label = label;
+            this.shape = shape;
+            this.payloadBytes = payloadBytes;
+            this.measurement = measurement;
+        }
+
+        double nanosPerKb() {
+            return measurement.getNanosPerOp() * 1024 / Math.max(1, payloadBytes);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package me.realseek.test.modules.integration;
 
+import me.realseek.test.cleanup.MessageCleanupPipeline;
 import snw.jkook.entity.CustomEmoji;
 import snw.jkook.entity.Guild;
 import snw.jkook.entity.User;
@@ -62,7 +63,7 @@ public class FileUploadIntegrationTestModule extends IntegrationTestModule {
         assertFalse(testTextChannelId.isEmpty(), "测试频道ID不能为空");
 
         try {
-            testChannel = plugin.getCore().getHttpAPI().getTextChannel(testTextChannelId);
+            testChannel = fixtures().textChannel();
             assertNotNull(testChannel, "获取测试频道失败");
 
             logger.info("测试频道验证成功: {} (ID: {})", testChannel.getName(), testChannel.getId());
@@ -154,7 +155,7 @@ public class FileUploadIntegrationTestModule extends IntegrationTestModule {
             assertNotNull(testGuildId, "测试服务器ID未配置");
             assertFalse(testGuildId.isEmpty(), "测试服务器ID不能为空");
 
-            Guild guild = plugin.getCore().getHttpAPI().getGuild(testGuildId);
+            Guild guild = fixtures().guild();
             assertNotNull(guild, "获取测试服务器失败");
 
             // 验证Guild对象基本属性
@@ -173,7 +174,7 @@ public class FileUploadIntegrationTestModule extends IntegrationTestModule {
             assertNotNull(testGuildId, "测试服务器ID未配置");
             assertFalse(testGuildId.isEmpty(), "测试服务器ID不能为空");
 
-            Guild guild = plugin.getCore().getHttpAPI().getGuild(testGuildId);
+            Guild guild = fixtures().guild();
 
             // 注意：getCustomEmojis() 返回 PageIterator<Set<CustomEmoji>>，不是 Collection
             logger.info("注意：自定义表情列表使用 PageIterator 分页获取");
@@ -210,17 +211,11 @@ public class FileUploadIntegrationTestModule extends IntegrationTestModule {
         if (autoCleanup && !createdMessageIds.isEmpty()) {
             logger.info("清理 {} 条文件上传测试消息...", createdMessageIds.size());
 
-            for (String messageId : createdMessageIds) {
-                try {
-                    var message = plugin.getCore().getHttpAPI().getTextChannelMessage(messageId);
-                    if (message != null) {
-                        message.delete();
-                        logger.debug("已删除消息: {}", messageId);
-                    }
-                } catch (Exception e) {
-                    logger.warn("清理消息 {} 时发生错误: {}", messageId, e.getMessage());
-                }
+            MessageCleanupPipeline.Result result = MessageCleanupPipeline.fromConfig(plugin).run(createdMessageIds);
+            if (!result.getFailed().isEmpty()) {
+                logger.warn("{} 条消息清理失败: {}", result.getFailed().size(), result.getFirstError());
             }
+            logger.info("文件上传测试消息清理完成: {}", result);
 
             createdMessageIds.clear();
         }
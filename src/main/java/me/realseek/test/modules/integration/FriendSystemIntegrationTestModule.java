@@ -44,7 +44,7 @@ public class FriendSystemIntegrationTestModule extends IntegrationTestModule {
         assertFalse(testUserId.isEmpty(), "测试用户ID不能为空");
 
         try {
-            targetUser = plugin.getCore().getHttpAPI().getUser(testUserId);
+            targetUser = fixtures().user();
             assertNotNull(targetUser, "获取测试用户失败");
 
             logger.info("目标用户验证成功: {} (ID: {})", targetUser.getName(), targetUser.getId());
@@ -45,7 +45,7 @@ public class GuildIntegrationTestModule extends IntegrationTestModule {
             return;
         }
 
-        Guild guild = plugin.getCore().getHttpAPI().getGuild(testGuildId);
+        Guild guild = fixtures().guild();
         assertNotNull(guild, "测试服务器不应为 null");
 
         // 只读测试（无副作用）
@@ -59,6 +59,8 @@ public class GuildIntegrationTestModule extends IntegrationTestModule {
         if (canExecuteSideEffects()) {
             runTest("创建文本频道", () -> testCreateTextChannel(guild));
             runTest("创建角色", () -> testCreateRole(guild));
+            // 服务器的频道与角色已变化，之后的模块重新获取
+            fixtures().invalidate(IntegrationFixtures.Kind.GUILD);
         }
     }
 
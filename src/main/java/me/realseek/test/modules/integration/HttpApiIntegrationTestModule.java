@@ -1,5 +1,6 @@
 package me.realseek.test.modules.integration;
 
+import me.realseek.test.benchmark.EndpointProfiler;
 import snw.jkook.HttpAPI;
 import snw.jkook.entity.Guild;
 import snw.jkook.entity.User;
@@ -13,6 +14,9 @@ import java.util.Set;
 /**
  * HttpAPI 集成测试模块
  * 测试 HttpAPI 的真实请求功能
+ * <p>
+ * 启用 integration-test.profiling.enabled 后，会先对每个端点反复调用并统计延迟分布，
+ * 延迟表写入测试报告的「HttpAPI 端点延迟」段落。
  */
 public class HttpApiIntegrationTestModule extends IntegrationTestModule {
 
@@ -26,6 +30,12 @@ public class HttpApiIntegrationTestModule extends IntegrationTestModule {
         return "测试 HttpAPI 的真实请求功能，包括获取服务器、用户、频道等";
     }
 
+    @Override
+    protected boolean usesSharedFixtures() {
+        // 端点延迟分析需要自己发出冷调用
+        return false;
+    }
+
     @Override
     protected void executeTests() {
         if (!isIntegrationEnabled()) {
@@ -40,6 +50,12 @@ public class HttpApiIntegrationTestModule extends IntegrationTestModule {
         HttpAPI api = plugin.getCore().getHttpAPI();
         assertNotNull(api, "HttpAPI 不应为 null");
 
+        // 延迟分析放在功能测试之前；本模块不使用共享实体，且先于其他集成测试模块运行，
+        // 统一运行时共享实体要到之后的模块开始运行才获取，冷调用不会命中因预先获取而写入的 KookBC 实体缓存
+        if (plugin.getConfig().getBoolean("integration-test.profiling.enabled", false)) {
+            runTest("端点延迟分布", () -> testProfileEndpoints(api));
+        }
+
         runTest("获取当前用户（Bot）信息", () -> testGetBotUser(api));
         runTest("获取已加入的服务器列表", () -> testGetJoinedGuilds(api));
         runTest("根据 ID 获取服务器", () -> testGetGuild(api));
@@ -56,6 +72,42 @@ public class HttpApiIntegrationTestModule extends IntegrationTestModule {
         runTest("获取已加入的语音频道列表", () -> testGetJoinedVoiceChannels(api));
     }
 
+    private void testProfileEndpoints(HttpAPI api) {
+        int iterations = plugin.getConfig().getInt("integration-test.profiling.iterations", 50);
+        long intervalMillis = plugin.getConfig().getInt("integration-test.profiling.interval-ms", 50);
+        EndpointProfiler profiler = new EndpointProfiler(iterations, intervalMillis);
+        logger.info("端点延迟分析: 每个端点 1 次冷调用 + {} 次热调用，间隔 {}ms", iterations, intervalMillis);
+
+        profiler.profile("getJoinedGuilds", () -> firstPage(api.getJoinedGuilds()));
+        profiler.profile("getGuild", () -> api.getGuild(testGuildId));
+        profiler.profile("getTextChannel", () -> api.getTextChannel(testTextChannelId));
+        if (testVoiceChannelId != null && !testVoiceChannelId.isEmpty()) {
+            profiler.profile("getVoiceChannel", () -> api.getVoiceChannel(testVoiceChannelId));
+        }
+        if (testUserId != null && !testUserId.isEmpty()) {
+            profiler.profile("getUser", () -> api.getUser(testUserId));
+        }
+        profiler.profile("getJoinedVoiceChannels", () -> firstPage(api.getJoinedVoiceChannels()));
+
+        for (EndpointProfiler.EndpointLatency latency : profiler.getResults()) {
+            logger.info("  {}", latency);
+        }
+        setReportSection("HttpAPI 端点延迟", profiler.formatTable());
+
+        EndpointProfiler.EndpointLatency slowest = profiler.slowest();
+        if (slowest != null) {
+            addDetail("最慢端点 " + slowest.getEndpoint() + " p95=" + EndpointProfiler.millis(slowest.getWarm().getP95()));
+        }
+        for (EndpointProfiler.EndpointLatency latency : profiler.getResults()) {
+            assertTrue(latency.getErrors() == 0,
+                    latency.getEndpoint() + " 有 " + latency.getErrors() + " 次调用失败: " + latency.getFirstError());
+        }
+    }
+
+    private static <T> T firstPage(PageIterator<T> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
     private void testGetBotUser(HttpAPI api) {
         User botUser = plugin.getCore().getUser();
         assertNotNull(botUser, "Bot 用户不应为 null");
@@ -0,0 +1,191 @@
+package me.realseek.test.modules.integration;
+
+import org.slf4j.Logger;
+import snw.jkook.config.ConfigurationSection;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 集成测试配置快照
+ * <p>
+ * 从 config.yml 的 integration-test 节点读取一次，所有集成测试模块共享同一个不可变实例。
+ * 配置文件变更时由 {@link IntegrationConfigWatcher} 重新读取并整体替换，
+ * 模块在每次运行开始时取当前快照，一次运行内看到的配置始终一致。
+ * <p>
+ * 运行时覆盖的测试目标 ID（如模拟服务器的固定数据）与配置文件分开保存，
+ * 每次重新读取配置文件后都会重新应用，直到覆盖被清除。
+ */
+public final class IntegrationConfig {
+    private static final IntegrationConfig DEFAULT = new IntegrationConfig(false, "", "", "", "", false, true);
+    private static final AtomicReference<IntegrationConfig> CURRENT = new AtomicReference<>(DEFAULT);
+    private static final Object LOCK = new Object();
+    /**
+     * 最近一次从配置文件读取的快照，不含运行时覆盖
+     */
+    private static IntegrationConfig loaded = DEFAULT;
+    private static IntegrationConfig targetOverride;
+
+    private final boolean enabled;
+    private final String guildId;
+    private final String textChannelId;
+    private final String voiceChannelId;
+    private final String userId;
+    private final boolean allowSideEffects;
+    private final boolean autoCleanup;
+
+    private IntegrationConfig(boolean enabled, String guildId, String textChannelId, String voiceChannelId,
+                              String userId, boolean allowSideEffects, boolean autoCleanup) {
+        this.enabled = enabled;
+        this.guildId = guildId;
+        this.textChannelId = textChannelId;
+        this.voiceChannelId = voiceChannelId;
+        this.userId = userId;
+        this.allowSideEffects = allowSideEffects;
+        this.autoCleanup = autoCleanup;
+    }
+
+    /**
+     * 从配置根节点读取 integration-test 节点
+     */
+    public static IntegrationConfig from(ConfigurationSection config) {
+        return new IntegrationConfig(
+                config.getBoolean("integration-test.enabled", false),
+                config.getString("integration-test.test-guild-id", ""),
+                config.getString("integration-test.test-text-channel-id", ""),
+                config.getString("integration-test.test-voice-channel-id", ""),
+                config.getString("integration-test.test-user-id", ""),
+                config.getBoolean("integration-test.allow-side-effects", false),
+                config.getBoolean("integration-test.auto-cleanup", true)
+        );
+    }
+
+    /**
+     * 复制当前配置并替换测试目标 ID，例如指向本地模拟服务器的固定数据
+     */
+    public IntegrationConfig withTargets(String guildId, String textChannelId, String voiceChannelId, String userId) {
+        return new IntegrationConfig(enabled, guildId, textChannelId, voiceChannelId, userId, allowSideEffects, autoCleanup);
+    }
+
+    /**
+     * 获取当前快照
+     */
+    public static IntegrationConfig current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 替换从配置文件读取的快照，存在运行时覆盖时在其上重新应用覆盖的测试目标，内容有变化时输出新配置
+     *
+     * @return 当前快照是否发生变化
+     */
+    public static boolean update(IntegrationConfig config, Logger logger) {
+        synchronized (LOCK) {
+            loaded = config;
+            return apply(logger);
+        }
+    }
+
+    /**
+     * 在运行时覆盖测试目标 ID，配置文件重新加载后仍然生效，直到调用 {@link #clearTargetOverride}
+     *
+     * @return 当前快照是否发生变化
+     */
+    public static boolean overrideTargets(String guildId, String textChannelId, String voiceChannelId, String userId,
+                                          Logger logger) {
+        synchronized (LOCK) {
+            targetOverride = DEFAULT.withTargets(guildId, textChannelId, voiceChannelId, userId);
+            return apply(logger);
+        }
+    }
+
+    /**
+     * 清除运行时覆盖，恢复最近一次从配置文件读取的测试目标 ID
+     *
+     * @return 当前快照是否发生变化
+     */
+    public static boolean clearTargetOverride(Logger logger) {
+        synchronized (LOCK) {
+            targetOverride = null;
+            return apply(logger);
+        }
+    }
+
+    private static boolean apply(Logger logger) {
+        IntegrationConfig override = targetOverride;
+        IntegrationConfig config = override == null ? loaded : loaded.withTargets(override.guildId,
+                override.textChannelId, override.voiceChannelId, override.userId);
+        IntegrationConfig previous = CURRENT.getAndSet(config);
+        if (config.equals(previous)) {
+            return false;
+        }
+        config.log(logger);
+        if (override != null) {
+            logger.info("测试目标 ID 已在运行时覆盖，配置文件中的 ID 在覆盖清除后恢复");
+        }
+        return true;
+    }
+
+    private void log(Logger logger) {
+        if (!enabled) {
+            logger.info("集成测试未启用");
+            return;
+        }
+        logger.info("集成测试已启用");
+        logger.info("测试服务器 ID: {}", guildId.isEmpty() ? "未配置" : guildId);
+        logger.info("测试频道 ID: {}", textChannelId.isEmpty() ? "未配置" : textChannelId);
+        logger.info("允许副作用: {}", allowSideEffects);
+        logger.info("自动清理: {}", autoCleanup);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getGuildId() {
+        return guildId;
+    }
+
+    public String getTextChannelId() {
+        return textChannelId;
+    }
+
+    public String getVoiceChannelId() {
+        return voiceChannelId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public boolean isAllowSideEffects() {
+        return allowSideEffects;
+    }
+
+    public boolean isAutoCleanup() {
+        return autoCleanup;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntegrationConfig)) {
+            return false;
+        }
+        IntegrationConfig that = (IntegrationConfig) o;
+        return enabled == that.enabled
+                && allowSideEffects == that.allowSideEffects
+                && autoCleanup == that.autoCleanup
+                && guildId.equals(that.guildId)
+                && textChannelId.equals(that.textChannelId)
+                && voiceChannelId.equals(that.voiceChannelId)
+                && userId.equals(that.userId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(enabled, guildId, textChannelId, voiceChannelId, userId, allowSideEffects, autoCleanup);
+    }
+}
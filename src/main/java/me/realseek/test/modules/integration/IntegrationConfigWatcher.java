@@ -0,0 +1,111 @@
+package me.realseek.test.modules.integration;
+
+import org.slf4j.Logger;
+import snw.jkook.config.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 监听插件数据目录下的 config.yml，变更后重新读取集成测试配置并替换 {@link IntegrationConfig} 快照
+ * <p>
+ * 编辑器保存文件时往往连续产生多次事件，收到事件后等待一小段时间合并，每次变更只解析一次文件。
+ * 只更新集成测试配置快照，不影响插件其他配置。
+ */
+public class IntegrationConfigWatcher implements Runnable {
+    private static final String CONFIG_FILE = "config.yml";
+    /**
+     * 合并连续写入事件的等待时间
+     */
+    private static final long DEBOUNCE_MILLIS = 300;
+
+    private final File dataFolder;
+    private final Logger logger;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    private IntegrationConfigWatcher(File dataFolder, Logger logger) throws IOException {
+        this.dataFolder = dataFolder;
+        this.logger = logger;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        dataFolder.toPath().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this, "integration-config-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * 开始监听数据目录
+     *
+     * @throws IOException 无法注册文件监听
+     */
+    public static IntegrationConfigWatcher start(File dataFolder, Logger logger) throws IOException {
+        IntegrationConfigWatcher watcher = new IntegrationConfigWatcher(dataFolder, logger);
+        watcher.thread.start();
+        return watcher;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                boolean changed = containsConfigEvent(key);
+                key.reset();
+                if (!changed) {
+                    continue;
+                }
+
+                // 合并保存文件时产生的后续事件
+                WatchKey next;
+                while ((next = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    next.pollEvents();
+                    next.reset();
+                }
+                reload();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // 已关闭
+        }
+    }
+
+    private boolean containsConfigEvent(WatchKey key) {
+        boolean found = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path && CONFIG_FILE.equals(((Path) event.context()).toString())) {
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    private void reload() {
+        File file = new File(dataFolder, CONFIG_FILE);
+        try {
+            YamlConfiguration config = new YamlConfiguration();
+            config.load(file);
+            if (IntegrationConfig.update(IntegrationConfig.from(config), logger)) {
+                logger.info("检测到 {} 变更，集成测试配置已重新加载", CONFIG_FILE);
+            }
+        } catch (Exception e) {
+            // 文件可能正在写入或格式有误，保留当前快照
+            logger.warn("重新加载 {} 失败，继续使用当前集成测试配置: {}", CONFIG_FILE, e.getMessage());
+        }
+    }
+
+    /**
+     * 停止监听
+     */
+    public void close() {
+        thread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.warn("关闭配置文件监听失败: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package me.realseek.test.modules.integration;
+
+import snw.jkook.HttpAPI;
+import snw.jkook.entity.Guild;
+import snw.jkook.entity.User;
+import snw.jkook.entity.channel.TextChannel;
+import snw.jkook.entity.channel.VoiceChannel;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一次测试运行内共享的集成测试实体
+ * <p>
+ * 运行开始时登记实例，第一个使用共享实体的模块开始运行时按 {@link IntegrationConfig} 并发获取测试服务器、
+ * 文本/语音频道和测试用户，之后各集成测试模块直接复用，不再各自重复请求。
+ * 在此之前运行的模块（如测量冷调用的 HttpAPI 集成测试）不会命中预先获取的实体。
+ * 修改了实体的测试（如在服务器中创建频道、角色）应调用 {@link #invalidate}，下一次访问时重新获取。
+ * 运行结束后调用 {@link #end()} 释放。
+ * <p>
+ * 单独运行某个集成测试模块时，模块会为这次运行创建自己的实例，不影响当前运行的实例。
+ */
+public final class IntegrationFixtures {
+    private static final AtomicReference<IntegrationFixtures> CURRENT = new AtomicReference<>();
+    private static final long RESOLVE_TIMEOUT_SECONDS = 30;
+
+    /**
+     * 共享实体种类
+     */
+    public enum Kind {
+        GUILD("服务器"),
+        TEXT_CHANNEL("文本频道"),
+        VOICE_CHANNEL("语音频道"),
+        USER("用户");
+
+        private final String displayName;
+
+        Kind(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private final Resolver resolver;
+    private final IntegrationConfig config;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Kind, CompletableFuture<Object>> entries = new EnumMap<>(Kind.class);
+    private final Map<Kind, LongAdder> resolutions = new EnumMap<>(Kind.class);
+    private final Map<Kind, LongAdder> accesses = new EnumMap<>(Kind.class);
+    private final Map<Kind, LongAdder> invalidations = new EnumMap<>(Kind.class);
+
+    private IntegrationFixtures(Resolver resolver, IntegrationConfig config) {
+        this.resolver = resolver;
+        this.config = config;
+        for (Kind kind : Kind.values()) {
+            resolutions.put(kind, new LongAdder());
+            accesses.put(kind, new LongAdder());
+            invalidations.put(kind, new LongAdder());
+        }
+    }
+
+    /**
+     * 开始一次运行：创建实例并登记为当前运行的实例，替换之前的实例；实体在 {@link #prefetch()} 或首次访问时获取
+     */
+    public static IntegrationFixtures begin(HttpAPI api, IntegrationConfig config) {
+        IntegrationFixtures fixtures = new IntegrationFixtures(httpResolver(api), config);
+        IntegrationFixtures previous = CURRENT.getAndSet(fixtures);
+        if (previous != null) {
+            previous.close();
+        }
+        return fixtures;
+    }
+
+    /**
+     * 创建不登记为当前运行的实例并开始并发获取，用完后需调用 {@link #close()}
+     */
+    static IntegrationFixtures open(HttpAPI api, IntegrationConfig config) {
+        IntegrationFixtures fixtures = create(config, httpResolver(api));
+        fixtures.prefetch();
+        return fixtures;
+    }
+
+    /**
+     * 使用指定的获取方式创建不登记的实例，不立即获取，用完后需调用 {@link #close()}
+     */
+    public static IntegrationFixtures create(IntegrationConfig config, Resolver resolver) {
+        return new IntegrationFixtures(resolver, config);
+    }
+
+    private static Resolver httpResolver(HttpAPI api) {
+        return (kind, id) -> {
+            switch (kind) {
+                case GUILD:
+                    return api.getGuild(id);
+                case TEXT_CHANNEL:
+                    return api.getTextChannel(id);
+                case VOICE_CHANNEL:
+                    return api.getVoiceChannel(id);
+                default:
+                    return api.getUser(id);
+            }
+        };
+    }
+
+    /**
+     * 当前运行的实例，没有进行中的运行时返回 null
+     */
+    public static IntegrationFixtures current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 结束运行并释放当前实例
+     *
+     * @return 被释放的实例，没有时返回 null
+     */
+    public static IntegrationFixtures end() {
+        IntegrationFixtures fixtures = CURRENT.getAndSet(null);
+        if (fixtures != null) {
+            fixtures.close();
+        }
+        return fixtures;
+    }
+
+    /**
+     * 结束运行，只有当前实例仍是 fixtures 时才释放
+     */
+    public static void end(IntegrationFixtures fixtures) {
+        if (CURRENT.compareAndSet(fixtures, null)) {
+            fixtures.close();
+        }
+    }
+
+    public IntegrationConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * 开始并发获取所有已配置且尚未获取的实体，不等待结果
+     */
+    public void prefetch() {
+        for (Kind kind : Kind.values()) {
+            if (isConfigured(kind)) {
+                entry(kind);
+            }
+        }
+    }
+
+    public Guild guild() {
+        return get(Kind.GUILD, Guild.class);
+    }
+
+    public TextChannel textChannel() {
+        return get(Kind.TEXT_CHANNEL, TextChannel.class);
+    }
+
+    /**
+     * 未配置语音频道时返回 null
+     */
+    public VoiceChannel voiceChannel() {
+        return get(Kind.VOICE_CHANNEL, VoiceChannel.class);
+    }
+
+    /**
+     * 未配置测试用户时返回 null
+     */
+    public User user() {
+        return get(Kind.USER, User.class);
+    }
+
+    /**
+     * 丢弃已获取的实体，下一次访问时重新请求
+     */
+    public void invalidate(Kind kind) {
+        synchronized (entries) {
+            CompletableFuture<Object> removed = entries.remove(kind);
+            if (removed != null) {
+                invalidations.get(kind).increment();
+            }
+        }
+    }
+
+    /**
+     * 实际发出的获取请求总数
+     */
+    public long getResolutionCount() {
+        return resolutions.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * 模块访问共享实体的总次数
+     */
+    public long getAccessCount() {
+        return accesses.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * 生成报告文本行：每种实体的访问次数、实际请求次数与失效次数
+     */
+    public List<String> formatReport() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%-8s %-8s %-8s %s", "实体", "访问", "请求", "失效"));
+        for (Kind kind : Kind.values()) {
+            lines.add(String.format("%-8s %-8d %-8d %d", kind.getDisplayName(),
+                    accesses.get(kind).sum(), resolutions.get(kind).sum(), invalidations.get(kind).sum()));
+        }
+        long saved = Math.max(0, getAccessCount() - getResolutionCount());
+        lines.add("共享实体节省了约 " + saved + " 次重复请求");
+        return lines;
+    }
+
+    private <T> T get(Kind kind, Class<T> type) {
+        if (!isConfigured(kind)) {
+            return null;
+        }
+        accesses.get(kind).increment();
+        CompletableFuture<Object> future = entry(kind);
+        try {
+            return type.cast(future.get(RESOLVE_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        } catch (ExecutionException e) {
+            // 获取失败不缓存，下一次访问重新请求
+            synchronized (entries) {
+                entries.remove(kind, future);
+            }
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("获取" + kind.getDisplayName() + "失败: " + cause.getMessage(), cause);
+        } catch (TimeoutException e) {
+            // 卡住的请求同样不缓存，否则之后的每次访问都会等满超时
+            synchronized (entries) {
+                entries.remove(kind, future);
+            }
+            throw new IllegalStateException("获取" + kind.getDisplayName() + "超时", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("获取" + kind.getDisplayName() + "被中断", e);
+        }
+    }
+
+    private CompletableFuture<Object> entry(Kind kind) {
+        synchronized (entries) {
+            return entries.computeIfAbsent(kind, key -> {
+                resolutions.get(key).increment();
+                return CompletableFuture.supplyAsync(() -> resolve(key), executor);
+            });
+        }
+    }
+
+    private Object resolve(Kind kind) {
+        String id = idOf(kind);
+        Object entity = resolver.resolve(kind, id);
+        if (entity == null) {
+            throw new IllegalStateException(kind.getDisplayName() + " " + id + " 不存在");
+        }
+        return entity;
+    }
+
+    private String idOf(Kind kind) {
+        switch (kind) {
+            case GUILD:
+                return config.getGuildId();
+            case TEXT_CHANNEL:
+                return config.getTextChannelId();
+            case VOICE_CHANNEL:
+                return config.getVoiceChannelId();
+            default:
+                return config.getUserId();
+        }
+    }
+
+    private boolean isConfigured(Kind kind) {
+        return !idOf(kind).isEmpty();
+    }
+
+    /**
+     * 停止获取线程，用于 {@link #open} 和 {@link #create} 创建的实例
+     */
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 按 ID 获取一种实体，不存在时返回 null
+     */
+    @FunctionalInterface
+    public interface Resolver {
+        Object resolve(Kind kind, String id);
+    }
+}
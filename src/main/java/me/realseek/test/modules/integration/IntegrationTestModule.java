@@ -1,11 +1,13 @@
 package me.realseek.test.modules.integration;
 
 import me.realseek.test.BaseTestModule;
-import snw.jkook.config.file.FileConfiguration;
+import me.realseek.test.TestResult;
+
+import java.util.List;
 
 /**
  * 集成测试模块基类
- * 所有需要真实环境的测试模块都应继承此类
+ * 所有需要真实环境的测试模块都应继承此类，配置来自共享的 {@link IntegrationConfig} 快照
  */
 public abstract class IntegrationTestModule extends BaseTestModule {
     protected String testGuildId;
@@ -15,34 +17,66 @@ public abstract class IntegrationTestModule extends BaseTestModule {
     protected boolean allowSideEffects;
     protected boolean autoCleanup;
     protected boolean integrationEnabled;
+    private IntegrationFixtures fixtures;
 
     @Override
     public void initialize(snw.jkook.plugin.Plugin plugin) {
         super.initialize(plugin);
-        loadIntegrationConfig();
+        applyConfig(IntegrationConfig.current());
     }
 
     /**
-     * 加载集成测试配置
+     * 每次运行前取当前的共享配置快照，配置文件热重载后无需重启插件
      */
-    private void loadIntegrationConfig() {
-        FileConfiguration config = plugin.getConfig();
+    @Override
+    public List<TestResult> runTests() {
+        IntegrationConfig config = IntegrationConfig.current();
+        applyConfig(config);
+        if (!config.isEnabled() || config.getGuildId().isEmpty() || !usesSharedFixtures()) {
+            return super.runTests();
+        }
 
-        integrationEnabled = config.getBoolean("integration-test.enabled", false);
-        testGuildId = config.getString("integration-test.test-guild-id", "");
-        testTextChannelId = config.getString("integration-test.test-text-channel-id", "");
-        testVoiceChannelId = config.getString("integration-test.test-voice-channel-id", "");
-        testUserId = config.getString("integration-test.test-user-id", "");
-        allowSideEffects = config.getBoolean("integration-test.allow-side-effects", false);
-        autoCleanup = config.getBoolean("integration-test.auto-cleanup", true);
+        // 由 TestManager 统一运行时复用同一组实体，单独运行时为本次运行创建
+        IntegrationFixtures shared = IntegrationFixtures.current();
+        boolean owned = shared == null || !shared.getConfig().equals(config);
+        fixtures = owned ? IntegrationFixtures.open(plugin.getCore().getHttpAPI(), config) : shared;
+        fixtures.prefetch();
+        try {
+            return super.runTests();
+        } finally {
+            if (owned) {
+                fixtures.close();
+            }
+            fixtures = null;
+        }
+    }
+
+    /**
+     * 是否使用共享的测试实体；需要自己测量实体请求（冷调用、缓存命中）的模块应返回 false，
+     * 运行时不会触发共享实体的获取，{@link #fixtures()} 也不可用
+     */
+    protected boolean usesSharedFixtures() {
+        return true;
+    }
 
-        if (integrationEnabled) {
-            logger.info("集成测试已启用");
-            logger.info("测试服务器 ID: {}", testGuildId.isEmpty() ? "未配置" : testGuildId);
-            logger.info("测试频道 ID: {}", testTextChannelId.isEmpty() ? "未配置" : testTextChannelId);
-            logger.info("允许副作用: {}", allowSideEffects);
-            logger.info("自动清理: {}", autoCleanup);
+    /**
+     * 本次运行共享的测试实体，只在 {@link #executeTests()} 期间可用
+     */
+    protected IntegrationFixtures fixtures() {
+        if (fixtures == null) {
+            throw new IllegalStateException("集成测试实体只在测试运行期间可用");
         }
+        return fixtures;
+    }
+
+    private void applyConfig(IntegrationConfig config) {
+        integrationEnabled = config.isEnabled();
+        testGuildId = config.getGuildId();
+        testTextChannelId = config.getTextChannelId();
+        testVoiceChannelId = config.getVoiceChannelId();
+        testUserId = config.getUserId();
+        allowSideEffects = config.isAllowSideEffects();
+        autoCleanup = config.isAutoCleanup();
     }
 
     /**
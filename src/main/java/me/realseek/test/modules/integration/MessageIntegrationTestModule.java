@@ -1,5 +1,6 @@
 package me.realseek.test.modules.integration;
 
+import me.realseek.test.cleanup.MessageCleanupPipeline;
 import snw.jkook.entity.channel.TextChannel;
 import snw.jkook.message.TextChannelMessage;
 import snw.jkook.message.component.MarkdownComponent;
@@ -47,7 +48,7 @@ public class MessageIntegrationTestModule extends IntegrationTestModule {
             return;
         }
 
-        TextChannel channel = plugin.getCore().getHttpAPI().getTextChannel(testTextChannelId);
+        TextChannel channel = fixtures().textChannel();
         assertNotNull(channel, "测试频道不应为 null");
 
         runTest("发送纯文本消息", () -> testSendTextMessage(channel));
@@ -226,20 +227,13 @@ public class MessageIntegrationTestModule extends IntegrationTestModule {
         if (autoCleanup && !createdMessageIds.isEmpty()) {
             logger.info("清理 {} 条测试消息...", createdMessageIds.size());
 
-            for (String messageId : createdMessageIds) {
-                try {
-                    TextChannelMessage message = plugin.getCore().getHttpAPI().getTextChannelMessage(messageId);
-                    if (message != null) {
-                        message.delete();
-                        logger.debug("已删除消息: {}", messageId);
-                    }
-                } catch (Exception e) {
-                    logger.warn("清理消息 {} 时发生错误: {}", messageId, e.getMessage());
-                }
+            MessageCleanupPipeline.Result result = MessageCleanupPipeline.fromConfig(plugin).run(createdMessageIds);
+            if (!result.getFailed().isEmpty()) {
+                logger.warn("{} 条消息清理失败: {}", result.getFailed().size(), result.getFirstError());
             }
 
             createdMessageIds.clear();
-            logger.info("测试消息清理完成");
+            logger.info("测试消息清理完成: {}", result);
         }
     }
 }
@@ -1,5 +1,6 @@
 package me.realseek.test.modules.integration;
 
+import me.realseek.test.benchmark.EntityLookupTracker;
 import snw.jkook.entity.Guild;
 import snw.jkook.entity.channel.Channel;
 import snw.jkook.entity.channel.ThreadChannel;
@@ -17,9 +18,13 @@ import java.util.Set;
  *
  * 注意：ThreadChannel 在 KOOK 中是"论坛频道"，用于发布和管理帖子，
  * 不是消息线程（Discord 的 Thread）
+ *
+ * 每个用例中的服务器/频道查找都经过 {@link EntityLookupTracker}，
+ * 报告中按用例列出查找次数与估计的网络请求次数
  */
 public class ThreadChannelIntegrationTestModule extends IntegrationTestModule {
     private final List<String> createdThreadPostIds = new ArrayList<>();
+    private EntityLookupTracker lookups;
 
     @Override
     public String getName() {
@@ -31,6 +36,12 @@ public class ThreadChannelIntegrationTestModule extends IntegrationTestModule {
         return "测试论坛频道(ThreadChannel)的帖子创建、获取、分类管理等功能";
     }
 
+    @Override
+    protected boolean usesSharedFixtures() {
+        // 实体查找统计需要经过 HttpAPI 本身
+        return false;
+    }
+
     @Override
     protected void executeTests() {
         if (!isIntegrationEnabled()) {
@@ -42,16 +53,36 @@ public class ThreadChannelIntegrationTestModule extends IntegrationTestModule {
             return;
         }
 
+        lookups = new EntityLookupTracker(plugin.getConfig().getDouble("instrumentation.network-threshold-ms", 1.0));
+
         // 只读测试
-        runTest("获取论坛频道列表", this::testGetThreadChannels);
-        runTest("获取论坛频道详细信息", this::testGetThreadChannelInfo);
+        runTrackedTest("获取论坛频道列表", this::testGetThreadChannels);
+        runTrackedTest("获取论坛频道详细信息", this::testGetThreadChannelInfo);
 
         // 需要副作用权限的测试
         if (canExecuteSideEffects()) {
-            runTest("创建论坛帖子", this::testCreateThreadPost);
-            runTest("获取论坛帖子列表", this::testGetThreadPosts);
-            runTest("获取论坛分类列表", this::testGetThreadCategories);
+            runTrackedTest("创建论坛帖子", this::testCreateThreadPost);
+            runTrackedTest("获取论坛帖子列表", this::testGetThreadPosts);
+            runTrackedTest("获取论坛分类列表", this::testGetThreadCategories);
         }
+
+        logger.info("实体查找: {}", lookups.total());
+        setReportSection("实体查找缓存命中（" + getName() + "）", lookups.formatReport());
+    }
+
+    /**
+     * 执行用例并统计其中的实体查找
+     */
+    private void runTrackedTest(String testName, Runnable test) {
+        runTest(testName, () -> {
+            lookups.startCase(testName);
+            test.run();
+            addDetail(lookups.summary(testName));
+        });
+    }
+
+    private Guild lookupGuild() {
+        return lookups.lookup("getGuild", () -> plugin.getCore().getHttpAPI().getGuild(testGuildId));
     }
 
     /**
@@ -59,14 +90,14 @@ public class ThreadChannelIntegrationTestModule extends IntegrationTestModule {
      */
     private void testGetThreadChannels() {
         try {
-            Guild guild = plugin.getCore().getHttpAPI().getGuild(testGuildId);
+            Guild guild = lookupGuild();
             assertNotNull(guild, "测试服务器不应为 null");
 
             PageIterator<Set<Channel>> channels = guild.getChannels();
             assertNotNull(channels, "频道迭代器不应为 null");
 
-            if (channels.hasNext()) {
-                Set<Channel> firstPage = channels.next();
+            Set<Channel> firstPage = lookups.lookup("getChannels", () -> channels.hasNext() ? channels.next() : null);
+            if (firstPage != null) {
 
                 List<ThreadChannel> threadChannels = new ArrayList<>();
                 for (Channel channel : firstPage) {
@@ -103,7 +134,7 @@ public class ThreadChannelIntegrationTestModule extends IntegrationTestModule {
      */
     private void testGetThreadChannelInfo() {
         try {
-            Guild guild = plugin.getCore().getHttpAPI().getGuild(testGuildId);
+            Guild guild = lookupGuild();
             assertNotNull(guild, "测试服务器不应为 null");
 
             // 查找第一个论坛频道
@@ -131,7 +162,7 @@ public class ThreadChannelIntegrationTestModule extends IntegrationTestModule {
      */
     private void testCreateThreadPost() {
         try {
-            Guild guild = plugin.getCore().getHttpAPI().getGuild(testGuildId);
+            Guild guild = lookupGuild();
             assertNotNull(guild, "测试服务器不应为 null");
 
             ThreadChannel threadChannel = findFirstThreadChannel(guild);
@@ -165,7 +196,7 @@ public class ThreadChannelIntegrationTestModule extends IntegrationTestModule {
      */
     private void testGetThreadPosts() {
         try {
-            Guild guild = plugin.getCore().getHttpAPI().getGuild(testGuildId);
+            Guild guild = lookupGuild();
             assertNotNull(guild, "测试服务器不应为 null");
 
             ThreadChannel threadChannel = findFirstThreadChannel(guild);
@@ -203,7 +234,7 @@ public class ThreadChannelIntegrationTestModule extends IntegrationTestModule {
      */
     private void testGetThreadCategories() {
         try {
-            Guild guild = plugin.getCore().getHttpAPI().getGuild(testGuildId);
+            Guild guild = lookupGuild();
             assertNotNull(guild, "测试服务器不应为 null");
 
             ThreadChannel threadChannel = findFirstThreadChannel(guild);
@@ -243,8 +274,8 @@ public class ThreadChannelIntegrationTestModule extends IntegrationTestModule {
     private ThreadChannel findFirstThreadChannel(Guild guild) {
         try {
             PageIterator<Set<Channel>> channels = guild.getChannels();
-            if (channels.hasNext()) {
-                Set<Channel> firstPage = channels.next();
+            Set<Channel> firstPage = lookups.lookup("getChannels", () -> channels.hasNext() ? channels.next() : null);
+            if (firstPage != null) {
                 for (Channel channel : firstPage) {
                     if (channel instanceof ThreadChannel) {
                         return (ThreadChannel) channel;